@@ -21,6 +21,7 @@ import alluxio.client.block.BlockWorkerInfo;
 import alluxio.client.block.stream.BlockWorkerClient;
 import alluxio.client.block.stream.BlockWorkerClientPool;
 import alluxio.client.file.FileSystemContextReinitializer.ReinitBlockerResource;
+import alluxio.client.file.dora.WorkerLatencyTracker;
 import alluxio.client.metrics.MetricsHeartbeatContext;
 import alluxio.conf.AlluxioConfiguration;
 import alluxio.conf.Configuration;
@@ -32,6 +33,7 @@ import alluxio.exception.status.UnavailableException;
 import alluxio.grpc.GrpcServerAddress;
 import alluxio.master.MasterClientContext;
 import alluxio.master.MasterInquireClient;
+import alluxio.membership.MembershipListener;
 import alluxio.membership.MembershipManager;
 import alluxio.membership.NoOpMembershipManager;
 import alluxio.metrics.MetricsSystem;
@@ -45,6 +47,7 @@ import alluxio.security.authentication.AuthenticationUtils;
 import alluxio.security.user.UserState;
 import alluxio.util.CommonUtils;
 import alluxio.util.IdUtils;
+import alluxio.util.ThreadFactoryUtils;
 import alluxio.util.network.NetworkAddressUtils;
 import alluxio.wire.WorkerInfo;
 import alluxio.wire.WorkerNetAddress;
@@ -64,9 +67,13 @@ import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import javax.annotation.Nullable;
@@ -185,8 +192,39 @@ public class FileSystemContext implements Closeable {
   @GuardedBy("mWorkerInfoList")
   private final RefreshPolicy mWorkerRefreshPolicy;
 
+  /**
+   * Whether the live workers are tracked by a subscription to the membership manager. The
+   * workers joining are then added to {@link #mWorkerInfoList} as soon as they are known,
+   * instead of on the next refresh by {@link #mWorkerRefreshPolicy}.
+   */
+  private volatile boolean mWorkerListWatched;
+
+  /** The workers known to be live, maintained when {@link #mWorkerListWatched}. */
+  private final Set<WorkerNetAddress> mLiveWorkers = ConcurrentHashMap.newKeySet();
+
+  /** Applies the changes of the live workers to {@link #mLiveWorkers}. */
+  private final MembershipListener mWorkerListUpdater = new MembershipListener() {
+    @Override
+    public void onJoin(WorkerInfo worker) {
+      updateWatchedWorker(worker, true);
+    }
+
+    @Override
+    public void onLeave(WorkerInfo worker) {
+      updateWatchedWorker(worker, false);
+    }
+  };
+
   private final List<InetSocketAddress> mMasterAddresses;
 
+  /** The latency of the reads served by each worker. */
+  private final WorkerLatencyTracker mWorkerLatencyTracker = new WorkerLatencyTracker();
+
+  /** The executor running hedged reads, created on first use. */
+  @Nullable
+  @GuardedBy("this")
+  private ScheduledThreadPoolExecutor mHedgedReadExecutor;
+
   /**
    * FileSystemContextFactory, it can be extended.
    */
@@ -446,6 +484,16 @@ public class FileSystemContext implements Closeable {
     mBlockWorkerClientPoolMap = new ConcurrentHashMap<>();
     mUriValidationEnabled = ctx.getUriValidationEnabled();
     mMembershipManager = MembershipManager.Factory.create(getClusterConf());
+    mWorkerListWatched = false;
+    mLiveWorkers.clear();
+    if (getClusterConf().getBoolean(PropertyKey.USER_WORKER_LIST_WATCH_ENABLED)) {
+      try {
+        mWorkerListWatched = mMembershipManager.subscribe(mWorkerListUpdater);
+      } catch (IOException | RuntimeException e) {
+        LOG.warn("Failed to watch the live workers, falling back to refreshing the worker list "
+            + "every {}", getClusterConf().get(PropertyKey.USER_WORKER_LIST_REFRESH_INTERVAL), e);
+      }
+    }
   }
 
   /**
@@ -493,6 +541,10 @@ public class FileSystemContext implements Closeable {
       if (mMetricsEnabled) {
         MetricsHeartbeatContext.removeHeartbeat(getClientContext());
       }
+      if (mHedgedReadExecutor != null) {
+        mHedgedReadExecutor.shutdownNow();
+        mHedgedReadExecutor = null;
+      }
       LOG.debug("Closing membership manager.");
       try (AutoCloseable ignoredCloser = mMembershipManager) {
         // do nothing as we are closing
@@ -832,24 +884,78 @@ public class FileSystemContext implements Closeable {
     return mLocalWorker;
   }
 
+  /**
+   * @return the tracker of the latency of the reads served by each worker
+   */
+  public WorkerLatencyTracker getWorkerLatencyTracker() {
+    return mWorkerLatencyTracker;
+  }
+
+  /**
+   * @return the executor running hedged reads, shut down when the context is closed
+   */
+  public synchronized ScheduledExecutorService getHedgedReadExecutor() {
+    if (mHedgedReadExecutor == null) {
+      mHedgedReadExecutor = new ScheduledThreadPoolExecutor(
+          getClusterConf().getInt(PropertyKey.DORA_CLIENT_READ_HEDGE_THREADS),
+          ThreadFactoryUtils.build("dora-hedged-read-%d", true));
+      // hedges of reads completing in time are cancelled, do not keep them until their delay
+      mHedgedReadExecutor.setRemoveOnCancelPolicy(true);
+    }
+    return mHedgedReadExecutor;
+  }
+
   /**
    * Gets the cached worker information list.
    * This method is relatively cheap as the result is cached, but may not
    * be up-to-date. If up-to-date worker info list is required,
-   * use {@link #getAllWorkers()} instead.
+   * use {@link #getAllWorkers()} instead. The list holds all the registered workers,
+   * including the offline ones, so that the placement on the hash ring does not change when a
+   * worker restarts. If {@link PropertyKey#USER_WORKER_LIST_WATCH_ENABLED} is enabled and
+   * supported by the membership manager, the workers joining are added as soon as they are
+   * known, and {@link #isWorkerLive} tells the workers currently live.
    *
    * @return the info of all block workers eligible for reads and writes
    */
   public List<BlockWorkerInfo> getCachedWorkers() throws IOException {
     synchronized (mWorkerInfoList) {
       if (mWorkerInfoList.get() == null || mWorkerInfoList.get().isEmpty()
-          || mWorkerRefreshPolicy.attempt()) {
+          || (!mWorkerListWatched && mWorkerRefreshPolicy.attempt())) {
         mWorkerInfoList.set(getAllWorkers());
       }
       return mWorkerInfoList.get();
     }
   }
 
+  /**
+   * @param address the address of a worker
+   * @return false if the worker is known to be offline, true otherwise
+   */
+  public boolean isWorkerLive(WorkerNetAddress address) {
+    return !mWorkerListWatched || mLiveWorkers.contains(address);
+  }
+
+  private void updateWatchedWorker(WorkerInfo worker, boolean live) {
+    if (!live) {
+      // the worker stays on the ring so that its keys are not reassigned while it restarts
+      mLiveWorkers.remove(worker.getAddress());
+      return;
+    }
+    mLiveWorkers.add(worker.getAddress());
+    synchronized (mWorkerInfoList) {
+      List<BlockWorkerInfo> workers = mWorkerInfoList.get();
+      // until the list is loaded, the worker is picked up with all the registered members
+      if (workers == null || workers.stream()
+          .anyMatch(w -> w.getNetAddress().equals(worker.getAddress()))) {
+        return;
+      }
+      workers = new ArrayList<>(workers);
+      workers.add(new BlockWorkerInfo(
+          worker.getAddress(), worker.getCapacityBytes(), worker.getUsedBytes()));
+      mWorkerInfoList.set(Collections.unmodifiableList(workers));
+    }
+  }
+
   /**
    * Gets the worker information list.
    * This method is more expensive than {@link #getCachedWorkers()}.
@@ -306,6 +306,46 @@ public interface CacheManager extends AutoCloseable, CacheStatus {
   int getAndLoad(PageId pageId, int pageOffset, int bytesToRead,
       ReadTargetBuffer buffer, CacheContext cacheContext, Supplier<byte[]> externalDataSupplier);
 
+  /**
+   * Reads a range spanning consecutive pages of a file, as far as the pages are found in the
+   * cache, stores the result in buffer. Implementations may read the pages concurrently.
+   *
+   * @param pageIds identifiers of the consecutive pages of the range
+   * @param pageOffset offset into the first page
+   * @param bytesToRead number of bytes to read, ending in the last page
+   * @param pageSize size of the pages, all full but the last one
+   * @param buffer destination buffer to write
+   * @param cacheContext cache related context
+   * @return number of bytes read from the pages found before the first page not found,
+   *         0 if the first page is not found, -1 on errors
+   */
+  default int getPages(List<PageId> pageIds, int pageOffset, int bytesToRead, long pageSize,
+      ReadTargetBuffer buffer, CacheContext cacheContext) {
+    int totalBytesRead = 0;
+    int offset = pageOffset;
+    for (PageId pageId : pageIds) {
+      int length = (int) Math.min(bytesToRead - totalBytesRead, pageSize - offset);
+      int bytesRead = get(pageId, offset, length, buffer, cacheContext);
+      if (bytesRead <= 0) {
+        return totalBytesRead > 0 ? totalBytesRead : bytesRead;
+      }
+      totalBytesRead += bytesRead;
+      if (bytesRead < length) {
+        break;
+      }
+      offset = 0;
+    }
+    return totalBytesRead;
+  }
+
+  /**
+   * @return whether {@link #getPages} reads the pages of a range concurrently, so that it is
+   *         worth reading a range through it rather than one page at a time
+   */
+  default boolean isConcurrentPageReadEnabled() {
+    return false;
+  }
+
   /**
    * Get page ids by the given file id.
    * @param fileId file identifier
@@ -26,6 +26,10 @@ public class CacheManagerOptions {
   private boolean mAsyncWriteEnabled;
   private int mAsyncWriteThreads;
   private CacheEvictorOptions mCacheEvictorOptions;
+  private boolean mChecksumEnabled;
+  private double mChecksumReadVerificationRatio;
+  private long mChecksumScrubIntervalMs;
+  private long mChecksumScrubRate;
   private int mMaxEvictionRetries;
   private long mPageSize;
   private List<PageStoreOptions> mPageStoreOptions;
@@ -81,6 +85,12 @@ public class CacheManagerOptions {
         .setMaxEvictionRetries(conf.getInt(PropertyKey.WORKER_PAGE_STORE_EVICTION_RETRIES))
         .setPageSize(conf.getBytes(PropertyKey.WORKER_PAGE_STORE_PAGE_SIZE))
         .setQuotaEnabled(conf.getBoolean(PropertyKey.WORKER_PAGE_STORE_QUOTA_ENABLED))
+        .setChecksumEnabled(conf.getBoolean(PropertyKey.WORKER_PAGE_STORE_CHECKSUM_ENABLED))
+        .setChecksumReadVerificationRatio(
+            conf.getDouble(PropertyKey.WORKER_PAGE_STORE_CHECKSUM_READ_VERIFICATION_RATIO))
+        .setChecksumScrubIntervalMs(
+            conf.getMs(PropertyKey.WORKER_PAGE_STORE_CHECKSUM_SCRUB_INTERVAL))
+        .setChecksumScrubRate(conf.getBytes(PropertyKey.WORKER_PAGE_STORE_CHECKSUM_SCRUB_RATE))
         .setCacheEvictorOptions(cacheEvictorOptions)
         .setPageStoreOptions(PageStoreOptions.createForWorkerPageStore(conf));
     return options;
@@ -142,6 +152,34 @@ public class CacheManagerOptions {
     return mTtlThresholdSeconds;
   }
 
+  /**
+   * @return if page checksums are enabled
+   */
+  public boolean isChecksumEnabled() {
+    return mChecksumEnabled;
+  }
+
+  /**
+   * @return the fraction of the page reads which verify the page checksum
+   */
+  public double getChecksumReadVerificationRatio() {
+    return mChecksumReadVerificationRatio;
+  }
+
+  /**
+   * @return the interval between the starts of the scrubs of the cached pages
+   */
+  public long getChecksumScrubIntervalMs() {
+    return mChecksumScrubIntervalMs;
+  }
+
+  /**
+   * @return the maximum number of bytes per second read by the scrubber, 0 if disabled
+   */
+  public long getChecksumScrubRate() {
+    return mChecksumScrubRate;
+  }
+
   /**
    * @return max eviction retires
    */
@@ -269,4 +307,40 @@ public class CacheManagerOptions {
     mTtlThresholdSeconds = thresholdSeconds;
     return this;
   }
+
+  /**
+   * @param isChecksumEnabled
+   * @return the updated options
+   */
+  public CacheManagerOptions setChecksumEnabled(boolean isChecksumEnabled) {
+    mChecksumEnabled = isChecksumEnabled;
+    return this;
+  }
+
+  /**
+   * @param ratio the fraction of the page reads which verify the page checksum
+   * @return the updated options
+   */
+  public CacheManagerOptions setChecksumReadVerificationRatio(double ratio) {
+    mChecksumReadVerificationRatio = ratio;
+    return this;
+  }
+
+  /**
+   * @param intervalMs the interval between the starts of the scrubs of the cached pages
+   * @return the updated options
+   */
+  public CacheManagerOptions setChecksumScrubIntervalMs(long intervalMs) {
+    mChecksumScrubIntervalMs = intervalMs;
+    return this;
+  }
+
+  /**
+   * @param bytesPerSecond the maximum number of bytes per second read by the scrubber
+   * @return the updated options
+   */
+  public CacheManagerOptions setChecksumScrubRate(long bytesPerSecond) {
+    mChecksumScrubRate = bytesPerSecond;
+    return this;
+  }
 }
@@ -126,7 +126,7 @@ public class DefaultPageMetaStore implements PageMetaStore {
     for (PageInfo oldPage : pages) {
       PageId newPageId = new PageId(newFileId, oldPage.getPageId().getPageIndex());
       PageInfo newPageInfo = new PageInfo(newPageId, oldPage.getPageSize(), oldPage.getScope(),
-          oldPage.getLocalCacheDir());
+          oldPage.getLocalCacheDir(), System.currentTimeMillis(), oldPage.getChecksum());
       mPages.remove(oldPage);
       mPages.add(newPageInfo);
     }
@@ -162,6 +162,16 @@ public class DefaultPageMetaStore implements PageMetaStore {
     return pageInfo;
   }
 
+  @Override
+  @GuardedBy("getLock()")
+  public PageInfo peekPageInfo(PageId pageId) throws PageNotFoundException {
+    PageInfo pageInfo = mPages.getFirstByField(INDEX_PAGE_ID, pageId);
+    if (pageInfo == null) {
+      throw new PageNotFoundException(String.format("Page %s could not be found", pageId));
+    }
+    return pageInfo;
+  }
+
   @Override
   @GuardedBy("getLock()")
   public PageInfo removePage(PageId pageId, boolean isTemporary) throws PageNotFoundException {
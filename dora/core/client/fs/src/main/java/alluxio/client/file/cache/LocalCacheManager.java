@@ -34,10 +34,12 @@ import alluxio.metrics.MetricKey;
 import alluxio.metrics.MetricsSystem;
 import alluxio.network.protocol.databuffer.DataFileChannel;
 import alluxio.resource.LockResource;
+import alluxio.util.ThreadFactoryUtils;
 
 import com.codahale.metrics.Counter;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.RateLimiter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -48,11 +50,13 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
@@ -60,6 +64,7 @@ import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.zip.CRC32;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
@@ -88,6 +93,8 @@ public class LocalCacheManager implements CacheManager {
   private static final Logger LOG = LoggerFactory.getLogger(LocalCacheManager.class);
 
   private static final int LOCK_SIZE = 1024;
+  /** Returned by page reads when the page does not match its checksum. */
+  private static final int CORRUPT_PAGE = -2;
   private final long mCacheSize;
   /**
    * A readwrite lock pool to guard individual pages based on striping.
@@ -106,12 +113,16 @@ public class LocalCacheManager implements CacheManager {
   private final Optional<ExecutorService> mAsyncCacheExecutor;
   /** Executor service for execute the cache ttl check tasks. */
   private final Optional<ScheduledExecutorService> mTtlEnforcerExecutor;
+  /** Executor service for execute the page checksum scrubbing tasks. */
+  private final Optional<ScheduledExecutorService> mScrubberExecutor;
   private final ConcurrentHashSet<PageId> mPendingRequests;
   /**
    * State of this cache.
    */
   private final AtomicReference<CacheManager.State> mState = new AtomicReference<>();
   private final CacheManagerOptions mOptions;
+  /** Whether the page stores serve asynchronous reads, so that batches of pages are worth it. */
+  private final boolean mAsyncPageReads;
 
   /**
    * @param options       the options of local cache manager
@@ -146,6 +157,8 @@ public class LocalCacheManager implements CacheManager {
     mPageMetaStore = pageMetaStore;
     mPageStoreDirs = pageMetaStore.getStoreDirs();
     mOptions = options;
+    mAsyncPageReads = options.getPageStoreOptions().stream()
+        .anyMatch(pageStoreOptions -> pageStoreOptions.getAsyncIoQueueDepth() > 0);
     mCacheSize = mPageStoreDirs.stream().map(PageStoreDir::getCapacityBytes).reduce(0L, Long::sum);
     for (int i = 0; i < LOCK_SIZE; i++) {
       mPageLocks[i] = new ReentrantReadWriteLock(true /* fair ordering */);
@@ -175,6 +188,16 @@ public class LocalCacheManager implements CacheManager {
     } else {
       mTtlEnforcerExecutor = Optional.empty();
     }
+    if (options.isChecksumEnabled() && options.getChecksumScrubRate() > 0) {
+      RateLimiter scrubRateLimiter = RateLimiter.create(options.getChecksumScrubRate());
+      mScrubberExecutor = Optional.of(Executors.newSingleThreadScheduledExecutor(
+          ThreadFactoryUtils.build("page-scrubber-%d", true)));
+      mScrubberExecutor.get().scheduleAtFixedRate(() -> scrub(scrubRateLimiter),
+          options.getChecksumScrubIntervalMs(), options.getChecksumScrubIntervalMs(),
+          TimeUnit.MILLISECONDS);
+    } else {
+      mScrubberExecutor = Optional.empty();
+    }
     Metrics.registerGauges(mCacheSize, mPageMetaStore);
     mState.set(READ_ONLY);
     Metrics.STATE.inc();
@@ -360,8 +383,10 @@ public class LocalCacheManager implements CacheManager {
   private boolean putInternal(PageId pageId, ByteBuffer page, CacheContext cacheContext) {
     PutResult result = PutResult.OK;
     boolean forcedToEvict = false;
+    // computed before taking any lock
+    long checksum = mOptions.isChecksumEnabled() ? checksum(page) : PageInfo.NO_CHECKSUM;
     for (int i = 0; i <= mOptions.getMaxEvictionRetries(); i++) {
-      result = putAttempt(pageId, page, cacheContext, forcedToEvict);
+      result = putAttempt(pageId, page, checksum, cacheContext, forcedToEvict);
       switch (result) {
         case OK:
           return true;
@@ -412,8 +437,8 @@ public class LocalCacheManager implements CacheManager {
     }
   }
 
-  private PutResult putAttempt(PageId pageId, ByteBuffer page, CacheContext cacheContext,
-                               boolean forcedToEvict) {
+  private PutResult putAttempt(PageId pageId, ByteBuffer page, long checksum,
+                               CacheContext cacheContext, boolean forcedToEvict) {
     LOG.debug("putInternal({},{} bytes) enters", pageId, page.remaining());
     PageInfo victimPageInfo = null;
     CacheScope scopeToEvict;
@@ -431,7 +456,7 @@ public class LocalCacheManager implements CacheManager {
             cacheContext.getCacheScope(),
             cacheContext.getCacheQuota(), forcedToEvict);
         if (scopeToEvict == null) {
-          addPageToMetaStore(pageId, page, cacheContext, pageStoreDir);
+          addPageToMetaStore(pageId, page, checksum, cacheContext, pageStoreDir);
         } else {
           if (mOptions.isQuotaEnabled()) {
             victimPageInfo =
@@ -491,7 +516,7 @@ public class LocalCacheManager implements CacheManager {
         scopeToEvict = checkScopeToEvict(page.remaining(), pageStoreDir,
             cacheContext.getCacheScope(), cacheContext.getCacheQuota(), false);
         if (scopeToEvict == null) {
-          addPageToMetaStore(pageId, page, cacheContext, pageStoreDir);
+          addPageToMetaStore(pageId, page, checksum, cacheContext, pageStoreDir);
         }
       }
       // phase2: remove victim and add new page in pagestore
@@ -542,10 +567,10 @@ public class LocalCacheManager implements CacheManager {
     }
   }
 
-  private void addPageToMetaStore(PageId pageId, ByteBuffer page, CacheContext cacheContext,
-                                  PageStoreDir pageStoreDir) {
-    PageInfo pageInfo =
-        new PageInfo(pageId, page.remaining(), cacheContext.getCacheScope(), pageStoreDir);
+  private void addPageToMetaStore(PageId pageId, ByteBuffer page, long checksum,
+                                  CacheContext cacheContext, PageStoreDir pageStoreDir) {
+    PageInfo pageInfo = new PageInfo(pageId, page.remaining(), cacheContext.getCacheScope(),
+        pageStoreDir, System.currentTimeMillis(), checksum);
     if (cacheContext.isTemporary()) {
       mPageMetaStore.addTempPage(pageId, pageInfo);
     } else {
@@ -605,18 +630,11 @@ public class LocalCacheManager implements CacheManager {
         LOG.debug("get({},pageOffset={}) fails due to page not found", pageId, pageOffset);
         return 0;
       }
-      int bytesRead =
-          getPage(pageInfo, pageOffset, bytesToRead, buffer, cacheContext);
+      int bytesRead = shouldVerifyChecksum(pageInfo)
+          ? getVerifiedPage(pageInfo, pageOffset, bytesToRead, buffer, cacheContext)
+          : getPage(pageInfo, pageOffset, bytesToRead, buffer, cacheContext);
       if (bytesRead <= 0) {
-        Metrics.GET_ERRORS.inc();
-        Metrics.GET_STORE_READ_ERRORS.inc();
-        // something is wrong to read this page, let's remove it from meta store
-        try (LockResource r2 = new LockResource(mPageMetaStore.getLock().writeLock())) {
-          mPageMetaStore.removePage(pageId);
-        } catch (PageNotFoundException e) {
-          // best effort to remove this page from meta store and ignore the exception
-          Metrics.CLEANUP_GET_ERRORS.inc();
-        }
+        onPageReadError(pageInfo, bytesRead, cacheContext);
         return -1;
       }
       MetricsSystem.meter(MetricKey.CLIENT_CACHE_BYTES_READ_CACHE.getName()).mark(bytesRead);
@@ -665,6 +683,110 @@ public class LocalCacheManager implements CacheManager {
     return bytesToRead;
   }
 
+  @Override
+  public int getPages(List<PageId> pageIds, int pageOffset, int bytesToRead, long pageSize,
+      ReadTargetBuffer buffer, CacheContext cacheContext) {
+    if (!mAsyncPageReads || pageIds.size() < 2) {
+      return CacheManager.super.getPages(pageIds, pageOffset, bytesToRead, pageSize, buffer,
+          cacheContext);
+    }
+    Preconditions.checkArgument(pageSize == mOptions.getPageSize(),
+        "page size %s differs from the cache page size %s", pageSize, mOptions.getPageSize());
+    Preconditions.checkArgument(bytesToRead <= buffer.remaining(),
+        "buffer does not have enough space: bufferRemaining=%s bytesToRead=%s",
+        buffer.remaining(), bytesToRead);
+    LOG.debug("getPages({},pageOffset={},pages={}) enters", pageIds.get(0), pageOffset,
+        pageIds.size());
+    if (mState.get() == NOT_IN_USE) {
+      Metrics.GET_NOT_READY_ERRORS.inc();
+      Metrics.GET_ERRORS.inc();
+      return -1;
+    }
+    // the page locks are acquired in the order of their ids, like the page pairs of evictions
+    int[] lockIds = pageIds.stream().mapToInt(this::getPageLockId).distinct().sorted().toArray();
+    List<LockResource> locks = new ArrayList<>(lockIds.length);
+    long startTime = System.nanoTime();
+    try {
+      for (int lockId : lockIds) {
+        locks.add(new LockResource(mPageLocks[lockId].readLock()));
+      }
+      List<PageInfo> pageInfos = new ArrayList<>(pageIds.size());
+      try (LockResource r = new LockResource(mPageMetaStore.getLock().readLock())) {
+        for (PageId pageId : pageIds) {
+          pageInfos.add(mPageMetaStore.getPageInfo(pageId));
+        }
+      } catch (PageNotFoundException e) {
+        LOG.debug("getPages({},pageOffset={}) stops at a page not found", pageIds.get(0),
+            pageOffset);
+      }
+      if (pageInfos.isEmpty()) {
+        return 0;
+      }
+      // submits the reads of all the pages before waiting for any of them, each to its own
+      // part of the buffer
+      byte[] array = buffer instanceof ByteArrayTargetBuffer ? buffer.byteArray() : null;
+      List<ReadTargetBuffer> targets = new ArrayList<>(pageInfos.size());
+      List<CompletableFuture<Integer>> reads = new ArrayList<>(pageInfos.size());
+      int offset = pageOffset;
+      int bytesSubmitted = 0;
+      for (PageInfo pageInfo : pageInfos) {
+        int length = (int) Math.min(bytesToRead - bytesSubmitted, pageSize - offset);
+        ReadTargetBuffer target = array != null
+            ? new ByteArrayTargetBuffer(array, buffer.offset() + bytesSubmitted)
+            : new ByteArrayTargetBuffer(new byte[length], 0);
+        targets.add(target);
+        reads.add(shouldVerifyChecksum(pageInfo)
+            ? CompletableFuture.completedFuture(
+                getVerifiedPage(pageInfo, offset, length, target, cacheContext))
+            : getPageAsync(pageInfo, offset, length, target, cacheContext));
+        bytesSubmitted += length;
+        offset = 0;
+      }
+      int totalBytesRead = 0;
+      boolean failed = false;
+      for (int i = 0; i < reads.size(); i++) {
+        // every read completes before the locks are released, including the ones ignored
+        int bytesRead = reads.get(i).join();
+        if (failed) {
+          continue;
+        }
+        if (bytesRead <= 0) {
+          onPageReadError(pageInfos.get(i), bytesRead, cacheContext);
+          failed = true;
+          continue;
+        }
+        if (array == null) {
+          buffer.writeBytes(targets.get(i).byteArray(), 0, bytesRead);
+        }
+        totalBytesRead += bytesRead;
+      }
+      if (totalBytesRead == 0) {
+        return -1;
+      }
+      if (array != null) {
+        buffer.offset(buffer.offset() + totalBytesRead);
+      }
+      MetricsSystem.meter(MetricKey.CLIENT_CACHE_BYTES_READ_CACHE.getName())
+          .mark(totalBytesRead);
+      cacheContext.incrementCounter(MetricKey.CLIENT_CACHE_BYTES_READ_CACHE.getMetricName(), BYTE,
+          totalBytesRead);
+      LOG.debug("getPages({},pageOffset={}) exits", pageIds.get(0), pageOffset);
+      return totalBytesRead;
+    } finally {
+      for (int i = locks.size() - 1; i >= 0; i--) {
+        locks.get(i).close();
+      }
+      cacheContext.incrementCounter(
+          MetricKey.CLIENT_CACHE_PAGE_READ_CACHE_TIME_NS.getMetricName(), NANO,
+          System.nanoTime() - startTime);
+    }
+  }
+
+  @Override
+  public boolean isConcurrentPageReadEnabled() {
+    return mAsyncPageReads;
+  }
+
   /**
    * delete the specified page.
    *
@@ -875,6 +997,7 @@ public class LocalCacheManager implements CacheManager {
     mInitService.ifPresent(ExecutorService::shutdownNow);
     mAsyncCacheExecutor.ifPresent(ExecutorService::shutdownNow);
     mTtlEnforcerExecutor.ifPresent(ExecutorService::shutdownNow);
+    mScrubberExecutor.ifPresent(ExecutorService::shutdownNow);
   }
 
   /**
@@ -914,6 +1037,175 @@ public class LocalCacheManager implements CacheManager {
     return bytesToRead;
   }
 
+  /**
+   * Reads part of a page like {@link #getPage}, without waiting for the read to complete.
+   *
+   * @return a future of the number of bytes read, or -1 if the page could not be read
+   */
+  private CompletableFuture<Integer> getPageAsync(PageInfo pageInfo, int pageOffset,
+      int bytesToRead, ReadTargetBuffer target, CacheContext cacheContext) {
+    CompletableFuture<Integer> read;
+    try {
+      read = pageInfo.getLocalCacheDir().getPageStore().getAsync(pageInfo.getPageId(),
+          pageOffset, bytesToRead, target, cacheContext.isTemporary());
+    } catch (RuntimeException e) {
+      read = new CompletableFuture<>();
+      read.completeExceptionally(e);
+    }
+    return read.handle((ret, t) -> {
+      if (t != null) {
+        LOG.debug("Failed to get existing page {} from pageStore", pageInfo.getPageId(), t);
+        return -1;
+      }
+      if (ret != bytesToRead) {
+        // data read from page store is inconsistent from the metastore
+        LOG.error("Failed to read page {}: supposed to read {} bytes, {} bytes actually read",
+            pageInfo.getPageId(), bytesToRead, ret);
+        return -1;
+      }
+      return bytesToRead;
+    });
+  }
+
+  /**
+   * Removes a page which could not be read, with its page lock held.
+   *
+   * @param pageInfo the page
+   * @param bytesRead the result of the read, {@link #CORRUPT_PAGE} if the page is corrupt
+   * @param cacheContext cache related context
+   */
+  private void onPageReadError(PageInfo pageInfo, int bytesRead, CacheContext cacheContext) {
+    Metrics.GET_ERRORS.inc();
+    Metrics.GET_STORE_READ_ERRORS.inc();
+    // something is wrong to read this page, let's remove it from meta store
+    try (LockResource r = new LockResource(mPageMetaStore.getLock().writeLock())) {
+      mPageMetaStore.removePage(pageInfo.getPageId());
+    } catch (PageNotFoundException e) {
+      // best effort to remove this page from meta store and ignore the exception
+      Metrics.CLEANUP_GET_ERRORS.inc();
+    }
+    if (bytesRead == CORRUPT_PAGE) {
+      // no reader can find the page anymore, and writers wait for the page lock
+      deletePage(pageInfo, cacheContext.isTemporary());
+    }
+  }
+
+  private boolean shouldVerifyChecksum(PageInfo pageInfo) {
+    return pageInfo.getChecksum() != PageInfo.NO_CHECKSUM
+        && mOptions.getChecksumReadVerificationRatio() > 0
+        && ThreadLocalRandom.current().nextDouble() < mOptions.getChecksumReadVerificationRatio();
+  }
+
+  /**
+   * Reads part of a page like {@link #getPage}, after reading the whole page and verifying its
+   * checksum.
+   *
+   * @return the number of bytes read, -1 if the page could not be read, or
+   *         {@link #CORRUPT_PAGE} if the page does not match its checksum
+   */
+  private int getVerifiedPage(PageInfo pageInfo, int pageOffset, int bytesToRead,
+      ReadTargetBuffer target, CacheContext cacheContext) {
+    if (pageOffset + bytesToRead > pageInfo.getPageSize()) {
+      return getPage(pageInfo, pageOffset, bytesToRead, target, cacheContext);
+    }
+    byte[] page = new byte[(int) pageInfo.getPageSize()];
+    if (getPage(pageInfo, 0, page.length, new ByteArrayTargetBuffer(page, 0), cacheContext)
+        < 0) {
+      return -1;
+    }
+    if (!verifyChecksum(pageInfo, page)) {
+      return CORRUPT_PAGE;
+    }
+    target.writeBytes(page, pageOffset, bytesToRead);
+    return bytesToRead;
+  }
+
+  private static boolean verifyChecksum(PageInfo pageInfo, byte[] page) {
+    Metrics.CHECKSUM_VERIFIED_PAGES.inc();
+    CRC32 crc = new CRC32();
+    crc.update(page, 0, page.length);
+    if (crc.getValue() != pageInfo.getChecksum()) {
+      Metrics.CORRUPT_PAGES.inc();
+      LOG.warn("Page {} in {} does not match its checksum, evicting it", pageInfo.getPageId(),
+          pageInfo.getLocalCacheDir().getRootPath());
+      return false;
+    }
+    return true;
+  }
+
+  private static long checksum(ByteBuffer page) {
+    CRC32 crc = new CRC32();
+    crc.update(page.duplicate());
+    return crc.getValue();
+  }
+
+  /**
+   * Verifies the checksums of all the cached pages, and evicts the corrupt ones. The pages are
+   * read at most at the rate given by the rate limiter, in bytes per second.
+   */
+  @VisibleForTesting
+  void scrub(RateLimiter rateLimiter) {
+    LOG.info("Scrubbing the cached pages");
+    for (PageStoreDir pageStoreDir : mPageStoreDirs) {
+      try {
+        pageStoreDir.scanPages(pageInfo -> pageInfo.ifPresent(info -> {
+          if (mState.get() == READ_WRITE) {
+            rateLimiter.acquire((int) Math.max(1, info.getPageSize()));
+            scrubPage(info.getPageId());
+          }
+        }));
+      } catch (IOException | RuntimeException e) {
+        LOG.warn("Failed to scrub page store dir {}", pageStoreDir.getRootPath(), e);
+      }
+    }
+  }
+
+  private void scrubPage(PageId pageId) {
+    PageInfo pageInfo;
+    boolean corrupt;
+    ReadWriteLock pageLock = getPageLock(pageId);
+    try (LockResource r = new LockResource(pageLock.readLock())) {
+      try (LockResource r2 = new LockResource(mPageMetaStore.getLock().readLock())) {
+        pageInfo = mPageMetaStore.peekPageInfo(pageId);
+      } catch (PageNotFoundException e) {
+        return;
+      }
+      if (pageInfo.getChecksum() == PageInfo.NO_CHECKSUM) {
+        return;
+      }
+      byte[] page = new byte[(int) pageInfo.getPageSize()];
+      if (getPage(pageInfo, 0, page.length, new ByteArrayTargetBuffer(page, 0),
+          CacheContext.defaults()) < 0) {
+        // left to the reads of the page to evict it
+        return;
+      }
+      Metrics.SCRUBBED_BYTES.inc(page.length);
+      corrupt = !verifyChecksum(pageInfo, page);
+    }
+    if (corrupt) {
+      deleteCorruptPage(pageInfo);
+    }
+  }
+
+  /**
+   * Removes a page found corrupt by the scrubber, unless it was replaced or removed since it
+   * was verified while the page lock was released.
+   */
+  private void deleteCorruptPage(PageInfo pageInfo) {
+    PageId pageId = pageInfo.getPageId();
+    try (LockResource r = new LockResource(getPageLock(pageId).writeLock())) {
+      try (LockResource r2 = new LockResource(mPageMetaStore.getLock().writeLock())) {
+        if (mPageMetaStore.peekPageInfo(pageId) != pageInfo) {
+          return;
+        }
+        mPageMetaStore.removePage(pageId);
+      } catch (PageNotFoundException e) {
+        return;
+      }
+      deletePage(pageInfo, false);
+    }
+  }
+
   @Override
   public Optional<CacheUsage> getUsage() {
     return Optional.of(new Usage());
@@ -959,6 +1251,11 @@ public class LocalCacheManager implements CacheManager {
      */
     private static final Counter BYTE_DISCARDED =
         MetricsSystem.counter(MetricKey.CLIENT_CACHE_BYTES_DISCARDED.getName());
+    /**
+     * Total number of pages whose checksum was verified.
+     */
+    private static final Counter CHECKSUM_VERIFIED_PAGES =
+        MetricsSystem.counter(MetricKey.WORKER_PAGE_STORE_CHECKSUM_VERIFIED_PAGES.getName());
     /**
      * Errors when cleaning up a failed get operation.
      */
@@ -969,6 +1266,11 @@ public class LocalCacheManager implements CacheManager {
      */
     private static final Counter CLEANUP_PUT_ERRORS =
         MetricsSystem.counter(MetricKey.CLIENT_CACHE_CLEANUP_PUT_ERRORS.getName());
+    /**
+     * Total number of pages found not to match their checksum.
+     */
+    private static final Counter CORRUPT_PAGES =
+        MetricsSystem.counter(MetricKey.WORKER_PAGE_STORE_CORRUPT_PAGES.getName());
     /**
      * Errors when deleting pages.
      */
@@ -1054,6 +1356,11 @@ public class LocalCacheManager implements CacheManager {
      */
     private static final Counter PUT_STORE_WRITE_NO_SPACE_ERRORS =
         MetricsSystem.counter(MetricKey.CLIENT_CACHE_PUT_STORE_WRITE_NO_SPACE_ERRORS.getName());
+    /**
+     * Total number of bytes read by the scrubber.
+     */
+    private static final Counter SCRUBBED_BYTES =
+        MetricsSystem.counter(MetricKey.WORKER_PAGE_STORE_SCRUBBED_BYTES.getName());
     /**
      * State of the cache.
      */
@@ -33,6 +33,8 @@ import com.google.common.base.Stopwatch;
 import com.google.common.base.Ticker;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import javax.annotation.concurrent.ThreadSafe;
 
@@ -123,6 +125,15 @@ public class LocalCachePositionReader implements PositionReader {
     Stopwatch stopwatch = createUnstartedStopwatch();
     int totalBytesRead = 0;
     long lengthToRead = Math.min(length, mFileSize - position);
+    if (position % mPageSize + lengthToRead > mPageSize
+        && mCacheManager.isConcurrentPageReadEnabled()) {
+      // the leading pages found in the cache are read at once, the others one at a time
+      int bytesRead = localCachedReadPages(buffer, (int) lengthToRead, position);
+      if (bytesRead > 0) {
+        totalBytesRead += bytesRead;
+        position += bytesRead;
+      }
+    }
     // used in positionedRead, so make stopwatch a local variable rather than class member
     // for each page, check if it is available in the cache
     while (totalBytesRead < lengthToRead) {
@@ -161,12 +172,7 @@ public class LocalCachePositionReader implements PositionReader {
    */
   public Optional<DataFileChannel> getDataFileChannel(long position, int length) {
     long currentPage = position / mPageSize;
-    PageId pageId;
-    if (mCacheContext.getCacheIdentifier() != null) {
-      pageId = new PageId(mCacheContext.getCacheIdentifier(), currentPage);
-    } else {
-      pageId = new PageId(mFileId.toString(), currentPage);
-    }
+    PageId pageId = getPageId(currentPage);
     int currentPageOffset = (int) (position % mPageSize);
     int bytesLeftInPage = (int) (mPageSize - currentPageOffset);
     int bytesToReadInPage = Math.min(bytesLeftInPage, length);
@@ -182,12 +188,7 @@ public class LocalCachePositionReader implements PositionReader {
   private int localCachedRead(ReadTargetBuffer bytesBuffer, int length,
                               long position, Stopwatch stopwatch) {
     long currentPage = position / mPageSize;
-    PageId pageId;
-    if (mCacheContext.getCacheIdentifier() != null) {
-      pageId = new PageId(mCacheContext.getCacheIdentifier(), currentPage);
-    } else {
-      pageId = new PageId(mFileId.toString(), currentPage);
-    }
+    PageId pageId = getPageId(currentPage);
     int currentPageOffset = (int) (position % mPageSize);
     int bytesLeftInPage = (int) (mPageSize - currentPageOffset);
     int bytesToReadInPage = Math.min(bytesLeftInPage, length);
@@ -195,6 +196,29 @@ public class LocalCachePositionReader implements PositionReader {
         bytesBuffer, mCacheContext, () -> readExternalPage(position));
   }
 
+  private int localCachedReadPages(ReadTargetBuffer bytesBuffer, int length, long position) {
+    long lastPage = (position + length - 1) / mPageSize;
+    List<PageId> pageIds = new ArrayList<>();
+    for (long page = position / mPageSize; page <= lastPage; page++) {
+      pageIds.add(getPageId(page));
+    }
+    int currentPageOffset = (int) (position % mPageSize);
+    int bytesRead = mCacheManager.getPages(pageIds, currentPageOffset, length, mPageSize,
+        bytesBuffer, mCacheContext);
+    if (bytesRead > 0) {
+      MetricsSystem.counter(MetricKey.CLIENT_CACHE_HIT_REQUESTS.getName())
+          .inc((currentPageOffset + bytesRead + mPageSize - 1) / mPageSize);
+    }
+    return bytesRead;
+  }
+
+  private PageId getPageId(long pageIndex) {
+    if (mCacheContext.getCacheIdentifier() != null) {
+      return new PageId(mCacheContext.getCacheIdentifier(), pageIndex);
+    }
+    return new PageId(mFileId.toString(), pageIndex);
+  }
+
   private byte[] readExternalPage(long position) {
     long pageStart = position - (position % mPageSize);
     int pageSize = (int) Math.min(mPageSize, mFileSize - pageStart);
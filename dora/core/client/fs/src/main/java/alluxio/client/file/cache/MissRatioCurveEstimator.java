@@ -0,0 +1,223 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache;
+
+import com.google.common.base.Preconditions;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Estimates the hit ratio an LRU cache of the pages would have at several cache sizes, i.e. the
+ * miss ratio curve of the page accesses.
+ * <br>
+ * The hit ratio at a cache size is the fraction of the accesses whose reuse distance, the number
+ * of bytes of the distinct pages accessed since the previous access of the same page, fits in
+ * the cache. As tracking the reuse distance of every page would cost as much memory as the
+ * cache itself, only a fixed fraction of the pages, chosen by hashing their ids, are tracked,
+ * and their reuse distances are scaled up by the inverse of the sampling rate (SHARDS, Waldspurger
+ * et al., FAST'15). The pages whose reuse distance exceeds the largest cache size are forgotten.
+ * <br>
+ * The hit ratios are computed over the accesses of the current and the previous windows, so that
+ * they follow changes of the workload.
+ */
+@ThreadSafe
+public class MissRatioCurveEstimator {
+  private static final HashFunction HASH_FUNCTION = Hashing.murmur3_32_fixed();
+  private static final int SAMPLING_MODULUS = 1 << 24;
+  private static final int INITIAL_CAPACITY = 1024;
+
+  private final long[] mCacheSizes;
+  private final double mSamplingRate;
+  private final int mSamplingThreshold;
+  private final long mMaxTrackedBytes;
+  private final long mWindowMs;
+  private final LongSupplier mClock;
+
+  /** The sampled pages in access order, mapped to the time of their last access. */
+  private final LinkedHashMap<PageId, Access> mAccesses = new LinkedHashMap<>(16, 0.75f, true);
+  /** The sizes of the sampled pages, indexed by the time of their last access. */
+  private long[] mSizesByTime = new long[INITIAL_CAPACITY + 1];
+  private int mTime = 0;
+  private long mTrackedBytes = 0;
+
+  private long mWindowStartMs;
+  private long[] mHits;
+  private long mAccessCount;
+  private long[] mPreviousHits;
+  private long mPreviousAccessCount;
+
+  /**
+   * @param cacheSizes the cache sizes in bytes to estimate the hit ratio at
+   * @param samplingRate the fraction of the pages to track, in (0, 1]
+   * @param windowMs the length of the window of the accesses to estimate the hit ratio over
+   * @param clock the clock in milliseconds
+   */
+  public MissRatioCurveEstimator(long[] cacheSizes, double samplingRate, long windowMs,
+      LongSupplier clock) {
+    Preconditions.checkArgument(cacheSizes.length > 0, "cache sizes must not be empty");
+    Preconditions.checkArgument(samplingRate > 0 && samplingRate <= 1,
+        "sampling rate must be in (0, 1]");
+    Preconditions.checkArgument(windowMs > 0, "window must be positive");
+    mCacheSizes = Arrays.copyOf(cacheSizes, cacheSizes.length);
+    mSamplingRate = samplingRate;
+    mSamplingThreshold = (int) Math.ceil(samplingRate * SAMPLING_MODULUS);
+    mMaxTrackedBytes = (long) Math.ceil(Arrays.stream(cacheSizes).max().getAsLong()
+        * samplingRate);
+    mWindowMs = windowMs;
+    mClock = clock;
+    mWindowStartMs = clock.getAsLong();
+    mHits = new long[cacheSizes.length];
+    mPreviousHits = new long[cacheSizes.length];
+  }
+
+  /**
+   * Records an access to a page.
+   *
+   * @param pageId the page id
+   * @param size the page size
+   */
+  public void recordAccess(PageId pageId, long size) {
+    int hash = HASH_FUNCTION.newHasher()
+        .putUnencodedChars(pageId.getFileId()).putLong(pageId.getPageIndex()).hash().asInt();
+    if ((hash & (SAMPLING_MODULUS - 1)) >= mSamplingThreshold) {
+      return;
+    }
+    synchronized (this) {
+      maybeRotateWindow();
+      mAccessCount++;
+      Access access = mAccesses.get(pageId);
+      if (access != null) {
+        long distance = (long) ((getBytesAccessedSince(access.mTime) - access.mSize)
+            / mSamplingRate) + size;
+        for (int i = 0; i < mCacheSizes.length; i++) {
+          if (distance <= mCacheSizes[i]) {
+            mHits[i]++;
+          }
+        }
+        update(access.mTime, -access.mSize);
+        mTrackedBytes -= access.mSize;
+        access.mSize = 0;
+      } else {
+        access = new Access();
+        mAccesses.put(pageId, access);
+      }
+      if (mTime + 1 >= mSizesByTime.length) {
+        compact();
+      }
+      access.mTime = ++mTime;
+      access.mSize = size;
+      update(access.mTime, size);
+      mTrackedBytes += size;
+      evict();
+    }
+  }
+
+  /**
+   * @return the cache sizes in bytes the hit ratio is estimated at
+   */
+  public long[] getCacheSizes() {
+    return Arrays.copyOf(mCacheSizes, mCacheSizes.length);
+  }
+
+  /**
+   * @param index the index of the cache size in {@link #getCacheSizes()}
+   * @return the estimated hit ratio at the cache size, or 0 if no access was sampled
+   */
+  public synchronized double getHitRatio(int index) {
+    maybeRotateWindow();
+    long accesses = mAccessCount + mPreviousAccessCount;
+    if (accesses == 0) {
+      return 0;
+    }
+    return (double) (mHits[index] + mPreviousHits[index]) / accesses;
+  }
+
+  private void maybeRotateWindow() {
+    long now = mClock.getAsLong();
+    if (now - mWindowStartMs < mWindowMs) {
+      return;
+    }
+    if (now - mWindowStartMs < 2 * mWindowMs) {
+      mPreviousHits = mHits;
+      mPreviousAccessCount = mAccessCount;
+    } else {
+      mPreviousHits = new long[mCacheSizes.length];
+      mPreviousAccessCount = 0;
+    }
+    mHits = new long[mCacheSizes.length];
+    mAccessCount = 0;
+    mWindowStartMs = now;
+  }
+
+  /**
+   * Forgets the least recently accessed pages, whose reuse distance would exceed the largest
+   * cache size anyway.
+   */
+  private void evict() {
+    Iterator<Map.Entry<PageId, Access>> iterator = mAccesses.entrySet().iterator();
+    while (mTrackedBytes > mMaxTrackedBytes && mAccesses.size() > 1) {
+      Access oldest = iterator.next().getValue();
+      update(oldest.mTime, -oldest.mSize);
+      mTrackedBytes -= oldest.mSize;
+      iterator.remove();
+    }
+  }
+
+  /**
+   * Renumbers the access times of the tracked pages from 1, and resizes the tree to twice the
+   * number of tracked pages.
+   */
+  private void compact() {
+    mSizesByTime = new long[Math.max(INITIAL_CAPACITY, 2 * mAccesses.size()) + 1];
+    mTime = 0;
+    for (Access access : mAccesses.values()) {
+      access.mTime = ++mTime;
+      update(access.mTime, access.mSize);
+    }
+  }
+
+  /**
+   * @return the number of bytes of the pages last accessed at or after the given time
+   */
+  private long getBytesAccessedSince(int time) {
+    return mTrackedBytes - sum(time - 1);
+  }
+
+  // the sizes by time are stored in a Fenwick tree, to sum the sizes of a range of time in
+  // logarithmic time
+
+  private void update(int time, long delta) {
+    for (int i = time; i < mSizesByTime.length; i += i & -i) {
+      mSizesByTime[i] += delta;
+    }
+  }
+
+  private long sum(int time) {
+    long sum = 0;
+    for (int i = time; i > 0; i -= i & -i) {
+      sum += mSizesByTime[i];
+    }
+    return sum;
+  }
+
+  private static final class Access {
+    private int mTime;
+    private long mSize;
+  }
+}
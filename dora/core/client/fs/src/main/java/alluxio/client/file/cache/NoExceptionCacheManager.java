@@ -151,6 +151,20 @@ public class NoExceptionCacheManager implements CacheManager {
     }
   }
 
+  @Override
+  public int getPages(List<PageId> pageIds, int pageOffset, int bytesToRead, long pageSize,
+      ReadTargetBuffer buffer, CacheContext cacheContext) {
+    try {
+      return mCacheManager.getPages(pageIds, pageOffset, bytesToRead, pageSize, buffer,
+          cacheContext);
+    } catch (Exception e) {
+      LOG.error("Failed to get pages from {}, offset {} cacheContext {}", pageIds.get(0),
+          pageOffset, cacheContext, e);
+      Metrics.GET_ERRORS.inc();
+      return -1;
+    }
+  }
+
   @Override
   public boolean delete(PageId pageId) {
     try {
@@ -179,6 +193,11 @@ public class NoExceptionCacheManager implements CacheManager {
     }
   }
 
+  @Override
+  public boolean isConcurrentPageReadEnabled() {
+    return mCacheManager.isConcurrentPageReadEnabled();
+  }
+
   @Override
   public State state() {
     return mCacheManager.state();
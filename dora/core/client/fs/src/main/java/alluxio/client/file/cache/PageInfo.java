@@ -24,11 +24,15 @@ import javax.annotation.concurrent.ThreadSafe;
  */
 @ThreadSafe
 public class PageInfo {
+  /** The checksum of the pages whose checksum is not known. */
+  public static final long NO_CHECKSUM = -1;
+
   private final PageId mPageId;
   private final long mPageSize;
   private final CacheScope mCacheScope;
   private final PageStoreDir mLocalCacheDir;
   private final long mCreatedTimestamp;
+  private final long mChecksum;
 
   /**
    * @param pageId page id
@@ -59,11 +63,25 @@ public class PageInfo {
    */
   public PageInfo(PageId pageId, long pageSize, CacheScope cacheScope,
       PageStoreDir pageStoreDir, long createdTimestamp) {
+    this(pageId, pageSize, cacheScope, pageStoreDir, createdTimestamp, NO_CHECKSUM);
+  }
+
+  /**
+   * @param pageId page id
+   * @param pageSize page size in bytes
+   * @param cacheScope scope of this page
+   * @param pageStoreDir directory of this page
+   * @param createdTimestamp created time
+   * @param checksum the CRC32 checksum of the page content, or {@link #NO_CHECKSUM}
+   */
+  public PageInfo(PageId pageId, long pageSize, CacheScope cacheScope,
+      PageStoreDir pageStoreDir, long createdTimestamp, long checksum) {
     mPageId = pageId;
     mPageSize = pageSize;
     mCacheScope = cacheScope;
     mLocalCacheDir = pageStoreDir;
     mCreatedTimestamp = createdTimestamp;
+    mChecksum = checksum;
   }
 
   /**
@@ -101,6 +119,13 @@ public class PageInfo {
     return mCreatedTimestamp;
   }
 
+  /**
+   * @return the CRC32 checksum of the page content, or {@link #NO_CHECKSUM} if not known
+   */
+  public long getChecksum() {
+    return mChecksum;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
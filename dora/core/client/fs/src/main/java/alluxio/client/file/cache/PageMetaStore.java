@@ -104,6 +104,15 @@ public interface PageMetaStore extends CacheStatus {
    */
   PageInfo getPageInfo(PageId pageId) throws PageNotFoundException;
 
+  /**
+   * Gets the page info of a page without counting it as an access of the page, e.g. for
+   * background tasks which go through all the pages.
+   *
+   * @param pageId page identifier
+   * @return page info
+   */
+  PageInfo peekPageInfo(PageId pageId) throws PageNotFoundException;
+
   /**
    * Removes a page.
    *
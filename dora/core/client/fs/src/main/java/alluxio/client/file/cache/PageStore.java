@@ -11,9 +11,11 @@
 
 package alluxio.client.file.cache;
 
+import alluxio.client.file.cache.store.AsyncLocalPageStore;
 import alluxio.client.file.cache.store.LocalPageStore;
 import alluxio.client.file.cache.store.MemoryPageStore;
 import alluxio.client.file.cache.store.PageStoreOptions;
+import alluxio.client.file.cache.store.TieredPageStore;
 import alluxio.exception.PageNotFoundException;
 import alluxio.exception.status.ResourceExhaustedException;
 import alluxio.file.ReadTargetBuffer;
@@ -27,6 +29,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * A simple abstraction on the storage to put, get and delete pages. The implementation of this
@@ -46,7 +49,13 @@ public interface PageStore extends AutoCloseable {
     final PageStore pageStore;
     switch (options.getType()) {
       case LOCAL:
-        pageStore = new LocalPageStore(options);
+        PageStore localPageStore = options.getAsyncIoQueueDepth() > 0
+            ? new AsyncLocalPageStore(options) : new LocalPageStore(options);
+        if (options.getMemoryTierSize() > 0) {
+          pageStore = new TieredPageStore(options, localPageStore);
+        } else {
+          pageStore = localPageStore;
+        }
         break;
       case MEM:
         pageStore = new MemoryPageStore((int) options.getPageSize());
@@ -163,6 +172,30 @@ public interface PageStore extends AutoCloseable {
       boolean isTemporary)
       throws IOException, PageNotFoundException;
 
+  /**
+   * Gets part of a page from the store to the destination buffer, without waiting for the read
+   * to complete, so that several reads can be in flight at once. The destination buffer must not
+   * be accessed until the returned future completes. By default, the page is read synchronously.
+   *
+   * @param pageId page identifier
+   * @param pageOffset offset within page
+   * @param bytesToRead bytes to read in this page
+   * @param buffer destination buffer
+   * @param isTemporary is page data temporary
+   * @return a future of the number of bytes read, which completes exceptionally with the
+   *         exceptions thrown by {@link #get(PageId, int, int, ReadTargetBuffer, boolean)}
+   */
+  default CompletableFuture<Integer> getAsync(PageId pageId, int pageOffset, int bytesToRead,
+      ReadTargetBuffer buffer, boolean isTemporary) {
+    CompletableFuture<Integer> future = new CompletableFuture<>();
+    try {
+      future.complete(get(pageId, pageOffset, bytesToRead, buffer, isTemporary));
+    } catch (Throwable t) {
+      future.completeExceptionally(t);
+    }
+    return future;
+  }
+
   /**
    * Deletes a temporary page from the store.
    *
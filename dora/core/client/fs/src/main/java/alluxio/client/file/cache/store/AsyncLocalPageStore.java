@@ -0,0 +1,176 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache.store;
+
+import alluxio.client.file.cache.PageId;
+import alluxio.exception.PageNotFoundException;
+import alluxio.file.ByteArrayTargetBuffer;
+import alluxio.file.ReadTargetBuffer;
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
+import alluxio.util.ThreadFactoryUtils;
+
+import com.codahale.metrics.Timer;
+import com.google.common.base.Preconditions;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A {@link LocalPageStore} which serves the reads submitted with
+ * {@link #getAsync(PageId, int, int, ReadTargetBuffer, boolean)} with
+ * {@link AsynchronousFileChannel}s, so that the pages of a batch are read concurrently, up to a
+ * configured queue depth, instead of one at a time on the caller's thread. Synchronous reads and
+ * writes are served on the caller's thread like in {@link LocalPageStore}.
+ */
+@ThreadSafe
+public class AsyncLocalPageStore extends LocalPageStore {
+  private static final Set<StandardOpenOption> READ_OPTIONS =
+      EnumSet.of(StandardOpenOption.READ);
+
+  /** Serves the reads of the channels, at most as many in flight as threads. */
+  private final ExecutorService mIoExecutor;
+
+  /**
+   * Creates a new instance of {@link AsyncLocalPageStore}.
+   *
+   * @param options options for the local page store
+   */
+  public AsyncLocalPageStore(PageStoreOptions options) {
+    super(options);
+    Preconditions.checkArgument(options.getAsyncIoQueueDepth() > 0,
+        "queue depth must be positive");
+    mIoExecutor = Executors.newFixedThreadPool(options.getAsyncIoQueueDepth(),
+        ThreadFactoryUtils.build("page-store-async-io-%d", true));
+    MetricsSystem.registerGaugeIfAbsent(
+        MetricsSystem.getMetricName(MetricKey.WORKER_PAGE_STORE_ASYNC_IO_QUEUE_DEPTH.getName()),
+        Metrics.OUTSTANDING_REQUESTS::get);
+  }
+
+  @Override
+  public CompletableFuture<Integer> getAsync(PageId pageId, int pageOffset, int bytesToRead,
+      ReadTargetBuffer target, boolean isTemporary) {
+    Preconditions.checkArgument(pageOffset >= 0, "page offset should be non-negative");
+    Path pagePath = getPagePath(pageId, isTemporary);
+    CompletableFuture<Integer> result = new CompletableFuture<>();
+    AsynchronousFileChannel channel;
+    try {
+      channel = AsynchronousFileChannel.open(pagePath, READ_OPTIONS, mIoExecutor);
+    } catch (NoSuchFileException e) {
+      result.completeExceptionally(new PageNotFoundException(pagePath.toString()));
+      return result;
+    } catch (IOException e) {
+      result.completeExceptionally(e);
+      return result;
+    }
+    // reads directly to the target array when there is one
+    boolean readToTarget = target instanceof ByteArrayTargetBuffer;
+    ByteBuffer buffer;
+    try {
+      long pageLength = channel.size();
+      Preconditions.checkArgument(pageOffset <= pageLength,
+          "page offset %s exceeded page size %s", pageOffset, pageLength);
+      int length = (int) Math.min(Math.min(bytesToRead, target.remaining()),
+          pageLength - pageOffset);
+      buffer = readToTarget
+          ? ByteBuffer.wrap(target.byteArray(), target.offset(), length).slice()
+          : ByteBuffer.allocate(length);
+    } catch (IOException | RuntimeException e) {
+      closeChannel(channel);
+      result.completeExceptionally(e);
+      return result;
+    }
+    Timer.Context latency =
+        MetricsSystem.timer(MetricKey.WORKER_PAGE_STORE_ASYNC_READ_LATENCY.getName()).time();
+    Metrics.OUTSTANDING_REQUESTS.incrementAndGet();
+    readFully(channel, buffer, pageOffset, result);
+    return result.handle((bytesRead, t) -> {
+      Metrics.OUTSTANDING_REQUESTS.decrementAndGet();
+      latency.stop();
+      closeChannel(channel);
+      if (t != null) {
+        throw new CompletionException(t);
+      }
+      if (readToTarget) {
+        target.offset(target.offset() + bytesRead);
+      } else {
+        target.writeBytes(buffer.array(), 0, bytesRead);
+      }
+      return bytesRead;
+    });
+  }
+
+  /**
+   * Reads from the channel until the buffer is full or the end of the file is reached.
+   *
+   * @param channel the channel of the page file
+   * @param buffer the buffer to read to
+   * @param offset the offset in the file of the start of the buffer
+   * @param result completed with the number of bytes read
+   */
+  private static void readFully(AsynchronousFileChannel channel, ByteBuffer buffer,
+      long offset, CompletableFuture<Integer> result) {
+    try {
+      channel.read(buffer, offset + buffer.position(), null,
+          new CompletionHandler<Integer, Void>() {
+            @Override
+            public void completed(Integer bytes, Void attachment) {
+              if (bytes > 0 && buffer.hasRemaining()) {
+                readFully(channel, buffer, offset, result);
+              } else {
+                result.complete(buffer.position());
+              }
+            }
+
+            @Override
+            public void failed(Throwable t, Void attachment) {
+              result.completeExceptionally(t);
+            }
+          });
+    } catch (RuntimeException e) {
+      // e.g. the store is closed and its executor no longer takes requests
+      result.completeExceptionally(e);
+    }
+  }
+
+  private static void closeChannel(AsynchronousFileChannel channel) {
+    try {
+      channel.close();
+    } catch (IOException e) {
+      LOG.warn("Failed to close page file channel", e);
+    }
+  }
+
+  @Override
+  public void close() {
+    mIoExecutor.shutdown();
+    super.close();
+  }
+
+  private static final class Metrics {
+    /** The asynchronous reads submitted and not completed yet. */
+    private static final AtomicInteger OUTSTANDING_REQUESTS = new AtomicInteger();
+  }
+}
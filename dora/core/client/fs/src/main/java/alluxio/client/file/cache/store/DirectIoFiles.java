@@ -0,0 +1,236 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache.store;
+
+import alluxio.file.ReadTargetBuffer;
+
+import com.google.common.base.Preconditions;
+import io.netty.buffer.Unpooled;
+import io.netty.util.internal.PlatformDependent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Reads and writes page files with direct I/O, i.e. bypassing the page cache of the OS, which
+ * would otherwise hold a second copy of the cached pages and push out the files of other
+ * processes when large files are loaded.
+ * <br>
+ * Direct I/O requires the offsets, lengths and memory addresses of the I/O to be aligned to
+ * the logical block size of the device. The pages are written from, and read to, aligned
+ * direct buffers taken from a pool. The last, partial block of a page is written in full, and
+ * the file is then truncated to the page length.
+ * <br>
+ * Direct I/O requires Java 10 or later, which has {@code ExtendedOpenOption.DIRECT}. The option
+ * is looked up by reflection, so that the class builds and runs on Java 8, where direct I/O is
+ * not supported. If the JVM or the file system do not support direct I/O, it is disabled with a
+ * warning and the callers fall back to buffered I/O.
+ */
+@ThreadSafe
+final class DirectIoFiles {
+  private static final Logger LOG = LoggerFactory.getLogger(DirectIoFiles.class);
+  /** The maximum number of buffers kept in the pool. */
+  private static final int MAX_POOLED_BUFFERS = 16;
+  @Nullable
+  private static final OpenOption DIRECT = getDirectOpenOption();
+
+  private final int mAlignment;
+  private final int mBufferSize;
+  private final Queue<ByteBuffer> mBufferPool = new ConcurrentLinkedQueue<>();
+  private volatile boolean mEnabled;
+
+  /**
+   * @param pageSize the page size
+   * @param alignment the alignment of direct I/O, a power of 2
+   */
+  DirectIoFiles(long pageSize, int alignment) {
+    Preconditions.checkArgument(alignment > 0 && (alignment & (alignment - 1)) == 0,
+        "direct I/O alignment %s is not a power of 2", alignment);
+    mAlignment = alignment;
+    // a read of a page range can start in the middle of a block
+    mBufferSize = alignUp(pageSize) + alignment;
+    mEnabled = isSupported();
+    if (!mEnabled) {
+      LOG.warn("Direct I/O is not supported by the JVM, page files are read and written "
+          + "through the page cache");
+    }
+  }
+
+  /**
+   * @return whether the JVM supports direct I/O, i.e. is Java 10 or later
+   */
+  static boolean isSupported() {
+    return DIRECT != null && PlatformDependent.hasUnsafe();
+  }
+
+  @Nullable
+  private static OpenOption getDirectOpenOption() {
+    try {
+      @SuppressWarnings({"unchecked", "rawtypes"})
+      OpenOption direct = (OpenOption) Enum.valueOf(
+          (Class<Enum>) Class.forName("com.sun.nio.file.ExtendedOpenOption"), "DIRECT");
+      return direct;
+    } catch (ClassNotFoundException | IllegalArgumentException e) {
+      // direct I/O is only available since Java 10
+      return null;
+    }
+  }
+
+  /**
+   * Writes a page to its file, which exists.
+   *
+   * @param pagePath the path of the page file
+   * @param page the page content
+   * @return false if direct I/O is not supported, in which case nothing is written
+   */
+  boolean write(Path pagePath, ByteBuffer page) throws IOException {
+    FileChannel channel = open(pagePath, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING);
+    if (channel == null) {
+      return false;
+    }
+    int length = page.remaining();
+    ByteBuffer buffer = acquire(alignUp(length));
+    try (FileChannel closeable = channel) {
+      buffer.put(page);
+      buffer.position(0).limit(alignUp(length));
+      long position = 0;
+      while (buffer.hasRemaining()) {
+        position += closeable.write(buffer, position);
+      }
+      closeable.truncate(length);
+    } finally {
+      release(buffer);
+    }
+    return true;
+  }
+
+  /**
+   * Reads part of a page from its file to the target buffer.
+   *
+   * @param pagePath the path of the page file
+   * @param pageOffset offset within page
+   * @param bytesToRead bytes to read in this page
+   * @param target the target buffer
+   * @return the number of bytes read, or -1 if direct I/O is not supported, in which case
+   *         nothing is read
+   * @throws java.nio.file.NoSuchFileException if the page file does not exist
+   */
+  int read(Path pagePath, int pageOffset, int bytesToRead, ReadTargetBuffer target)
+      throws IOException {
+    FileChannel channel = open(pagePath, StandardOpenOption.READ);
+    if (channel == null) {
+      return -1;
+    }
+    try (FileChannel closeable = channel) {
+      long pageLength = closeable.size();
+      Preconditions.checkArgument(pageOffset <= pageLength,
+          "page offset %s exceeded page size %s", pageOffset, pageLength);
+      int length = (int) Math.min(Math.min(bytesToRead, target.remaining()),
+          pageLength - pageOffset);
+      int start = pageOffset & -mAlignment;
+      ByteBuffer buffer = acquire(alignUp(pageOffset + length) - start);
+      try {
+        buffer.limit(alignUp(pageOffset + length) - start);
+        while (buffer.hasRemaining()) {
+          if (closeable.read(buffer, start + buffer.position()) <= 0) {
+            break;
+          }
+        }
+        int bytesRead = Math.max(0, Math.min(length, buffer.position() - (pageOffset - start)));
+        buffer.limit(pageOffset - start + bytesRead).position(pageOffset - start);
+        target.writeBytes(Unpooled.wrappedBuffer(buffer));
+        return bytesRead;
+      } finally {
+        release(buffer);
+      }
+    }
+  }
+
+  /**
+   * @return a channel opened with direct I/O, or null if direct I/O is not supported
+   */
+  @Nullable
+  private FileChannel open(Path path, OpenOption... options) throws IOException {
+    if (!mEnabled) {
+      return null;
+    }
+    OpenOption[] directOptions = new OpenOption[options.length + 1];
+    System.arraycopy(options, 0, directOptions, 0, options.length);
+    directOptions[options.length] = DIRECT;
+    try {
+      return FileChannel.open(path, directOptions);
+    } catch (UnsupportedOperationException e) {
+      disable(path, e);
+      return null;
+    } catch (IOException e) {
+      // file systems which do not support direct I/O fail the open with EINVAL
+      if (e.getMessage() != null && e.getMessage().contains("Invalid argument")) {
+        disable(path, e);
+        return null;
+      }
+      throw e;
+    }
+  }
+
+  private void disable(Path path, Exception e) {
+    if (mEnabled) {
+      mEnabled = false;
+      LOG.warn("Direct I/O is not supported for {}, page files are read and written through "
+          + "the page cache: {}", path, e.toString());
+    }
+  }
+
+  /**
+   * @param size the minimum capacity
+   * @return a cleared buffer, whose address is aligned
+   */
+  private ByteBuffer acquire(int size) {
+    if (size <= mBufferSize) {
+      ByteBuffer buffer = mBufferPool.poll();
+      if (buffer != null) {
+        buffer.clear();
+        return buffer;
+      }
+      return allocateAligned(mBufferSize);
+    }
+    return allocateAligned(size);
+  }
+
+  private void release(ByteBuffer buffer) {
+    if (buffer.capacity() == mBufferSize && mBufferPool.size() < MAX_POOLED_BUFFERS) {
+      mBufferPool.offer(buffer);
+    }
+  }
+
+  private ByteBuffer allocateAligned(int size) {
+    ByteBuffer buffer = ByteBuffer.allocateDirect(size + mAlignment);
+    int misalignment = (int) (PlatformDependent.directBufferAddress(buffer) & (mAlignment - 1));
+    buffer.position(misalignment == 0 ? 0 : mAlignment - misalignment);
+    buffer.limit(buffer.position() + size);
+    return buffer.slice();
+  }
+
+  private int alignUp(long size) {
+    return (int) ((size + mAlignment - 1) & -mAlignment);
+  }
+}
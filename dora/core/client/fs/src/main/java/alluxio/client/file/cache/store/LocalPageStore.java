@@ -36,6 +36,7 @@ import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.NotThreadSafe;
 
 /**
@@ -50,6 +51,11 @@ public class LocalPageStore implements PageStore {
   private final long mPageSize;
   private final long mCapacity;
   private final int mFileBuckets;
+  /** Reads and writes the page files with direct I/O, if enabled for reads or writes. */
+  @Nullable
+  private final DirectIoFiles mDirectIoFiles;
+  private final boolean mDirectIoReads;
+  private final boolean mDirectIoWrites;
 
   /**
    * Creates a new instance of {@link LocalPageStore}.
@@ -61,6 +67,10 @@ public class LocalPageStore implements PageStore {
     mPageSize = options.getPageSize();
     mCapacity = (long) (options.getCacheSize() / (1 + options.getOverheadRatio()));
     mFileBuckets = options.getFileBuckets();
+    mDirectIoReads = options.isDirectIoReadEnabled();
+    mDirectIoWrites = options.isDirectIoWriteEnabled();
+    mDirectIoFiles = (mDirectIoReads || mDirectIoWrites)
+        ? new DirectIoFiles(mPageSize, options.getDirectIoAlignment()) : null;
   }
 
   @Override
@@ -77,10 +87,7 @@ public class LocalPageStore implements PageStore {
         Files.createDirectories(parent);
         Files.createFile(pagePath);
       }
-      // extra try to ensure output stream is closed
-      try (FileOutputStream fos = new FileOutputStream(pagePath.toFile(), false)) {
-        fos.getChannel().write(page);
-      }
+      writePage(pagePath, page);
     } catch (Exception e) {
       Files.deleteIfExists(pagePath);
       if (e.getMessage() != null && e.getMessage().contains(ERROR_NO_SPACE_LEFT)) {
@@ -91,11 +98,37 @@ public class LocalPageStore implements PageStore {
     }
   }
 
+  /**
+   * Writes the content of a page to its file, which exists.
+   *
+   * @param pagePath the path of the page file
+   * @param page the page content
+   */
+  protected void writePage(Path pagePath, ByteBuffer page) throws IOException {
+    if (mDirectIoWrites && mDirectIoFiles.write(pagePath, page)) {
+      return;
+    }
+    // extra try to ensure output stream is closed
+    try (FileOutputStream fos = new FileOutputStream(pagePath.toFile(), false)) {
+      fos.getChannel().write(page);
+    }
+  }
+
   @Override
   public int get(PageId pageId, int pageOffset, int bytesToRead, ReadTargetBuffer target,
       boolean isTemporary) throws IOException, PageNotFoundException {
     Preconditions.checkArgument(pageOffset >= 0, "page offset should be non-negative");
     Path pagePath = getPagePath(pageId, isTemporary);
+    if (mDirectIoReads) {
+      try {
+        int bytesRead = mDirectIoFiles.read(pagePath, pageOffset, bytesToRead, target);
+        if (bytesRead >= 0) {
+          return bytesRead;
+        }
+      } catch (NoSuchFileException e) {
+        throw new PageNotFoundException(pagePath.toString());
+      }
+    }
     try (RandomAccessFile localFile = new RandomAccessFile(pagePath.toString(), "r")) {
       int bytesSkipped = localFile.skipBytes(pageOffset);
       if (pageOffset != bytesSkipped) {
@@ -11,6 +11,8 @@
 
 package alluxio.client.file.cache.store;
 
+import alluxio.client.file.cache.evictor.CacheEvictor;
+import alluxio.client.file.cache.evictor.LRUCacheEvictor;
 import alluxio.conf.AlluxioConfiguration;
 import alluxio.conf.PropertyKey;
 import alluxio.util.FormatUtils;
@@ -65,7 +67,20 @@ public class PageStoreOptions {
           .setPageSize(conf.getBytes(PropertyKey.WORKER_PAGE_STORE_PAGE_SIZE))
           .setAlluxioVersion(conf.getString(PropertyKey.VERSION))
           .setTimeoutDuration(conf.getMs(PropertyKey.WORKER_PAGE_STORE_TIMEOUT_DURATION))
-          .setTimeoutThreads(conf.getInt(PropertyKey.WORKER_PAGE_STORE_TIMEOUT_THREADS));
+          .setTimeoutThreads(conf.getInt(PropertyKey.WORKER_PAGE_STORE_TIMEOUT_THREADS))
+          .setMemoryTierSize(conf.getBytes(PropertyKey.WORKER_PAGE_STORE_MEMORY_TIER_SIZE))
+          .setMemoryTierEvictorClass(
+              conf.getClass(PropertyKey.WORKER_PAGE_STORE_MEMORY_TIER_EVICTOR_CLASS))
+          .setMemoryTierPromotionThreshold(
+              conf.getInt(PropertyKey.WORKER_PAGE_STORE_MEMORY_TIER_PROMOTION_THRESHOLD))
+          .setAsyncIoQueueDepth(conf.getBoolean(PropertyKey.WORKER_PAGE_STORE_ASYNC_IO_ENABLED)
+              ? conf.getInt(PropertyKey.WORKER_PAGE_STORE_ASYNC_IO_QUEUE_DEPTH) : 0)
+          .setDirectIoWriteEnabled(
+              conf.getBoolean(PropertyKey.WORKER_PAGE_STORE_DIRECT_IO_WRITE_ENABLED))
+          .setDirectIoReadEnabled(
+              conf.getBoolean(PropertyKey.WORKER_PAGE_STORE_DIRECT_IO_READ_ENABLED))
+          .setDirectIoAlignment(
+              (int) conf.getBytes(PropertyKey.WORKER_PAGE_STORE_DIRECT_IO_ALIGNMENT));
       if (conf.isSet(PropertyKey.WORKER_PAGE_STORE_OVERHEAD)) {
         options.setOverheadRatio(conf.getDouble(PropertyKey.WORKER_PAGE_STORE_OVERHEAD));
       }
@@ -137,6 +152,41 @@ public class PageStoreOptions {
    */
   private double mOverheadRatio;
 
+  /**
+   * Size of the memory tier in front of a local page store, 0 if disabled.
+   */
+  private long mMemoryTierSize;
+
+  /**
+   * The evictor of the memory tier.
+   */
+  private Class<? extends CacheEvictor> mMemoryTierEvictorClass = LRUCacheEvictor.class;
+
+  /**
+   * The number of reads after which a page is promoted to the memory tier.
+   */
+  private int mMemoryTierPromotionThreshold = 1;
+
+  /**
+   * The maximum number of asynchronous I/O requests in flight, or 0 for synchronous I/O.
+   */
+  private int mAsyncIoQueueDepth;
+
+  /**
+   * Whether the page files are written with direct I/O.
+   */
+  private boolean mDirectIoWriteEnabled;
+
+  /**
+   * Whether the page files are read with direct I/O.
+   */
+  private boolean mDirectIoReadEnabled;
+
+  /**
+   * The alignment of the direct I/O.
+   */
+  private int mDirectIoAlignment = 4096;
+
   /**
    * @return the type corresponding to the page store
    */
@@ -296,4 +346,119 @@ public class PageStoreOptions {
     mStoreType = storeType;
     return this;
   }
+
+  /**
+   * @return the size of the memory tier in front of a local page store, 0 if disabled
+   */
+  public long getMemoryTierSize() {
+    return mMemoryTierSize;
+  }
+
+  /**
+   * @param memoryTierSize the size of the memory tier in front of a local page store
+   * @return the updated options
+   */
+  public PageStoreOptions setMemoryTierSize(long memoryTierSize) {
+    mMemoryTierSize = memoryTierSize;
+    return this;
+  }
+
+  /**
+   * @return the evictor class of the memory tier
+   */
+  public Class<? extends CacheEvictor> getMemoryTierEvictorClass() {
+    return mMemoryTierEvictorClass;
+  }
+
+  /**
+   * @param memoryTierEvictorClass the evictor class of the memory tier
+   * @return the updated options
+   */
+  public PageStoreOptions setMemoryTierEvictorClass(
+      Class<? extends CacheEvictor> memoryTierEvictorClass) {
+    mMemoryTierEvictorClass = memoryTierEvictorClass;
+    return this;
+  }
+
+  /**
+   * @return the number of reads after which a page is promoted to the memory tier
+   */
+  public int getMemoryTierPromotionThreshold() {
+    return mMemoryTierPromotionThreshold;
+  }
+
+  /**
+   * @param memoryTierPromotionThreshold the number of reads after which a page is promoted to
+   *        the memory tier
+   * @return the updated options
+   */
+  public PageStoreOptions setMemoryTierPromotionThreshold(int memoryTierPromotionThreshold) {
+    mMemoryTierPromotionThreshold = memoryTierPromotionThreshold;
+    return this;
+  }
+
+  /**
+   * @return the maximum number of asynchronous I/O requests in flight, or 0 for synchronous I/O
+   */
+  public int getAsyncIoQueueDepth() {
+    return mAsyncIoQueueDepth;
+  }
+
+  /**
+   * @param asyncIoQueueDepth the maximum number of asynchronous I/O requests in flight, or 0 for
+   *        synchronous I/O
+   * @return the updated options
+   */
+  public PageStoreOptions setAsyncIoQueueDepth(int asyncIoQueueDepth) {
+    mAsyncIoQueueDepth = asyncIoQueueDepth;
+    return this;
+  }
+
+  /**
+   * @return whether the page files are written with direct I/O
+   */
+  public boolean isDirectIoWriteEnabled() {
+    return mDirectIoWriteEnabled;
+  }
+
+  /**
+   * @param directIoWriteEnabled whether the page files are written with direct I/O
+   * @return the updated options
+   */
+  public PageStoreOptions setDirectIoWriteEnabled(boolean directIoWriteEnabled) {
+    mDirectIoWriteEnabled = directIoWriteEnabled;
+    return this;
+  }
+
+  /**
+   * @return whether the page files are read with direct I/O
+   */
+  public boolean isDirectIoReadEnabled() {
+    return mDirectIoReadEnabled;
+  }
+
+  /**
+   * @param directIoReadEnabled whether the page files are read with direct I/O
+   * @return the updated options
+   */
+  public PageStoreOptions setDirectIoReadEnabled(boolean directIoReadEnabled) {
+    mDirectIoReadEnabled = directIoReadEnabled;
+    return this;
+  }
+
+  /**
+   * @return the alignment of the direct I/O
+   */
+  public int getDirectIoAlignment() {
+    return mDirectIoAlignment;
+  }
+
+  /**
+   * @param directIoAlignment the alignment of the direct I/O
+   * @return the updated options
+   */
+  public PageStoreOptions setDirectIoAlignment(int directIoAlignment) {
+    mDirectIoAlignment = directIoAlignment;
+    return this;
+  }
 }
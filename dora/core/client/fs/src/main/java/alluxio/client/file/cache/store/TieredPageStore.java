@@ -0,0 +1,325 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache.store;
+
+import alluxio.client.file.cache.PageId;
+import alluxio.client.file.cache.PageStore;
+import alluxio.client.file.cache.evictor.CacheEvictor;
+import alluxio.client.file.cache.evictor.CacheEvictorOptions;
+import alluxio.exception.PageNotFoundException;
+import alluxio.exception.status.ResourceExhaustedException;
+import alluxio.file.ByteArrayTargetBuffer;
+import alluxio.file.ReadTargetBuffer;
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
+import alluxio.network.protocol.databuffer.DataFileChannel;
+
+import com.codahale.metrics.Counter;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.io.Closer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A {@link PageStore} which keeps the pages read often from a page store, typically on SSD, in
+ * a bounded {@link MemoryPageStore} tier in front of it.
+ * <br>
+ * The memory tier is inclusive: every page is written to the lower store, which remains the
+ * source of truth for the page metadata and eviction of the cache directory, and survives
+ * restarts. A page is promoted, i.e. copied to the memory tier, once it has been read a number
+ * of times from the lower store. When the memory tier is full, the pages picked by its own
+ * evictor are demoted, i.e. dropped from the memory tier, to make room for the promoted page.
+ * Temporary pages are never promoted.
+ */
+@ThreadSafe
+public class TieredPageStore implements PageStore {
+  /** The number of pages whose reads are counted, relative to the capacity of the memory tier. */
+  private static final int READ_COUNT_CAPACITY_FACTOR = 4;
+
+  private final PageStore mLowerTier;
+  private final MemoryPageStore mMemoryTier;
+  private final CacheEvictor mMemoryTierEvictor;
+  private final long mMemoryTierCapacity;
+  private final int mPageSize;
+  private final int mPromotionThreshold;
+  /** The sizes of the pages in the memory tier. */
+  private final ConcurrentHashMap<PageId, Integer> mMemoryTierPages = new ConcurrentHashMap<>();
+  /** The number of reads of the pages not in the memory tier. */
+  private final Cache<PageId, AtomicInteger> mReadCounts;
+  /**
+   * Guards the memory tier. The memory tier recycles the buffers of the deleted pages, so that
+   * pages can only be deleted while no page is being read.
+   */
+  private final ReadWriteLock mMemoryTierLock = new ReentrantReadWriteLock();
+  private long mMemoryTierBytes;
+
+  /**
+   * @param options the options of the lower store
+   * @param lowerTier the lower store
+   */
+  public TieredPageStore(PageStoreOptions options, PageStore lowerTier) {
+    this(lowerTier, new MemoryPageStore((int) options.getPageSize()),
+        CacheEvictor.create(
+            new CacheEvictorOptions().setEvictorClass(options.getMemoryTierEvictorClass())),
+        options.getMemoryTierSize(), (int) options.getPageSize(),
+        options.getMemoryTierPromotionThreshold());
+  }
+
+  @VisibleForTesting
+  TieredPageStore(PageStore lowerTier, MemoryPageStore memoryTier, CacheEvictor evictor,
+      long memoryTierCapacity, int pageSize, int promotionThreshold) {
+    Preconditions.checkArgument(memoryTierCapacity >= pageSize,
+        "memory tier capacity %s is smaller than a page %s", memoryTierCapacity, pageSize);
+    Preconditions.checkArgument(promotionThreshold > 0, "promotion threshold must be positive");
+    mLowerTier = lowerTier;
+    mMemoryTier = memoryTier;
+    mMemoryTierEvictor = evictor;
+    mMemoryTierCapacity = memoryTierCapacity;
+    mPageSize = pageSize;
+    mPromotionThreshold = promotionThreshold;
+    mReadCounts = CacheBuilder.newBuilder()
+        .maximumSize(READ_COUNT_CAPACITY_FACTOR * (memoryTierCapacity / pageSize))
+        .build();
+  }
+
+  @Override
+  public void put(PageId pageId, ByteBuffer page, boolean isTemporary)
+      throws ResourceExhaustedException, IOException {
+    // the page is promoted once read again
+    demote(pageId);
+    mLowerTier.put(pageId, page, isTemporary);
+  }
+
+  @Override
+  public int get(PageId pageId, int pageOffset, int bytesToRead, ReadTargetBuffer buffer,
+      boolean isTemporary) throws IOException, PageNotFoundException {
+    Integer bytesRead = getFromMemoryTier(pageId, pageOffset, bytesToRead, buffer, isTemporary);
+    if (bytesRead != null) {
+      return bytesRead;
+    }
+    return mLowerTier.get(pageId, pageOffset, bytesToRead, buffer, isTemporary);
+  }
+
+  @Override
+  public CompletableFuture<Integer> getAsync(PageId pageId, int pageOffset, int bytesToRead,
+      ReadTargetBuffer buffer, boolean isTemporary) {
+    Integer bytesRead;
+    try {
+      bytesRead = getFromMemoryTier(pageId, pageOffset, bytesToRead, buffer, isTemporary);
+    } catch (IOException | PageNotFoundException | RuntimeException e) {
+      CompletableFuture<Integer> future = new CompletableFuture<>();
+      future.completeExceptionally(e);
+      return future;
+    }
+    if (bytesRead != null) {
+      return CompletableFuture.completedFuture(bytesRead);
+    }
+    return mLowerTier.getAsync(pageId, pageOffset, bytesToRead, buffer, isTemporary);
+  }
+
+  /**
+   * Reads part of a page from the memory tier, after promoting the page if it has been read
+   * often enough from the lower store.
+   *
+   * @return the number of bytes read, or null if the page is to be read from the lower store
+   */
+  @Nullable
+  private Integer getFromMemoryTier(PageId pageId, int pageOffset, int bytesToRead,
+      ReadTargetBuffer buffer, boolean isTemporary) throws IOException, PageNotFoundException {
+    if (isTemporary) {
+      return null;
+    }
+    mMemoryTierLock.readLock().lock();
+    try {
+      if (mMemoryTierPages.containsKey(pageId)) {
+        int bytesRead = mMemoryTier.get(pageId, pageOffset, bytesToRead, buffer, false);
+        mMemoryTierEvictor.updateOnGet(pageId);
+        Metrics.HITS.inc();
+        return bytesRead;
+      }
+    } finally {
+      mMemoryTierLock.readLock().unlock();
+    }
+    if (!shouldPromote(pageId)) {
+      return null;
+    }
+    byte[] page = new byte[mPageSize];
+    int pageLength = mLowerTier.get(pageId, 0, mPageSize,
+        new ByteArrayTargetBuffer(page, 0), false);
+    promote(pageId, ByteBuffer.wrap(page, 0, pageLength));
+    Preconditions.checkArgument(pageOffset <= pageLength,
+        "page offset %s exceeded page size %s", pageOffset, pageLength);
+    int bytesRead = Math.min(Math.min(bytesToRead, pageLength - pageOffset),
+        (int) buffer.remaining());
+    buffer.writeBytes(page, pageOffset, bytesRead);
+    return bytesRead;
+  }
+
+  private boolean shouldPromote(PageId pageId) {
+    try {
+      return mReadCounts.get(pageId, AtomicInteger::new).incrementAndGet()
+          >= mPromotionThreshold;
+    } catch (ExecutionException e) {
+      // the loader does not throw
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private void promote(PageId pageId, ByteBuffer page) throws IOException {
+    mReadCounts.invalidate(pageId);
+    int pageLength = page.remaining();
+    mMemoryTierLock.writeLock().lock();
+    try {
+      if (mMemoryTierPages.containsKey(pageId)) {
+        return;
+      }
+      while (mMemoryTierBytes + pageLength > mMemoryTierCapacity) {
+        PageId victim = mMemoryTierEvictor.evict();
+        if (victim == null || !removeFromMemoryTier(victim)) {
+          return;
+        }
+        Metrics.DEMOTIONS.inc();
+      }
+      mMemoryTier.put(pageId, page, false);
+      mMemoryTierPages.put(pageId, pageLength);
+      mMemoryTierBytes += pageLength;
+      mMemoryTierEvictor.updateOnPut(pageId);
+      Metrics.PROMOTIONS.inc();
+    } finally {
+      mMemoryTierLock.writeLock().unlock();
+    }
+  }
+
+  private void demote(PageId pageId) throws IOException {
+    mReadCounts.invalidate(pageId);
+    if (!mMemoryTierPages.containsKey(pageId)) {
+      return;
+    }
+    mMemoryTierLock.writeLock().lock();
+    try {
+      removeFromMemoryTier(pageId);
+    } finally {
+      mMemoryTierLock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Removes a page from the memory tier, with the write lock held.
+   *
+   * @return whether the page was in the memory tier
+   */
+  private boolean removeFromMemoryTier(PageId pageId) throws IOException {
+    Integer pageLength = mMemoryTierPages.remove(pageId);
+    if (pageLength == null) {
+      return false;
+    }
+    try {
+      mMemoryTier.delete(pageId);
+    } catch (PageNotFoundException e) {
+      throw new IllegalStateException(
+          String.format("Page %s is missing from the memory tier", pageId), e);
+    }
+    mMemoryTierBytes -= pageLength;
+    mMemoryTierEvictor.updateOnDelete(pageId);
+    return true;
+  }
+
+  @Override
+  public void delete(PageId pageId, boolean isTemporary)
+      throws IOException, PageNotFoundException {
+    if (!isTemporary) {
+      demote(pageId);
+    }
+    mLowerTier.delete(pageId, isTemporary);
+  }
+
+  @Override
+  public void delete(PageId pageId) throws IOException, PageNotFoundException {
+    delete(pageId, false);
+  }
+
+  @Override
+  public void commit(String fileId, String newFileId) throws IOException {
+    mLowerTier.commit(fileId, newFileId);
+  }
+
+  @Override
+  public void abort(String fileId) throws IOException {
+    mLowerTier.abort(fileId);
+  }
+
+  /**
+   * Data file channels are only served by the lower store, which holds every page.
+   */
+  @Override
+  public DataFileChannel getDataFileChannel(PageId pageId, int pageOffset, int bytesToRead,
+      boolean isTemporary) throws PageNotFoundException {
+    return mLowerTier.getDataFileChannel(pageId, pageOffset, bytesToRead, isTemporary);
+  }
+
+  /**
+   * @return the number of bytes in the memory tier
+   */
+  @VisibleForTesting
+  long getMemoryTierBytes() {
+    mMemoryTierLock.readLock().lock();
+    try {
+      return mMemoryTierBytes;
+    } finally {
+      mMemoryTierLock.readLock().unlock();
+    }
+  }
+
+  /**
+   * @param pageId the page id
+   * @return whether the page is in the memory tier
+   */
+  @VisibleForTesting
+  boolean isInMemoryTier(PageId pageId) {
+    return mMemoryTierPages.containsKey(pageId);
+  }
+
+  @Override
+  public void close() throws Exception {
+    try (Closer closer = Closer.create()) {
+      closer.register(() -> {
+        try {
+          mLowerTier.close();
+        } catch (Exception e) {
+          throw new IOException(e);
+        }
+      });
+      closer.register(mMemoryTier::close);
+    }
+  }
+
+  private static final class Metrics {
+    private static final Counter HITS =
+        MetricsSystem.counter(MetricKey.WORKER_PAGE_STORE_MEMORY_TIER_HITS.getName());
+    private static final Counter PROMOTIONS =
+        MetricsSystem.counter(MetricKey.WORKER_PAGE_STORE_MEMORY_TIER_PROMOTIONS.getName());
+    private static final Counter DEMOTIONS =
+        MetricsSystem.counter(MetricKey.WORKER_PAGE_STORE_MEMORY_TIER_DEMOTIONS.getName());
+  }
+}
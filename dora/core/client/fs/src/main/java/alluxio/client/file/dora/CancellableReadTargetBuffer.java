@@ -0,0 +1,150 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.dora;
+
+import alluxio.file.ReadTargetBuffer;
+
+import io.netty.buffer.ByteBuf;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.CancellationException;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A {@link ReadTargetBuffer} whose read can be cancelled from another thread without
+ * interrupting the reading thread.
+ * <br>
+ * Once cancelled, the writes to the buffer throw a {@link CancellationException}, and the
+ * listener registered by the reader, if any, is notified so that a reader waiting for data can
+ * give up the read.
+ */
+@ThreadSafe
+public class CancellableReadTargetBuffer implements ReadTargetBuffer {
+  private final ReadTargetBuffer mTarget;
+  private volatile boolean mCancelled;
+  @GuardedBy("this")
+  @Nullable
+  private Runnable mCancelListener;
+
+  /**
+   * @param target the buffer written by the read
+   */
+  public CancellableReadTargetBuffer(ReadTargetBuffer target) {
+    mTarget = target;
+  }
+
+  /**
+   * Cancels the read, and notifies the reader.
+   */
+  public void cancel() {
+    Runnable listener;
+    synchronized (this) {
+      if (mCancelled) {
+        return;
+      }
+      mCancelled = true;
+      listener = mCancelListener;
+    }
+    if (listener != null) {
+      listener.run();
+    }
+  }
+
+  /**
+   * @return whether the read is cancelled
+   */
+  public boolean isCancelled() {
+    return mCancelled;
+  }
+
+  /**
+   * Sets the listener notified when the read is cancelled, replacing the previous one. The
+   * listener is run immediately if the read is already cancelled.
+   *
+   * @param listener the listener
+   */
+  public void onCancel(Runnable listener) {
+    synchronized (this) {
+      if (!mCancelled) {
+        mCancelListener = listener;
+        return;
+      }
+    }
+    listener.run();
+  }
+
+  private void checkNotCancelled() {
+    if (mCancelled) {
+      throw new CancellationException("The read is cancelled");
+    }
+  }
+
+  @Override
+  public byte[] byteArray() {
+    return mTarget.byteArray();
+  }
+
+  @Override
+  public ByteBuffer byteBuffer() {
+    return mTarget.byteBuffer();
+  }
+
+  @Override
+  public int offset() {
+    return mTarget.offset();
+  }
+
+  @Override
+  public void offset(int newOffset) {
+    mTarget.offset(newOffset);
+  }
+
+  @Override
+  public WritableByteChannel byteChannel() {
+    return mTarget.byteChannel();
+  }
+
+  @Override
+  public long remaining() {
+    return mTarget.remaining();
+  }
+
+  @Override
+  public void writeBytes(byte[] srcArray, int srcOffset, int length) {
+    checkNotCancelled();
+    mTarget.writeBytes(srcArray, srcOffset, length);
+  }
+
+  @Override
+  public void writeBytes(ByteBuf buf) {
+    checkNotCancelled();
+    mTarget.writeBytes(buf);
+  }
+
+  @Override
+  public int readFromFile(RandomAccessFile file, int length) throws IOException {
+    checkNotCancelled();
+    return mTarget.readFromFile(file, length);
+  }
+
+  @Override
+  public int readFromInputStream(InputStream is, int length) throws IOException {
+    checkNotCancelled();
+    return mTarget.readFromInputStream(is, length);
+  }
+}
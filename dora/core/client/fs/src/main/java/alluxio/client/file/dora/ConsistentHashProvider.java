@@ -25,7 +25,7 @@ import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import com.google.common.hash.HashFunction;
 
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.NavigableMap;
@@ -108,10 +108,11 @@ public class ConsistentHashProvider {
    *
    * @param key the key to hash on
    * @param count the expected number of workers
-   * @return a list of workers following the hash ring
+   * @return a list of workers following the hash ring, the first one being the worker that
+   *         owns the key
    */
   public List<BlockWorkerInfo> getMultiple(String key, int count) {
-    Set<BlockWorkerInfo> workers = new HashSet<>();
+    Set<BlockWorkerInfo> workers = new LinkedHashSet<>();
     int attempts = 0;
     while (workers.size() < count && attempts < mMaxAttempts) {
       attempts++;
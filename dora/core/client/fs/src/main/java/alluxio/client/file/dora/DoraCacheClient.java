@@ -16,6 +16,7 @@ import static com.google.common.base.Preconditions.checkState;
 import alluxio.AlluxioURI;
 import alluxio.CloseableSupplier;
 import alluxio.PositionReader;
+import alluxio.client.HedgedReadTarget;
 import alluxio.client.block.BlockWorkerInfo;
 import alluxio.client.block.stream.BlockWorkerClient;
 import alluxio.client.block.stream.GrpcDataReader;
@@ -28,6 +29,7 @@ import alluxio.client.file.dora.netty.NettyDataReader;
 import alluxio.client.file.dora.netty.NettyDataWriter;
 import alluxio.client.file.options.OutStreamOptions;
 import alluxio.collections.Pair;
+import alluxio.conf.AlluxioConfiguration;
 import alluxio.conf.PropertyKey;
 import alluxio.exception.AlluxioException;
 import alluxio.exception.FileDoesNotExistException;
@@ -64,6 +66,7 @@ import alluxio.wire.WorkerNetAddress;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 
@@ -80,6 +83,9 @@ public class DoraCacheClient {
 
   private final int mPreferredWorkerCount;
 
+  private final boolean mReadHedgeEnabled;
+  private final HedgedReadTarget mReadHedgeTarget;
+
   /**
    * Constructor.
    *
@@ -94,6 +100,10 @@ public class DoraCacheClient {
         context.getClusterConf().getBoolean(PropertyKey.USER_NETTY_DATA_TRANSMISSION_ENABLED);
     int minReplicaCount = context.getClusterConf().getInt(PropertyKey.USER_FILE_REPLICATION_MIN);
     mPreferredWorkerCount = Math.max(1, minReplicaCount);
+    mReadHedgeEnabled =
+        context.getClusterConf().getBoolean(PropertyKey.DORA_CLIENT_READ_HEDGE_ENABLED);
+    mReadHedgeTarget = context.getClusterConf()
+        .getEnum(PropertyKey.DORA_CLIENT_READ_HEDGE_TARGET, HedgedReadTarget.class);
   }
 
   /**
@@ -105,7 +115,7 @@ public class DoraCacheClient {
    */
   public PositionReadFileInStream getInStream(URIStatus status,
       Protocol.OpenUfsBlockOptions ufsOptions) {
-    WorkerNetAddress workerNetAddress = getWorkerNetAddress(status.getUfsPath());
+    WorkerNetAddress workerNetAddress = getReadWorkerNetAddress(status);
     // Construct the partial read request
     NettyDataReader reader;
     if (mNettyTransEnabled) {
@@ -144,15 +154,33 @@ public class DoraCacheClient {
    * @param status
    * @param ufsOptions
    * @param externalPositionReader
-   * @return a netty position reader
+   * @return a netty position reader, which hedges slow reads if enabled
    */
-  public DoraCachePositionReader createNettyPositionReader(URIStatus status,
+  public PositionReader createNettyPositionReader(URIStatus status,
       Protocol.OpenUfsBlockOptions ufsOptions,
       CloseableSupplier<PositionReader> externalPositionReader) {
-    WorkerNetAddress workerNetAddress = getWorkerNetAddress(status.toString());
+    WorkerNetAddress workerNetAddress = getReadWorkerNetAddress(status);
     // Construct the partial read request
     NettyDataReader reader = createNettyDataReader(workerNetAddress, ufsOptions);
-    return new DoraCachePositionReader(reader, status.getLength(), externalPositionReader);
+    DoraCachePositionReader positionReader =
+        new DoraCachePositionReader(reader, status.getLength(), externalPositionReader);
+    if (!mReadHedgeEnabled) {
+      return positionReader;
+    }
+    CloseableSupplier<PositionReader> hedgeReader = externalPositionReader;
+    if (mReadHedgeTarget == HedgedReadTarget.WORKER) {
+      WorkerNetAddress hedgeAddress = getHedgeWorkerNetAddress(status, workerNetAddress);
+      if (hedgeAddress != null) {
+        hedgeReader = new CloseableSupplier<>(() -> new DoraCachePositionReader(
+            createNettyDataReader(hedgeAddress, ufsOptions), status.getLength(),
+            externalPositionReader));
+      }
+    }
+    AlluxioConfiguration conf = mContext.getClusterConf();
+    return new HedgedPositionReader(positionReader, workerNetAddress, hedgeReader,
+        status.getLength(), mContext.getWorkerLatencyTracker(), mContext.getHedgedReadExecutor(),
+        conf.getDouble(PropertyKey.DORA_CLIENT_READ_HEDGE_PERCENTILE),
+        conf.getMs(PropertyKey.DORA_CLIENT_READ_HEDGE_MIN_DELAY));
   }
 
   protected GrpcDataReader.Factory createGrpcDataReader(
@@ -402,6 +430,64 @@ public class DoraCacheClient {
     }
   }
 
+  /**
+   * Get the worker net address to read a file from. The worker owning a hot file replicates it
+   * to the next workers on the hash ring, so reads of a hot file are spread randomly across
+   * the owner and the replicas known to be live.
+   *
+   * @param status the status of the file to read
+   * @return the worker net address to read the file from
+   */
+  public WorkerNetAddress getReadWorkerNetAddress(URIStatus status) {
+    WorkerNetAddress owner = getWorkerNetAddress(status.getUfsPath());
+    List<WorkerNetAddress> replicas = getLiveHotReplicas(status);
+    if (replicas.isEmpty()) {
+      return owner;
+    }
+    int choice = ThreadLocalRandom.current().nextInt(replicas.size() + 1);
+    return choice == replicas.size() ? owner : replicas.get(choice);
+  }
+
+  /**
+   * Gets the worker to hedge the reads of a file to, which is the next worker on the hash ring
+   * after the one serving the reads that is known to be live.
+   *
+   * @param status the status of the file to read
+   * @param readWorker the worker serving the reads
+   * @return the worker net address to hedge the reads to, or null if there is no other worker
+   */
+  @Nullable
+  private WorkerNetAddress getHedgeWorkerNetAddress(URIStatus status,
+      WorkerNetAddress readWorker) {
+    try {
+      // reads served by the owner of a hot file are hedged to one of its replicas
+      List<WorkerNetAddress> replicas = getLiveHotReplicas(status);
+      if (!replicas.isEmpty() && !replicas.contains(readWorker)) {
+        return replicas.get(0);
+      }
+      List<BlockWorkerInfo> workers = mContext.getCachedWorkers();
+      // one more candidate than needed, in case the next worker on the ring is offline
+      int count = Math.min(workers.size(), 3);
+      if (count < 2) {
+        return null;
+      }
+      return mWorkerLocationPolicy.getPreferredWorkers(workers, status.getUfsPath(), count)
+          .stream()
+          .map(BlockWorkerInfo::getNetAddress)
+          .filter(address -> !address.equals(readWorker) && mContext.isWorkerLive(address))
+          .findFirst()
+          .orElse(null);
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private List<WorkerNetAddress> getLiveHotReplicas(URIStatus status) {
+    return status.getHotReplicas().stream()
+        .filter(mContext::isWorkerLive)
+        .collect(Collectors.toList());
+  }
+
   /**
    * Chooses a client preferred worker from multiple workers which hold multiple replicas.
    *
@@ -0,0 +1,242 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.dora;
+
+import alluxio.CloseableSupplier;
+import alluxio.PositionReader;
+import alluxio.file.ReadTargetBuffer;
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
+import alluxio.wire.WorkerNetAddress;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Meter;
+import com.google.common.base.Throwables;
+import com.google.common.io.Closer;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A {@link PositionReader} which hedges slow reads.
+ * <br>
+ * A read is issued to the worker serving the file on the calling thread, directly into the
+ * target buffer. If it is still outstanding after a percentile of the latency of the recent
+ * worker reads, the same read is issued to a second source, either the next worker on the hash
+ * ring or the UFS, on the hedged read executor. If the hedge completes first, it cancels the
+ * primary read through a {@link CancellableReadTargetBuffer}, and its data are copied to the
+ * target buffer once the primary read gives up. Otherwise the hedge is cancelled before it
+ * starts, or its result is ignored. Reads completing before the hedge delay do not switch threads
+ * nor copy data.
+ * <br>
+ * Neither read is interrupted: an interrupt would close the NIO channels the readers may be
+ * using, and could not be told apart from an interrupt of the caller.
+ */
+@ThreadSafe
+public class HedgedPositionReader implements PositionReader {
+  private static final Meter HEDGED_READS =
+      MetricsSystem.meter(MetricKey.CLIENT_READ_HEDGED.getName());
+  private static final Counter HEDGE_WINS =
+      MetricsSystem.counter(MetricKey.CLIENT_READ_HEDGE_WIN_COUNT.getName());
+
+  /** Neither read has completed. */
+  private static final int PENDING = 0;
+  /** The primary read completed first. */
+  private static final int PRIMARY_COMPLETED = 1;
+  /** The primary read failed, the hedge is awaited. */
+  private static final int PRIMARY_FAILED = 2;
+  /** The hedge completed first and cancelled the primary read. */
+  private static final int HEDGE_COMPLETED = 3;
+
+  private final PositionReader mPrimaryReader;
+  private final WorkerNetAddress mPrimaryAddress;
+  private final CloseableSupplier<PositionReader> mHedgeReader;
+  private final long mFileLength;
+  private final WorkerLatencyTracker mLatencyTracker;
+  private final ScheduledExecutorService mExecutor;
+  private final double mPercentile;
+  private final long mMinDelayNs;
+  private volatile boolean mClosed;
+
+  /**
+   * @param primaryReader the reader reading from the worker serving the file
+   * @param primaryAddress the address of the worker serving the file
+   * @param hedgeReader the supplier of the reader used to hedge slow reads
+   * @param fileLength the file length
+   * @param latencyTracker the tracker of the latency of worker reads
+   * @param executor the executor running the hedges
+   * @param percentile the latency percentile after which a read is hedged
+   * @param minDelayMs the minimum time a read is outstanding before being hedged
+   */
+  public HedgedPositionReader(PositionReader primaryReader, WorkerNetAddress primaryAddress,
+      CloseableSupplier<PositionReader> hedgeReader, long fileLength,
+      WorkerLatencyTracker latencyTracker, ScheduledExecutorService executor,
+      double percentile, long minDelayMs) {
+    mPrimaryReader = primaryReader;
+    mPrimaryAddress = primaryAddress;
+    mHedgeReader = hedgeReader;
+    mFileLength = fileLength;
+    mLatencyTracker = latencyTracker;
+    mExecutor = executor;
+    mPercentile = percentile;
+    mMinDelayNs = TimeUnit.MILLISECONDS.toNanos(minDelayMs);
+  }
+
+  @Override
+  public int readInternal(long position, ReadTargetBuffer buffer, int length)
+      throws IOException {
+    if (position >= mFileLength) { // at end of file
+      return -1;
+    }
+    int bytesToRead = (int) Math.min(length, mFileLength - position);
+    int offset = buffer.offset();
+    CancellableReadTargetBuffer primaryBuffer = new CancellableReadTargetBuffer(buffer);
+    Hedge hedge = new Hedge(position, bytesToRead, primaryBuffer);
+    Future<Integer> hedgeFuture;
+    try {
+      hedgeFuture = mExecutor.schedule(hedge, getHedgeDelayNs(), TimeUnit.NANOSECONDS);
+    } catch (RejectedExecutionException e) {
+      // the file system context is closing
+      return mPrimaryReader.read(position, buffer, bytesToRead);
+    }
+    int bytesRead;
+    try {
+      bytesRead = mPrimaryReader.read(position, primaryBuffer, bytesToRead);
+    } catch (IOException | RuntimeException e) {
+      if (hedge.mState.compareAndSet(PENDING, PRIMARY_FAILED)) {
+        buffer.offset(offset);
+        return readFromHedge(hedge, hedgeFuture, buffer, e);
+      }
+      return copyFromHedge(hedge, hedgeFuture, buffer, offset);
+    }
+    if (hedge.mState.compareAndSet(PENDING, PRIMARY_COMPLETED)) {
+      // a hedge already started completes on its own and is ignored
+      hedgeFuture.cancel(false);
+      return bytesRead;
+    }
+    return copyFromHedge(hedge, hedgeFuture, buffer, offset);
+  }
+
+  /**
+   * Completes a read whose hedge completed first and cancelled the primary read.
+   */
+  private int copyFromHedge(Hedge hedge, Future<Integer> hedgeFuture, ReadTargetBuffer buffer,
+      int offset) throws IOException {
+    int bytesRead;
+    try {
+      bytesRead = Uninterruptibles.getUninterruptibly(hedgeFuture);
+    } catch (ExecutionException e) {
+      // the hedge only cancels the primary read after it completed successfully
+      throw new IllegalStateException(e.getCause());
+    }
+    HEDGE_WINS.inc();
+    buffer.offset(offset);
+    if (bytesRead > 0) {
+      buffer.writeBytes(hedge.mData, 0, bytesRead);
+    }
+    return bytesRead;
+  }
+
+  /**
+   * Completes a read whose primary read failed with the hedge.
+   */
+  private int readFromHedge(Hedge hedge, Future<Integer> hedgeFuture, ReadTargetBuffer buffer,
+      Throwable failure) throws IOException {
+    try {
+      if (hedgeFuture.cancel(false)) {
+        // the hedge was not started yet, read from the hedge source on the calling thread
+        HEDGED_READS.mark();
+        return mHedgeReader.get().read(hedge.mPosition, buffer, hedge.mLength);
+      }
+      int bytesRead = hedgeFuture.get();
+      if (bytesRead > 0) {
+        buffer.writeBytes(hedge.mData, 0, bytesRead);
+      }
+      return bytesRead;
+    } catch (ExecutionException e) {
+      failure.addSuppressed(e.getCause());
+    } catch (IOException | RuntimeException e) {
+      failure.addSuppressed(e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for a hedged read");
+    }
+    Throwables.propagateIfPossible(failure, IOException.class);
+    throw new IOException(failure);
+  }
+
+  private long getHedgeDelayNs() {
+    long percentileNs = mLatencyTracker.getLatencyPercentileNs(mPercentile);
+    if (percentileNs < 0) {
+      return mMinDelayNs;
+    }
+    // a worker already known to be slow is hedged as early as allowed
+    if (mLatencyTracker.getLatencyNs(mPrimaryAddress) > percentileNs) {
+      return mMinDelayNs;
+    }
+    return Math.max(percentileNs, mMinDelayNs);
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    if (mClosed) {
+      return;
+    }
+    mClosed = true;
+    try (Closer closer = Closer.create()) {
+      closer.register(mPrimaryReader);
+      closer.register(mHedgeReader);
+    }
+  }
+
+  /**
+   * The hedge of a read. As the primary read may still be writing to the target buffer, the
+   * hedge reads into its own buffer.
+   */
+  private final class Hedge implements Callable<Integer> {
+    private final long mPosition;
+    private final int mLength;
+    private final CancellableReadTargetBuffer mPrimaryBuffer;
+    private final AtomicInteger mState = new AtomicInteger(PENDING);
+    private byte[] mData;
+
+    private Hedge(long position, int length, CancellableReadTargetBuffer primaryBuffer) {
+      mPosition = position;
+      mLength = length;
+      mPrimaryBuffer = primaryBuffer;
+    }
+
+    @Override
+    public Integer call() throws IOException {
+      if (mState.get() != PENDING) {
+        return 0;
+      }
+      HEDGED_READS.mark();
+      mData = new byte[mLength];
+      int bytesRead = mHedgeReader.get().read(mPosition, mData, mLength);
+      if (mState.compareAndSet(PENDING, HEDGE_COMPLETED)) {
+        // abandon the primary read
+        mPrimaryBuffer.cancel();
+      }
+      return bytesRead;
+    }
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.dora;
+
+import alluxio.wire.WorkerNetAddress;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Tracks the latency of the reads served by each worker.
+ * <br>
+ * For each worker, an exponentially weighted moving average (EWMA) of the read latency is
+ * maintained, so that a worker which suddenly becomes slow, e.g. because of a GC pause, is
+ * detected within a few reads. In addition, the latencies of the most recent reads across all
+ * workers are kept in a sliding window, from which latency percentiles are estimated.
+ */
+@ThreadSafe
+public class WorkerLatencyTracker {
+  /** The weight of a new sample in the moving average. */
+  private static final double EWMA_ALPHA = 0.2;
+  private static final int DEFAULT_WINDOW_SIZE = 1024;
+
+  private final ConcurrentHashMap<WorkerNetAddress, Ewma> mWorkerLatencies =
+      new ConcurrentHashMap<>();
+  private final AtomicLongArray mWindow;
+  private final AtomicLong mSampleCount = new AtomicLong();
+  private final int mRecomputeInterval;
+  private final ReentrantLock mPercentileLock = new ReentrantLock();
+  /** The sorted samples of the window as of the last recomputation. */
+  private volatile long[] mSortedWindow = new long[0];
+  private volatile long mLastRecomputeSampleCount;
+
+  /**
+   * Creates a new instance.
+   */
+  public WorkerLatencyTracker() {
+    this(DEFAULT_WINDOW_SIZE);
+  }
+
+  @VisibleForTesting
+  WorkerLatencyTracker(int windowSize) {
+    Preconditions.checkArgument(windowSize > 0, "window size must be positive");
+    mWindow = new AtomicLongArray(windowSize);
+    mRecomputeInterval = Math.max(1, windowSize / 16);
+  }
+
+  /**
+   * Records the latency of a read served by a worker.
+   *
+   * @param worker the worker address
+   * @param latencyNs the latency of the read in nanoseconds
+   */
+  public void recordLatency(WorkerNetAddress worker, long latencyNs) {
+    mWorkerLatencies.computeIfAbsent(worker, w -> new Ewma()).update(latencyNs);
+    long index = mSampleCount.getAndIncrement();
+    mWindow.set((int) (index % mWindow.length()), latencyNs);
+  }
+
+  /**
+   * @param worker the worker address
+   * @return the moving average of the read latency of the worker in nanoseconds, or -1 if no
+   *         read served by the worker has been recorded
+   */
+  public long getLatencyNs(WorkerNetAddress worker) {
+    Ewma ewma = mWorkerLatencies.get(worker);
+    return ewma == null ? -1 : ewma.get();
+  }
+
+  /**
+   * Estimates a percentile of the latency of the recent reads. The estimation is refreshed
+   * every few samples, so that it is cheap enough to be called on every read.
+   *
+   * @param percentile the percentile, between 0 and 100
+   * @return the estimated latency percentile in nanoseconds, or -1 if not enough reads have been
+   *         recorded yet
+   */
+  public long getLatencyPercentileNs(double percentile) {
+    Preconditions.checkArgument(percentile >= 0 && percentile <= 100,
+        "percentile must be between 0 and 100");
+    long count = mSampleCount.get();
+    if (count < mRecomputeInterval) {
+      return -1;
+    }
+    if (count - mLastRecomputeSampleCount >= mRecomputeInterval && mPercentileLock.tryLock()) {
+      try {
+        int size = (int) Math.min(count, mWindow.length());
+        long[] samples = new long[size];
+        for (int i = 0; i < size; i++) {
+          samples[i] = mWindow.get(i);
+        }
+        Arrays.sort(samples);
+        mSortedWindow = samples;
+        mLastRecomputeSampleCount = count;
+      } finally {
+        mPercentileLock.unlock();
+      }
+    }
+    long[] sorted = mSortedWindow;
+    if (sorted.length == 0) {
+      return -1;
+    }
+    int rank = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+    return sorted[Math.max(0, Math.min(rank, sorted.length - 1))];
+  }
+
+  private static final class Ewma {
+    private long mValue = -1;
+
+    private synchronized void update(long sample) {
+      mValue = mValue < 0 ? sample : (long) (EWMA_ALPHA * sample + (1 - EWMA_ALPHA) * mValue);
+    }
+
+    private synchronized long get() {
+      return mValue;
+    }
+  }
+}
@@ -13,6 +13,7 @@ package alluxio.client.file.dora.netty;
 
 import alluxio.PositionReader;
 import alluxio.client.file.FileSystemContext;
+import alluxio.client.file.dora.CancellableReadTargetBuffer;
 import alluxio.file.ReadTargetBuffer;
 import alluxio.proto.dataserver.Protocol;
 import alluxio.wire.WorkerNetAddress;
@@ -51,12 +52,17 @@ public class NettyDataReader implements PositionReader {
         .clearCancel();
     NettyDataReaderStateMachine clientStateMachine =
         new NettyDataReaderStateMachine(mContext, mAddress, builder, buffer);
+    if (buffer instanceof CancellableReadTargetBuffer) {
+      ((CancellableReadTargetBuffer) buffer).onCancel(clientStateMachine::cancel);
+    }
+    long startNs = System.nanoTime();
     clientStateMachine.run();
     int bytesRead = clientStateMachine.getBytesRead();
     PartialReadException exception = clientStateMachine.getException();
     if (exception != null) {
       throw exception;
     } else {
+      mContext.getWorkerLatencyTracker().recordLatency(mAddress, System.nanoTime() - startNs);
       if (bytesRead == 0) {
         return -1;
       }
@@ -323,6 +323,15 @@ public class NettyDataReaderStateMachine {
         "execution of state machine has stopped but it is not in a terminated state");
   }
 
+  /**
+   * Cancels the read from another thread. The read is abandoned as if the thread running the
+   * state machine was interrupted, once it handles the events received before.
+   */
+  public void cancel() {
+    mResponseEventQueue.offer(
+        ResponseEventFactory.getResponseEventFactory().createClientCancelResponseEvent());
+  }
+
   /**
    * Gets the number of bytes that has been received and written into the output channel.
    *
@@ -106,4 +106,13 @@ public class ResponseEventFactory {
   public ChannelErrorResponseEvent createChannelErrorResponseEvent(Throwable cause) {
     return new ChannelErrorResponseEvent(cause);
   }
+
+  /**
+   * Create a ClientCancelResponseEvent.
+   *
+   * @return ClientCancelResponseEvent
+   */
+  public ClientCancelResponseEvent createClientCancelResponseEvent() {
+    return new ClientCancelResponseEvent();
+  }
 }
@@ -25,6 +25,7 @@ import alluxio.client.file.cache.evictor.CacheEvictor;
 import alluxio.client.file.cache.evictor.FIFOCacheEvictor;
 import alluxio.client.file.cache.evictor.LRUCacheEvictor;
 import alluxio.client.file.cache.evictor.UnevictableCacheEvictor;
+import alluxio.client.file.cache.store.AsyncLocalPageStore;
 import alluxio.client.file.cache.store.LocalPageStore;
 import alluxio.client.file.cache.store.LocalPageStoreDir;
 import alluxio.client.file.cache.store.PageStoreDir;
@@ -38,6 +39,7 @@ import alluxio.conf.InstancedConfiguration;
 import alluxio.conf.PropertyKey;
 import alluxio.exception.PageNotFoundException;
 import alluxio.exception.status.ResourceExhaustedException;
+import alluxio.file.ByteArrayTargetBuffer;
 import alluxio.file.NettyBufTargetBuffer;
 import alluxio.network.protocol.databuffer.DataFileChannel;
 import alluxio.util.CommonUtils;
@@ -48,6 +50,7 @@ import alluxio.util.io.PathUtils;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.RateLimiter;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.DefaultFileRegion;
@@ -61,7 +64,11 @@ import org.junit.rules.TemporaryFolder;
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
@@ -585,6 +592,54 @@ public final class LocalCacheManagerTest {
     }
   }
 
+  @Test
+  public void getPagesFromAsyncPageStore() throws Exception {
+    assertFalse(mCacheManager.isConcurrentPageReadEnabled());
+    mCacheManager.close();
+    // reads with a timeout are synchronous
+    mConf.set(PropertyKey.USER_CLIENT_CACHE_TIMEOUT_DURATION, "-1");
+    mCacheManagerOptions = CacheManagerOptions.create(mConf);
+    mPageStoreOptions = mCacheManagerOptions.getPageStoreOptions().get(0)
+        .setAsyncIoQueueDepth(4);
+    mPageStore = PageStore.create(mPageStoreOptions);
+    assertTrue(mPageStore instanceof AsyncLocalPageStore);
+    mPageStoreDir = new LocalPageStoreDir(mPageStoreOptions, mPageStore, mEvictor);
+    mPageMetaStore = new DefaultPageMetaStore(ImmutableList.of(mPageStoreDir));
+    mCacheManager = LocalCacheManager.create(mCacheManagerOptions, mPageMetaStore);
+    CommonUtils.waitFor("restore completed",
+        () -> mCacheManager.state() == CacheManager.State.READ_WRITE,
+        WaitForOptions.defaults().setTimeoutMs(10000));
+    assertTrue(mCacheManager.isConcurrentPageReadEnabled());
+    List<PageId> pageIds = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      pageIds.add(pageId(0, i));
+    }
+    for (int i = 0; i < 3; i++) {
+      mCacheManager.put(pageIds.get(i), page(i * PAGE_SIZE_BYTES, PAGE_SIZE_BYTES));
+    }
+    int offset = PAGE_SIZE_BYTES / 2;
+    int length = 3 * PAGE_SIZE_BYTES;
+    // the range is read up to the last page, which is not cached
+    int cachedLength = 3 * PAGE_SIZE_BYTES - offset;
+    byte[] buf = new byte[length + 1];
+    ByteArrayTargetBuffer target = new ByteArrayTargetBuffer(buf, 1);
+    assertEquals(cachedLength, mCacheManager.getPages(pageIds, offset, length,
+        PAGE_SIZE_BYTES, target, CacheContext.defaults()));
+    assertEquals(1 + cachedLength, target.offset());
+    assertTrue(BufferUtils.equalIncreasingByteArray(offset, cachedLength,
+        Arrays.copyOfRange(buf, 1, 1 + cachedLength)));
+
+    ByteBuf byteBuf = Unpooled.buffer(length);
+    assertEquals(cachedLength, mCacheManager.getPages(pageIds, offset, length,
+        PAGE_SIZE_BYTES, new NettyBufTargetBuffer(byteBuf), CacheContext.defaults()));
+    byte[] bytes = new byte[byteBuf.readableBytes()];
+    byteBuf.readBytes(bytes);
+    assertTrue(BufferUtils.equalIncreasingByteArray(offset, cachedLength, bytes));
+
+    assertEquals(0, mCacheManager.getPages(pageIds.subList(3, 4), 0, PAGE_SIZE_BYTES,
+        PAGE_SIZE_BYTES, new ByteArrayTargetBuffer(buf, 0), CacheContext.defaults()));
+  }
+
   @Test
   public void getNotEnoughSpaceException() throws Exception {
     byte[] buf = new byte[PAGE1.length - 1];
@@ -1125,6 +1180,67 @@ public final class LocalCacheManagerTest {
     assertArrayEquals(PAGE1, bytes);
   }
 
+  @Test
+  public void verifiedReadEvictsCorruptPage() throws Exception {
+    mCacheManager = createChecksumCacheManager(1.0);
+    mCacheManager.put(PAGE_ID1, PAGE1);
+    mCacheManager.put(PAGE_ID2, PAGE2);
+    assertEquals(PAGE1.length, mCacheManager.get(PAGE_ID1, PAGE1.length, mBuf, 0));
+    assertArrayEquals(PAGE1, mBuf);
+    // a partial read is served from the verified page
+    byte[] buf = new byte[10];
+    assertEquals(10, mCacheManager.get(PAGE_ID1, 5, 10, new ByteArrayTargetBuffer(buf, 0),
+        CacheContext.defaults()));
+    assertArrayEquals(Arrays.copyOfRange(PAGE1, 5, 15), buf);
+
+    Path pagePath = corruptPage(PAGE_ID1);
+    assertEquals(-1, mCacheManager.get(PAGE_ID1, PAGE1.length, mBuf, 0));
+    assertEquals(0, mCacheManager.get(PAGE_ID1, PAGE1.length, mBuf, 0));
+    assertFalse(Files.exists(pagePath));
+    assertEquals(PAGE2.length, mCacheManager.get(PAGE_ID2, PAGE2.length, mBuf, 0));
+    assertArrayEquals(PAGE2, mBuf);
+  }
+
+  @Test
+  public void scrubEvictsCorruptPage() throws Exception {
+    mCacheManager = createChecksumCacheManager(0);
+    mCacheManager.put(PAGE_ID1, PAGE1);
+    mCacheManager.put(PAGE_ID2, PAGE2);
+    Path pagePath = corruptPage(PAGE_ID1);
+    // reads which do not verify the checksum do not notice the corruption
+    assertEquals(PAGE1.length, mCacheManager.get(PAGE_ID1, PAGE1.length, mBuf, 0));
+    mCacheManager.scrub(RateLimiter.create(Double.MAX_VALUE));
+    assertEquals(0, mCacheManager.get(PAGE_ID1, PAGE1.length, mBuf, 0));
+    assertFalse(Files.exists(pagePath));
+    assertEquals(PAGE2.length, mCacheManager.get(PAGE_ID2, PAGE2.length, mBuf, 0));
+    assertArrayEquals(PAGE2, mBuf);
+  }
+
+  private LocalCacheManager createChecksumCacheManager(double readVerificationRatio)
+      throws Exception {
+    mCacheManager.close();
+    mPageStore = PageStore.create(mPageStoreOptions);
+    mEvictor = new FIFOCacheEvictor(mCacheManagerOptions.getCacheEvictorOptions());
+    mPageStoreDir = new LocalPageStoreDir(mPageStoreOptions, mPageStore, mEvictor);
+    mPageMetaStore = new DefaultPageMetaStore(ImmutableList.of(mPageStoreDir));
+    mCacheManagerOptions = CacheManagerOptions.create(mConf).setChecksumEnabled(true)
+        .setChecksumReadVerificationRatio(readVerificationRatio);
+    LocalCacheManager cacheManager =
+        LocalCacheManager.create(mCacheManagerOptions, mPageMetaStore);
+    CommonUtils.waitFor("restore completed",
+        () -> cacheManager.state() == CacheManager.State.READ_WRITE,
+        WaitForOptions.defaults().setTimeoutMs(10000));
+    return cacheManager;
+  }
+
+  private Path corruptPage(PageId pageId) throws IOException {
+    Path pagePath = new LocalPageStore(mPageStoreOptions).getPagePath(pageId, false);
+    byte[] page = Files.readAllBytes(pagePath);
+    page[page.length / 2] ^= 1;
+    Files.write(pagePath, page);
+    return pagePath;
+  }
+
   /**
    * A PageStore where put can throw IOException on put or delete.
    */
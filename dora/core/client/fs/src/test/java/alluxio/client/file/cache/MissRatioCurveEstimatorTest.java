@@ -0,0 +1,82 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache;
+
+import static org.junit.Assert.assertEquals;
+
+import alluxio.Constants;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class MissRatioCurveEstimatorTest {
+  private static final long WINDOW_MS = Constants.HOUR_MS;
+  private static final double DELTA = 1e-6;
+
+  private final AtomicLong mClock = new AtomicLong();
+
+  @Test
+  public void cyclicAccesses() {
+    MissRatioCurveEstimator estimator =
+        new MissRatioCurveEstimator(new long[] {500, 1000}, 1, WINDOW_MS, mClock::get);
+    // an LRU cache smaller than the loop misses every access
+    accessLoop(estimator, 10, 100, 3);
+    assertEquals(0, estimator.getHitRatio(0), DELTA);
+    assertEquals(20.0 / 30, estimator.getHitRatio(1), DELTA);
+  }
+
+  @Test
+  public void pagesBeyondLargestSizeAreForgotten() {
+    MissRatioCurveEstimator estimator =
+        new MissRatioCurveEstimator(new long[] {500, 1000}, 1, WINDOW_MS, mClock::get);
+    accessLoop(estimator, 20, 100, 3);
+    assertEquals(0, estimator.getHitRatio(1), DELTA);
+    // the recent pages are still tracked
+    for (int i = 19; i >= 15; i--) {
+      estimator.recordAccess(new PageId("file", i), 100);
+    }
+    assertEquals(5.0 / 65, estimator.getHitRatio(0), DELTA);
+  }
+
+  @Test
+  public void sampledAccesses() {
+    MissRatioCurveEstimator estimator =
+        new MissRatioCurveEstimator(new long[] {5000, 20000}, 0.1, WINDOW_MS, mClock::get);
+    accessLoop(estimator, 10000, 1, 3);
+    assertEquals(0, estimator.getHitRatio(0), DELTA);
+    assertEquals(2.0 / 3, estimator.getHitRatio(1), DELTA);
+  }
+
+  @Test
+  public void windows() {
+    MissRatioCurveEstimator estimator =
+        new MissRatioCurveEstimator(new long[] {1000}, 1, WINDOW_MS, mClock::get);
+    accessLoop(estimator, 10, 100, 2);
+    assertEquals(0.5, estimator.getHitRatio(0), DELTA);
+    // the previous window is still accounted for
+    mClock.addAndGet(WINDOW_MS);
+    accessLoop(estimator, 10, 100, 1);
+    assertEquals(20.0 / 30, estimator.getHitRatio(0), DELTA);
+    mClock.addAndGet(2 * WINDOW_MS);
+    assertEquals(0, estimator.getHitRatio(0), DELTA);
+  }
+
+  private static void accessLoop(MissRatioCurveEstimator estimator, int pages, long pageSize,
+      int loops) {
+    for (int loop = 0; loop < loops; loop++) {
+      for (int i = 0; i < pages; i++) {
+        estimator.recordAccess(new PageId("file", i), pageSize);
+      }
+    }
+  }
+}
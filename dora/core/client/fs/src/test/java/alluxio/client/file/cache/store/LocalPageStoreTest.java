@@ -20,7 +20,9 @@ import static org.junit.Assert.assertTrue;
 import alluxio.client.file.cache.PageId;
 import alluxio.client.file.cache.PageStore;
 import alluxio.file.ByteArrayTargetBuffer;
+import alluxio.util.io.BufferUtils;
 
+import org.junit.Assume;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -171,6 +173,34 @@ public class LocalPageStoreTest {
     assertFalse(Files.exists(p.getParent()));
   }
 
+  @Test
+  public void directIo() throws Exception {
+    Assume.assumeTrue("direct I/O requires Java 10 or later", DirectIoFiles.isSupported());
+    int pageSize = 3 * 4096 + 100;
+    mOptions.setPageSize(pageSize)
+        .setDirectIoWriteEnabled(true)
+        .setDirectIoReadEnabled(true);
+    LocalPageStore pageStore = new LocalPageStore(mOptions);
+    PageId pageId = new PageId("0", 0);
+    pageStore.put(pageId, BufferUtils.getIncreasingByteArray(pageSize));
+    assertEquals(pageSize, Files.size(pageStore.getPagePath(pageId, false)));
+    // reads of unaligned ranges
+    for (int offset : new int[] {0, 1, 4095, 4096, 5000, pageSize - 1, pageSize}) {
+      byte[] buf = new byte[6000];
+      int bytesRead = pageStore.get(pageId, offset, buf.length,
+          new ByteArrayTargetBuffer(buf, 0), false);
+      assertEquals(Math.min(buf.length, pageSize - offset), bytesRead);
+      assertArrayEquals(BufferUtils.getIncreasingByteArray(offset, bytesRead),
+          Arrays.copyOf(buf, bytesRead));
+    }
+    // overwritten by a shorter page
+    pageStore.put(pageId, BufferUtils.getIncreasingByteArray(1, 10));
+    assertEquals(10, Files.size(pageStore.getPagePath(pageId, false)));
+    byte[] buf = new byte[pageSize];
+    assertEquals(10, pageStore.get(pageId, new ByteArrayTargetBuffer(buf, 0)));
+    assertArrayEquals(BufferUtils.getIncreasingByteArray(1, 10), Arrays.copyOf(buf, 10));
+  }
+
   private void helloWorldTest(PageStore store) throws Exception {
     String msg = "Hello, World!";
     PageId id = new PageId("0", 0);
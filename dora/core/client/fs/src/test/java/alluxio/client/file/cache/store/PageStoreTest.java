@@ -14,6 +14,7 @@ package alluxio.client.file.cache.store;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import alluxio.ProjectConstants;
@@ -24,6 +25,7 @@ import alluxio.file.ByteArrayTargetBuffer;
 import alluxio.util.io.BufferUtils;
 
 import org.junit.After;
+import org.junit.Assume;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -32,8 +34,12 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 @RunWith(Parameterized.class)
 public class PageStoreTest {
@@ -41,14 +47,22 @@ public class PageStoreTest {
   @Parameterized.Parameters
   public static Collection<Object[]> data() {
     return Arrays.asList(new Object[][] {
-        {PageStoreType.LOCAL},
-        {PageStoreType.MEM}
+        {PageStoreType.LOCAL, 0, false},
+        {PageStoreType.LOCAL, 4, false},
+        {PageStoreType.LOCAL, 0, true},
+        {PageStoreType.MEM, 0, false}
     });
   }
 
   @Parameterized.Parameter
   public PageStoreType mPageStoreType;
 
+  @Parameterized.Parameter(1)
+  public int mAsyncIoQueueDepth;
+
+  @Parameterized.Parameter(2)
+  public boolean mDirectIo;
+
   private PageStoreOptions mOptions;
 
   private PageStore mPageStore;
@@ -64,12 +78,19 @@ public class PageStoreTest {
     mOptions.setCacheSize(65536);
     mOptions.setAlluxioVersion(ProjectConstants.VERSION);
     mOptions.setRootDir(Paths.get(mTemp.getRoot().getAbsolutePath()));
+    mOptions.setAsyncIoQueueDepth(mAsyncIoQueueDepth);
+    // direct I/O requires Java 10 or later
+    Assume.assumeTrue(!mDirectIo || DirectIoFiles.isSupported());
+    mOptions.setDirectIoWriteEnabled(mDirectIo);
+    mOptions.setDirectIoReadEnabled(mDirectIo);
     mPageStore = PageStore.create(mOptions);
   }
 
   @After
   public void after() throws Exception {
-    mPageStore.close();
+    if (mPageStore != null) {
+      mPageStore.close();
+    }
   }
 
   @Test
@@ -142,4 +163,26 @@ public class PageStoreTest {
           Arrays.copyOfRange(buf, 0, bytesRead));
     }
   }
+
+  @Test
+  public void getAsync() throws Exception {
+    int len = 32;
+    int pages = 16;
+    byte[][] bufs = new byte[pages][len];
+    List<CompletableFuture<Integer>> futures = new ArrayList<>();
+    for (int i = 0; i < pages; i++) {
+      mPageStore.put(new PageId("0", i), BufferUtils.getIncreasingByteArray(i, len));
+    }
+    for (int i = 0; i < pages; i++) {
+      futures.add(mPageStore.getAsync(new PageId("0", i), 0, len,
+          new ByteArrayTargetBuffer(bufs[i], 0), false));
+    }
+    for (int i = 0; i < pages; i++) {
+      assertEquals(len, (int) futures.get(i).get());
+      assertArrayEquals(BufferUtils.getIncreasingByteArray(i, len), bufs[i]);
+    }
+    ExecutionException e = assertThrows(ExecutionException.class, () -> mPageStore.getAsync(
+        new PageId("0", pages), 0, len, new ByteArrayTargetBuffer(bufs[0], 0), false).get());
+    assertTrue(e.getCause() instanceof PageNotFoundException);
+  }
 }
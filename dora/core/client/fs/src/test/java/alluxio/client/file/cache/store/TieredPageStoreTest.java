@@ -0,0 +1,171 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache.store;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import alluxio.client.file.cache.PageId;
+import alluxio.client.file.cache.PageStore;
+import alluxio.client.file.cache.evictor.CacheEvictorOptions;
+import alluxio.client.file.cache.evictor.LRUCacheEvictor;
+import alluxio.exception.PageNotFoundException;
+import alluxio.file.ByteArrayTargetBuffer;
+import alluxio.file.ReadTargetBuffer;
+import alluxio.util.io.BufferUtils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public class TieredPageStoreTest {
+  private static final int PAGE_SIZE = 1024;
+  private static final int PROMOTION_THRESHOLD = 2;
+
+  private PageStore mLowerTier;
+  private TieredPageStore mPageStore;
+
+  @Before
+  public void before() {
+    mLowerTier = spy(new MemoryPageStore(PAGE_SIZE));
+    mPageStore = new TieredPageStore(mLowerTier, new MemoryPageStore(PAGE_SIZE),
+        new LRUCacheEvictor(new CacheEvictorOptions()), 2 * PAGE_SIZE, PAGE_SIZE,
+        PROMOTION_THRESHOLD);
+  }
+
+  @After
+  public void after() throws Exception {
+    mPageStore.close();
+  }
+
+  @Test
+  public void promoteAfterThreshold() throws Exception {
+    PageId id = new PageId("0", 0);
+    byte[] page = BufferUtils.getIncreasingByteArray(PAGE_SIZE);
+    mPageStore.put(id, page);
+    assertEquals(PAGE_SIZE, read(id, 0, PAGE_SIZE, page));
+    assertFalse(mPageStore.isInMemoryTier(id));
+    // the read which reaches the threshold promotes the page, and is served from the copy
+    assertEquals(10, read(id, 5, 10, Arrays.copyOfRange(page, 5, 15)));
+    assertTrue(mPageStore.isInMemoryTier(id));
+    assertEquals(PAGE_SIZE, mPageStore.getMemoryTierBytes());
+    assertEquals(PAGE_SIZE, read(id, 0, PAGE_SIZE, page));
+    verify(mLowerTier, times(2))
+        .get(eq(id), anyInt(), anyInt(), any(ReadTargetBuffer.class), anyBoolean());
+  }
+
+  @Test
+  public void getAsyncForwardsToLowerTier() throws Exception {
+    PageId id = new PageId("0", 0);
+    byte[] page = BufferUtils.getIncreasingByteArray(PAGE_SIZE);
+    mPageStore.put(id, page);
+    byte[] buf = new byte[PAGE_SIZE];
+    assertEquals(PAGE_SIZE, (int) mPageStore.getAsync(id, 0, PAGE_SIZE,
+        new ByteArrayTargetBuffer(buf, 0), false).get());
+    assertArrayEquals(page, buf);
+    verify(mLowerTier)
+        .getAsync(eq(id), anyInt(), anyInt(), any(ReadTargetBuffer.class), anyBoolean());
+    // once promoted, the page is read from the memory tier
+    buf = new byte[PAGE_SIZE];
+    assertEquals(PAGE_SIZE, (int) mPageStore.getAsync(id, 0, PAGE_SIZE,
+        new ByteArrayTargetBuffer(buf, 0), false).get());
+    assertArrayEquals(page, buf);
+    assertTrue(mPageStore.isInMemoryTier(id));
+    mPageStore.getAsync(id, 0, PAGE_SIZE, new ByteArrayTargetBuffer(buf, 0), false).get();
+    verify(mLowerTier)
+        .getAsync(eq(id), anyInt(), anyInt(), any(ReadTargetBuffer.class), anyBoolean());
+  }
+
+  @Test
+  public void demoteWhenFull() throws Exception {
+    PageId[] ids = new PageId[3];
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = new PageId("0", i);
+      mPageStore.put(ids[i], BufferUtils.getIncreasingByteArray(i, PAGE_SIZE));
+      for (int j = 0; j < PROMOTION_THRESHOLD; j++) {
+        read(ids[i], 0, PAGE_SIZE, BufferUtils.getIncreasingByteArray(i, PAGE_SIZE));
+      }
+    }
+    // the least recently read page is demoted, and still served from the lower tier
+    assertFalse(mPageStore.isInMemoryTier(ids[0]));
+    assertTrue(mPageStore.isInMemoryTier(ids[1]));
+    assertTrue(mPageStore.isInMemoryTier(ids[2]));
+    assertEquals(2 * PAGE_SIZE, mPageStore.getMemoryTierBytes());
+    read(ids[0], 0, PAGE_SIZE, BufferUtils.getIncreasingByteArray(0, PAGE_SIZE));
+  }
+
+  @Test
+  public void overwriteDemotes() throws Exception {
+    PageId id = new PageId("0", 0);
+    mPageStore.put(id, BufferUtils.getIncreasingByteArray(PAGE_SIZE));
+    for (int i = 0; i < PROMOTION_THRESHOLD; i++) {
+      read(id, 0, PAGE_SIZE, BufferUtils.getIncreasingByteArray(PAGE_SIZE));
+    }
+    assertTrue(mPageStore.isInMemoryTier(id));
+    mPageStore.put(id, BufferUtils.getIncreasingByteArray(1, PAGE_SIZE));
+    assertFalse(mPageStore.isInMemoryTier(id));
+    read(id, 0, PAGE_SIZE, BufferUtils.getIncreasingByteArray(1, PAGE_SIZE));
+  }
+
+  @Test
+  public void deleteFromBothTiers() throws Exception {
+    PageId id = new PageId("0", 0);
+    mPageStore.put(id, BufferUtils.getIncreasingByteArray(PAGE_SIZE));
+    for (int i = 0; i < PROMOTION_THRESHOLD; i++) {
+      read(id, 0, PAGE_SIZE, BufferUtils.getIncreasingByteArray(PAGE_SIZE));
+    }
+    mPageStore.delete(id);
+    assertFalse(mPageStore.isInMemoryTier(id));
+    assertEquals(0, mPageStore.getMemoryTierBytes());
+    verify(mLowerTier).delete(id, false);
+  }
+
+  @Test(expected = PageNotFoundException.class)
+  public void missingPage() throws Exception {
+    for (int i = 0; i < PROMOTION_THRESHOLD; i++) {
+      mPageStore.get(new PageId("0", 0), new ByteArrayTargetBuffer(new byte[PAGE_SIZE], 0));
+    }
+  }
+
+  @Test
+  public void temporaryPagesNotPromoted() throws Exception {
+    PageId id = new PageId("0", 0);
+    byte[] page = BufferUtils.getIncreasingByteArray(PAGE_SIZE);
+    mPageStore.putTemporary(id, page);
+    for (int i = 0; i < 2 * PROMOTION_THRESHOLD; i++) {
+      byte[] buf = new byte[PAGE_SIZE];
+      assertEquals(PAGE_SIZE,
+          mPageStore.get(id, 0, PAGE_SIZE, new ByteArrayTargetBuffer(buf, 0), true));
+      assertArrayEquals(page, buf);
+    }
+    assertFalse(mPageStore.isInMemoryTier(id));
+    assertEquals(0, mPageStore.getMemoryTierBytes());
+  }
+
+  private int read(PageId id, int offset, int length, byte[] expected) throws Exception {
+    byte[] buf = new byte[length];
+    int bytesRead = mPageStore.get(id, offset, length, new ByteArrayTargetBuffer(buf, 0));
+    assertArrayEquals(expected, buf);
+    return bytesRead;
+  }
+}
@@ -0,0 +1,188 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.dora;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import alluxio.ByteArrayPositionReader;
+import alluxio.CloseableSupplier;
+import alluxio.PositionReader;
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
+import alluxio.util.io.BufferUtils;
+import alluxio.wire.WorkerNetAddress;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class HedgedPositionReaderTest {
+  private static final int FILE_LENGTH = 1024;
+  private static final byte[] DATA = BufferUtils.getIncreasingByteArray(FILE_LENGTH);
+
+  private final WorkerNetAddress mWorker = new WorkerNetAddress().setHost("worker");
+  private WorkerLatencyTracker mTracker;
+  private AtomicBoolean mHedgeCreated;
+  private ScheduledExecutorService mExecutor;
+
+  @Before
+  public void before() {
+    mTracker = new WorkerLatencyTracker();
+    mHedgeCreated = new AtomicBoolean();
+    mExecutor = Executors.newScheduledThreadPool(2);
+  }
+
+  @After
+  public void after() {
+    mExecutor.shutdownNow();
+  }
+
+  @Test
+  public void fastReadIsNotHedged() throws Exception {
+    long hedges = hedgeCount();
+    PositionReader dataReader = new ByteArrayPositionReader(DATA);
+    AtomicReference<Thread> readerThread = new AtomicReference<>();
+    HedgedPositionReader reader = create((position, buffer, length) -> {
+      readerThread.set(Thread.currentThread());
+      return dataReader.read(position, buffer, length);
+    }, 1000);
+    byte[] buffer = new byte[100];
+    assertEquals(100, reader.read(10, buffer, 100));
+    assertArrayEquals(Arrays.copyOfRange(DATA, 10, 110), buffer);
+    // the read is served on the calling thread
+    assertSame(Thread.currentThread(), readerThread.get());
+    assertFalse(mHedgeCreated.get());
+    assertEquals(hedges, hedgeCount());
+    // reads past the end of the file
+    assertEquals(24, reader.read(1000, buffer, 100));
+    assertEquals(-1, reader.read(FILE_LENGTH, buffer, 100));
+    reader.close();
+  }
+
+  @Test
+  public void slowReadIsHedged() throws Exception {
+    long hedges = hedgeCount();
+    long wins = hedgeWinCount();
+    CountDownLatch primaryCancelled = new CountDownLatch(1);
+    PositionReader slowReader = (position, buffer, length) -> {
+      ((CancellableReadTargetBuffer) buffer).onCancel(primaryCancelled::countDown);
+      try {
+        primaryCancelled.await(1, TimeUnit.MINUTES);
+      } catch (InterruptedException e) {
+        throw new IllegalStateException("the primary read is interrupted");
+      }
+      throw new IOException("cancelled");
+    };
+    HedgedPositionReader reader = create(slowReader, 10);
+    byte[] buffer = new byte[100];
+    assertEquals(100, reader.read(0, buffer, 100));
+    assertArrayEquals(Arrays.copyOfRange(DATA, 0, 100), buffer);
+    assertTrue(mHedgeCreated.get());
+    assertTrue(primaryCancelled.await(10, TimeUnit.SECONDS));
+    assertEquals(hedges + 1, hedgeCount());
+    assertEquals(wins + 1, hedgeWinCount());
+  }
+
+  @Test
+  public void partialPrimaryReadIsReplacedByHedge() throws Exception {
+    PositionReader slowReader = (position, buffer, length) -> {
+      buffer.writeBytes(new byte[50], 0, 50);
+      CountDownLatch cancelled = new CountDownLatch(1);
+      ((CancellableReadTargetBuffer) buffer).onCancel(cancelled::countDown);
+      Uninterruptibles.awaitUninterruptibly(cancelled, 1, TimeUnit.MINUTES);
+      // the writes after the cancellation fail
+      buffer.writeBytes(new byte[50], 0, 50);
+      return 100;
+    };
+    HedgedPositionReader reader = create(slowReader, 10);
+    byte[] buffer = new byte[100];
+    assertEquals(100, reader.read(0, buffer, 100));
+    assertArrayEquals(Arrays.copyOfRange(DATA, 0, 100), buffer);
+    assertFalse(Thread.currentThread().isInterrupted());
+  }
+
+  @Test
+  public void callerInterruptIsKept() throws Exception {
+    PositionReader slowReader = (position, buffer, length) -> {
+      CountDownLatch cancelled = new CountDownLatch(1);
+      ((CancellableReadTargetBuffer) buffer).onCancel(cancelled::countDown);
+      // the caller is interrupted during the read, which the reader does not handle
+      Thread.currentThread().interrupt();
+      Uninterruptibles.awaitUninterruptibly(cancelled, 1, TimeUnit.MINUTES);
+      throw new IOException("cancelled");
+    };
+    HedgedPositionReader reader = create(slowReader, 10);
+    byte[] buffer = new byte[100];
+    try {
+      assertEquals(100, reader.read(0, buffer, 100));
+      assertArrayEquals(Arrays.copyOfRange(DATA, 0, 100), buffer);
+      assertTrue(Thread.currentThread().isInterrupted());
+    } finally {
+      Thread.interrupted();
+    }
+  }
+
+  @Test
+  public void failedReadIsRetriedOnHedge() throws Exception {
+    PositionReader failingReader = (position, buffer, length) -> {
+      throw new IOException("worker failure");
+    };
+    HedgedPositionReader reader = create(failingReader, 1000);
+    byte[] buffer = new byte[100];
+    assertEquals(100, reader.read(0, buffer, 100));
+    assertArrayEquals(Arrays.copyOfRange(DATA, 0, 100), buffer);
+  }
+
+  @Test
+  public void bothReadsFail() {
+    PositionReader failingReader = (position, buffer, length) -> {
+      throw new IOException("worker failure");
+    };
+    HedgedPositionReader reader = new HedgedPositionReader(failingReader, mWorker,
+        new CloseableSupplier<>(() -> (position, buffer, length) -> {
+          throw new IOException("hedge failure");
+        }), FILE_LENGTH, mTracker, mExecutor, 95, 1000);
+    IOException e = assertThrows(IOException.class, () -> reader.read(0, new byte[10], 10));
+    assertEquals("worker failure", e.getMessage());
+    assertEquals("hedge failure", e.getSuppressed()[0].getMessage());
+  }
+
+  private HedgedPositionReader create(PositionReader primary, long minDelayMs) {
+    return new HedgedPositionReader(primary, mWorker, new CloseableSupplier<>(() -> {
+      mHedgeCreated.set(true);
+      return new ByteArrayPositionReader(DATA);
+    }), FILE_LENGTH, mTracker, mExecutor, 95, minDelayMs);
+  }
+
+  private static long hedgeCount() {
+    return MetricsSystem.meter(MetricKey.CLIENT_READ_HEDGED.getName()).getCount();
+  }
+
+  private static long hedgeWinCount() {
+    return MetricsSystem.counter(MetricKey.CLIENT_READ_HEDGE_WIN_COUNT.getName()).getCount();
+  }
+}
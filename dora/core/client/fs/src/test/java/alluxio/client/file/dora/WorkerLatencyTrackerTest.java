@@ -0,0 +1,58 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.dora;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import alluxio.wire.WorkerNetAddress;
+
+import org.junit.Test;
+
+public class WorkerLatencyTrackerTest {
+  private final WorkerNetAddress mWorker1 = new WorkerNetAddress().setHost("worker1");
+  private final WorkerNetAddress mWorker2 = new WorkerNetAddress().setHost("worker2");
+
+  @Test
+  public void movingAverage() {
+    WorkerLatencyTracker tracker = new WorkerLatencyTracker(16);
+    assertEquals(-1, tracker.getLatencyNs(mWorker1));
+    tracker.recordLatency(mWorker1, 1000);
+    assertEquals(1000, tracker.getLatencyNs(mWorker1));
+    tracker.recordLatency(mWorker1, 2000);
+    assertEquals(1200, tracker.getLatencyNs(mWorker1));
+    // a worker becoming slow is detected within a few reads
+    for (int i = 0; i < 10; i++) {
+      tracker.recordLatency(mWorker1, 100_000);
+    }
+    assertTrue(tracker.getLatencyNs(mWorker1) > 80_000);
+    assertEquals(-1, tracker.getLatencyNs(mWorker2));
+  }
+
+  @Test
+  public void percentile() {
+    WorkerLatencyTracker tracker = new WorkerLatencyTracker(100);
+    assertEquals(-1, tracker.getLatencyPercentileNs(95));
+    for (int i = 1; i <= 100; i++) {
+      tracker.recordLatency(i % 2 == 0 ? mWorker1 : mWorker2, i);
+    }
+    assertEquals(95, tracker.getLatencyPercentileNs(95));
+    assertEquals(50, tracker.getLatencyPercentileNs(50));
+    assertEquals(100, tracker.getLatencyPercentileNs(100));
+
+    // the oldest samples are replaced by the new ones
+    for (int i = 0; i < 100; i++) {
+      tracker.recordLatency(mWorker1, 1000);
+    }
+    assertEquals(1000, tracker.getLatencyPercentileNs(50));
+  }
+}
@@ -12,6 +12,7 @@
 package alluxio.client.file.dora.netty;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
@@ -23,12 +24,15 @@ import static org.mockito.Mockito.when;
 
 import alluxio.Constants;
 import alluxio.client.file.FileSystemContext;
+import alluxio.client.file.dora.CancellableReadTargetBuffer;
+import alluxio.client.file.dora.WorkerLatencyTracker;
 import alluxio.conf.Configuration;
 import alluxio.conf.InstancedConfiguration;
 import alluxio.conf.PropertyKey;
 import alluxio.exception.status.AlluxioStatusException;
 import alluxio.exception.status.UnavailableException;
 import alluxio.exception.status.UnknownException;
+import alluxio.file.ByteArrayTargetBuffer;
 import alluxio.network.protocol.RPCMessage;
 import alluxio.network.protocol.RPCProtoMessage;
 import alluxio.network.protocol.databuffer.NettyDataBuffer;
@@ -68,6 +72,8 @@ public class NettyDataReaderTest {
         .thenReturn(mChannel);
     when(mFsContext.getClusterConf())
         .thenReturn(Configuration.global());
+    when(mFsContext.getWorkerLatencyTracker())
+        .thenReturn(new WorkerLatencyTracker());
     doNothing()
         .when(mFsContext).releaseNettyChannel(any(WorkerNetAddress.class), any(Channel.class));
     mReader = new NettyDataReader(mFsContext, mWorkerAddress, mRequestBuilder);
@@ -191,6 +197,34 @@ public class NettyDataReaderTest {
     assertTrue(exception.getCause() instanceof TimeoutException);
   }
 
+  @Test
+  public void cancelledRead() throws Exception {
+    final long offset = 0;
+    final int length = 11;
+    byte[] byteArray = new byte[length];
+    CancellableReadTargetBuffer buffer =
+        new CancellableReadTargetBuffer(new ByteArrayTargetBuffer(byteArray, 0));
+    Protocol.ReadRequest.Builder builder = mRequestBuilder.clone()
+        .setLength(length)
+        .setOffset(offset);
+    ServerState start = new WaitForRequestState(builder.clone().build());
+    // the read is cancelled while waiting for more data, without interrupting the reader
+    start.andThen(new SendDataState("hello".getBytes()))
+        .andThen(new ServerState().action((cd, cs) -> buffer.cancel()))
+        .andThen(new WaitForRequestState(
+            builder.clone().setCancel(true).build()))
+        .andThen(new CancelState());
+    Future<Throwable> serverFault = mStateDriver.run(start);
+    PartialReadException exception = assertThrows(PartialReadException.class,
+        () -> mReader.read(offset, buffer, length));
+
+    assertNull(serverFault.get());
+    assertEquals(5, exception.getBytesRead());
+    checkResult("hello".getBytes(), byteArray);
+    assertTrue(exception.getCause() instanceof InterruptedException);
+    assertFalse(Thread.currentThread().isInterrupted());
+  }
+
   @Test
   public void ufsHeartbeatResetsClientTimeout() throws Exception {
     final long offset = 0;
@@ -0,0 +1,27 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Specifies where a read is hedged to when the worker serving it is slow to respond.
+ */
+@ThreadSafe
+public enum HedgedReadTarget {
+  /** Hedge the read to the next worker on the hash ring. */
+  WORKER,
+
+  /** Hedge the read directly to the under storage. */
+  UFS,
+  ;
+}
@@ -18,6 +18,7 @@ import alluxio.security.authorization.DefaultAccessControlList;
 import alluxio.wire.BlockInfo;
 import alluxio.wire.FileBlockInfo;
 import alluxio.wire.FileInfo;
+import alluxio.wire.WorkerNetAddress;
 
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Preconditions;
@@ -263,6 +264,14 @@ public class URIStatus {
     return mInfo.getReplicationMin();
   }
 
+  /**
+   * @return the extra workers holding a replica of the hot file referenced by this uri,
+   *         mutable
+   */
+  public List<WorkerNetAddress> getHotReplicas() {
+    return mInfo.getHotReplicas();
+  }
+
   /**
    * @return whether the entity referenced by this uri can be stored in Alluxio space, mutable
    */
@@ -29,6 +29,7 @@ import alluxio.Constants;
 import alluxio.DefaultSupplier;
 import alluxio.ProjectConstants;
 import alluxio.annotation.PublicApi;
+import alluxio.client.HedgedReadTarget;
 import alluxio.client.ReadType;
 import alluxio.client.WriteType;
 import alluxio.client.file.cache.ShadowCacheType;
@@ -55,6 +56,7 @@ import alluxio.underfs.ChecksumType;
 import alluxio.util.FormatUtils;
 import alluxio.util.compression.DirectoryMarshaller;
 import alluxio.worker.block.BlockStoreType;
+import alluxio.worker.dora.CacheScopeSource;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Joiner;
@@ -1305,6 +1307,26 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.SERVER)
           .build();
+  public static final PropertyKey UNDERFS_OBJECT_STORE_PARALLEL_LISTING_ENABLED =
+      booleanBuilder(Name.UNDERFS_OBJECT_STORE_PARALLEL_LISTING_ENABLED)
+          .setDefaultValue(false)
+          .setDescription("Whether recursive listings of object store UFS are split by the "
+              + "sub-prefixes of the listed path, or into key ranges when the listed path has "
+              + "too many children, which are then listed concurrently. The statuses are still "
+              + "returned in key order.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.SERVER)
+          .build();
+  public static final PropertyKey UNDERFS_OBJECT_STORE_PARALLEL_LISTING_THREADS =
+      intBuilder(Name.UNDERFS_OBJECT_STORE_PARALLEL_LISTING_THREADS)
+          .setDefaultValue(8)
+          .setDescription("The number of threads listing the sub-prefixes of object store UFS "
+              + "concurrently when " + Name.UNDERFS_OBJECT_STORE_PARALLEL_LISTING_ENABLED
+              + " is enabled. This is also the number of sub-prefixes a single recursive "
+              + "listing lists ahead of its consumer.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.SERVER)
+          .build();
   public static final PropertyKey UNDERFS_OBJECT_STORE_SKIP_PARENT_DIRECTORY_CREATION =
       booleanBuilder(Name.UNDERFS_OBJECT_STORE_SKIP_PARENT_DIRECTORY_CREATION)
           .setDefaultValue(true)
@@ -2416,6 +2438,25 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.MASTER)
           .build();
+  public static final PropertyKey MASTER_EMBEDDED_JOURNAL_PARALLEL_APPLY_ENABLED =
+      booleanBuilder(Name.MASTER_EMBEDDED_JOURNAL_PARALLEL_APPLY_ENABLED)
+          .setDefaultValue(false)
+          .setDescription("Whether a standby master applies the journal entries of different "
+              + "masters, e.g. the file system and the block master, in parallel. The entries "
+              + "of each master are still applied in order. This shortens the time a standby "
+              + "master needs to catch up after a burst of metadata operations.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.MASTER)
+          .build();
+  public static final PropertyKey MASTER_EMBEDDED_JOURNAL_PARALLEL_APPLY_MAX_PENDING_ENTRIES =
+      intBuilder(Name.MASTER_EMBEDDED_JOURNAL_PARALLEL_APPLY_MAX_PENDING_ENTRIES)
+          .setDefaultValue(100000)
+          .setDescription("The maximum number of journal entries queued to be applied when "
+              + Name.MASTER_EMBEDDED_JOURNAL_PARALLEL_APPLY_ENABLED + " is enabled. Reading "
+              + "new entries from the journal blocks once this many entries are pending.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.MASTER)
+          .build();
   public static final PropertyKey MASTER_EMBEDDED_JOURNAL_PORT =
       intBuilder(Name.MASTER_EMBEDDED_JOURNAL_PORT)
           .setDescription("The port to use for embedded journal communication with other masters.")
@@ -2490,6 +2531,16 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.MASTER)
           .build();
+  public static final PropertyKey MASTER_EMBEDDED_JOURNAL_SNAPSHOT_REPLICATION_INCREMENTAL_ENABLED =
+      booleanBuilder(Name.MASTER_EMBEDDED_JOURNAL_SNAPSHOT_REPLICATION_INCREMENTAL_ENABLED)
+          .setDefaultValue(false)
+          .setDescription("Whether a master downloading a snapshot from another master only "
+              + "downloads the files it does not have in its latest snapshot. The SST files of "
+              + "the RocksDB metastore which did not change since that snapshot are hard linked "
+              + "from it instead of being transferred again.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.MASTER)
+          .build();
   public static final PropertyKey MASTER_EMBEDDED_JOURNAL_RAFT_CLIENT_REQUEST_TIMEOUT =
       durationBuilder(Name.MASTER_EMBEDDED_JOURNAL_RAFT_CLIENT_REQUEST_TIMEOUT)
           .setDefaultValue("60sec")
@@ -2711,6 +2762,28 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.ENFORCE)
           .setScope(Scope.MASTER)
           .build();
+  public static final PropertyKey MASTER_METASTORE_INODE_CACHE_OFF_HEAP_ENABLED =
+      booleanBuilder(Name.MASTER_METASTORE_INODE_CACHE_OFF_HEAP_ENABLED)
+          .setDefaultValue(false)
+          .setDescription("Whether the inode cache keeps inodes serialized in off-heap memory "
+              + "instead of as objects on-heap. Cached inodes then take a fraction of the heap, "
+              + "at the cost of deserializing them on every access. The off-heap memory is "
+              + "limited by -XX:MaxDirectMemorySize, and is approximately the number of cached "
+              + "inodes times their serialized size, rounded up to the next power of 2.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.ENFORCE)
+          .setScope(Scope.MASTER)
+          .build();
+  public static final PropertyKey MASTER_METASTORE_INODE_CACHE_OFF_HEAP_HOT_SET_SIZE =
+      intBuilder(Name.MASTER_METASTORE_INODE_CACHE_OFF_HEAP_HOT_SET_SIZE)
+          .setDefaultValue(65536)
+          .setDescription("The number of recently read inodes the off-heap inode cache keeps "
+              + "deserialized on-heap, so that path resolutions and listings of hot directories "
+              + "do not deserialize them again. The size is rounded up to a power of 2, and 0 "
+              + "disables the hot set. Only used when "
+              + Name.MASTER_METASTORE_INODE_CACHE_OFF_HEAP_ENABLED + " is true.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.MASTER)
+          .build();
   // In Java8 in container environment Runtime.availableProcessors() always returns 1,
   // which is not the actual number of cpus, so we set a safe default value 4.
   public static final PropertyKey MASTER_METASTORE_INODE_ITERATION_CRAWLER_COUNT =
@@ -3025,6 +3098,17 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setDescription("Maximum concurrency level for the lock pool")
           .setScope(Scope.MASTER)
           .build();
+  public static final PropertyKey MASTER_LOCK_OPTIMISTIC_READ_ENABLED =
+      booleanBuilder(Name.MASTER_LOCK_OPTIMISTIC_READ_ENABLED)
+          .setDefaultValue(false)
+          .setDescription("Whether read operations resolve paths in the inode tree without "
+              + "locking the ancestors of the target inode. The path is validated against "
+              + "version stamps of its inodes and edges, and resolved again with locks if any "
+              + "of them was modified concurrently. Only the target inode and the edge leading "
+              + "to it stay read locked during the operation.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.MASTER)
+          .build();
   public static final PropertyKey MASTER_JOURNAL_CATCHUP_PROTECT_ENABLED =
       booleanBuilder(Name.MASTER_JOURNAL_CATCHUP_PROTECT_ENABLED)
           .setDefaultValue(true)
@@ -3058,6 +3142,26 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.MASTER)
           .build();
+  public static final PropertyKey MASTER_JOURNAL_FLUSH_ADAPTIVE_BATCHING_ENABLED =
+      booleanBuilder(Name.MASTER_JOURNAL_FLUSH_ADAPTIVE_BATCHING_ENABLED)
+          .setDefaultValue(false)
+          .setDescription("Whether the journal writer waits for concurrent journal writes "
+              + "before flushing the journal, so that they are flushed together. The time to "
+              + "wait grows while journal writes keep queuing up, up to "
+              + Name.MASTER_JOURNAL_FLUSH_BATCH_MAX_WAIT_TIME + ", and shrinks to zero when "
+              + "the journal writes are sequential.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.MASTER)
+          .build();
+  public static final PropertyKey MASTER_JOURNAL_FLUSH_BATCH_MAX_WAIT_TIME =
+      durationBuilder(Name.MASTER_JOURNAL_FLUSH_BATCH_MAX_WAIT_TIME)
+          .setDefaultValue("2ms")
+          .setDescription("The maximum time the journal writer waits for concurrent journal "
+              + "writes before flushing the journal, when "
+              + Name.MASTER_JOURNAL_FLUSH_ADAPTIVE_BATCHING_ENABLED + " is enabled.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.MASTER)
+          .build();
   public static final PropertyKey MASTER_JOURNAL_FLUSH_BATCH_TIME_MS =
       durationBuilder(Name.MASTER_JOURNAL_FLUSH_BATCH_TIME_MS)
           .setAlias("alluxio.master.journal.flush.batch.time.ms")
@@ -3420,6 +3524,41 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.MASTER)
           .build();
+  public static final PropertyKey MASTER_UFS_PATH_CACHE_FILTER_CAPACITY =
+      intBuilder(Name.MASTER_UFS_PATH_CACHE_FILTER_CAPACITY)
+          .setDefaultValue(1000000)
+          .setDescription("The number of absent paths each generation of the UFS path cache "
+              + "filter is sized for. Paths evicted from the exact UFS path cache are kept in "
+              + "a cuckoo filter of two such generations, taking about 2MB per million paths for "
+              + "each generation, plus 1MB per million paths to track the removed paths. "
+              + "Only used when `alluxio.master.ufs.path.cache.filter.enabled` is true.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.MASTER)
+          .build();
+  public static final PropertyKey MASTER_UFS_PATH_CACHE_FILTER_ENABLED =
+      booleanBuilder(Name.MASTER_UFS_PATH_CACHE_FILTER_ENABLED)
+          .setDefaultValue(false)
+          .setDescription("Whether to keep the absent paths evicted from the UFS path cache in "
+              + "a compact cuckoo filter, so that workloads probing more absent paths than "
+              + "`alluxio.master.ufs.path.cache.capacity` do not keep hitting the UFS. A filter "
+              + "false positive makes an existing UFS path appear absent until the next metadata "
+              + "sync, at a rate of roughly 1e-4 per lookup. The filter is not used when metadata "
+              + "is loaded only once, since such lookups never expire.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.MASTER)
+          .build();
+  public static final PropertyKey MASTER_UFS_PATH_CACHE_FILTER_GENERATION_DURATION =
+      durationBuilder(Name.MASTER_UFS_PATH_CACHE_FILTER_GENERATION_DURATION)
+          .setDefaultValue("1min")
+          .setDescription("The time after which the UFS path cache filter starts a new "
+              + "generation, even if the current one is not full. A lookup with a metadata sync "
+              + "interval of at least this duration can always be answered by the newest "
+              + "generation, and the filter remembers absent paths for up to twice this duration. "
+              + "Set it to a fraction of the shortest metadata sync interval in use. Only used "
+              + "when `alluxio.master.ufs.path.cache.filter.enabled` is true.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.MASTER)
+          .build();
   public static final PropertyKey MASTER_UFS_PATH_CACHE_THREADS =
       intBuilder(Name.MASTER_UFS_PATH_CACHE_THREADS)
           .setDefaultValue(64)
@@ -3664,6 +3803,16 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setScope(Scope.MASTER)
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .build();
+  public static final PropertyKey MASTER_METADATA_SYNC_UFS_PREFETCH_MAX_DIRECTORIES =
+      intBuilder(Name.MASTER_METADATA_SYNC_UFS_PREFETCH_MAX_DIRECTORIES)
+          .setDefaultValue(1000)
+          .setDescription("The maximum number of directories a metadata sync prefetches the ufs "
+              + "status of children for ahead of syncing them. The prefetches of further "
+              + "directories are deferred until the prefetched directories are synced, which "
+              + "bounds the memory held by prefetched results.")
+          .setScope(Scope.MASTER)
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .build();
   public static final PropertyKey MASTER_METADATA_SYNC_UFS_PREFETCH_TIMEOUT =
       durationBuilder(Name.MASTER_METADATA_SYNC_UFS_PREFETCH_TIMEOUT)
           .setDefaultValue("100ms")
@@ -3805,6 +3954,16 @@ public final class PropertyKey implements Comparable<PropertyKey> {
               + "exceed the TTL will be recycled and granted to other workers.")
           .setScope(Scope.MASTER)
           .build();
+  public static final PropertyKey MASTER_WORKER_REGISTER_BLOCK_REPORT_THREADS =
+      intBuilder(Name.MASTER_WORKER_REGISTER_BLOCK_REPORT_THREADS)
+          .setDefaultValue(1)
+          .setDescription("The number of threads the master uses to apply large block reports "
+              + "from worker registrations and heartbeats. Reports are split into shards of "
+              + "10000 blocks which are applied in parallel. If this is 1, reports are applied "
+              + "by the RPC thread. Raise this when many workers with millions of blocks "
+              + "register at the same time, e.g. after a cluster restart.")
+          .setScope(Scope.MASTER)
+          .build();
 
   public static final PropertyKey STANDBY_MASTER_METRICS_SINK_ENABLED =
       booleanBuilder(Name.STANDBY_MASTER_METRICS_SINK_ENABLED)
@@ -4302,6 +4461,25 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.WORKER)
           .build();
+  public static final PropertyKey WORKER_PAGE_STORE_ASYNC_IO_ENABLED =
+      booleanBuilder(Name.WORKER_PAGE_STORE_ASYNC_IO_ENABLED)
+          .setDefaultValue(false)
+          .setDescription("If this is enabled, the reads of the worker spanning several "
+              + "cached pages submit the page reads at once to the local page stores, which "
+              + "serve them with asynchronous file channels, keeping up to "
+              + Name.WORKER_PAGE_STORE_ASYNC_IO_QUEUE_DEPTH + " reads in flight "
+              + "per directory.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
+  public static final PropertyKey WORKER_PAGE_STORE_ASYNC_IO_QUEUE_DEPTH =
+      intBuilder(Name.WORKER_PAGE_STORE_ASYNC_IO_QUEUE_DEPTH)
+          .setDefaultValue(32)
+          .setDescription("The maximum number of page reads in flight on each local page "
+              + "store directory when asynchronous I/O is enabled.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
   public static final PropertyKey WORKER_PAGE_STORE_ASYNC_RESTORE_ENABLED =
       booleanBuilder(Name.WORKER_PAGE_STORE_ASYNC_RESTORE_ENABLED)
           .setDefaultValue(true)
@@ -4323,6 +4501,77 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.IGNORE)
           .setScope(Scope.WORKER)
           .build();
+  public static final PropertyKey WORKER_PAGE_STORE_CHECKSUM_ENABLED =
+      booleanBuilder(Name.WORKER_PAGE_STORE_CHECKSUM_ENABLED)
+          .setDefaultValue(false)
+          .setDescription("Whether to keep a CRC32 checksum of each page cached by the worker, "
+              + "to detect pages corrupted on the storage device. Corrupt pages are evicted "
+              + "when found by a verified read or by the background scrubber, and the data is "
+              + "read from the UFS again. The checksums are kept in memory, so the pages "
+              + "restored from the page stores when the worker restarts are not verified.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
+  public static final PropertyKey WORKER_PAGE_STORE_CHECKSUM_READ_VERIFICATION_RATIO =
+      doubleBuilder(Name.WORKER_PAGE_STORE_CHECKSUM_READ_VERIFICATION_RATIO)
+          .setDefaultValue(0)
+          .setDescription(format("The fraction of the page reads which verify the checksum of "
+              + "the page when %s is enabled, between 0 and 1. A verified read reads and hashes "
+              + "the whole page, which costs the most for large pages: verifying 1%% of the "
+              + "64KB reads of 1MB pages halves their throughput. By default only the "
+              + "scrubber verifies the pages; set this to a small fraction such as 0.01 to "
+              + "also catch corrupt pages on reads.",
+              Name.WORKER_PAGE_STORE_CHECKSUM_ENABLED))
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
+  public static final PropertyKey WORKER_PAGE_STORE_CHECKSUM_SCRUB_INTERVAL =
+      durationBuilder(Name.WORKER_PAGE_STORE_CHECKSUM_SCRUB_INTERVAL)
+          .setDefaultValue("1day")
+          .setDescription(format("The interval between the starts of the scans of the page "
+              + "stores which verify the checksums of all the cached pages when %s is enabled.",
+              Name.WORKER_PAGE_STORE_CHECKSUM_ENABLED))
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
+  public static final PropertyKey WORKER_PAGE_STORE_CHECKSUM_SCRUB_RATE =
+      dataSizeBuilder(Name.WORKER_PAGE_STORE_CHECKSUM_SCRUB_RATE)
+          .setDefaultValue("16MB")
+          .setDescription("The maximum number of bytes per second the scrubber reads from the "
+              + "page stores to verify the checksums of the cached pages. Set to 0 to disable "
+              + "the scrubber.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
+  public static final PropertyKey WORKER_PAGE_STORE_DIRECT_IO_ALIGNMENT =
+      dataSizeBuilder(Name.WORKER_PAGE_STORE_DIRECT_IO_ALIGNMENT)
+          .setDefaultValue("4KB")
+          .setDescription("The alignment of the offsets, lengths and buffers of the direct I/O "
+              + "of the local page stores. It must be a power of 2, and a multiple of the "
+              + "logical block size of the devices of the page store directories.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
+  public static final PropertyKey WORKER_PAGE_STORE_DIRECT_IO_READ_ENABLED =
+      booleanBuilder(Name.WORKER_PAGE_STORE_DIRECT_IO_READ_ENABLED)
+          .setDefaultValue(false)
+          .setDescription("If this is enabled, the local page stores read pages with direct "
+              + "I/O, bypassing the page cache of the OS. Direct I/O requires Java 10 or later; "
+              + "on older JVMs, the pages are read through the page cache. The asynchronous "
+              + "reads of the asynchronous I/O mode of the page stores do not use it.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
+  public static final PropertyKey WORKER_PAGE_STORE_DIRECT_IO_WRITE_ENABLED =
+      booleanBuilder(Name.WORKER_PAGE_STORE_DIRECT_IO_WRITE_ENABLED)
+          .setDefaultValue(false)
+          .setDescription("If this is enabled, the local page stores write pages with direct "
+              + "I/O, so that loading files into the cache does not also fill the page cache "
+              + "of the OS and push out the files of other processes. Direct I/O requires Java "
+              + "10 or later; on older JVMs, the pages are written through the page cache.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
   public static final PropertyKey WORKER_PAGE_STORE_DIRS =
       listBuilder(Name.WORKER_PAGE_STORE_DIRS)
           .setDefaultValue("/tmp/alluxio_cache")
@@ -4372,6 +4621,33 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.WORKER)
           .build();
+  public static final PropertyKey WORKER_PAGE_STORE_MEMORY_TIER_EVICTOR_CLASS =
+      classBuilder(Name.WORKER_PAGE_STORE_MEMORY_TIER_EVICTOR_CLASS)
+          .setDefaultValue("alluxio.client.file.cache.evictor.LRUCacheEvictor")
+          .setDescription("The strategy that worker uses to demote pages from the memory tier "
+              + "of the local page stores when it is full.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
+  public static final PropertyKey WORKER_PAGE_STORE_MEMORY_TIER_PROMOTION_THRESHOLD =
+      intBuilder(Name.WORKER_PAGE_STORE_MEMORY_TIER_PROMOTION_THRESHOLD)
+          .setDefaultValue(2)
+          .setDescription("The number of reads of a page from a local page store after which "
+              + "the page is promoted to the memory tier.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
+  public static final PropertyKey WORKER_PAGE_STORE_MEMORY_TIER_SIZE =
+      dataSizeBuilder(Name.WORKER_PAGE_STORE_MEMORY_TIER_SIZE)
+          .setDefaultValue("0")
+          .setDescription("The size of the memory tier in front of each local page store "
+              + "directory. Pages read often from the directory are copied to the memory tier, "
+              + "so that repeated reads, e.g. of file footers and indexes, are served from "
+              + "memory, and are dropped from it when it is full, the directory still holding "
+              + "them. 0 disables the memory tier.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
   public static final PropertyKey WORKER_PAGE_STORE_OVERHEAD =
       doubleBuilder(Name.WORKER_PAGE_STORE_OVERHEAD)
           .setDefaultValue(0.1)
@@ -4388,6 +4664,14 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.WORKER)
           .build();
+  public static final PropertyKey WORKER_PAGE_STORE_QUOTA_DEFAULT_SCOPE_SIZE =
+      dataSizeBuilder(Name.WORKER_PAGE_STORE_QUOTA_DEFAULT_SCOPE_SIZE)
+          .setDescription(format("The maximum number of bytes the worker caches for each cache "
+              + "scope not listed in %s. When not set, these scopes are only limited by the "
+              + "capacity of the cache.", Name.WORKER_PAGE_STORE_QUOTA_SCOPE_SIZES))
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
   public static final PropertyKey WORKER_PAGE_STORE_QUOTA_ENABLED =
       booleanBuilder(Name.WORKER_PAGE_STORE_QUOTA_ENABLED)
           .setDefaultValue(false)
@@ -4395,6 +4679,27 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.WORKER)
           .build();
+  public static final PropertyKey WORKER_PAGE_STORE_QUOTA_SCOPE_SIZES =
+      listBuilder(Name.WORKER_PAGE_STORE_QUOTA_SCOPE_SIZES)
+          .setDescription(format("The maximum number of bytes the worker caches for cache "
+              + "scopes, as a comma separated list of scope=size, e.g. "
+              + "etl_bucket=500GB,adhoc_bucket=100GB. The pages of a scope over its quota are "
+              + "evicted before the pages of other scopes. The scope names are derived as "
+              + "described in %s.", Name.WORKER_PAGE_STORE_QUOTA_SCOPE_SOURCE))
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
+  public static final PropertyKey WORKER_PAGE_STORE_QUOTA_SCOPE_SOURCE =
+      enumBuilder(Name.WORKER_PAGE_STORE_QUOTA_SCOPE_SOURCE, CacheScopeSource.class)
+          .setDefaultValue(CacheScopeSource.PATH)
+          .setDescription(format("What the cache scope of the pages read on the worker is "
+              + "derived from when %s is enabled. PATH uses the authority of the UFS path, "
+              + "e.g. s3://etl-bucket/ is scope etl_bucket, and USER the name of the "
+              + "user reading the file. The characters other than letters, digits and "
+              + "underscores are replaced with underscores.", Name.WORKER_PAGE_STORE_QUOTA_ENABLED))
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
   public static final PropertyKey WORKER_PAGE_STORE_SIZES =
       listBuilder(Name.WORKER_PAGE_STORE_SIZES)
           .setDefaultValue("512MB")
@@ -4709,6 +5014,106 @@ public final class PropertyKey implements Comparable<PropertyKey> {
               + " to STATIC first.")
           .setScope(Scope.ALL)
           .build();
+  public static final PropertyKey WORKER_HOT_FILE_REPLICATION_ENABLED =
+      booleanBuilder(Name.WORKER_HOT_FILE_REPLICATION_ENABLED)
+          .setDefaultValue(false)
+          .setDescription("Whether a worker replicates the files it serves most frequently to "
+              + "the next workers on the consistent hash ring, so that clients can spread reads "
+              + "of hot files across several workers. Requires a membership manager other "
+              + "than NOOP.")
+          .setScope(Scope.WORKER)
+          .build();
+  public static final PropertyKey WORKER_HOT_FILE_REPLICATION_COUNT =
+      intBuilder(Name.WORKER_HOT_FILE_REPLICATION_COUNT)
+          .setDefaultValue(2)
+          .setDescription("The number of extra replicas created for a hot file, in addition "
+              + "to the copy cached by the worker that owns the file on the hash ring.")
+          .setScope(Scope.WORKER)
+          .build();
+  public static final PropertyKey WORKER_HOT_FILE_REPLICATION_THRESHOLD =
+      doubleBuilder(Name.WORKER_HOT_FILE_REPLICATION_THRESHOLD)
+          .setDefaultValue(100.0)
+          .setDescription("The heat above which a file is replicated. The heat of a file is "
+              + "the number of read requests it received, with each request decaying "
+              + "exponentially according to " + Name.WORKER_HOT_FILE_REPLICATION_HALF_LIFE
+              + ". Replicas are dropped once the heat falls below half of this value.")
+          .setScope(Scope.WORKER)
+          .build();
+  public static final PropertyKey WORKER_HOT_FILE_REPLICATION_HALF_LIFE =
+      durationBuilder(Name.WORKER_HOT_FILE_REPLICATION_HALF_LIFE)
+          .setDefaultValue("1min")
+          .setDescription("The time after which the contribution of a read request to the "
+              + "heat of a file is halved.")
+          .setScope(Scope.WORKER)
+          .build();
+  public static final PropertyKey WORKER_HOT_FILE_REPLICATION_INTERVAL =
+      durationBuilder(Name.WORKER_HOT_FILE_REPLICATION_INTERVAL)
+          .setDefaultValue("10sec")
+          .setDescription("The interval at which a worker creates replicas of hot files and "
+              + "drops replicas of files that have cooled down.")
+          .setScope(Scope.WORKER)
+          .build();
+  public static final PropertyKey WORKER_HOT_FILE_TRACKER_MAX_SIZE =
+      intBuilder(Name.WORKER_HOT_FILE_TRACKER_MAX_SIZE)
+          .setDefaultValue(100000)
+          .setDescription("The maximum number of files whose heat is tracked by a worker.")
+          .setScope(Scope.WORKER)
+          .build();
+  public static final PropertyKey WORKER_CACHE_SHADOW_ENABLED =
+      booleanBuilder(Name.WORKER_CACHE_SHADOW_ENABLED)
+          .setDefaultValue(false)
+          .setDescription("Whether the worker tracks the pages accessed in its cache with a "
+              + "clock cuckoo shadow cache, to report its working set size, and samples their "
+              + "reuse distance, to report the hit ratio of hypothetical cache sizes. The shadow "
+              + "cache is windowed and sized by the alluxio.user.client.cache.shadow.window, "
+              + "alluxio.user.client.cache.shadow.memory.overhead and "
+              + "alluxio.user.client.cache.shadow.cuckoo.* properties.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
+  public static final PropertyKey WORKER_CACHE_SHADOW_MRC_CACHE_SIZES =
+      listBuilder(Name.WORKER_CACHE_SHADOW_MRC_CACHE_SIZES)
+          .setDefaultValue("1GB,4GB,16GB,64GB,256GB,1TB")
+          .setDescription("The cache sizes at which the worker estimates the hit ratio of its "
+              + "cache, when the shadow cache is enabled.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
+  public static final PropertyKey WORKER_CACHE_SHADOW_MRC_SAMPLING_RATE =
+      doubleBuilder(Name.WORKER_CACHE_SHADOW_MRC_SAMPLING_RATE)
+          .setDefaultValue(0.01)
+          .setDescription("The fraction of the pages whose reuse distance is tracked to "
+              + "estimate the hit ratio of the worker cache at different sizes. The memory used "
+              + "is proportional to the largest cache size times this rate, divided by the page "
+              + "size.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
+  public static final PropertyKey WORKER_UFS_ASYNC_LOAD_ENABLED =
+      booleanBuilder(Name.WORKER_UFS_ASYNC_LOAD_ENABLED)
+          .setDefaultValue(false)
+          .setDescription("Whether a worker loading a file into its cache fetches the pages "
+              + "from the UFS with asynchronous reads, instead of holding a thread while each "
+              + "page is read. This is most effective with object stores whose client "
+              + "supports non-blocking reads, such as S3.")
+          .setScope(Scope.WORKER)
+          .build();
+  public static final PropertyKey WORKER_UFS_ASYNC_LOAD_MAX_INFLIGHT_PAGES =
+      intBuilder(Name.WORKER_UFS_ASYNC_LOAD_MAX_INFLIGHT_PAGES)
+          .setDefaultValue(16)
+          .setDescription("The maximum number of pages of a file fetched concurrently from the "
+              + "UFS when " + Name.WORKER_UFS_ASYNC_LOAD_ENABLED + " is true.")
+          .setScope(Scope.WORKER)
+          .build();
+  public static final PropertyKey WORKER_UFS_ASYNC_LOAD_THREADS =
+      intBuilder(Name.WORKER_UFS_ASYNC_LOAD_THREADS)
+          .setDefaultValue(8)
+          .setDescription("The number of threads caching the pages fetched from the UFS and "
+              + "issuing the next fetches when " + Name.WORKER_UFS_ASYNC_LOAD_ENABLED
+              + " is true. When the UFS has no non-blocking client, the pages are also read "
+              + "by these threads.")
+          .setScope(Scope.WORKER)
+          .build();
 
   //
   // Proxy related properties
@@ -6121,6 +6526,17 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.CLIENT)
           .build();
+  public static final PropertyKey USER_WORKER_LIST_WATCH_ENABLED =
+      booleanBuilder(Name.USER_WORKER_LIST_WATCH_ENABLED)
+          .setDefaultValue(false)
+          .setDescription("If enabled, the client subscribes to the changes of the live "
+              + "workers from the membership manager, and updates its worker list as soon as "
+              + "a worker joins or leaves instead of refreshing it every "
+              + Name.USER_WORKER_LIST_REFRESH_INTERVAL + ". Only the ETCD membership manager "
+              + "supports this, the client falls back to refreshing the worker list otherwise.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.CLIENT)
+          .build();
   public static final PropertyKey USER_RPC_RETRY_MAX_SLEEP_MS =
       durationBuilder(Name.USER_RPC_RETRY_MAX_SLEEP_MS)
           .setAlias("alluxio.user.rpc.retry.max.sleep.ms")
@@ -6493,6 +6909,16 @@ public final class PropertyKey implements Comparable<PropertyKey> {
       .setDefaultValue("1d")
       .setScope(Scope.MASTER)
       .build();
+  public static final PropertyKey JOB_LOAD_CHECKPOINT_INTERVAL =
+      durationBuilder(Name.JOB_LOAD_CHECKPOINT_INTERVAL)
+          .setDescription("The minimum interval between two journaled progress checkpoints "
+              + "of a running load job. A checkpoint records the UFS listing position and the "
+              + "progress counters so that the job resumes from there after a master restart "
+              + "or failover instead of listing the UFS from the beginning. Set to 0 to "
+              + "checkpoint after every completed batch.")
+          .setDefaultValue("30sec")
+          .setScope(Scope.MASTER)
+          .build();
 
   //
   // Job service
@@ -6915,6 +7341,51 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.IGNORE)
           .setScope(Scope.CLIENT)
           .build();
+  public static final PropertyKey DORA_CLIENT_READ_HEDGE_ENABLED =
+      booleanBuilder(Name.DORA_CLIENT_READ_HEDGE_ENABLED)
+          .setDefaultValue(false)
+          .setDescription("Whether a positioned read which takes longer than usual to be served "
+              + "by a worker is hedged, i.e. issued a second time to another source. The "
+              + "first of the two reads to complete is used and the other one is cancelled.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.IGNORE)
+          .setScope(Scope.CLIENT)
+          .build();
+  public static final PropertyKey DORA_CLIENT_READ_HEDGE_TARGET =
+      enumBuilder(Name.DORA_CLIENT_READ_HEDGE_TARGET, HedgedReadTarget.class)
+          .setDefaultValue(HedgedReadTarget.WORKER)
+          .setDescription("Where a read is hedged to. Valid options are `WORKER` (the next "
+              + "worker on the hash ring) and `UFS` (the under storage, directly).")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.IGNORE)
+          .setScope(Scope.CLIENT)
+          .build();
+  public static final PropertyKey DORA_CLIENT_READ_HEDGE_PERCENTILE =
+      doubleBuilder(Name.DORA_CLIENT_READ_HEDGE_PERCENTILE)
+          .setDefaultValue(95.0)
+          .setDescription("A read is hedged once it has been outstanding for longer than this "
+              + "percentile of the latency of the recent reads served by workers. If the "
+              + "average latency of the worker serving the read is already above this "
+              + "percentile, the read is hedged after "
+              + Name.DORA_CLIENT_READ_HEDGE_MIN_DELAY + ".")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.IGNORE)
+          .setScope(Scope.CLIENT)
+          .build();
+  public static final PropertyKey DORA_CLIENT_READ_HEDGE_MIN_DELAY =
+      durationBuilder(Name.DORA_CLIENT_READ_HEDGE_MIN_DELAY)
+          .setDefaultValue("5ms")
+          .setDescription("The minimum time a read is outstanding before being hedged. This "
+              + "is also the delay used until enough reads have been served to estimate the "
+              + "latency percentile.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.IGNORE)
+          .setScope(Scope.CLIENT)
+          .build();
+  public static final PropertyKey DORA_CLIENT_READ_HEDGE_THREADS =
+      intBuilder(Name.DORA_CLIENT_READ_HEDGE_THREADS)
+          .setDefaultValue(16)
+          .setDescription("The maximum number of hedged reads a client runs concurrently. "
+              + "Hedges in excess are delayed until a thread is available.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.IGNORE)
+          .setScope(Scope.CLIENT)
+          .build();
   public static final PropertyKey DORA_CLIENT_UFS_ROOT =
       stringBuilder(Name.DORA_CLIENT_UFS_ROOT)
           .setDefaultValue(format("${%s}/underFSStorage", Name.WORK_DIR))
@@ -6987,6 +7458,37 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.ENFORCE)
           .setScope(Scope.WORKER)
           .build();
+  public static final PropertyKey DORA_WORKER_METASTORE_ROCKSDB_WAL_ENABLED =
+      booleanBuilder(Name.DORA_WORKER_METASTORE_ROCKSDB_WAL_ENABLED)
+          .setDefaultValue(true)
+          .setDescription("Whether writes to the RocksDB of Dora metadata go through the "
+              + "write-ahead log. As the metadata is a cache of the UFS metadata, the WAL can "
+              + "be disabled to speed up metadata population, at the cost of losing the "
+              + "metadata not yet flushed when the worker crashes.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
+  public static final PropertyKey DORA_WORKER_METASTORE_ROCKSDB_COMPACT_ENCODING_ENABLED =
+      booleanBuilder(Name.DORA_WORKER_METASTORE_ROCKSDB_COMPACT_ENCODING_ENABLED)
+          .setDefaultValue(false)
+          .setDescription("Whether the file statuses are written to the RocksDB of Dora "
+              + "metadata in a compact encoding, which derives the path fields from the key "
+              + "and interns the owner, group and UFS type, instead of as protobufs. Both "
+              + "encodings are always readable, so existing entries are rewritten in the new "
+              + "encoding as they are updated. The worker can be rolled back to a version "
+              + "without this property, which drops the compact entries as unparsable.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
+  public static final PropertyKey DORA_WORKER_METASTORE_CACHE_LISTED_STATUS_ENABLED =
+      booleanBuilder(Name.DORA_WORKER_METASTORE_CACHE_LISTED_STATUS_ENABLED)
+          .setDefaultValue(false)
+          .setDescription("Whether the statuses of the files listed from the UFS are added to "
+              + "the Dora metadata store, so that following get status requests of these "
+              + "files are served without calling the UFS.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
 
   public static final PropertyKey DORA_UFS_LIST_STATUS_CACHE_TTL =
       durationBuilder(Name.DORA_UFS_LIST_STATUS_CACHE_TTL)
@@ -7179,6 +7681,10 @@ public final class PropertyKey implements Comparable<PropertyKey> {
         "alluxio.underfs.object.store.breadcrumbs.enabled";
     public static final String UNDERFS_OBJECT_STORE_SERVICE_THREADS =
         "alluxio.underfs.object.store.service.threads";
+    public static final String UNDERFS_OBJECT_STORE_PARALLEL_LISTING_ENABLED =
+        "alluxio.underfs.object.store.parallel.listing.enabled";
+    public static final String UNDERFS_OBJECT_STORE_PARALLEL_LISTING_THREADS =
+        "alluxio.underfs.object.store.parallel.listing.threads";
     public static final String UNDERFS_OBJECT_STORE_SKIP_PARENT_DIRECTORY_CREATION =
         "alluxio.underfs.object.store.skip.parent.directory.creation";
     public static final String UNDERFS_OBJECT_STORE_MOUNT_SHARED_PUBLICLY =
@@ -7420,10 +7926,16 @@ public final class PropertyKey implements Comparable<PropertyKey> {
         "alluxio.master.lock.pool.concurrency.level";
     public static final String MASTER_LOST_PROXY_DELETION_TIMEOUT_MS =
         "alluxio.master.lost.proxy.deletion.timeout";
+    public static final String MASTER_LOCK_OPTIMISTIC_READ_ENABLED =
+        "alluxio.master.lock.optimistic.read.enabled";
     public static final String MASTER_JOURNAL_CATCHUP_PROTECT_ENABLED =
         "alluxio.master.journal.catchup.protect.enabled";
     public static final String MASTER_JOURNAL_EXIT_ON_DEMOTION =
         "alluxio.master.journal.exit.on.demotion";
+    public static final String MASTER_JOURNAL_FLUSH_ADAPTIVE_BATCHING_ENABLED =
+        "alluxio.master.journal.flush.adaptive.batching.enabled";
+    public static final String MASTER_JOURNAL_FLUSH_BATCH_MAX_WAIT_TIME =
+        "alluxio.master.journal.flush.batch.max.wait.time";
     public static final String MASTER_JOURNAL_FLUSH_BATCH_TIME_MS =
         "alluxio.master.journal.flush.batch.time";
     public static final String MASTER_JOURNAL_FLUSH_TIMEOUT_MS =
@@ -7466,6 +7978,10 @@ public final class PropertyKey implements Comparable<PropertyKey> {
         "alluxio.master.embedded.journal.entry.size.max";
     public static final String MASTER_EMBEDDED_JOURNAL_FLUSH_SIZE_MAX =
         "alluxio.master.embedded.journal.flush.size.max";
+    public static final String MASTER_EMBEDDED_JOURNAL_PARALLEL_APPLY_ENABLED =
+        "alluxio.master.embedded.journal.parallel.apply.enabled";
+    public static final String MASTER_EMBEDDED_JOURNAL_PARALLEL_APPLY_MAX_PENDING_ENTRIES =
+        "alluxio.master.embedded.journal.parallel.apply.max.pending.entries";
     public static final String MASTER_EMBEDDED_JOURNAL_PORT =
         "alluxio.master.embedded.journal.port";
     public static final String MASTER_EMBEDDED_JOURNAL_RETRY_CACHE_EXPIRY_TIME =
@@ -7482,6 +7998,8 @@ public final class PropertyKey implements Comparable<PropertyKey> {
         "alluxio.master.embedded.journal.snapshot.replication.compression.type";
     public static final String MASTER_EMBEDDED_JOURNAL_SNAPSHOT_REPLICATION_COMPRESSION_LEVEL =
         "alluxio.master.embedded.journal.snapshot.replication.compression.level";
+    public static final String MASTER_EMBEDDED_JOURNAL_SNAPSHOT_REPLICATION_INCREMENTAL_ENABLED =
+        "alluxio.master.embedded.journal.snapshot.replication.incremental.enabled";
     public static final String MASTER_EMBEDDED_JOURNAL_RAFT_CLIENT_REQUEST_TIMEOUT =
         "alluxio.master.embedded.journal.raft.client.request.timeout";
     public static final String MASTER_EMBEDDED_JOURNAL_RAFT_CLIENT_REQUEST_INTERVAL =
@@ -7519,6 +8037,8 @@ public final class PropertyKey implements Comparable<PropertyKey> {
         "alluxio.master.metadata.sync.traversal.order";
     public static final String MASTER_METADATA_SYNC_UFS_PREFETCH_ENABLED =
         "alluxio.master.metadata.sync.ufs.prefetch.status";
+    public static final String MASTER_METADATA_SYNC_UFS_PREFETCH_MAX_DIRECTORIES =
+        "alluxio.master.metadata.sync.ufs.prefetch.max.directories";
     public static final String MASTER_METADATA_SYNC_UFS_PREFETCH_TIMEOUT =
         "alluxio.master.metadata.sync.ufs.prefetch.timeout";
     public static final String MASTER_METADATA_SYNC_IGNORE_TTL =
@@ -7549,6 +8069,10 @@ public final class PropertyKey implements Comparable<PropertyKey> {
         "alluxio.master.metastore.inode.cache.low.water.mark.ratio";
     public static final String MASTER_METASTORE_INODE_CACHE_MAX_SIZE =
         "alluxio.master.metastore.inode.cache.max.size";
+    public static final String MASTER_METASTORE_INODE_CACHE_OFF_HEAP_ENABLED =
+        "alluxio.master.metastore.inode.cache.off.heap.enabled";
+    public static final String MASTER_METASTORE_INODE_CACHE_OFF_HEAP_HOT_SET_SIZE =
+        "alluxio.master.metastore.inode.cache.off.heap.hot.set.size";
     public static final String MASTER_METASTORE_INODE_ITERATION_CRAWLER_COUNT =
         "alluxio.master.metastore.inode.iteration.crawler.count";
     public static final String MASTER_METASTORE_INODE_ENUMERATOR_BUFFER_COUNT =
@@ -7667,6 +8191,12 @@ public final class PropertyKey implements Comparable<PropertyKey> {
         "alluxio.master.ufs.managed.blocking.enabled";
     public static final String MASTER_UFS_PATH_CACHE_CAPACITY =
         "alluxio.master.ufs.path.cache.capacity";
+    public static final String MASTER_UFS_PATH_CACHE_FILTER_CAPACITY =
+        "alluxio.master.ufs.path.cache.filter.capacity";
+    public static final String MASTER_UFS_PATH_CACHE_FILTER_ENABLED =
+        "alluxio.master.ufs.path.cache.filter.enabled";
+    public static final String MASTER_UFS_PATH_CACHE_FILTER_GENERATION_DURATION =
+        "alluxio.master.ufs.path.cache.filter.generation.duration";
     public static final String MASTER_UFS_PATH_CACHE_THREADS =
         "alluxio.master.ufs.path.cache.threads";
     public static final String MASTER_UNSAFE_DIRECT_PERSIST_OBJECT_ENABLED =
@@ -7709,6 +8239,8 @@ public final class PropertyKey implements Comparable<PropertyKey> {
         "alluxio.master.worker.register.lease.respect.jvm.space";
     public static final String MASTER_WORKER_REGISTER_LEASE_TTL =
         "alluxio.master.worker.register.lease.ttl";
+    public static final String MASTER_WORKER_REGISTER_BLOCK_REPORT_THREADS =
+        "alluxio.master.worker.register.block.report.threads";
 
     //
     // File system master related properties
@@ -7844,12 +8376,30 @@ public final class PropertyKey implements Comparable<PropertyKey> {
     public static final String WORKER_BLOCK_MASTER_CLIENT_POOL_SIZE =
         "alluxio.worker.block.master.client.pool.size";
     public static final String WORKER_PRINCIPAL = "alluxio.worker.principal";
+    public static final String WORKER_PAGE_STORE_ASYNC_IO_ENABLED =
+        "alluxio.worker.page.store.async.io.enabled";
+    public static final String WORKER_PAGE_STORE_ASYNC_IO_QUEUE_DEPTH =
+        "alluxio.worker.page.store.async.io.queue.depth";
     public static final String WORKER_PAGE_STORE_ASYNC_RESTORE_ENABLED =
         "alluxio.worker.page.store.async.restore.enabled";
     public static final String WORKER_PAGE_STORE_ASYNC_WRITE_ENABLED =
         "alluxio.worker.page.store.async.write.enabled";
     public static final String WORKER_PAGE_STORE_ASYNC_WRITE_THREADS =
         "alluxio.worker.page.store.async.write.threads";
+    public static final String WORKER_PAGE_STORE_CHECKSUM_ENABLED =
+        "alluxio.worker.page.store.checksum.enabled";
+    public static final String WORKER_PAGE_STORE_CHECKSUM_READ_VERIFICATION_RATIO =
+        "alluxio.worker.page.store.checksum.read.verification.ratio";
+    public static final String WORKER_PAGE_STORE_CHECKSUM_SCRUB_INTERVAL =
+        "alluxio.worker.page.store.checksum.scrub.interval";
+    public static final String WORKER_PAGE_STORE_CHECKSUM_SCRUB_RATE =
+        "alluxio.worker.page.store.checksum.scrub.rate";
+    public static final String WORKER_PAGE_STORE_DIRECT_IO_ALIGNMENT =
+        "alluxio.worker.page.store.direct.io.alignment";
+    public static final String WORKER_PAGE_STORE_DIRECT_IO_READ_ENABLED =
+        "alluxio.worker.page.store.direct.io.read.enabled";
+    public static final String WORKER_PAGE_STORE_DIRECT_IO_WRITE_ENABLED =
+        "alluxio.worker.page.store.direct.io.write.enabled";
     public static final String WORKER_PAGE_STORE_DIRS =
         "alluxio.worker.page.store.dirs";
     public static final String WORKER_PAGE_STORE_EVICTION_RETRIES =
@@ -7862,12 +8412,24 @@ public final class PropertyKey implements Comparable<PropertyKey> {
         "alluxio.worker.page.store.evictor.nondeterministic.enabled";
     public static final String WORKER_PAGE_STORE_LOCAL_STORE_FILE_BUCKETS =
         "alluxio.worker.page.store.local.store.file.buckets";
+    public static final String WORKER_PAGE_STORE_MEMORY_TIER_EVICTOR_CLASS =
+        "alluxio.worker.page.store.memory.tier.evictor.class";
+    public static final String WORKER_PAGE_STORE_MEMORY_TIER_PROMOTION_THRESHOLD =
+        "alluxio.worker.page.store.memory.tier.promotion.threshold";
+    public static final String WORKER_PAGE_STORE_MEMORY_TIER_SIZE =
+        "alluxio.worker.page.store.memory.tier.size";
     public static final String WORKER_PAGE_STORE_OVERHEAD =
         "alluxio.worker.page.store.overhead";
     public static final String WORKER_PAGE_STORE_PAGE_SIZE =
         "alluxio.worker.page.store.page.size";
+    public static final String WORKER_PAGE_STORE_QUOTA_DEFAULT_SCOPE_SIZE =
+        "alluxio.worker.page.store.quota.default.scope.size";
     public static final String WORKER_PAGE_STORE_QUOTA_ENABLED =
         "alluxio.worker.page.store.quota.enabled";
+    public static final String WORKER_PAGE_STORE_QUOTA_SCOPE_SIZES =
+        "alluxio.worker.page.store.quota.scope.sizes";
+    public static final String WORKER_PAGE_STORE_QUOTA_SCOPE_SOURCE =
+        "alluxio.worker.page.store.quota.scope.source";
     public static final String WORKER_PAGE_STORE_SIZES =
         "alluxio.worker.page.store.sizes";
     public static final String WORKER_PAGE_STORE_TIMEOUT_DURATION =
@@ -7935,6 +8497,30 @@ public final class PropertyKey implements Comparable<PropertyKey> {
         "alluxio.worker.membership.manager.type";
     public static final String WORKER_STATIC_MEMBERSHIP_MANAGER_CONFIG_FILE =
         "alluxio.worker.static.membership.manager.config.file";
+    public static final String WORKER_HOT_FILE_REPLICATION_ENABLED =
+        "alluxio.worker.hot.file.replication.enabled";
+    public static final String WORKER_HOT_FILE_REPLICATION_COUNT =
+        "alluxio.worker.hot.file.replication.count";
+    public static final String WORKER_HOT_FILE_REPLICATION_THRESHOLD =
+        "alluxio.worker.hot.file.replication.threshold";
+    public static final String WORKER_HOT_FILE_REPLICATION_HALF_LIFE =
+        "alluxio.worker.hot.file.replication.half.life";
+    public static final String WORKER_HOT_FILE_REPLICATION_INTERVAL =
+        "alluxio.worker.hot.file.replication.interval";
+    public static final String WORKER_HOT_FILE_TRACKER_MAX_SIZE =
+        "alluxio.worker.hot.file.tracker.max.size";
+    public static final String WORKER_CACHE_SHADOW_ENABLED =
+        "alluxio.worker.cache.shadow.enabled";
+    public static final String WORKER_CACHE_SHADOW_MRC_CACHE_SIZES =
+        "alluxio.worker.cache.shadow.mrc.cache.sizes";
+    public static final String WORKER_CACHE_SHADOW_MRC_SAMPLING_RATE =
+        "alluxio.worker.cache.shadow.mrc.sampling.rate";
+    public static final String WORKER_UFS_ASYNC_LOAD_ENABLED =
+        "alluxio.worker.ufs.async.load.enabled";
+    public static final String WORKER_UFS_ASYNC_LOAD_MAX_INFLIGHT_PAGES =
+        "alluxio.worker.ufs.async.load.max.inflight.pages";
+    public static final String WORKER_UFS_ASYNC_LOAD_THREADS =
+        "alluxio.worker.ufs.async.load.threads";
 
     //
     // Proxy related properties
@@ -8265,6 +8851,8 @@ public final class PropertyKey implements Comparable<PropertyKey> {
         "alluxio.user.worker.selection.policy";
     public static final String USER_WORKER_LIST_REFRESH_INTERVAL =
         "alluxio.user.worker.list.refresh.interval";
+    public static final String USER_WORKER_LIST_WATCH_ENABLED =
+        "alluxio.user.worker.list.watch.enabled";
 
     //
     // FUSE integration related properties
@@ -8341,6 +8929,8 @@ public final class PropertyKey implements Comparable<PropertyKey> {
     // new job service
     public static final String JOB_BATCH_SIZE = "alluxio.job.batch.size";
     public static final String JOB_RETENTION_TIME = "alluxio.job.retention.time";
+    public static final String JOB_LOAD_CHECKPOINT_INTERVAL =
+        "alluxio.job.load.checkpoint.interval";
 
     //
     // Job service
@@ -8451,6 +9041,16 @@ public final class PropertyKey implements Comparable<PropertyKey> {
         "alluxio.dora.enabled";
     public static final String DORA_CLIENT_UFS_FALLBACK_ENABLED =
         "alluxio.dora.client.ufs.fallback.enabled";
+    public static final String DORA_CLIENT_READ_HEDGE_ENABLED =
+        "alluxio.dora.client.read.hedge.enabled";
+    public static final String DORA_CLIENT_READ_HEDGE_TARGET =
+        "alluxio.dora.client.read.hedge.target";
+    public static final String DORA_CLIENT_READ_HEDGE_PERCENTILE =
+        "alluxio.dora.client.read.hedge.percentile";
+    public static final String DORA_CLIENT_READ_HEDGE_MIN_DELAY =
+        "alluxio.dora.client.read.hedge.min.delay";
+    public static final String DORA_CLIENT_READ_HEDGE_THREADS =
+        "alluxio.dora.client.read.hedge.threads";
     public static final String DORA_CLIENT_UFS_ROOT = "alluxio.dora.client.ufs.root";
     public static final String DORA_CLIENT_METADATA_CACHE_ENABLED
         = "alluxio.dora.client.metadata.cache.enabled";
@@ -8468,6 +9068,12 @@ public final class PropertyKey implements Comparable<PropertyKey> {
         "alluxio.dora.worker.metastore.rocksdb.block.index";
     public static final String DORA_WORKER_METASTORE_ROCKSDB_INDEX =
         "alluxio.dora.worker.metastore.rocksdb.index";
+    public static final String DORA_WORKER_METASTORE_ROCKSDB_WAL_ENABLED =
+        "alluxio.dora.worker.metastore.rocksdb.wal.enabled";
+    public static final String DORA_WORKER_METASTORE_ROCKSDB_COMPACT_ENCODING_ENABLED =
+        "alluxio.dora.worker.metastore.rocksdb.compact.encoding.enabled";
+    public static final String DORA_WORKER_METASTORE_CACHE_LISTED_STATUS_ENABLED =
+        "alluxio.dora.worker.metastore.cache.listed.status.enabled";
 
     public static final String DORA_UFS_LIST_STATUS_CACHE_TTL =
         "alluxio.dora.ufs.list.status.cache.ttl";
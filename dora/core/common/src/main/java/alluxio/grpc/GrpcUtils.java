@@ -259,7 +259,8 @@ public final class GrpcUtils {
         .setXAttr(pInfo.getXattrMap().entrySet().stream().collect(Collectors.toMap(Map
             .Entry::getKey, e -> e.getValue().toByteArray())))
         .setUfsType(pInfo.getUfsType())
-        .setContentHash(pInfo.getContentHash());
+        .setContentHash(pInfo.getContentHash())
+        .setHotReplicas(map(GrpcUtils::fromProto, pInfo.getHotReplicasList()));
     return fileInfo;
   }
 
@@ -496,7 +497,8 @@ public final class GrpcUtils {
         .setReplicationMax(fileInfo.getReplicationMax())
         .setReplicationMin(fileInfo.getReplicationMin())
         .setContentHash(fileInfo.getContentHash())
-        .setUfsType(fileInfo.getUfsType());
+        .setUfsType(fileInfo.getUfsType())
+        .addAllHotReplicas(map(GrpcUtils::toProto, fileInfo.getHotReplicas()));
 
     if (!fileInfo.getAcl().equals(AccessControlList.EMPTY_ACL)) {
       builder.setAcl(toProto(fileInfo.getAcl()));
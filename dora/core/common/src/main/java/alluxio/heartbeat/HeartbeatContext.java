@@ -64,6 +64,7 @@ public final class HeartbeatContext {
   public static final String WORKER_BLOCK_SYNC = "Worker Block Sync";
   public static final String WORKER_CLIENT = "Worker Client";
   public static final String WORKER_FILESYSTEM_MASTER_SYNC = "Worker FileSystemMaster Sync";
+  public static final String WORKER_HOT_FILE_REPLICATION = "Worker Hot File Replication";
   public static final String WORKER_PIN_LIST_SYNC = "Worker Pin List Sync";
   public static final String WORKER_SPACE_RESERVER = "Worker Space Reserver";
   public static final String WORKER_STORAGE_HEALTH = "Worker Storage Health";
@@ -110,6 +111,7 @@ public final class HeartbeatContext {
     WORKER_SPACE_RESERVER(204),
     WORKER_STORAGE_HEALTH(205),
     WORKER_ENCRYPTION_ZONE_INFO_SYNC(206),
+    WORKER_HOT_FILE_REPLICATION(207),
 
     MASTER_WORKER_REGISTER_SESSION_CLEANER(300);
 
@@ -152,6 +154,7 @@ public final class HeartbeatContext {
     sTimerClasses.put(WORKER_BLOCK_SYNC, SLEEPING_TIMER_CLASS);
     sTimerClasses.put(WORKER_CLIENT, SLEEPING_TIMER_CLASS);
     sTimerClasses.put(WORKER_FILESYSTEM_MASTER_SYNC, SLEEPING_TIMER_CLASS);
+    sTimerClasses.put(WORKER_HOT_FILE_REPLICATION, SLEEPING_TIMER_CLASS);
     sTimerClasses.put(WORKER_PIN_LIST_SYNC, SLEEPING_TIMER_CLASS);
     sTimerClasses.put(WORKER_SPACE_RESERVER, SLEEPING_TIMER_CLASS);
     sTimerClasses.put(WORKER_STORAGE_HEALTH, SLEEPING_TIMER_CLASS);
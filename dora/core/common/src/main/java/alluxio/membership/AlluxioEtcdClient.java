@@ -376,12 +376,14 @@ public class AlluxioEtcdClient {
                   LOG.warn("Error occurred on children watch for path:{}, removing the watch.",
                       parentPath, throwable);
                   removeChildrenListener(parentPath);
+                  listener.onWatchTerminated();
                 }
 
                 @Override
                 public void onCompleted() {
                   LOG.warn("Watch for path onCompleted:{}, removing the watch.", parentPath);
                   removeChildrenListener(parentPath);
+                  listener.onWatchTerminated();
                 }
               });
           return newWatcher;
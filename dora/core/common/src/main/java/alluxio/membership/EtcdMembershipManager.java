@@ -11,10 +11,12 @@
 
 package alluxio.membership;
 
+import alluxio.Constants;
 import alluxio.conf.AlluxioConfiguration;
 import alluxio.conf.PropertyKey;
 import alluxio.exception.status.AlreadyExistsException;
 import alluxio.util.CommonUtils;
+import alluxio.util.ThreadFactoryUtils;
 import alluxio.wire.WorkerInfo;
 
 import com.google.common.annotations.VisibleForTesting;
@@ -28,22 +30,43 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
 
 /**
  * MembershipManager backed by configured etcd cluster.
  */
 public class EtcdMembershipManager implements MembershipManager {
   private static final Logger LOG = LoggerFactory.getLogger(EtcdMembershipManager.class);
+  private static final long REWATCH_BASE_DELAY_MS = 100;
+  private static final long REWATCH_MAX_DELAY_MS = 5 * Constants.SECOND_MS;
   private final AlluxioConfiguration mConf;
   private AlluxioEtcdClient mAlluxioEtcdClient;
   private String mClusterName;
   private Supplier<String> mRingPathPrefix =
       CommonUtils.memoize(this::constructRingPathPrefix);
+  private final Object mSubscriptionLock = new Object();
+  @GuardedBy("mSubscriptionLock")
+  private final List<MembershipListener> mListeners = new ArrayList<>();
+  /** The live members as of the latest watch event, by their path on etcd. */
+  @GuardedBy("mSubscriptionLock")
+  private final Map<String, WorkerInfo> mWatchedMembers = new HashMap<>();
+  private final StateListener mLiveMembersWatcher = new LiveMembersWatcher();
+  /** Restarts terminated watches, off the thread delivering the watch events. */
+  @GuardedBy("mSubscriptionLock")
+  @Nullable
+  private ScheduledExecutorService mRewatchExecutor;
+  @GuardedBy("mSubscriptionLock")
+  private boolean mRewatchPending;
 
   /**
    * @param conf
@@ -203,8 +226,184 @@ public class EtcdMembershipManager implements MembershipManager {
     // TO BE IMPLEMENTED
   }
 
+  @Override
+  public boolean subscribe(MembershipListener listener) throws IOException {
+    synchronized (mSubscriptionLock) {
+      if (mListeners.isEmpty()) {
+        try {
+          startWatch();
+        } catch (IOException | RuntimeException e) {
+          stopWatch();
+          throw e;
+        }
+      }
+      mListeners.add(listener);
+      for (WorkerInfo worker : mWatchedMembers.values()) {
+        listener.onJoin(worker);
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public void unsubscribe(MembershipListener listener) {
+    synchronized (mSubscriptionLock) {
+      if (mListeners.remove(listener) && mListeners.isEmpty()) {
+        stopWatch();
+      }
+    }
+  }
+
+  private String getLiveMembersPath() {
+    return mAlluxioEtcdClient.mServiceDiscovery.getRegisterPathPrefix() + PATH_SEPARATOR;
+  }
+
+  /**
+   * Starts watching the live members, then lists them to catch up with the changes made
+   * before the watch started. The events received while listing are only applied once the
+   * listing is done, as they all contend on the subscription lock.
+   */
+  @GuardedBy("mSubscriptionLock")
+  private void startWatch() throws IOException {
+    mAlluxioEtcdClient.addChildrenListener(getLiveMembersPath(), mLiveMembersWatcher);
+    Map<String, WorkerInfo> liveMembers = new HashMap<>();
+    for (Map.Entry<String, ByteBuffer> entry : mAlluxioEtcdClient.mServiceDiscovery
+        .getAllLiveServices().entrySet()) {
+      WorkerInfo worker = deserializeMember(entry.getValue().array());
+      if (worker != null) {
+        liveMembers.put(entry.getKey(), worker);
+      }
+    }
+    List<String> leftMembers = mWatchedMembers.keySet().stream()
+        .filter(key -> !liveMembers.containsKey(key)).collect(Collectors.toList());
+    for (String key : leftMembers) {
+      onMemberLeave(key);
+    }
+    for (Map.Entry<String, WorkerInfo> entry : liveMembers.entrySet()) {
+      onMemberJoin(entry.getKey(), entry.getValue());
+    }
+  }
+
+  @GuardedBy("mSubscriptionLock")
+  private void stopWatch() {
+    mAlluxioEtcdClient.removeChildrenListener(getLiveMembersPath());
+    mWatchedMembers.clear();
+  }
+
+  @GuardedBy("mSubscriptionLock")
+  private void onMemberJoin(String key, WorkerInfo worker) {
+    WorkerInfo previous = mWatchedMembers.put(key, worker);
+    if (previous != null) {
+      if (previous.getAddress().equals(worker.getAddress())) {
+        // e.g. the lease of the worker is renewed
+        return;
+      }
+      mListeners.forEach(listener -> listener.onLeave(previous));
+    }
+    mListeners.forEach(listener -> listener.onJoin(worker));
+  }
+
+  @GuardedBy("mSubscriptionLock")
+  private void onMemberLeave(String key) {
+    WorkerInfo previous = mWatchedMembers.remove(key);
+    if (previous != null) {
+      mListeners.forEach(listener -> listener.onLeave(previous));
+    }
+  }
+
+  private static WorkerInfo deserializeMember(byte[] serializedEntity) {
+    try {
+      WorkerServiceEntity entity = new WorkerServiceEntity();
+      entity.deserialize(serializedEntity);
+      return new WorkerInfo().setAddress(entity.getWorkerNetAddress());
+    } catch (JsonParseException ex) {
+      return null;
+    }
+  }
+
+  /**
+   * Applies the changes of the live members on etcd to the subscribed listeners.
+   */
+  private final class LiveMembersWatcher implements StateListener {
+    @Override
+    public void onNewPut(String newPutKey, byte[] newPutValue) {
+      WorkerInfo worker = deserializeMember(newPutValue);
+      if (worker == null) {
+        return;
+      }
+      synchronized (mSubscriptionLock) {
+        if (!mListeners.isEmpty()) {
+          onMemberJoin(newPutKey, worker);
+        }
+      }
+    }
+
+    @Override
+    public void onNewDelete(String newDeleteKey) {
+      synchronized (mSubscriptionLock) {
+        if (!mListeners.isEmpty()) {
+          onMemberLeave(newDeleteKey);
+        }
+      }
+    }
+
+    @Override
+    public void onWatchTerminated() {
+      synchronized (mSubscriptionLock) {
+        if (mListeners.isEmpty() || mRewatchPending) {
+          return;
+        }
+        if (mRewatchExecutor == null) {
+          mRewatchExecutor = Executors.newSingleThreadScheduledExecutor(
+              ThreadFactoryUtils.build("etcd-membership-rewatch-%d", true));
+        }
+        mRewatchPending = true;
+        scheduleRewatch(0);
+      }
+    }
+  }
+
+  /**
+   * Schedules an attempt to restart the watch on the live members, with an exponential backoff
+   * capped at {@link #REWATCH_MAX_DELAY_MS}. The events missed until the watch is restarted are
+   * caught up by the listing done when starting the watch.
+   *
+   * @param attempt the number of failed attempts so far
+   */
+  @GuardedBy("mSubscriptionLock")
+  private void scheduleRewatch(int attempt) {
+    long delayMs = attempt == 0 ? 0
+        : Math.min(REWATCH_BASE_DELAY_MS << Math.min(attempt - 1, 16), REWATCH_MAX_DELAY_MS);
+    mRewatchExecutor.schedule(() -> {
+      synchronized (mSubscriptionLock) {
+        if (mListeners.isEmpty()) {
+          mRewatchPending = false;
+          return;
+        }
+        try {
+          startWatch();
+          mRewatchPending = false;
+          LOG.info("Restarted the watch on live members");
+        } catch (IOException | RuntimeException e) {
+          LOG.warn("Failed to restart the watch on live members (attempt {})", attempt + 1, e);
+          scheduleRewatch(attempt + 1);
+        }
+      }
+    }, delayMs, TimeUnit.MILLISECONDS);
+  }
+
   @Override
   public void close() throws Exception {
-    // NOTHING TO CLOSE
+    synchronized (mSubscriptionLock) {
+      if (!mListeners.isEmpty()) {
+        mListeners.clear();
+        stopWatch();
+      }
+      if (mRewatchExecutor != null) {
+        mRewatchExecutor.shutdownNow();
+        mRewatchExecutor = null;
+      }
+      mRewatchPending = false;
+    }
   }
 }
@@ -0,0 +1,31 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.membership;
+
+import alluxio.wire.WorkerInfo;
+
+/**
+ * Interface for getting callback on the changes of the live worker members.
+ */
+public interface MembershipListener {
+  /**
+   * Act on a worker becoming live.
+   * @param worker the worker
+   */
+  public void onJoin(WorkerInfo worker);
+
+  /**
+   * Act on a worker no longer being live.
+   * @param worker the worker
+   */
+  public void onLeave(WorkerInfo worker);
+}
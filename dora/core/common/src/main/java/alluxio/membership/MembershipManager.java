@@ -83,6 +83,26 @@ public interface MembershipManager extends AutoCloseable {
    */
   public void decommission(WorkerInfo worker) throws IOException;
 
+  /**
+   * Subscribe to the changes of the live members. Once subscribed, the listener is first
+   * called with {@link MembershipListener#onJoin} for each of the current live members, and
+   * then with an event for each worker joining or leaving, as soon as the change is known to
+   * the membership manager.
+   * @param listener the listener
+   * @return whether the subscription is supported by this membership manager, if not, the
+   *         caller needs to poll {@link #getLiveMembers()} for changes instead
+   * @throws IOException
+   */
+  public default boolean subscribe(MembershipListener listener) throws IOException {
+    return false;
+  }
+
+  /**
+   * Unsubscribe a listener previously subscribed with {@link #subscribe}.
+   * @param listener the listener
+   */
+  public default void unsubscribe(MembershipListener listener) {}
+
   /**
    * Factory class to get or create a MembershipManager.
    */
@@ -313,6 +313,13 @@ public class ServiceDiscoveryRecipe {
     }
   }
 
+  /**
+   * @return the path under which the live services are registered
+   */
+  public String getRegisterPathPrefix() {
+    return mRegisterPathPrefix;
+  }
+
   /**
    * Get all healthy service list.
    * @return return service name to service entity serialized value
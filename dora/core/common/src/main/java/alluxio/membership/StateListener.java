@@ -27,4 +27,10 @@ public interface StateListener {
    * @param newDeleteKey
    */
   public void onNewDelete(String newDeleteKey);
+
+  /**
+   * Act on the watch being terminated, e.g. on an unrecoverable error. No more events are
+   * delivered to this listener afterwards.
+   */
+  public default void onWatchTerminated() {}
 }
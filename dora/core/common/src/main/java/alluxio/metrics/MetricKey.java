@@ -258,6 +258,32 @@ public final class MetricKey implements Comparable<MetricKey> {
 
   // Master metrics
   // Absent cache stats
+  public static final MetricKey MASTER_ABSENT_CACHE_FILTER_EXPECTED_FPP =
+      new Builder("Master.AbsentCacheFilterExpectedFpp")
+          .setDescription("Expected false positive probability of a single lookup in the "
+              + "absent cache filter, estimated from the filter occupancy")
+          .setMetricType(MetricType.GAUGE)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey MASTER_ABSENT_CACHE_FILTER_HITS =
+      new Builder("Master.AbsentCacheFilterHits")
+          .setDescription("Number of absent path lookups answered by the absent cache filter "
+              + "after missing the exact absent cache")
+          .setMetricType(MetricType.COUNTER)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey MASTER_ABSENT_CACHE_FILTER_PATHS =
+      new Builder("Master.AbsentCacheFilterPaths")
+          .setDescription("Number of absent paths held by the absent cache filter")
+          .setMetricType(MetricType.GAUGE)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey MASTER_ABSENT_CACHE_FILTER_SIZE_BYTES =
+      new Builder("Master.AbsentCacheFilterSizeBytes")
+          .setDescription("Memory used by the absent cache filter in bytes")
+          .setMetricType(MetricType.GAUGE)
+          .setIsClusterAggregated(false)
+          .build();
   public static final MetricKey MASTER_ABSENT_CACHE_HITS =
       new Builder("Master.AbsentCacheHits")
           .setDescription("Number of cache hits on the absent cache")
@@ -368,6 +394,12 @@ public final class MetricKey implements Comparable<MetricKey> {
           .setDescription("Total number of inodes (inode metadata) cached.")
           .setMetricType(MetricType.GAUGE)
           .build();
+  public static final MetricKey MASTER_INODE_CACHE_OFF_HEAP_SIZE =
+      new Builder("Master.InodeCacheOffHeapSize")
+          .setDescription("Total bytes of off-heap memory allocated by the inode cache, "
+              + "when the inode cache keeps inodes off-heap.")
+          .setMetricType(MetricType.GAUGE)
+          .build();
   public static final MetricKey MASTER_JOURNAL_SPACE_FREE_BYTES =
       new Builder("Master.JournalFreeBytes")
           .setDescription("Bytes left on the journal disk(s) for an Alluxio master. "
@@ -394,6 +426,33 @@ public final class MetricKey implements Comparable<MetricKey> {
               + "If 1 block is to be removed from 2 workers, 2 will be counted here.")
           .setMetricType(MetricType.GAUGE)
           .build();
+  public static final MetricKey MASTER_WORKER_BLOCK_REPORT_QUEUE_SIZE =
+      new Builder("Master.WorkerBlockReportQueueSize")
+          .setDescription("Number of shards of worker block reports waiting to be applied "
+              + "in parallel")
+          .setMetricType(MetricType.GAUGE)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey MASTER_WORKER_REGISTER_LEASE_REJECTED =
+      new Builder("Master.WorkerRegisterLeaseRejected")
+          .setDescription("Number of register lease requests rejected because too many workers "
+              + "were registering, or the master did not have enough heap. The rejected "
+              + "workers retry later.")
+          .setMetricType(MetricType.COUNTER)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey MASTER_WORKER_REGISTER_LEASES_ACTIVE =
+      new Builder("Master.WorkerRegisterLeasesActive")
+          .setDescription("Number of register leases currently held by workers")
+          .setMetricType(MetricType.GAUGE)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey MASTER_WORKER_REGISTER_STREAMS_ACTIVE =
+      new Builder("Master.WorkerRegisterStreamsActive")
+          .setDescription("Number of worker register streams in progress")
+          .setMetricType(MetricType.GAUGE)
+          .setIsClusterAggregated(false)
+          .build();
   public static final MetricKey MASTER_LOST_FILE_COUNT =
       new Builder("Master.LostFileCount")
           .setDescription("Count of lost files. This number is cached and may not be in sync with "
@@ -441,6 +500,21 @@ public final class MetricKey implements Comparable<MetricKey> {
           .setMetricType(MetricType.GAUGE)
           .setIsClusterAggregated(false)
           .build();
+  public static final MetricKey MASTER_TTL_EXPIRED_INODES =
+      new Builder("Master.TTLExpiredInodes")
+          .setDescription("The number of inodes freed or deleted by the TTL checker, with the "
+              + "rate of expirations per second")
+          .setMetricType(MetricType.METER)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey MASTER_TTL_EXPIRY_LAG_MS =
+      new Builder("Master.TTLExpiryLagMs")
+          .setDescription("How long the oldest expired TTL bucket has been waiting for the TTL "
+              + "checker, in milliseconds. This stays below the TTL checker interval when the "
+              + "checker keeps up with expirations.")
+          .setMetricType(MetricType.GAUGE)
+          .setIsClusterAggregated(false)
+          .build();
   public static final MetricKey MASTER_INODE_HEAP_SIZE =
       new Builder("Master.InodeHeapSize")
           .setDescription("An estimate of the inode heap size")
@@ -675,6 +749,18 @@ public final class MetricKey implements Comparable<MetricKey> {
           .setDescription("The size of master edge lock pool")
           .setMetricType(MetricType.GAUGE)
           .build();
+  public static final MetricKey MASTER_OPTIMISTIC_PATH_TRAVERSALS =
+      new Builder("Master.OptimisticPathTraversals")
+          .setDescription("Total number of inode paths resolved without locking their "
+              + "ancestors")
+          .setMetricType(MetricType.COUNTER)
+          .build();
+  public static final MetricKey MASTER_OPTIMISTIC_PATH_TRAVERSAL_CONFLICTS =
+      new Builder("Master.OptimisticPathTraversalConflicts")
+          .setDescription("Total number of optimistic inode path resolutions which conflicted "
+              + "with concurrent writes and were resolved again with locks")
+          .setMetricType(MetricType.COUNTER)
+          .build();
   public static final MetricKey MASTER_AUDIT_LOG_ENTRIES_SIZE =
       new Builder("Master.AuditLogEntriesSize")
           .setDescription("The size of the audit log entries blocking queue")
@@ -830,6 +916,33 @@ public final class MetricKey implements Comparable<MetricKey> {
           .setMetricType(MetricType.COUNTER)
           .setIsClusterAggregated(false)
           .build();
+  public static final MetricKey MASTER_METADATA_SYNC_PREFETCH_DEFERRED =
+      new Builder("Master.MetadataSyncPrefetchDeferred")
+          .setDescription("Total number of directory prefetches from metadata sync which were "
+              + "deferred because the maximum number of prefetched directories was reached")
+          .setMetricType(MetricType.COUNTER)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey MASTER_METADATA_SYNC_LISTING_WAIT_TIME_MS =
+      new Builder("Master.MetadataSyncListingWaitTimeMs")
+          .setDescription("The total time metadata sync spent waiting for the UFS listings of "
+              + "the directories being synced")
+          .setMetricType(MetricType.COUNTER)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey MASTER_METADATA_SYNC_DIFF_TIMER =
+      new Builder("Master.MetadataSyncDiffTimer")
+          .setDescription("The timer statistics of comparing each synced path with the UFS and "
+              + "applying the differences to the inode tree, including the time reported by "
+              + "Master.MetadataSyncListingWaitTimeMs")
+          .setMetricType(MetricType.TIMER)
+          .build();
+  public static final MetricKey MASTER_METADATA_SYNC_JOURNAL_WRITE_TIMER =
+      new Builder("Master.MetadataSyncJournalWriteTimer")
+          .setDescription("The timer statistics of writing the journal entries of each synced "
+              + "path to the async journal writer")
+          .setMetricType(MetricType.TIMER)
+          .build();
   public static final MetricKey MASTER_UFS_STATUS_CACHE_SIZE =
       new Builder("Master.UfsStatusCacheSize")
           .setDescription("Total number of Alluxio paths being processed by the "
@@ -930,6 +1043,14 @@ public final class MetricKey implements Comparable<MetricKey> {
               + "valid when using the embedded journal.")
           .setMetricType(MetricType.GAUGE)
           .build();
+  public static final MetricKey MASTER_EMBEDDED_JOURNAL_LAST_SNAPSHOT_DOWNLOAD_REUSED_SIZE =
+      new Builder("Master.EmbeddedJournalLastSnapshotDownloadReusedSize")
+          .setDescription("Describes the size on disk of the files of the snapshot downloaded "
+              + "from other masters the previous time the download occurred, which were linked "
+              + "from the local snapshot instead of being downloaded. Only valid when using the "
+              + "embedded journal.")
+          .setMetricType(MetricType.GAUGE)
+          .build();
   public static final MetricKey MASTER_EMBEDDED_JOURNAL_SNAPSHOT_UPLOAD_HISTOGRAM =
       new Builder("Master.EmbeddedJournalSnapshotUploadHistogram")
           .setDescription("Describes the size of the snapshot uploaded to another master in "
@@ -1031,6 +1152,18 @@ public final class MetricKey implements Comparable<MetricKey> {
           .setDescription("Total number of failed journal flush")
           .setMetricType(MetricType.COUNTER)
           .build();
+  public static final MetricKey MASTER_JOURNAL_FLUSH_BATCH_SIZE =
+      new Builder("Master.JournalFlushBatchSize")
+          .setDescription("The number of journal entries written by each journal flush")
+          .setMetricType(MetricType.HISTOGRAM)
+          .build();
+  public static final MetricKey MASTER_JOURNAL_FLUSH_BATCH_LATENCY =
+      new Builder("Master.JournalFlushBatchLatency")
+          .setDescription("The timer statistics of journal flush batches, from writing the "
+              + "first entry of the batch to the completion of the flush, including the time "
+              + "waiting for concurrent journal writes")
+          .setMetricType(MetricType.TIMER)
+          .build();
   public static final MetricKey MASTER_JOURNAL_FLUSH_TIMER =
       new Builder("Master.JournalFlushTimer")
           .setDescription("The timer statistics of journal flush")
@@ -2158,6 +2291,134 @@ public final class MetricKey implements Comparable<MetricKey> {
           .setDescription("Total number of the succeed master registration.")
           .setMetricType(MetricType.COUNTER)
           .build();
+  public static final MetricKey WORKER_LIST_STATUS_UFS_COUNT =
+      new Builder("Worker.ListStatusUfsCount")
+          .setDescription("Total number of listings issued to the UFS by the worker.")
+          .setMetricType(MetricType.COUNTER)
+          .build();
+  public static final MetricKey WORKER_LIST_STATUS_COALESCED_COUNT =
+      new Builder("Worker.ListStatusCoalescedCount")
+          .setDescription("Total number of listing requests served by joining an in-progress "
+              + "UFS listing of the same path instead of listing the UFS again.")
+          .setMetricType(MetricType.COUNTER)
+          .build();
+  public static final MetricKey WORKER_HOT_FILE_REPLICATED_COUNT =
+      new Builder("Worker.HotFileReplicatedCount")
+          .setDescription("Total number of hot files this worker replicated to the next "
+              + "workers on the hash ring.")
+          .setMetricType(MetricType.COUNTER)
+          .build();
+  public static final MetricKey WORKER_HOT_FILE_REPLICA_DROPPED_COUNT =
+      new Builder("Worker.HotFileReplicaDroppedCount")
+          .setDescription("Total number of hot file replicas this worker evicted from its cache "
+              + "after the files cooled down.")
+          .setMetricType(MetricType.COUNTER)
+          .build();
+  public static final MetricKey WORKER_PAGE_STORE_ASYNC_IO_QUEUE_DEPTH =
+      new Builder("Worker.PageStoreAsyncIoQueueDepth")
+          .setDescription("The number of asynchronous page reads submitted to the "
+              + "local page stores and not completed yet.")
+          .setMetricType(MetricType.GAUGE)
+          .build();
+  public static final MetricKey WORKER_PAGE_STORE_ASYNC_READ_LATENCY =
+      new Builder("Worker.PageStoreAsyncReadLatency")
+          .setDescription("The latency distribution of the asynchronous page reads from the "
+              + "local page stores, from submission to completion.")
+          .setMetricType(MetricType.TIMER)
+          .build();
+  public static final MetricKey WORKER_PAGE_STORE_MEMORY_TIER_HITS =
+      new Builder("Worker.PageStoreMemoryTierHits")
+          .setDescription("Total number of page reads served by the memory tier of the local "
+              + "page stores.")
+          .setMetricType(MetricType.COUNTER)
+          .build();
+  public static final MetricKey WORKER_PAGE_STORE_MEMORY_TIER_PROMOTIONS =
+      new Builder("Worker.PageStoreMemoryTierPromotions")
+          .setDescription("Total number of pages promoted to the memory tier of the local "
+              + "page stores.")
+          .setMetricType(MetricType.COUNTER)
+          .build();
+  public static final MetricKey WORKER_PAGE_STORE_MEMORY_TIER_DEMOTIONS =
+      new Builder("Worker.PageStoreMemoryTierDemotions")
+          .setDescription("Total number of pages dropped from the memory tier of the local "
+              + "page stores to make room for promoted pages.")
+          .setMetricType(MetricType.COUNTER)
+          .build();
+  public static final MetricKey WORKER_PAGE_STORE_CHECKSUM_VERIFIED_PAGES =
+      new Builder("Worker.PageStoreChecksumVerifiedPages")
+          .setDescription("Total number of cached pages whose checksum was verified, by "
+              + "verified reads or by the scrubber.")
+          .setMetricType(MetricType.COUNTER)
+          .build();
+  public static final MetricKey WORKER_PAGE_STORE_CORRUPT_PAGES =
+      new Builder("Worker.PageStoreCorruptPages")
+          .setDescription("Total number of cached pages found not to match their checksum, "
+              + "which were evicted.")
+          .setMetricType(MetricType.COUNTER)
+          .build();
+  public static final MetricKey WORKER_PAGE_STORE_SCRUBBED_BYTES =
+      new Builder("Worker.PageStoreScrubbedBytes")
+          .setDescription("Total number of bytes read from the page stores by the scrubber "
+              + "to verify the checksums of the cached pages.")
+          .setMetricType(MetricType.COUNTER)
+          .build();
+  public static final MetricKey WORKER_CACHE_WORKING_SET_BYTES =
+      new Builder("Worker.CacheWorkingSetBytes")
+          .setDescription(String.format("The number of bytes of the distinct pages accessed on "
+              + "the worker within the shadow cache window, as estimated by the shadow cache. "
+              + "This metric is only recorded when %s is set to true.",
+              PropertyKey.WORKER_CACHE_SHADOW_ENABLED.getName()))
+          .setMetricType(MetricType.GAUGE)
+          .build();
+  public static final MetricKey WORKER_CACHE_WORKING_SET_PAGES =
+      new Builder("Worker.CacheWorkingSetPages")
+          .setDescription(String.format("The number of distinct pages accessed on the worker "
+              + "within the shadow cache window, as estimated by the shadow cache. "
+              + "This metric is only recorded when %s is set to true.",
+              PropertyKey.WORKER_CACHE_SHADOW_ENABLED.getName()))
+          .setMetricType(MetricType.GAUGE)
+          .build();
+  public static final MetricKey WORKER_CACHE_PREDICTED_HIT_RATIO =
+      new Builder("Worker.CachePredictedHitRatio")
+          .setDescription(String.format("The hit ratio the worker cache would have with the "
+              + "size in bytes given by the CacheSize tag, as estimated from the reuse "
+              + "distance of the sampled page accesses. "
+              + "This metric is only recorded when %s is set to true.",
+              PropertyKey.WORKER_CACHE_SHADOW_ENABLED.getName()))
+          .setMetricType(MetricType.GAUGE)
+          .build();
+  public static final MetricKey WORKER_CACHE_SCOPE_BYTES =
+      new Builder("Worker.CacheScopeBytes")
+          .setDescription(String.format("The number of bytes cached on the worker for the cache "
+              + "scope given by the CacheScope tag. "
+              + "This metric is only recorded when %s is set to true.",
+              PropertyKey.WORKER_PAGE_STORE_QUOTA_ENABLED.getName()))
+          .setMetricType(MetricType.GAUGE)
+          .build();
+  public static final MetricKey WORKER_CACHE_SCOPE_BYTES_READ_CACHE =
+      new Builder("Worker.CacheScopeBytesReadCache")
+          .setDescription(String.format("Total number of bytes read from the worker cache for "
+              + "the cache scope given by the CacheScope tag. "
+              + "This metric is only recorded when %s is set to true.",
+              PropertyKey.WORKER_PAGE_STORE_QUOTA_ENABLED.getName()))
+          .setMetricType(MetricType.COUNTER)
+          .build();
+  public static final MetricKey WORKER_CACHE_SCOPE_BYTES_READ_EXTERNAL =
+      new Builder("Worker.CacheScopeBytesReadExternal")
+          .setDescription(String.format("Total number of bytes read from the UFS on cache "
+              + "misses for the cache scope given by the CacheScope tag. "
+              + "This metric is only recorded when %s is set to true.",
+              PropertyKey.WORKER_PAGE_STORE_QUOTA_ENABLED.getName()))
+          .setMetricType(MetricType.COUNTER)
+          .build();
+  public static final MetricKey WORKER_CACHE_SCOPE_HIT_RATIO =
+      new Builder("Worker.CacheScopeHitRatio")
+          .setDescription(String.format("The ratio of the bytes read from the worker cache to "
+              + "all the bytes read for the cache scope given by the CacheScope tag. "
+              + "This metric is only recorded when %s is set to true.",
+              PropertyKey.WORKER_PAGE_STORE_QUOTA_ENABLED.getName()))
+          .setMetricType(MetricType.GAUGE)
+          .build();
 
   // Client metrics
   public static final MetricKey CLIENT_BLOCK_READ_CHUNK_REMOTE =
@@ -2562,6 +2823,20 @@ public final class MetricKey implements Comparable<MetricKey> {
           .setMetricType(MetricType.GAUGE)
           .setIsClusterAggregated(false)
           .build();
+  public static final MetricKey CLIENT_READ_HEDGED =
+      new Builder("Client.ReadHedged")
+          .setDescription("The number of reads hedged to another source because the worker "
+              + "serving them was slow to respond, and the rate at which reads are hedged.")
+          .setMetricType(MetricType.METER)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey CLIENT_READ_HEDGE_WIN_COUNT =
+      new Builder("Client.ReadHedgeWinCount")
+          .setDescription("The number of hedged reads for which the hedge completed before the "
+              + "original read.")
+          .setMetricType(MetricType.COUNTER)
+          .setIsClusterAggregated(false)
+          .build();
 
   public static final MetricKey CLOSE_UFS_OUTSTREAM_LATENCY =
           new Builder("Client.CloseUFSOutStreamLatency")
@@ -13,6 +13,9 @@ package alluxio.underfs;
 
 import alluxio.file.options.DescendantType;
 
+import io.netty.buffer.ByteBuf;
+
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 import javax.annotation.Nullable;
 
@@ -43,4 +46,29 @@ public interface AsyncUfsClient {
       String path, @Nullable String continuationToken, @Nullable String startAfter,
       DescendantType descendantType, boolean checkStatus, Consumer<UfsLoadResult> onComplete,
       Consumer<Throwable> onError);
+
+  /**
+   * Reads a range of a file into a buffer. The function should return immediately, and
+   * perform the read asynchronously. Implementations backed by a non-blocking client should
+   * not hold a thread while waiting for the UFS.
+   * The buffer must not be accessed by the caller until the returned future completes.
+   *
+   * @param path the path of the file in ufs
+   * @param fileLength the length of the file
+   * @param position the position in the file to read from
+   * @param length the number of bytes to read
+   * @param buffer the buffer the bytes are written to
+   * @return a future of the number of bytes read, which may be less than the requested length,
+   *         or -1 if the position is at or past the end of the file
+   */
+  CompletableFuture<Integer> positionReadAsync(String path, long fileLength, long position,
+      int length, ByteBuf buffer);
+
+  /**
+   * @return true if {@link #positionReadAsync} is backed by a non-blocking client, false if it
+   *         falls back to blocking reads on a thread pool
+   */
+  default boolean isPositionReadAsyncNonBlocking() {
+    return false;
+  }
 }
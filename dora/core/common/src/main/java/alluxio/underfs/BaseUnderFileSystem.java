@@ -13,6 +13,7 @@ package alluxio.underfs;
 
 import alluxio.AlluxioURI;
 import alluxio.Constants;
+import alluxio.PositionReader;
 import alluxio.collections.Pair;
 import alluxio.conf.AlluxioConfiguration;
 import alluxio.file.options.DescendantType;
@@ -30,6 +31,7 @@ import alluxio.util.io.PathUtils;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Iterators;
 import com.google.common.io.Closer;
+import io.netty.buffer.ByteBuf;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -45,6 +47,8 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.function.Consumer;
@@ -275,6 +279,19 @@ public abstract class BaseUnderFileSystem implements UnderFileSystem {
     });
   }
 
+  @Override
+  public CompletableFuture<Integer> positionReadAsync(String path, long fileLength,
+      long position, int length, ByteBuf buffer) {
+    // the UFS client is blocking, so the read is offloaded to the async IO threads
+    return CompletableFuture.supplyAsync(() -> {
+      try (PositionReader reader = openPositionRead(path, fileLength)) {
+        return reader.read(position, buffer, length);
+      } catch (IOException e) {
+        throw new CompletionException(e);
+      }
+    }, mAsyncIOExecutor);
+  }
+
   @Override
   @Nullable
   public UfsStatus[] listStatus(String path, ListOptions options) throws IOException {
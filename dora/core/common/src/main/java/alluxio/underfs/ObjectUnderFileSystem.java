@@ -31,6 +31,7 @@ import alluxio.util.executor.ExecutorServiceFactories;
 import alluxio.util.io.PathUtils;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Throwables;
 import com.google.common.collect.Iterators;
 import org.apache.http.conn.ConnectTimeoutException;
 import org.slf4j.Logger;
@@ -40,26 +41,33 @@ import java.io.EOFException;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.net.SocketException;
 import java.net.UnknownHostException;
 import java.text.MessageFormat;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
 import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.function.Supplier;
 import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
 
 /**
@@ -73,6 +81,19 @@ public abstract class ObjectUnderFileSystem extends BaseUnderFileSystem {
   /** Default maximum length for a single listing query. */
   private static final int DEFAULT_MAX_LISTING_CHUNK_LENGTH = 1000;
 
+  /** The maximum number of levels of sub-prefixes a parallel listing is split by. */
+  private static final int MAX_PARALLEL_LISTING_SPLIT_DEPTH = 3;
+
+  /** The number of chunks listed ahead for each sub-prefix of a parallel listing. */
+  private static final int PARALLEL_LISTING_BUFFERED_CHUNKS = 2;
+
+  /**
+   * The characters tried after a prefix of a key when looking for the boundaries of the key
+   * ranges a parallel listing is split into, in addition to the ones seen in the keys.
+   */
+  private static final String PARALLEL_LISTING_SPLIT_CHARACTERS =
+      "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+
   /** Value used to indicate nested structure. */
   protected static final char PATH_SEPARATOR_CHAR = '/';
 
@@ -85,6 +106,12 @@ public abstract class ObjectUnderFileSystem extends BaseUnderFileSystem {
   /** Executor service used for parallel UFS operations such as bulk deletes. */
   protected ExecutorService mExecutorService;
 
+  /** Executor service used for parallel recursive listings, null if they are disabled. */
+  @Nullable
+  private final ExecutorService mParallelListingExecutor;
+
+  private final int mParallelListingThreads;
+
   /** The root key of an object fs. */
   protected final Supplier<String> mRootKeySupplier =
       CommonUtils.memoize(this::getRootKey);
@@ -103,6 +130,13 @@ public abstract class ObjectUnderFileSystem extends BaseUnderFileSystem {
     mExecutorService = ExecutorServiceFactories.fixedThreadPool(
         "alluxio-underfs-object-service-worker", numThreads).create();
     mBreadcrumbsEnabled = mUfsConf.getBoolean(PropertyKey.UNDERFS_OBJECT_STORE_BREADCRUMBS_ENABLED);
+    mParallelListingThreads =
+        mUfsConf.getInt(PropertyKey.UNDERFS_OBJECT_STORE_PARALLEL_LISTING_THREADS);
+    mParallelListingExecutor =
+        mUfsConf.getBoolean(PropertyKey.UNDERFS_OBJECT_STORE_PARALLEL_LISTING_ENABLED)
+            ? ExecutorServiceFactories.fixedThreadPool(
+                "alluxio-underfs-object-listing-worker", mParallelListingThreads).create()
+            : null;
   }
 
   /**
@@ -356,6 +390,9 @@ public abstract class ObjectUnderFileSystem extends BaseUnderFileSystem {
 
   @Override
   public void close() throws IOException {
+    if (mParallelListingExecutor != null) {
+      mParallelListingExecutor.shutdownNow();
+    }
   }
 
   @Override
@@ -609,8 +646,9 @@ public abstract class ObjectUnderFileSystem extends BaseUnderFileSystem {
   @Override
   public Iterator<UfsStatus> listStatusIterable(
       String path, ListOptions options, String startAfter, int batchSize) throws IOException {
-    final ObjectListingChunk chunk =
-        getObjectListingChunkForPath(path, options.isRecursive(), startAfter, batchSize);
+    boolean parallel = isParallelListing(options) && startAfter == null && batchSize == 0;
+    final ObjectListingChunk chunk = getObjectListingChunkForPath(
+        path, options.isRecursive() && !parallel, startAfter, batchSize);
     if (chunk == null) {
       String keyAsFolder = convertToFolderName(stripPrefixIfPresent(path));
       if (getObjectStatus(keyAsFolder) != null) {
@@ -619,9 +657,16 @@ public abstract class ObjectUnderFileSystem extends BaseUnderFileSystem {
       }
       return null;
     }
+    if (parallel) {
+      return new ParallelUfsStatusIterator(path, chunk);
+    }
     return new UfsStatusIterator(path, options.isRecursive(), chunk);
   }
 
+  private boolean isParallelListing(ListOptions options) {
+    return options.isRecursive() && mParallelListingExecutor != null;
+  }
+
   @Override
   public boolean mkdirs(String path, MkdirsOptions options) throws IOException {
     if (path == null) {
@@ -1116,7 +1161,9 @@ public abstract class ObjectUnderFileSystem extends BaseUnderFileSystem {
    */
   @Nullable
   protected UfsStatus[] listInternal(String path, ListOptions options) throws IOException {
-    ObjectListingChunk chunk = getObjectListingChunkForPath(path, options.isRecursive());
+    boolean parallel = isParallelListing(options);
+    ObjectListingChunk chunk =
+        getObjectListingChunkForPath(path, options.isRecursive() && !parallel);
     if (chunk == null) {
       String keyAsFolder = convertToFolderName(stripPrefixIfPresent(path));
       if (getObjectStatus(keyAsFolder) != null) {
@@ -1125,6 +1172,16 @@ public abstract class ObjectUnderFileSystem extends BaseUnderFileSystem {
       }
       return null;
     }
+    if (parallel) {
+      List<UfsStatus> children = new ArrayList<>();
+      try {
+        Iterators.addAll(children, new ParallelUfsStatusIterator(path, chunk));
+      } catch (RuntimeException e) {
+        Throwables.propagateIfPossible(e.getCause(), IOException.class);
+        throw e;
+      }
+      return children.toArray(new UfsStatus[0]);
+    }
     String keyPrefix = PathUtils.normalizePath(stripPrefixIfPresent(path), PATH_SEPARATOR);
     keyPrefix = keyPrefix.equals(PATH_SEPARATOR) ? "" : keyPrefix;
     Map<String, UfsStatus> children = new HashMap<>();
@@ -1202,6 +1259,442 @@ public abstract class ObjectUnderFileSystem extends BaseUnderFileSystem {
     }
   }
 
+  /**
+   * The UFS status iterator of a recursive listing which lists the sub-prefixes of the listed
+   * path concurrently.
+   * <br>
+   * The listed path is first split into partitions with delimiter listings: the immediate
+   * children of the path are returned as is, while each sub-prefix is a partition listed
+   * recursively. If the path has fewer sub-prefixes than listing threads, the sub-prefixes are
+   * split further, up to a few levels deep. A sub-prefix which does not fit in a single listing
+   * chunk is not split, as its sub-prefixes would need to be listed sequentially anyway. If the
+   * listed path itself does not fit, e.g. a flat prefix with many objects, it is split into key
+   * ranges listed from start-after keys instead, when the object store supports them.
+   * <br>
+   * The partitions are then consumed in key order, while the next partitions are listed ahead
+   * by the listing threads. Each partition buffers at most a few chunks, and only the listing
+   * threads of the partitions read ahead fetch chunks, so the memory used by a listing is bounded
+   * regardless of the number of objects. A listing thread is never blocked waiting for the
+   * consumer, so an abandoned iterator does not hold any thread.
+   */
+  public class ParallelUfsStatusIterator implements Iterator<UfsStatus> {
+    private final String mKeyPrefix;
+    /** The statuses of the immediate children and the partitions, in key order. */
+    private final List<Object> mSegments;
+    private int mSegmentIndex = -1;
+    private Iterator<UfsStatus> mIterator = Collections.emptyIterator();
+    /**
+     * The name of the last status returned. The directories of the key ending a key range are
+     * listed by the next ranges too, and are skipped as they are ordered before that key.
+     */
+    @Nullable
+    private String mLastName;
+
+    /**
+     * Creates the iterator.
+     * @param path the path
+     * @param firstChunk the first delimiter listing chunk of the path
+     */
+    public ParallelUfsStatusIterator(String path, ObjectListingChunk firstChunk)
+        throws IOException {
+      String keyPrefix = PathUtils.normalizePath(stripPrefixIfPresent(path), PATH_SEPARATOR);
+      keyPrefix = keyPrefix.equals(PATH_SEPARATOR) ? "" : keyPrefix;
+      mKeyPrefix = keyPrefix;
+      PrefixListing root = new PrefixListing(stripPrefixIfPresent(path), "");
+      List<Object> segments = split(root, firstChunk);
+      if (segments == null) {
+        List<Object> ranges = null;
+        try {
+          ranges = splitByKeyRange(root);
+        } catch (UnsupportedOperationException e) {
+          LOG.debug("Listing from a start-after key is not supported, not splitting {}", path);
+        }
+        mSegments = ranges == null ? Collections.singletonList(root) : ranges;
+        return;
+      }
+      for (int depth = 1; depth < MAX_PARALLEL_LISTING_SPLIT_DEPTH
+          && segments.stream().filter(PrefixListing.class::isInstance).count()
+          < mParallelListingThreads; depth++) {
+        List<Object> splitSegments = new ArrayList<>();
+        boolean split = false;
+        for (Object segment : segments) {
+          List<Object> subSegments = segment instanceof PrefixListing
+              ? split((PrefixListing) segment, null) : null;
+          if (subSegments == null) {
+            splitSegments.add(segment);
+          } else {
+            splitSegments.addAll(subSegments);
+            split = true;
+          }
+        }
+        segments = splitSegments;
+        if (!split) {
+          break;
+        }
+      }
+      mSegments = segments;
+    }
+
+    /**
+     * Splits a partition into its immediate children and its sub-prefixes.
+     *
+     * @param partition the partition
+     * @param chunk the delimiter listing chunk of the partition if already fetched
+     * @return the segments in key order, or null if the partition cannot be split
+     */
+    @Nullable
+    private List<Object> split(PrefixListing partition, @Nullable ObjectListingChunk chunk)
+        throws IOException {
+      if (chunk == null) {
+        chunk = getObjectListingChunk(partition.mKey, false);
+        if (chunk == null) {
+          return Collections.emptyList();
+        }
+      }
+      if (!Boolean.FALSE.equals(chunk.hasNextChunk())) {
+        return null;
+      }
+      // key order of the children, a prefix is ordered right after the directory it represents
+      NavigableMap<String, Object> segments = new TreeMap<>();
+      NavigableMap<String, UfsStatus> children = new TreeMap<>();
+      populateUfsStatus(mKeyPrefix, chunk, false, children);
+      // the partition itself is already returned by its parent, e.g. as a breadcrumb
+      children.remove(CommonUtils.stripSuffixIfPresent(partition.mNamePrefix, PATH_SEPARATOR));
+      segments.putAll(children);
+      for (String commonPrefix : chunk.getCommonPrefixes()) {
+        if (commonPrefix.startsWith(mKeyPrefix)) {
+          String namePrefix = getChildName(commonPrefix, mKeyPrefix);
+          segments.put(namePrefix, new PrefixListing(commonPrefix, namePrefix));
+        }
+      }
+      return new ArrayList<>(segments.values());
+    }
+
+    /**
+     * Splits a partition into key ranges. The boundaries of the ranges are existing keys, found
+     * by listing a single key after candidate keys. The candidates follow the keys of the first
+     * listing chunk: they are made of a prefix of the last key of the chunk, followed by a
+     * greater character, from the shortest prefix to the longest, so that the first ranges are
+     * the widest. The number of keys listed to find the boundaries is bounded by a few times the
+     * number of listing threads.
+     *
+     * @param partition the partition
+     * @return the ranges in key order, or null if the partition cannot be split
+     */
+    @Nullable
+    private List<Object> splitByKeyRange(PrefixListing partition) throws IOException {
+      ObjectListingChunk chunk = getObjectListingChunk(partition.mKey, true);
+      if (chunk == null || !Boolean.TRUE.equals(chunk.hasNextChunk())
+          || chunk.getObjectStatuses().length == 0) {
+        return null;
+      }
+      ObjectStatus[] objects = chunk.getObjectStatuses();
+      String first = objects[0].getName();
+      String last = objects[objects.length - 1].getName();
+      NavigableSet<Character> characters = new TreeSet<>();
+      for (char c : PARALLEL_LISTING_SPLIT_CHARACTERS.toCharArray()) {
+        characters.add(c);
+      }
+      for (ObjectStatus object : objects) {
+        for (int i = mKeyPrefix.length(); i < object.getName().length(); i++) {
+          characters.add(object.getName().charAt(i));
+        }
+      }
+      int commonLength = mKeyPrefix.length();
+      while (commonLength < Math.min(first.length(), last.length())
+          && first.charAt(commonLength) == last.charAt(commonLength)) {
+        commonLength++;
+      }
+      NavigableSet<String> boundaries = new TreeSet<>();
+      int probes = 4 * mParallelListingThreads;
+      for (int i = mKeyPrefix.length(); i <= commonLength && i < last.length() && probes > 0;
+          i++) {
+        for (char c : characters.tailSet(last.charAt(i), false)) {
+          if (probes-- == 0) {
+            break;
+          }
+          ObjectListingChunk next =
+              getObjectListingChunk(partition.mKey, true, last.substring(0, i) + c, 1);
+          if (next == null || next.getObjectStatuses().length == 0) {
+            // there is no key after the greater candidates either
+            break;
+          }
+          boundaries.add(next.getObjectStatuses()[0].getName());
+        }
+      }
+      if (boundaries.isEmpty()) {
+        return null;
+      }
+      List<Object> ranges = new ArrayList<>();
+      String startAfter = null;
+      for (String boundary : boundaries) {
+        PrefixListing range =
+            new PrefixListing(partition.mKey, partition.mNamePrefix, startAfter, boundary);
+        // a directory is ordered before its siblings extending its name with a character lower
+        // than the separator, so it is returned by the range ending among these siblings
+        for (int i = mKeyPrefix.length() + 1; i < boundary.length(); i++) {
+          if (boundary.charAt(i) >= PATH_SEPARATOR_CHAR
+              || boundary.charAt(i - 1) == PATH_SEPARATOR_CHAR) {
+            continue;
+          }
+          String directory = boundary.substring(0, i);
+          ObjectListingChunk children = getObjectListingChunk(directory, true, null, 1);
+          if (children != null && children.getObjectStatuses().length > 0) {
+            synchronized (range) {
+              range.mHoistedDirectories.add(getChildName(directory, mKeyPrefix));
+            }
+          }
+        }
+        ranges.add(range);
+        startAfter = boundary;
+      }
+      ranges.add(new PrefixListing(partition.mKey, partition.mNamePrefix, startAfter, null));
+      return ranges;
+    }
+
+    @Override
+    public boolean hasNext() {
+      try {
+        while (!mIterator.hasNext()) {
+          if (mSegmentIndex >= mSegments.size()) {
+            return false;
+          }
+          Object segment = mSegmentIndex < 0 ? null : mSegments.get(mSegmentIndex);
+          List<UfsStatus> batch = segment instanceof PrefixListing
+              ? ((PrefixListing) segment).take() : null;
+          if (batch != null) {
+            mIterator = Iterators.filter(batch.iterator(),
+                status -> mLastName == null || status.getName().compareTo(mLastName) > 0);
+            continue;
+          }
+          mSegmentIndex++;
+          readAhead();
+          if (mSegmentIndex < mSegments.size()
+              && !(mSegments.get(mSegmentIndex) instanceof PrefixListing)) {
+            mIterator = Iterators.singletonIterator((UfsStatus) mSegments.get(mSegmentIndex));
+          }
+        }
+        return true;
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      }
+    }
+
+    /**
+     * Starts listing the partitions following the current one, up to the number of listing
+     * threads.
+     */
+    private void readAhead() {
+      int partitions = 0;
+      for (int i = mSegmentIndex; i < mSegments.size() && partitions < mParallelListingThreads;
+          i++) {
+        if (mSegments.get(i) instanceof PrefixListing) {
+          ((PrefixListing) mSegments.get(i)).fetch();
+          partitions++;
+        }
+      }
+    }
+
+    @Override
+    public UfsStatus next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      UfsStatus status = mIterator.next();
+      mLastName = status.getName();
+      return status;
+    }
+
+    /**
+     * A partition of the listing, listing all the objects under a prefix recursively, or only
+     * the ones in a range of keys.
+     */
+    private final class PrefixListing {
+      /** The key prefix listed. */
+      private final String mKey;
+      /** The prefix of the names of the statuses in the partition, relative to the listing. */
+      private final String mNamePrefix;
+      /** The key the partition starts after, exclusive, or null to start from the prefix. */
+      @Nullable
+      private final String mStartAfter;
+      /** The last key of the partition, inclusive, or null to list up to the prefix end. */
+      @Nullable
+      private final String mEndKey;
+      /**
+       * The names of the directories returned by the partition although their objects are
+       * listed by the next partitions, as they are ordered before some names of the partition.
+       */
+      @GuardedBy("this")
+      private final NavigableSet<String> mHoistedDirectories = new TreeSet<>();
+      @GuardedBy("this")
+      private final Deque<List<UfsStatus>> mBuffered = new ArrayDeque<>();
+      @GuardedBy("this")
+      private ObjectListingChunk mChunk;
+      @GuardedBy("this")
+      private String mLastKey;
+      @GuardedBy("this")
+      private boolean mFetching;
+      @GuardedBy("this")
+      private boolean mDone;
+      @GuardedBy("this")
+      private IOException mFailure;
+
+      private PrefixListing(String key, String namePrefix) {
+        this(key, namePrefix, null, null);
+      }
+
+      private PrefixListing(String key, String namePrefix, @Nullable String startAfter,
+          @Nullable String endKey) {
+        mKey = key;
+        mNamePrefix = namePrefix;
+        mStartAfter = startAfter;
+        mEndKey = endKey;
+      }
+
+      /**
+       * Fetches the next chunk asynchronously, unless a chunk is being fetched already, or
+       * enough chunks are buffered.
+       */
+      private synchronized void fetch() {
+        if (mFetching || mDone || mFailure != null
+            || mBuffered.size() >= PARALLEL_LISTING_BUFFERED_CHUNKS) {
+          return;
+        }
+        mFetching = true;
+        mParallelListingExecutor.execute(this::fetchChunk);
+      }
+
+      private void fetchChunk() {
+        ObjectListingChunk previous;
+        synchronized (this) {
+          previous = mChunk;
+        }
+        try {
+          ObjectListingChunk chunk = previous == null
+              ? getObjectListingChunk(mKey, true, mStartAfter, 0) : previous.getNextChunk();
+          if (previous == null && chunk != null && mEndKey != null) {
+            chunk = new KeyRangeListingChunk(chunk, mEndKey);
+          }
+          NavigableMap<String, UfsStatus> statuses = new TreeMap<>();
+          if (chunk != null) {
+            populateUfsStatus(mKeyPrefix, chunk, true, statuses);
+          }
+          synchronized (this) {
+            // a hoisted directory goes right before its first sibling in the partition
+            for (Iterator<String> it = mHoistedDirectories.iterator(); it.hasNext(); ) {
+              String name = it.next();
+              if (statuses.isEmpty() || statuses.lastKey().compareTo(name) < 0) {
+                break;
+              }
+              ObjectPermissions permissions = getPermissions();
+              statuses.putIfAbsent(name, new UfsDirectoryStatus(name, permissions.getOwner(),
+                  permissions.getGroup(), permissions.getMode()));
+              it.remove();
+            }
+          }
+          synchronized (this) {
+            // the directories inferred from the keys may have been returned by a parent
+            // partition, or with the previous chunk
+            statuses = statuses.subMap(mNamePrefix, true, mNamePrefix + Character.MAX_VALUE,
+                false);
+            if (mLastKey != null) {
+              statuses = statuses.tailMap(mLastKey, false);
+            }
+            if (!statuses.isEmpty()) {
+              mLastKey = statuses.lastKey();
+              mBuffered.add(new ArrayList<>(statuses.values()));
+            }
+            mChunk = chunk;
+            mDone = chunk == null || Boolean.FALSE.equals(chunk.hasNextChunk());
+            mFetching = false;
+            notifyAll();
+          }
+        } catch (IOException | RuntimeException e) {
+          synchronized (this) {
+            mFailure = e instanceof IOException ? (IOException) e : new IOException(e);
+            mFetching = false;
+            notifyAll();
+          }
+          return;
+        }
+        fetch();
+      }
+
+      /**
+       * @return the next batch of statuses of the partition, or null if the partition is
+       *         exhausted
+       */
+      private synchronized List<UfsStatus> take() throws IOException {
+        fetch();
+        while (mBuffered.isEmpty()) {
+          if (mFailure != null) {
+            throw mFailure;
+          }
+          if (mDone) {
+            return null;
+          }
+          try {
+            wait();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while listing " + mKey);
+          }
+        }
+        List<UfsStatus> batch = mBuffered.poll();
+        fetch();
+        return batch;
+      }
+    }
+  }
+
+  /**
+   * A listing chunk truncated after the last key of a key range.
+   */
+  private static final class KeyRangeListingChunk implements ObjectListingChunk {
+    private final ObjectListingChunk mChunk;
+    private final String mEndKey;
+    private final ObjectStatus[] mObjectStatuses;
+    private final boolean mEndReached;
+
+    private KeyRangeListingChunk(ObjectListingChunk chunk, String endKey) {
+      mChunk = chunk;
+      mEndKey = endKey;
+      mObjectStatuses = Arrays.stream(chunk.getObjectStatuses())
+          .filter(status -> status.getName().compareTo(endKey) <= 0)
+          .toArray(ObjectStatus[]::new);
+      mEndReached = Arrays.stream(chunk.getObjectStatuses())
+          .anyMatch(status -> status.getName().compareTo(endKey) >= 0);
+    }
+
+    @Override
+    public ObjectStatus[] getObjectStatuses() {
+      return mObjectStatuses;
+    }
+
+    @Override
+    public String[] getCommonPrefixes() {
+      return Arrays.stream(mChunk.getCommonPrefixes())
+          .filter(prefix -> prefix.compareTo(mEndKey) <= 0)
+          .toArray(String[]::new);
+    }
+
+    @Nullable
+    @Override
+    public ObjectListingChunk getNextChunk() throws IOException {
+      if (mEndReached) {
+        return null;
+      }
+      ObjectListingChunk next = mChunk.getNextChunk();
+      return next == null ? null : new KeyRangeListingChunk(next, mEndKey);
+    }
+
+    @Nullable
+    @Override
+    public Boolean hasNextChunk() {
+      return mEndReached ? Boolean.FALSE : mChunk.hasNextChunk();
+    }
+  }
+
   /**
    * Creates a directory flagged file with the key and folder suffix.
    *
@@ -40,6 +40,7 @@ import alluxio.util.SecurityUtils;
 import com.codahale.metrics.Timer;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Iterators;
+import io.netty.buffer.ByteBuf;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -49,6 +50,7 @@ import java.io.OutputStream;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 import javax.annotation.Nullable;
 
@@ -1222,6 +1224,32 @@ public class UnderFileSystemWithLogging implements UnderFileSystem {
     }
   }
 
+  @Override
+  public CompletableFuture<Integer> positionReadAsync(String path, long fileLength,
+      long position, int length, ByteBuf buffer) {
+    try {
+      return call(new UfsCallable<CompletableFuture<Integer>>() {
+        @Override
+        public CompletableFuture<Integer> call() {
+          return mUnderFileSystem.positionReadAsync(path, fileLength, position, length, buffer);
+        }
+
+        @Override
+        public String methodName() {
+          return "PositionReadAsync";
+        }
+
+        @Override
+        public String toString() {
+          return String.format("path=%s, fileLength=%d, position=%d, length=%d",
+              path, fileLength, position, length);
+        }
+      });
+    } catch (IOException e) {
+      throw new InternalRuntimeException("should not reach");
+    }
+  }
+
   /**
    * Interface representing a callable to the under storage system which throws an
    * {@link IOException} if an error occurs during the external communication.
@@ -1283,6 +1311,11 @@ public class UnderFileSystemWithLogging implements UnderFileSystem {
     return mUnderFileSystem.isSeekable();
   }
 
+  @Override
+  public boolean isPositionReadAsyncNonBlocking() {
+    return mUnderFileSystem.isPositionReadAsyncNonBlocking();
+  }
+
   // TODO(calvin): General tag logic should be in getMetricName
   private String getQualifiedMetricName(String metricName) {
     try {
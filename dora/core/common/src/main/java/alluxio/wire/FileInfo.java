@@ -76,6 +76,7 @@ public final class FileInfo implements Serializable {
   private Map<String, byte[]> mXAttr;
   private String mUfsType = "";
   private String mContentHash = "";
+  private ArrayList<WorkerNetAddress> mHotReplicas = new ArrayList<>();
 
   /**
    * Creates a new instance of {@link FileInfo}.
@@ -354,6 +355,13 @@ public final class FileInfo implements Serializable {
     return mContentHash;
   }
 
+  /**
+   * @return the extra workers holding a replica of this hot file
+   */
+  public List<WorkerNetAddress> getHotReplicas() {
+    return mHotReplicas;
+  }
+
   /**
    * @param fileId the file id to use
    * @return the file information
@@ -679,6 +687,15 @@ public final class FileInfo implements Serializable {
     return this;
   }
 
+  /**
+   * @param hotReplicas the extra workers holding a replica of this hot file
+   * @return the updated {@link FileInfo}
+   */
+  public FileInfo setHotReplicas(List<WorkerNetAddress> hotReplicas) {
+    mHotReplicas = new ArrayList<>(hotReplicas);
+    return this;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -706,7 +723,8 @@ public final class FileInfo implements Serializable {
         && Objects.equal(mDefaultAcl, that.mDefaultAcl)
         && Objects.equal(mMediumTypes, that.mMediumTypes)
         && Objects.equal(mContentHash, that.mContentHash)
-        && Objects.equal(mUfsType, that.mUfsType);
+        && Objects.equal(mUfsType, that.mUfsType)
+        && mHotReplicas.equals(that.mHotReplicas);
   }
 
   @Override
@@ -716,7 +734,7 @@ public final class FileInfo implements Serializable {
         mInMemoryPercentage, mLastModificationTimeMs, mLastAccessTimeMs, mTtl, mOwner, mGroup,
         mMode, mReplicationMax, mReplicationMin, mPersistenceState, mMountPoint, mFileBlockInfoList,
         mTtlAction, mInAlluxioPercentage, mUfsFingerprint, mAcl, mDefaultAcl, mMediumTypes,
-        mUfsType, mContentHash);
+        mUfsType, mContentHash, mHotReplicas);
   }
 
   @Override
@@ -742,6 +760,7 @@ public final class FileInfo implements Serializable {
         .add("defaultAcl", mDefaultAcl.toString())
         .add("ufsName", mUfsType)
         .add("contentHash", mContentHash)
+        .add("hotReplicas", mHotReplicas)
         .add("xattr", "[" + (mXAttr == null ? null : mXAttr.entrySet().stream()
             .map(entry -> entry.getKey() + ":"
                 + (entry.getValue() == null ? null : new String(entry.getValue())))
@@ -0,0 +1,26 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.dora;
+
+/**
+ * What the cache scope of the pages cached by a worker is derived from.
+ */
+public enum CacheScopeSource {
+  /**
+   * The authority of the UFS path, e.g. the bucket of an object store.
+   */
+  PATH,
+  /**
+   * The user reading the file.
+   */
+  USER
+}
@@ -100,12 +100,15 @@ public interface DoraWorker extends DataWorker, SessionCleanable {
    * Loads the metadata and data of files from UFS to Alluxio.
    *
    * @param loadData true if data should also be loaded, otherwise metadata only
+   * @param skipIfCached true if files whose data are fully cached and whose fingerprint
+   *                     matches the cached metadata should be skipped
    * @param ufsStatuses the files to load
    * @param options
    * @return a list of failed files
    */
   ListenableFuture<List<LoadFileFailure>> load(
-      boolean loadData, List<UfsStatus> ufsStatuses, UfsReadOptions options)
+      boolean loadData, boolean skipIfCached, List<UfsStatus> ufsStatuses,
+      UfsReadOptions options)
       throws AccessControlException, IOException;
 
   /**
@@ -0,0 +1,229 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.membership;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import alluxio.Constants;
+import alluxio.conf.Configuration;
+import alluxio.conf.PropertyKey;
+import alluxio.util.CommonUtils;
+import alluxio.util.WaitForOptions;
+import alluxio.wire.WorkerInfo;
+import alluxio.wire.WorkerNetAddress;
+
+import com.google.protobuf.ByteString;
+import io.etcd.jetcd.ByteSequence;
+import io.etcd.jetcd.KeyValue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class EtcdMembershipManagerWatchTest {
+  private FakeEtcdClient mEtcdClient;
+  private EtcdMembershipManager mMembershipManager;
+
+  @Before
+  public void before() {
+    Configuration.set(PropertyKey.ALLUXIO_CLUSTER_NAME, "watch-test");
+    Configuration.set(PropertyKey.ETCD_ENDPOINTS, "http://localhost:2379");
+    mEtcdClient = new FakeEtcdClient();
+    mMembershipManager = new EtcdMembershipManager(Configuration.global(), mEtcdClient);
+  }
+
+  @After
+  public void after() {
+    Configuration.reloadProperties();
+  }
+
+  @Test
+  public void joinAndLeave() throws Exception {
+    WorkerNetAddress worker0 = address(0);
+    WorkerNetAddress worker1 = address(1);
+    mEtcdClient.putLive(worker0);
+    RecordingListener listener = new RecordingListener();
+    assertTrue(mMembershipManager.subscribe(listener));
+    assertEquals(1, mEtcdClient.mListeners.size());
+    assertEquals(1, listener.mLiveWorkers.size());
+    assertTrue(listener.mLiveWorkers.contains(worker0));
+
+    mEtcdClient.putLive(worker1);
+    assertEquals(2, listener.mLiveWorkers.size());
+    // renewing the lease of a live worker is not a new join
+    mEtcdClient.putLive(worker1);
+    assertEquals(2, listener.mEventCount);
+
+    mEtcdClient.deleteLive(worker0);
+    assertEquals(1, listener.mLiveWorkers.size());
+    assertTrue(listener.mLiveWorkers.contains(worker1));
+
+    mMembershipManager.unsubscribe(listener);
+    assertTrue(mEtcdClient.mListeners.isEmpty());
+    mEtcdClient.putLive(worker0);
+    assertEquals(3, listener.mEventCount);
+  }
+
+  @Test
+  public void catchUpAfterWatchTerminated() throws Exception {
+    mEtcdClient.putLive(address(0));
+    mEtcdClient.putLive(address(1));
+    RecordingListener listener = new RecordingListener();
+    mMembershipManager.subscribe(listener);
+    assertEquals(2, listener.mLiveWorkers.size());
+
+    // changes made while the watch is down are caught up once it is restarted
+    StateListener watcher = mEtcdClient.mListeners.values().iterator().next();
+    mEtcdClient.mListeners.clear();
+    mEtcdClient.deleteLive(address(0));
+    mEtcdClient.putLive(address(2));
+    watcher.onWatchTerminated();
+    // the watch is restarted asynchronously, off the thread delivering the events
+    CommonUtils.waitFor("watch to be restarted", () -> mEtcdClient.mListeners.size() == 1
+        && listener.mLiveWorkers.contains(address(2)),
+        WaitForOptions.defaults().setTimeoutMs(10 * Constants.SECOND_MS));
+    assertEquals(2, listener.mLiveWorkers.size());
+    assertTrue(listener.mLiveWorkers.contains(address(1)));
+    assertTrue(listener.mLiveWorkers.contains(address(2)));
+  }
+
+  @Test
+  public void restartWatchRetriedAfterFailures() throws Exception {
+    RecordingListener listener = new RecordingListener();
+    mMembershipManager.subscribe(listener);
+    StateListener watcher = mEtcdClient.mListeners.values().iterator().next();
+    mEtcdClient.mListeners.clear();
+    mEtcdClient.putLive(address(0));
+    mEtcdClient.mWatchFailures.set(3);
+    watcher.onWatchTerminated();
+    CommonUtils.waitFor("watch to be restarted", () -> mEtcdClient.mListeners.size() == 1
+        && !listener.mLiveWorkers.isEmpty(),
+        WaitForOptions.defaults().setTimeoutMs(10 * Constants.SECOND_MS));
+    assertEquals(0, mEtcdClient.mWatchFailures.get());
+    assertEquals(Collections.singletonList(address(0)), listener.mLiveWorkers);
+  }
+
+  @Test
+  public void lateSubscriberSeesCurrentMembers() throws Exception {
+    RecordingListener first = new RecordingListener();
+    mMembershipManager.subscribe(first);
+    mEtcdClient.putLive(address(0));
+    RecordingListener second = new RecordingListener();
+    mMembershipManager.subscribe(second);
+    assertEquals(1, mEtcdClient.mListeners.size());
+    assertEquals(first.mLiveWorkers, second.mLiveWorkers);
+
+    mMembershipManager.close();
+    assertTrue(mEtcdClient.mListeners.isEmpty());
+  }
+
+  private static WorkerNetAddress address(int index) {
+    return new WorkerNetAddress().setHost("worker" + index)
+        .setRpcPort(29999).setDataPort(29997).setWebPort(30000);
+  }
+
+  private static final class RecordingListener implements MembershipListener {
+    private final List<WorkerNetAddress> mLiveWorkers = new CopyOnWriteArrayList<>();
+    private volatile int mEventCount;
+
+    @Override
+    public void onJoin(WorkerInfo worker) {
+      mEventCount++;
+      mLiveWorkers.add(worker.getAddress());
+    }
+
+    @Override
+    public void onLeave(WorkerInfo worker) {
+      mEventCount++;
+      mLiveWorkers.remove(worker.getAddress());
+    }
+  }
+
+  /**
+   * A stand-in for etcd keeping the keys in memory and delivering the watch events
+   * synchronously.
+   */
+  private static final class FakeEtcdClient extends AlluxioEtcdClient {
+    private final SortedMap<String, byte[]> mKvs = new ConcurrentSkipListMap<>();
+    private final Map<String, StateListener> mListeners = new ConcurrentHashMap<>();
+    /** The number of the next attempts to watch which fail. */
+    private final AtomicInteger mWatchFailures = new AtomicInteger();
+
+    FakeEtcdClient() {
+      super(Configuration.global());
+    }
+
+    void putLive(WorkerNetAddress address) {
+      WorkerServiceEntity entity = new WorkerServiceEntity(address);
+      String key = liveKey(entity);
+      byte[] value = entity.serialize();
+      mKvs.put(key, value);
+      mListeners.forEach((path, listener) -> {
+        if (key.startsWith(path)) {
+          listener.onNewPut(key, value);
+        }
+      });
+    }
+
+    void deleteLive(WorkerNetAddress address) {
+      String key = liveKey(new WorkerServiceEntity(address));
+      mKvs.remove(key);
+      mListeners.forEach((path, listener) -> {
+        if (key.startsWith(path)) {
+          listener.onNewDelete(key);
+        }
+      });
+    }
+
+    private String liveKey(WorkerServiceEntity entity) {
+      return mServiceDiscovery.getRegisterPathPrefix() + MembershipManager.PATH_SEPARATOR
+          + entity.getServiceEntityName();
+    }
+
+    @Override
+    public List<KeyValue> getChildren(String parentPath) {
+      List<KeyValue> children = new ArrayList<>();
+      for (Map.Entry<String, byte[]> entry : mKvs.entrySet()) {
+        if (entry.getKey().startsWith(parentPath)) {
+          children.add(new KeyValue(io.etcd.jetcd.api.KeyValue.newBuilder()
+              .setKey(ByteString.copyFromUtf8(entry.getKey()))
+              .setValue(ByteString.copyFrom(entry.getValue()))
+              .build(), ByteSequence.EMPTY));
+        }
+      }
+      return children;
+    }
+
+    @Override
+    public void addChildrenListener(String parentPath, StateListener listener) {
+      if (mWatchFailures.getAndUpdate(n -> Math.max(n - 1, 0)) > 0) {
+        throw new RuntimeException("Injected failure to watch " + parentPath);
+      }
+      mListeners.putIfAbsent(parentPath, listener);
+    }
+
+    @Override
+    public void removeChildrenListener(String parentPath) {
+      mListeners.remove(parentPath);
+    }
+  }
+}
@@ -12,6 +12,7 @@
 package alluxio.underfs;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -23,7 +24,9 @@ import alluxio.conf.PropertyKey;
 import alluxio.file.options.DescendantType;
 import alluxio.underfs.options.ListOptions;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterators;
 import org.junit.Rule;
 import org.junit.Test;
 import org.mockito.Mockito;
@@ -31,6 +34,14 @@ import org.mockito.Mockito;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.net.SocketException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 public class ObjectUnderFileSystemTest {
@@ -116,4 +127,191 @@ public class ObjectUnderFileSystemTest {
     UfsStatus status = result.getItems().collect(Collectors.toList()).get(0);
     assertEquals("root", status.getName());
   }
+
+  @Test
+  public void parallelRecursiveListing() throws Exception {
+    List<String> keys = new ArrayList<>();
+    keys.add("data/a1");
+    for (int i = 0; i < 10; i++) {
+      keys.add("data/b/f" + i);
+    }
+    keys.addAll(ImmutableList.of("data/b/d/f0", "data/b/d/f1", "data/b/d/f2", "data/c-file",
+        "data/c/", "data/c/e/f0", "data/c/g/f0", "data/c/g/h/f0", "other/f0"));
+    // the top levels fit in a listing chunk and are split, while data/b is not
+    assertParallelListing(keys, 4, "b/d/", "c/g/h/f0");
+    // the listed path does not fit in a listing chunk and is split into key ranges
+    assertParallelListing(keys, 2, "b/d/", "c/g/h/f0");
+  }
+
+  @Test
+  public void parallelListingOfFlatPrefix() throws Exception {
+    List<String> keys = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      keys.add(String.format("data/%03d", i));
+    }
+    // directories crossing the boundary of two key ranges, and a directory ordered before
+    // a sibling ending a key range
+    keys.addAll(ImmutableList.of("data/05/a/f0", "data/05/b/f0", "data/05/b/f1", "data/07-x",
+        "data/07/y/f0"));
+    InMemoryObjectUnderFileSystem parallel =
+        assertParallelListing(keys, 4, "05/", "05/a/f0", "05/b/", "07/", "07-x", "099");
+    // the flat prefix is split into key ranges listed from start-after keys
+    assertTrue(parallel.mRangeListings.get() > 1);
+  }
+
+  @Test
+  public void parallelListingOfMissingPath() throws Exception {
+    ObjectUnderFileSystem ufs = new InMemoryObjectUnderFileSystem(
+        ImmutableList.of("data/f0"), 4, true);
+    assertNull(ufs.listStatus("mock://bucket/missing", ListOptions.defaults().setRecursive(true)));
+    assertNull(ufs.listStatusIterable("mock://bucket/missing",
+        ListOptions.defaults().setRecursive(true), null, 0));
+  }
+
+  private InMemoryObjectUnderFileSystem assertParallelListing(List<String> keys,
+      int chunkLength, String... listedNames) throws Exception {
+    ListOptions options = ListOptions.defaults().setRecursive(true);
+    ObjectUnderFileSystem sequential = new InMemoryObjectUnderFileSystem(keys, chunkLength, false);
+    InMemoryObjectUnderFileSystem parallel =
+        new InMemoryObjectUnderFileSystem(keys, chunkLength, true);
+    NavigableSet<String> expected = toNames(Iterators.forArray(
+        sequential.listStatus("mock://bucket/data", options)));
+    for (String name : listedNames) {
+      assertTrue(expected.contains(name));
+    }
+    assertEquals(expected, toNames(Iterators.forArray(
+        parallel.listStatus("mock://bucket/data", options))));
+    List<UfsStatus> statuses = new ArrayList<>();
+    parallel.listStatusIterable("mock://bucket/data", options, null, 0)
+        .forEachRemaining(statuses::add);
+    // the statuses are returned once each, in key order
+    assertEquals(expected, toNames(statuses.iterator()));
+    assertEquals(expected.size(), statuses.size());
+    List<String> names = statuses.stream().map(UfsStatus::getName).collect(Collectors.toList());
+    assertEquals(names.stream().sorted().collect(Collectors.toList()), names);
+    parallel.close();
+    return parallel;
+  }
+
+  private static NavigableSet<String> toNames(Iterator<UfsStatus> statuses) {
+    NavigableSet<String> names = new TreeSet<>();
+    statuses.forEachRemaining(
+        status -> names.add(status.getName() + (status.isDirectory() ? "/" : "")));
+    return names;
+  }
+
+  /**
+   * An object store keeping the keys in memory, with a small listing chunk length.
+   */
+  private static class InMemoryObjectUnderFileSystem extends MockObjectUnderFileSystem {
+    private final TreeMap<String, ObjectStatus> mObjects = new TreeMap<>();
+    private final int mChunkLength;
+    /** The number of listings of a key range, starting after a key. */
+    private final AtomicInteger mRangeListings = new AtomicInteger();
+
+    InMemoryObjectUnderFileSystem(List<String> keys, int chunkLength, boolean parallel) {
+      super(new AlluxioURI("mock://bucket/"), UnderFileSystemConfiguration.defaults(CONF)
+          .createMountSpecificConf(ImmutableMap.of(
+              PropertyKey.UNDERFS_OBJECT_STORE_PARALLEL_LISTING_ENABLED.getName(),
+              String.valueOf(parallel),
+              PropertyKey.UNDERFS_OBJECT_STORE_PARALLEL_LISTING_THREADS.getName(), "2")));
+      for (String key : keys) {
+        mObjects.put(key, new ObjectStatus(key, "hash", key.endsWith("/") ? 0 : 1, 0L));
+      }
+      mChunkLength = chunkLength;
+    }
+
+    @Override
+    protected ObjectPermissions getPermissions() {
+      return new ObjectPermissions("foo", "bar", (short) 0777);
+    }
+
+    @Override
+    protected ObjectStatus getObjectStatus(String key) {
+      return mObjects.get(key);
+    }
+
+    @Override
+    protected String getFolderSuffix() {
+      return PATH_SEPARATOR;
+    }
+
+    @Override
+    protected String getRootKey() {
+      return "mock://bucket";
+    }
+
+    @Override
+    protected ObjectListingChunk getObjectListingChunk(String key, boolean recursive) {
+      String prefix = key.isEmpty() || key.endsWith(PATH_SEPARATOR) ? key : key + PATH_SEPARATOR;
+      return listChunk(prefix, recursive, prefix, mChunkLength);
+    }
+
+    @Override
+    protected ObjectListingChunk getObjectListingChunk(String key, boolean recursive,
+        String startAfter, int batchSize) {
+      if (startAfter == null && batchSize == 0) {
+        return getObjectListingChunk(key, recursive);
+      }
+      if (startAfter != null && batchSize == 0) {
+        mRangeListings.incrementAndGet();
+      }
+      String prefix = key.isEmpty() || key.endsWith(PATH_SEPARATOR) ? key : key + PATH_SEPARATOR;
+      // the smallest key after the start-after key
+      String from = startAfter == null ? prefix : startAfter + Character.MIN_VALUE;
+      return listChunk(prefix, recursive, from, batchSize > 0 ? batchSize : mChunkLength);
+    }
+
+    private ObjectListingChunk listChunk(String prefix, boolean recursive, String from,
+        int chunkLength) {
+      List<ObjectStatus> objects = new ArrayList<>();
+      List<String> commonPrefixes = new ArrayList<>();
+      String next = null;
+      for (Map.Entry<String, ObjectStatus> entry : mObjects.tailMap(from, true).entrySet()) {
+        String key = entry.getKey();
+        if (!key.startsWith(prefix)) {
+          break;
+        }
+        int separator = key.indexOf(PATH_SEPARATOR, prefix.length());
+        String commonPrefix = recursive || separator < 0 ? null : key.substring(0, separator + 1);
+        if (commonPrefix != null && commonPrefixes.contains(commonPrefix)) {
+          continue;
+        }
+        if (objects.size() + commonPrefixes.size() == chunkLength) {
+          next = key;
+          break;
+        }
+        if (commonPrefix == null) {
+          objects.add(entry.getValue());
+        } else {
+          commonPrefixes.add(commonPrefix);
+        }
+      }
+      if (objects.isEmpty() && commonPrefixes.isEmpty()) {
+        return null;
+      }
+      String nextKey = next;
+      return new ObjectListingChunk() {
+        @Override
+        public ObjectStatus[] getObjectStatuses() {
+          return objects.toArray(new ObjectStatus[0]);
+        }
+
+        @Override
+        public String[] getCommonPrefixes() {
+          return commonPrefixes.toArray(new String[0]);
+        }
+
+        @Override
+        public ObjectListingChunk getNextChunk() {
+          return nextKey == null ? null : listChunk(prefix, recursive, nextKey, chunkLength);
+        }
+
+        @Override
+        public Boolean hasNextChunk() {
+          return nextKey != null;
+        }
+      };
+    }
+  }
 }
@@ -97,6 +97,7 @@ public class FileInfoTest {
     Assert.assertEquals(a.getUfsFingerprint(), b.getUfsFingerprint());
     Assert.assertEquals(a.getReplicationMax(), b.getReplicationMax());
     Assert.assertEquals(a.getReplicationMin(), b.getReplicationMin());
+    Assert.assertEquals(a.getHotReplicas(), b.getHotReplicas());
     Assert.assertEquals(a.getXAttr().size(), b.getXAttr().size());
     for (Map.Entry<String, byte[]> entry : a.getXAttr().entrySet()) {
       Assert.assertArrayEquals(entry.getValue(), b.getXAttr().get(entry.getKey()));
@@ -188,6 +189,11 @@ public class FileInfoTest {
     result.setXAttr(xttrs);
     result.setContentHash("content_hash");
     result.setUfsType("s3");
+    List<WorkerNetAddress> hotReplicas = new ArrayList<>();
+    for (int i = random.nextInt(3); i > 0; i--) {
+      hotReplicas.add(WorkerNetAddressTest.createRandom());
+    }
+    result.setHotReplicas(hotReplicas);
     return result;
   }
 }
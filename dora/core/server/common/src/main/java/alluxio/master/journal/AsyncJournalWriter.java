@@ -43,11 +43,17 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 import java.util.function.Supplier;
 import javax.annotation.concurrent.ThreadSafe;
 
 /**
  * This enables async journal writing, as well as some batched journal flushing.
+ *
+ * With adaptive batching enabled, the flush thread waits for concurrent writers to append their
+ * entries before flushing, so that a burst of writes is flushed as a group. The time it waits
+ * doubles while entries keep arriving during the flushes, up to a maximum, and halves down to
+ * zero while the writes are sequential, so an idle journal does not add latency.
  */
 @ThreadSafe
 @SuppressFBWarnings("RV_RETURN_VALUE_IGNORED")
@@ -55,6 +61,8 @@ public final class AsyncJournalWriter {
   private static final Logger SAMPLING_LOG =
       new SamplingLogger(LoggerFactory.getLogger(AsyncJournalWriter.class),
           30L * Constants.SECOND_MS);
+  /** The smallest non-zero time to wait for concurrent writers, and the polling interval. */
+  private static final long MIN_BATCH_WAIT_NS = TimeUnit.MICROSECONDS.toNanos(50);
 
   /**
    * Used to manage and keep track of pending callers of ::flush.
@@ -128,6 +136,15 @@ public final class AsyncJournalWriter {
   private long mWriteCounter;
   /** Maximum number of nanoseconds for a batch flush. */
   private final long mFlushBatchTimeNs;
+  /** Whether to wait for concurrent writers before flushing. */
+  private final boolean mAdaptiveBatching;
+  /** Maximum number of nanoseconds to wait for concurrent writers before flushing. */
+  private final long mMaxBatchWaitNs;
+  /**
+   * Number of nanoseconds to wait for concurrent writers before the next flush.
+   * This is only updated by the dedicated journal thread.
+   */
+  private volatile long mBatchWaitNs;
 
   /**
    * Set of flush tickets submitted by ::flush() method.
@@ -176,6 +193,11 @@ public final class AsyncJournalWriter {
     mFlushBatchTimeNs = TimeUnit.NANOSECONDS.convert(
         Configuration.getMs(PropertyKey.MASTER_JOURNAL_FLUSH_BATCH_TIME_MS),
         TimeUnit.MILLISECONDS);
+    mAdaptiveBatching =
+        Configuration.getBoolean(PropertyKey.MASTER_JOURNAL_FLUSH_ADAPTIVE_BATCHING_ENABLED);
+    mMaxBatchWaitNs = TimeUnit.MILLISECONDS.toNanos(
+        Configuration.getMs(PropertyKey.MASTER_JOURNAL_FLUSH_BATCH_MAX_WAIT_TIME));
+    mBatchWaitNs = 0;
     mJournalSinks = journalSinks;
     mFlushThread.start();
   }
@@ -295,34 +317,29 @@ public final class AsyncJournalWriter {
         long startTime = System.nanoTime();
 
         // Write pending entries to journal.
-        while (!mQueue.isEmpty()) {
-          // Get, but do not remove, the head entry.
-          JournalEntry entry = mQueue.peek();
-          if (entry == null) {
-            // No more entries in the queue. Break write session.
-            break;
-          }
-          mJournalWriter.write(entry);
-          JournalUtils.sinkAppend(mJournalSinks, entry);
-          // Remove the head entry, after the entry was successfully written.
-          mQueue.poll();
-          mWriteCounter++;
-
-          if (((System.nanoTime() - startTime) >= mFlushBatchTimeNs) && !mStopFlushing) {
-            // This thread has been writing to the journal for enough time. Break out of the
-            // infinite while-loop.
-            break;
-          }
+        writeEntries(startTime);
+        boolean concurrentWrites = false;
+        if (mAdaptiveBatching && mBatchWaitNs > 0 && mFlushCounter.get() < mWriteCounter) {
+          concurrentWrites = waitForConcurrentWrites(startTime);
         }
 
         // Either written new entries or previous flush had been failed.
         if (mFlushCounter.get() < mWriteCounter) {
+          long batchSize = mWriteCounter - mFlushCounter.get();
           try (Timer.Context ctx = MetricsSystem
               .timer(MetricKey.MASTER_JOURNAL_FLUSH_TIMER.getName()).time()) {
             mJournalWriter.flush();
           }
           JournalUtils.sinkFlush(mJournalSinks);
           mFlushCounter.set(mWriteCounter);
+          MetricsSystem.histogram(MetricKey.MASTER_JOURNAL_FLUSH_BATCH_SIZE.getName())
+              .update(batchSize);
+          MetricsSystem.timer(MetricKey.MASTER_JOURNAL_FLUSH_BATCH_LATENCY.getName())
+              .update(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+          if (mAdaptiveBatching) {
+            // entries written by other threads while flushing would have joined the batch
+            adaptBatchWait(concurrentWrites || !mQueue.isEmpty());
+          }
         }
 
         // Notify tickets that have been served to wake up.
@@ -354,6 +371,85 @@ public final class AsyncJournalWriter {
     }
   }
 
+  /**
+   * Writes the queued entries to the journal writer, until the queue is empty or the batch has
+   * been writing for the maximum batch time.
+   *
+   * @param startTime the time the batch started, in nanoseconds
+   * @return the number of entries written
+   */
+  private long writeEntries(long startTime) throws IOException, JournalClosedException {
+    long written = 0;
+    while (!mQueue.isEmpty()) {
+      // Get, but do not remove, the head entry.
+      JournalEntry entry = mQueue.peek();
+      if (entry == null) {
+        // No more entries in the queue. Break write session.
+        break;
+      }
+      mJournalWriter.write(entry);
+      JournalUtils.sinkAppend(mJournalSinks, entry);
+      // Remove the head entry, after the entry was successfully written.
+      mQueue.poll();
+      mWriteCounter++;
+      written++;
+
+      if (((System.nanoTime() - startTime) >= mFlushBatchTimeNs) && !mStopFlushing) {
+        // This thread has been writing to the journal for enough time. Break out of the
+        // infinite while-loop.
+        break;
+      }
+    }
+    return written;
+  }
+
+  /**
+   * Waits up to the current batch wait time for other threads to append entries, writing them
+   * as they arrive. Stops waiting as soon as a polling interval passes without new entries.
+   *
+   * @param startTime the time the batch started, in nanoseconds
+   * @return whether any entries were appended while waiting
+   */
+  private boolean waitForConcurrentWrites(long startTime)
+      throws IOException, JournalClosedException {
+    long deadline = System.nanoTime() + mBatchWaitNs;
+    boolean concurrentWrites = false;
+    long remaining;
+    while (!mStopFlushing && (remaining = deadline - System.nanoTime()) > 0) {
+      LockSupport.parkNanos(Math.min(remaining, MIN_BATCH_WAIT_NS));
+      if (writeEntries(startTime) == 0) {
+        break;
+      }
+      concurrentWrites = true;
+    }
+    return concurrentWrites;
+  }
+
+  /**
+   * Adapts the time to wait for concurrent writers before the next flush. It doubles when other
+   * threads appended entries during the last batch, and halves otherwise.
+   *
+   * @param concurrentWrites whether other threads appended entries during the last batch
+   */
+  private void adaptBatchWait(boolean concurrentWrites) {
+    if (concurrentWrites) {
+      mBatchWaitNs = Math.min(mMaxBatchWaitNs, Math.max(MIN_BATCH_WAIT_NS, mBatchWaitNs * 2));
+    } else {
+      mBatchWaitNs /= 2;
+      if (mBatchWaitNs < MIN_BATCH_WAIT_NS) {
+        mBatchWaitNs = 0;
+      }
+    }
+  }
+
+  /**
+   * @return the number of nanoseconds to wait for concurrent writers before the next flush
+   */
+  @VisibleForTesting
+  long getBatchWaitNs() {
+    return mBatchWaitNs;
+  }
+
   /**
    * Submits a ticket to flush thread and waits until ticket is served.
    *
@@ -12,6 +12,8 @@
 package alluxio.master.journal.raft;
 
 import alluxio.ProcessUtils;
+import alluxio.conf.Configuration;
+import alluxio.conf.PropertyKey;
 import alluxio.master.journal.AbstractCatchupThread;
 import alluxio.master.journal.CatchupFuture;
 import alluxio.master.journal.JournalEntryAssociation;
@@ -20,6 +22,7 @@ import alluxio.master.journal.Journaled;
 import alluxio.master.journal.sink.JournalSink;
 import alluxio.proto.journal.Journal;
 import alluxio.resource.LockResource;
+import alluxio.util.ThreadFactoryUtils;
 
 import com.google.common.base.Preconditions;
 import org.slf4j.Logger;
@@ -29,7 +32,12 @@ import java.io.IOException;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Supplier;
 import javax.annotation.concurrent.GuardedBy;
@@ -43,6 +51,11 @@ import javax.annotation.concurrent.ThreadSafe;
  * when it wants new entries to be processed. These buffered entries will be applied to masters
  * when this applier is resumed.
  *
+ * If {@link PropertyKey#MASTER_EMBEDDED_JOURNAL_PARALLEL_APPLY_ENABLED} is set, the entries of
+ * each master are applied in order by a thread of that master, so that the entries of different
+ * masters are applied in parallel. Callers which read the state of the masters must call
+ * {@link #flush()} first to wait for the pending entries to be applied.
+ *
  * TODO(ggezer): Extend with on-disk buffering.
  */
 @ThreadSafe
@@ -59,6 +72,8 @@ public class BufferedJournalApplier {
   private final Map<String, RaftJournal> mJournals;
   /** A supplier of journal sinks for this applier. */
   private final Supplier<Set<JournalSink>> mJournalSinks;
+  /** Serializes the appends to the journal sinks from the apply threads of the masters. */
+  private final Object mJournalSinkLock = new Object();
 
   /** The last sequence applied. */
   private long mLastAppliedSequence = -1;
@@ -80,6 +95,15 @@ public class BufferedJournalApplier {
   /** Used to synchronize buffer state. */
   private final ReentrantLock mStateLock = new ReentrantLock(true);
 
+  /** Executors applying the entries of each master, if entries are applied in parallel. */
+  private final Map<String, ExecutorService> mApplyExecutors = new ConcurrentHashMap<>();
+  /** The maximum number of entries pending in the apply executors. */
+  private final int mMaxPendingEntries;
+  /** Permits for the entries pending in the apply executors, or null if applying in order. */
+  private final Semaphore mPendingEntries;
+  /** The first failure to apply an entry in an apply executor. */
+  private final AtomicReference<RuntimeException> mApplyFailure = new AtomicReference<>();
+
   /**
    * Creates a buffered applier over given journals.
    *
@@ -90,6 +114,11 @@ public class BufferedJournalApplier {
       Supplier<Set<JournalSink>> journalSinks) {
     mJournals = journals;
     mJournalSinks = journalSinks;
+    mMaxPendingEntries = Configuration.getInt(
+        PropertyKey.MASTER_EMBEDDED_JOURNAL_PARALLEL_APPLY_MAX_PENDING_ENTRIES);
+    mPendingEntries =
+        Configuration.getBoolean(PropertyKey.MASTER_EMBEDDED_JOURNAL_PARALLEL_APPLY_ENABLED)
+            ? new Semaphore(mMaxPendingEntries) : null;
   }
 
   /**
@@ -132,6 +161,7 @@ public class BufferedJournalApplier {
   public void suspend() throws IOException {
     try (LockResource stateLock = new LockResource(mStateLock)) {
       Preconditions.checkState(!mSuspended, "Already suspended");
+      flush();
       mSuspended = true;
       LOG.info("Suspended state machine at sequence: {}", mLastAppliedSequence);
     }
@@ -179,6 +209,7 @@ public class BufferedJournalApplier {
           mStateLock.lock();
         }
       }
+      flush();
     } finally {
       mSuspended = false;
       mResumeInProgress = false;
@@ -226,7 +257,30 @@ public class BufferedJournalApplier {
   }
 
   /**
-   * Applies the entry to master and updates last applied sequence.
+   * Waits for all entries passed to this applier to be applied to the masters. This is a no-op
+   * unless entries are applied in parallel.
+   *
+   * @throws RuntimeException if an entry failed to be applied
+   */
+  public void flush() {
+    if (mPendingEntries == null) {
+      return;
+    }
+    mPendingEntries.acquireUninterruptibly(mMaxPendingEntries);
+    mPendingEntries.release(mMaxPendingEntries);
+    checkApplyFailure();
+  }
+
+  private void checkApplyFailure() {
+    RuntimeException failure = mApplyFailure.get();
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  /**
+   * Applies the entry to master, or queues it to be applied by the thread of the master, and
+   * updates last applied sequence.
    * Calls to it should be serialized.
    */
   private void applyToMaster(Journal.JournalEntry entry) {
@@ -237,17 +291,49 @@ public class BufferedJournalApplier {
       ProcessUtils.fatalError(LOG, t, "Unrecognized journal entry: %s", entry);
       throw new IllegalStateException();
     }
+    if (mPendingEntries == null) {
+      applyToMaster(masterName, entry);
+    } else {
+      checkApplyFailure();
+      mPendingEntries.acquireUninterruptibly();
+      mApplyExecutors.computeIfAbsent(masterName, name -> Executors.newSingleThreadExecutor(
+          ThreadFactoryUtils.build("journal-apply-" + name + "-%d", true)))
+          .execute(() -> {
+            try {
+              // entries after a failed entry are not applied, as they may depend on it
+              if (mApplyFailure.get() == null) {
+                applyToMaster(masterName, entry);
+              }
+            } catch (Throwable t) {
+              mApplyFailure.compareAndSet(null, t instanceof RuntimeException
+                  ? (RuntimeException) t : new IllegalStateException(t));
+            } finally {
+              mPendingEntries.release();
+            }
+            if (mApplyFailure.get() != null) {
+              // wake up the catch-up thread waiting for entries to fail it
+              synchronized (mSuspendBuffer) {
+                mSuspendBuffer.notifyAll();
+              }
+            }
+          });
+    }
+    // Store last applied sequence.
+    mLastAppliedSequence = entry.getSequenceNumber();
+  }
+
+  private void applyToMaster(String masterName, Journal.JournalEntry entry) {
     try {
       Journaled master = mJournals.get(masterName).getStateMachine();
       LOG.trace("Applying entry to master {}: {} ", masterName, entry);
       master.processJournalEntry(entry);
-      JournalUtils.sinkAppend(mJournalSinks, entry);
+      synchronized (mJournalSinkLock) {
+        JournalUtils.sinkAppend(mJournalSinks, entry);
+      }
     } catch (Exception t) {
       JournalUtils.handleJournalReplayFailure(LOG, t,
           "Failed to apply journal entry to master %s. Entry: %s", masterName, entry);
     }
-    // Store last applied sequence.
-    mLastAppliedSequence = entry.getSequenceNumber();
   }
 
   /**
@@ -257,6 +343,13 @@ public class BufferedJournalApplier {
     try (LockResource stateLock = new LockResource(mStateLock)) {
       cancelCatchup();
       mSuspendBuffer.clear();
+      if (mPendingEntries != null) {
+        // the masters are reset after this, so wait for the entries being applied to them
+        mPendingEntries.acquireUninterruptibly(mMaxPendingEntries);
+        mPendingEntries.release(mMaxPendingEntries);
+      }
+      mApplyExecutors.values().forEach(ExecutorService::shutdownNow);
+      mApplyExecutors.clear();
     }
   }
 
@@ -293,7 +386,7 @@ public class BufferedJournalApplier {
       while (!mStopCatchingUp && mLastAppliedSequence < mCatchUpEndSequence) {
         // Wait until notified for cancellation or more entries.
         synchronized (mSuspendBuffer) {
-          while (!mStopCatchingUp && mSuspendBuffer.size() == 0) {
+          while (!mStopCatchingUp && mSuspendBuffer.size() == 0 && mApplyFailure.get() == null) {
             try {
               mSuspendBuffer.wait();
             } catch (InterruptedException e) {
@@ -301,6 +394,7 @@ public class BufferedJournalApplier {
               throw new RuntimeException("Interrupted while catching up.");
             }
           }
+          checkApplyFailure();
 
           // Catch up as much as possible.
           while (!mSuspendBuffer.isEmpty() && mLastAppliedSequence < mCatchUpEndSequence) {
@@ -308,6 +402,7 @@ public class BufferedJournalApplier {
           }
         }
       }
+      flush();
     }
   }
 }
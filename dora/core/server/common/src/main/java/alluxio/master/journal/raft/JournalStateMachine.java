@@ -384,6 +384,7 @@ public class JournalStateMachine extends BaseStateMachine {
     } catch (IOException e) {
       throw new IllegalStateException("State machine pause failed", e);
     }
+    mJournalApplier.flush();
     getLifeCycle().transition(LifeCycle.State.PAUSED);
     LOG.info("Raft state machine is paused.");
   }
@@ -507,6 +508,8 @@ public class JournalStateMachine extends BaseStateMachine {
       SAMPLING_LOG.info("Skip taking snapshot while journal application is suspended.");
       return RaftLog.INVALID_LOG_INDEX;
     }
+    // the entries applied in parallel must be in the state of the masters written to the snapshot
+    mJournalApplier.flush();
     // Recheck mIsLeader (even though it was checked in #takeSnapshot) because mIsLeader is volatile
     // synchronized call to #isSnapshotting will prevent gaining leadership while this method is
     // executing
@@ -680,12 +683,14 @@ public class JournalStateMachine extends BaseStateMachine {
         ProcessUtils.fatalError(LOG, e, "State-machine failed to catch up after suspension.");
       }
     }
+    mJournalApplier.flush();
     mIgnoreApplys = true;
     return mNextSequenceNumberToRead - 1;
   }
 
   /**
-   * @return the sequence number of the last entry applied to the state machine
+   * @return the sequence number of the last entry applied to the state machine; when journal
+   *         entries are applied in parallel, the entry may still be pending in the masters
    */
   public long getLastAppliedSequenceNumber() {
     return mNextSequenceNumberToRead - 1;
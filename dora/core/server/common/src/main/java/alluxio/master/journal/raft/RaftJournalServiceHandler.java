@@ -26,6 +26,7 @@ import com.google.protobuf.UnsafeByteOperations;
 import io.grpc.Context;
 import io.grpc.Status;
 import io.grpc.stub.StreamObserver;
+import org.apache.commons.io.FileUtils;
 import org.apache.ratis.server.protocol.TermIndex;
 import org.apache.ratis.statemachine.SnapshotInfo;
 import org.apache.ratis.statemachine.StateMachineStorage;
@@ -35,6 +36,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.OutputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
@@ -47,6 +49,7 @@ public class RaftJournalServiceHandler extends RaftJournalServiceGrpc.RaftJourna
   private static final Logger LOG = LoggerFactory.getLogger(RaftJournalServiceHandler.class);
 
   private final StateMachineStorage mStateMachineStorage;
+  private final SnapshotFileIndex mFileIndex = new SnapshotFileIndex();
   private volatile long mLastSnapshotUploadDurationMs = -1;
   private volatile long mLastSnapshotUploadSize = -1;
   private volatile long mLastSnapshotUploadDiskSize = -1;
@@ -110,14 +113,29 @@ public class RaftJournalServiceHandler extends RaftJournalServiceGrpc.RaftJourna
     long diskSize;
     LOG.info("Begin snapshot upload of {}", index);
     Instant start = Instant.now();
-    try (SnapshotGrpcOutputStream stream = new SnapshotGrpcOutputStream(responseObserver)) {
-      DirectoryMarshaller marshaller = DirectoryMarshaller.Factory.create();
-      diskSize = marshaller.write(snapshotPath, stream);
-      totalBytesSent = stream.totalBytes();
+    Path uploadPath = snapshotPath;
+    try {
+      if (request.getLocalFilesCount() > 0) {
+        // only send the files the requesting master does not have
+        uploadPath = Files.createTempDirectory(
+            mStateMachineStorage.getTmpDir().getParentFile().toPath(), "snapshot-upload");
+        long reusedSize =
+            mFileIndex.writeDelta(snapshotPath, request.getLocalFilesList(), uploadPath);
+        LOG.info("Requesting master has {} bytes of snapshot {}", reusedSize, index);
+      }
+      try (SnapshotGrpcOutputStream stream = new SnapshotGrpcOutputStream(responseObserver)) {
+        DirectoryMarshaller marshaller = DirectoryMarshaller.Factory.create();
+        diskSize = marshaller.write(uploadPath, stream);
+        totalBytesSent = stream.totalBytes();
+      }
     } catch (Exception e) {
       LOG.warn("Failed to upload snapshot {}", index, e);
       responseObserver.onError(Status.INTERNAL.withCause(e).asRuntimeException());
       return;
+    } finally {
+      if (uploadPath != snapshotPath) {
+        FileUtils.deleteQuietly(uploadPath.toFile());
+      }
     }
     responseObserver.onCompleted();
     // update last duration and duration timer metrics
@@ -41,6 +41,8 @@ import java.io.File;
 import java.io.InputStream;
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Collections;
@@ -70,10 +72,12 @@ public class RaftSnapshotManager implements AutoCloseable {
   private final SnapshotDirStateMachineStorage mStorage;
   private final ExecutorService mExecutor;
   private final Map<InetSocketAddress, RaftJournalServiceClient> mClients;
+  private final SnapshotFileIndex mFileIndex = new SnapshotFileIndex();
 
   private volatile long mLastSnapshotDownloadDurationMs = -1;
   private volatile long mLastSnapshotDownloadSize = -1;
   private volatile long mLastSnapshotDownloadDiskSize = -1;
+  private volatile long mLastSnapshotDownloadReusedSize = -1;
 
   @Nullable
   private CompletableFuture<Long> mDownloadFuture = null;
@@ -104,6 +108,9 @@ public class RaftSnapshotManager implements AutoCloseable {
     MetricsSystem.registerGaugeIfAbsent(
         MetricKey.MASTER_EMBEDDED_JOURNAL_LAST_SNAPSHOT_DOWNLOAD_DISK_SIZE.getName(),
         () -> mLastSnapshotDownloadDiskSize);
+    MetricsSystem.registerGaugeIfAbsent(
+        MetricKey.MASTER_EMBEDDED_JOURNAL_LAST_SNAPSHOT_DOWNLOAD_REUSED_SIZE.getName(),
+        () -> mLastSnapshotDownloadReusedSize);
   }
 
   /**
@@ -227,7 +234,14 @@ public class RaftSnapshotManager implements AutoCloseable {
     RaftJournalServiceClient client = mClients.get(address);
     try {
       client.connect();
-      Iterator<SnapshotData> it = client.requestLatestSnapshotData(snapshotMetadata);
+      SnapshotMetadata request = snapshotMetadata;
+      Path localSnapshotDir = getLocalSnapshotDir();
+      if (localSnapshotDir != null) {
+        // the other master only sends the files which are not in the local snapshot
+        request = snapshotMetadata.toBuilder()
+            .addAllLocalFiles(mFileIndex.list(localSnapshotDir)).build();
+      }
+      Iterator<SnapshotData> it = client.requestLatestSnapshotData(request);
       long totalBytesRead;
       long snapshotDiskSize;
       try (SnapshotGrpcInputStream stream = new SnapshotGrpcInputStream(it)) {
@@ -235,6 +249,7 @@ public class RaftSnapshotManager implements AutoCloseable {
         snapshotDiskSize = marshaller.read(mStorage.getTmpDir().toPath(), stream);
         totalBytesRead = stream.totalBytes();
       }
+      long reusedSize = mFileIndex.applyDelta(mStorage.getTmpDir().toPath(), localSnapshotDir);
 
       File finalSnapshotDestination = new File(mStorage.getSnapshotDir(),
           SimpleStateMachineStorage.getSnapshotFileName(snapshotMetadata.getSnapshotTerm(),
@@ -251,6 +266,9 @@ public class RaftSnapshotManager implements AutoCloseable {
               MetricKey.MASTER_EMBEDDED_JOURNAL_SNAPSHOT_DOWNLOAD_DISK_HISTOGRAM.getName())
           .update(mLastSnapshotDownloadDiskSize);
       LOG.info("Total extracted bytes of snapshot {}: {}", index, mLastSnapshotDownloadDiskSize);
+      mLastSnapshotDownloadReusedSize = reusedSize;
+      LOG.info("Total bytes of snapshot {} linked from the local snapshot: {}", index,
+          mLastSnapshotDownloadReusedSize);
       // update compressed snapshot size (aka size sent over the network)
       mLastSnapshotDownloadSize = totalBytesRead;
       MetricsSystem.histogram(
@@ -274,6 +292,24 @@ public class RaftSnapshotManager implements AutoCloseable {
     }
   }
 
+  /**
+   * @return the directory of the latest local snapshot, if snapshots are replicated incrementally
+   *         and there is one
+   */
+  @Nullable
+  private Path getLocalSnapshotDir() {
+    SnapshotInfo localSnapshotInfo = mStorage.getLatestSnapshot();
+    if (!Configuration.getBoolean(
+        PropertyKey.MASTER_EMBEDDED_JOURNAL_SNAPSHOT_REPLICATION_INCREMENTAL_ENABLED)
+        || localSnapshotInfo == null) {
+      return null;
+    }
+    Path dir = new File(mStorage.getSnapshotDir(), SimpleStateMachineStorage.getSnapshotFileName(
+        localSnapshotInfo.getTerm(), localSnapshotInfo.getIndex())).toPath();
+    // snapshots in the old format are single files
+    return Files.isDirectory(dir) ? dir : null;
+  }
+
   @Override
   public void close() {
     mClients.values().forEach(AbstractClient::close);
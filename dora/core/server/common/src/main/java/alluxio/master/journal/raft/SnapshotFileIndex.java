@@ -0,0 +1,190 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.master.journal.raft;
+
+import alluxio.grpc.SnapshotFile;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.ratis.util.MD5FileUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Lists the immutable files of snapshot directories, i.e. the SST files of the RocksDB
+ * checkpoints, with their sizes and MD5 digests, so that a snapshot can be transferred as a delta
+ * of the snapshot the receiving master already has.
+ *
+ * The master downloading a snapshot sends the immutable files of its latest snapshot. The master
+ * serving the snapshot only sends the files which are not among them, along with a list of the
+ * files to reuse, which the downloading master hard links from its latest snapshot. As RocksDB
+ * checkpoints hard link the SST files of the database, consecutive snapshots share most of their
+ * SST files, and the digests are cached by the identity of the files on disk.
+ */
+@ThreadSafe
+final class SnapshotFileIndex {
+  private static final Logger LOG = LoggerFactory.getLogger(SnapshotFileIndex.class);
+
+  /** The file of a transferred snapshot which lists the files to reuse. */
+  static final String REUSED_FILES = "reused-snapshot-files";
+
+  private static final String[] IMMUTABLE_FILE_SUFFIXES = {".sst", ".blob"};
+
+  private final Cache<List<Object>, String> mDigests =
+      CacheBuilder.newBuilder().maximumSize(1_000_000).build();
+
+  /**
+   * @param snapshotDir a snapshot directory
+   * @return the immutable files of the snapshot
+   */
+  List<SnapshotFile> list(Path snapshotDir) throws IOException {
+    List<SnapshotFile> files = new ArrayList<>();
+    for (Path file : listImmutableFiles(snapshotDir)) {
+      files.add(SnapshotFile.newBuilder()
+          .setPath(snapshotDir.relativize(file).toString())
+          .setSize(Files.size(file))
+          .setMd5(digest(file))
+          .build());
+    }
+    return files;
+  }
+
+  /**
+   * Creates the directory to transfer to a master which has the given files, containing links to
+   * the files of the snapshot it does not have, and the list of the files it should reuse.
+   *
+   * @param snapshotDir the snapshot directory
+   * @param localFiles the immutable files the receiving master has
+   * @param deltaDir the directory to create the delta in, which must be on the same file system
+   * @return the size of the files the receiving master reuses
+   */
+  long writeDelta(Path snapshotDir, List<SnapshotFile> localFiles, Path deltaDir)
+      throws IOException {
+    Map<String, SnapshotFile> localFilesByContent = new HashMap<>();
+    for (SnapshotFile file : localFiles) {
+      localFilesByContent.put(file.getMd5() + ":" + file.getSize(), file);
+    }
+    Set<Long> localSizes =
+        localFiles.stream().map(SnapshotFile::getSize).collect(Collectors.toSet());
+    List<String> reusedFiles = new ArrayList<>();
+    long reusedSize = 0;
+    List<Path> files;
+    try (Stream<Path> stream = Files.walk(snapshotDir)) {
+      files = stream.filter(Files::isRegularFile).collect(Collectors.toList());
+    }
+    for (Path file : files) {
+      Path relativePath = snapshotDir.relativize(file);
+      long size = Files.size(file);
+      SnapshotFile localFile = null;
+      // only compute the digests of the files the receiving master may have
+      if (isImmutable(file) && localSizes.contains(size)) {
+        localFile = localFilesByContent.get(digest(file) + ":" + size);
+      }
+      if (localFile != null) {
+        reusedFiles.add(relativePath + "\t" + localFile.getPath());
+        reusedSize += size;
+      } else {
+        linkOrCopy(file, deltaDir.resolve(relativePath.toString()));
+      }
+    }
+    Files.write(deltaDir.resolve(REUSED_FILES), reusedFiles, StandardCharsets.UTF_8);
+    return reusedSize;
+  }
+
+  /**
+   * Completes a transferred snapshot by linking the files it reuses from the local snapshot.
+   *
+   * @param transferredDir the directory the snapshot was transferred to
+   * @param localSnapshotDir the latest local snapshot directory, which was sent to the other
+   *                         master, or null if none was sent
+   * @return the size of the reused files
+   */
+  long applyDelta(Path transferredDir, @Nullable Path localSnapshotDir) throws IOException {
+    Path reusedFilesPath = transferredDir.resolve(REUSED_FILES);
+    if (!Files.exists(reusedFilesPath)) {
+      // the whole snapshot was transferred
+      return 0;
+    }
+    long reusedSize = 0;
+    for (String line : Files.readAllLines(reusedFilesPath, StandardCharsets.UTF_8)) {
+      String[] paths = line.split("\t");
+      if (paths.length != 2 || localSnapshotDir == null) {
+        throw new IOException(String.format("Invalid reused snapshot file %s", line));
+      }
+      Path source = localSnapshotDir.resolve(paths[1]).normalize();
+      if (!source.startsWith(localSnapshotDir)) {
+        throw new IOException(String.format("Invalid reused snapshot file %s", line));
+      }
+      Path target = transferredDir.resolve(paths[0]).normalize();
+      if (!target.startsWith(transferredDir)) {
+        throw new IOException(String.format("Invalid reused snapshot file %s", line));
+      }
+      linkOrCopy(source, target);
+      reusedSize += Files.size(target);
+    }
+    Files.delete(reusedFilesPath);
+    return reusedSize;
+  }
+
+  private String digest(Path file) throws IOException {
+    BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+    // the links to the same file share its key
+    List<Object> key = attributes.fileKey() == null ? null
+        : Arrays.asList(attributes.fileKey(), attributes.size(), attributes.lastModifiedTime());
+    String digest = key == null ? null : mDigests.getIfPresent(key);
+    if (digest == null) {
+      digest = MD5FileUtil.computeMd5ForFile(file.toFile()).toString();
+      if (key != null) {
+        mDigests.put(key, digest);
+      }
+    }
+    return digest;
+  }
+
+  private static void linkOrCopy(Path source, Path target) throws IOException {
+    Files.createDirectories(target.getParent());
+    try {
+      Files.createLink(target, source);
+    } catch (IOException | UnsupportedOperationException e) {
+      LOG.debug("Failed to link {} to {}, copying it", source, target, e);
+      Files.copy(source, target);
+    }
+  }
+
+  private static List<Path> listImmutableFiles(Path snapshotDir) throws IOException {
+    try (Stream<Path> stream = Files.walk(snapshotDir)) {
+      return stream.filter(file -> Files.isRegularFile(file) && isImmutable(file))
+          .collect(Collectors.toList());
+    }
+  }
+
+  private static boolean isImmutable(Path file) {
+    String name = file.getFileName().toString();
+    return Arrays.stream(IMMUTABLE_FILE_SUFFIXES).anyMatch(name::endsWith);
+  }
+}
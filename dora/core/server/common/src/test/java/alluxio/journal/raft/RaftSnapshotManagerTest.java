@@ -18,6 +18,8 @@ import alluxio.grpc.GrpcServerAddress;
 import alluxio.grpc.GrpcServerBuilder;
 import alluxio.grpc.GrpcService;
 import alluxio.grpc.ServiceType;
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
 
 import net.bytebuddy.utility.RandomString;
 import org.apache.commons.io.FileUtils;
@@ -43,14 +45,18 @@ import java.io.IOException;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.ServerSocket;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
 public class RaftSnapshotManagerTest {
+  private static final int SST_FILE_SIZE = 1024;
+
   @Rule
   public TemporaryFolder mFolder = new TemporaryFolder();
 
@@ -60,6 +66,8 @@ public class RaftSnapshotManagerTest {
 
   @Before
   public void before() throws IOException {
+    // the gauges are registered by the first snapshot manager created
+    MetricsSystem.clearAllMetrics();
     Configuration.set(PropertyKey.MASTER_JOURNAL_REQUEST_INFO_TIMEOUT, "10ms");
     // create Raft Storages and grpc servers for all masters
     // no need to create full master processes
@@ -206,6 +214,54 @@ public class RaftSnapshotManagerTest {
     Assert.assertFalse(directoriesEqual(snapshotDir0, snapshotDir1));
   }
 
+  @Test
+  public void incremental() throws IOException {
+    Configuration.set(
+        PropertyKey.MASTER_EMBEDDED_JOURNAL_SNAPSHOT_REPLICATION_INCREMENTAL_ENABLED, true);
+    try {
+      File snapshot1 = createSampleSnapshot(mSmStorages.get(1), 1, 10);
+      createSstFiles(snapshot1, 0, 4);
+      mSmStorages.get(1).loadLatestSnapshot();
+      mManagers.get(0).downloadSnapshotFromOtherMasters();
+      Assert.assertEquals(10, mManagers.get(0).waitForAttemptToComplete());
+      Assert.assertEquals(0L, getGauge(
+          MetricKey.MASTER_EMBEDDED_JOURNAL_LAST_SNAPSHOT_DOWNLOAD_REUSED_SIZE));
+
+      // the next snapshot keeps two of the SST files and adds a new one
+      File snapshot2 = createSampleSnapshot(mSmStorages.get(1), 1, 20);
+      for (int i = 0; i < 2; i++) {
+        Files.createDirectories(new File(snapshot2, "rocks").toPath());
+        Files.createLink(new File(snapshot2, "rocks/" + i + ".sst").toPath(),
+            new File(snapshot1, "rocks/" + i + ".sst").toPath());
+      }
+      createSstFiles(snapshot2, 4, 5);
+      mSmStorages.get(1).loadLatestSnapshot();
+      mManagers.get(0).downloadSnapshotFromOtherMasters();
+      Assert.assertEquals(20, mManagers.get(0).waitForAttemptToComplete());
+      Assert.assertEquals(2L * SST_FILE_SIZE, getGauge(
+          MetricKey.MASTER_EMBEDDED_JOURNAL_LAST_SNAPSHOT_DOWNLOAD_REUSED_SIZE));
+      Assert.assertTrue(directoriesEqual(mSmStorages.get(0).getSnapshotDir(),
+          mSmStorages.get(1).getSnapshotDir()));
+    } finally {
+      Configuration.unset(
+          PropertyKey.MASTER_EMBEDDED_JOURNAL_SNAPSHOT_REPLICATION_INCREMENTAL_ENABLED);
+    }
+  }
+
+  private static void createSstFiles(File snapshotDir, int start, int end) throws IOException {
+    File dir = new File(snapshotDir, "rocks");
+    Files.createDirectories(dir.toPath());
+    for (int i = start; i < end; i++) {
+      byte[] data = new byte[SST_FILE_SIZE];
+      Arrays.fill(data, (byte) i);
+      Files.write(new File(dir, i + ".sst").toPath(), data);
+    }
+  }
+
+  private static Object getGauge(MetricKey key) {
+    return MetricsSystem.METRIC_REGISTRY.getGauges().get(key.getName()).getValue();
+  }
+
   public static SnapshotDirStateMachineStorage createStateMachineStorage(TemporaryFolder folder)
       throws IOException {
     RaftStorageImpl raftStorage = StorageImplUtils.newRaftStorage(folder.newFolder(),
@@ -233,7 +289,7 @@ public class RaftSnapshotManagerTest {
     }
   }
 
-  public static void createSampleSnapshot(StateMachineStorage smStorage, long term, long index)
+  public static File createSampleSnapshot(StateMachineStorage smStorage, long term, long index)
       throws IOException {
     String snapshotDirName = SimpleStateMachineStorage.getSnapshotFileName(term, index);
     File dir = new File(smStorage.getSnapshotDir(), snapshotDirName);
@@ -249,6 +305,7 @@ public class RaftSnapshotManagerTest {
       MD5Hash md5Hash = MD5FileUtil.computeMd5ForFile(file);
       MD5FileUtil.saveMD5File(file, md5Hash);
     }
+    return dir;
   }
 
   public static boolean directoriesEqual(File dir1, File dir2) throws IOException {
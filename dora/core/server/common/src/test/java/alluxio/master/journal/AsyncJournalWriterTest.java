@@ -12,9 +12,11 @@
 package alluxio.master.journal;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
@@ -28,7 +30,12 @@ import org.junit.After;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Unit tests for {@link AsyncJournalWriter}.
@@ -200,4 +207,48 @@ public class AsyncJournalWriterTest {
   public void failedFlushWithBatching() throws Exception {
     failedFlushInternal(true);
   }
+
+  @Test(timeout = 30000)
+  public void adaptiveBatching() throws Exception {
+    Configuration.set(PropertyKey.MASTER_JOURNAL_FLUSH_ADAPTIVE_BATCHING_ENABLED, true);
+    Configuration.set(PropertyKey.MASTER_JOURNAL_FLUSH_BATCH_MAX_WAIT_TIME, "1ms");
+    setupAsyncJournalWriter(false);
+
+    // Make flushes slow enough for concurrent writers to queue up.
+    mAsyncJournalWriter.stop();
+    doAnswer(invocation -> {
+      Thread.sleep(1);
+      return null;
+    }).when(mMockJournalWriter).flush();
+    mAsyncJournalWriter.start();
+
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        futures.add(executor.submit(() -> {
+          for (int j = 0; j < 50; j++) {
+            mAsyncJournalWriter.flush(
+                mAsyncJournalWriter.appendEntry(JournalEntry.getDefaultInstance()));
+          }
+          return null;
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    // The flush thread waits for concurrent writers.
+    assertTrue(mAsyncJournalWriter.getBatchWaitNs() > 0);
+
+    // The flush thread stops waiting once the writes are sequential.
+    for (int i = 0; i < 100; i++) {
+      mAsyncJournalWriter.flush(
+          mAsyncJournalWriter.appendEntry(JournalEntry.getDefaultInstance()));
+    }
+    assertEquals(0, mAsyncJournalWriter.getBatchWaitNs());
+    mAsyncJournalWriter.close();
+  }
 }
@@ -25,6 +25,7 @@ import alluxio.conf.Configuration;
 import alluxio.conf.PropertyKey;
 import alluxio.exception.BlockInfoException;
 import alluxio.exception.ExceptionMessage;
+import alluxio.exception.runtime.InternalRuntimeException;
 import alluxio.exception.runtime.UnavailableRuntimeException;
 import alluxio.exception.status.InvalidArgumentException;
 import alluxio.exception.status.NotFoundException;
@@ -92,7 +93,9 @@ import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
 import com.google.common.util.concurrent.Striped;
+import com.google.common.util.concurrent.Uninterruptibles;
 import io.grpc.ServerInterceptors;
 import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 import org.slf4j.Logger;
@@ -121,6 +124,9 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -152,12 +158,22 @@ public class DefaultBlockMaster extends CoreMaster implements BlockMaster {
   /** The only valid key for {@link #mWorkerInfoCache}. */
   private static final String WORKER_INFO_CACHE_KEY = "WorkerInfoKey";
 
+  /** Number of blocks in each shard of a block report applied in parallel. */
+  private static final int BLOCK_REPORT_SHARD_SIZE = 10_000;
+
   private final ExecutorService mContainerIdDetector = Executors
       .newSingleThreadExecutor(
         ThreadFactoryUtils.build("default-block-master-container-id-detection-%d", true));
 
   private volatile boolean mContainerIdDetectorIsIdle = true;
 
+  /**
+   * Applies the block locations of large worker block reports in parallel shards, or null if
+   * {@link PropertyKey#MASTER_WORKER_REGISTER_BLOCK_REPORT_THREADS} is 1.
+   */
+  @Nullable
+  private final ThreadPoolExecutor mBlockReportExecutor;
+
   // Worker metadata management.
   private static final IndexDefinition<MasterWorkerInfo, Long> ID_INDEX =
       IndexDefinition.ofUnique(MasterWorkerInfo::getId);
@@ -321,6 +337,16 @@ public class DefaultBlockMaster extends CoreMaster implements BlockMaster {
 
     mBlockMetaStore = blockMetaStore;
     mMetricsMaster = metricsMaster;
+    int blockReportThreads =
+        Configuration.getInt(PropertyKey.MASTER_WORKER_REGISTER_BLOCK_REPORT_THREADS);
+    if (blockReportThreads > 1) {
+      mBlockReportExecutor = new ThreadPoolExecutor(blockReportThreads, blockReportThreads, 60,
+          TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+          ThreadFactoryUtils.build("block-master-block-report-%d", true));
+      mBlockReportExecutor.allowCoreThreadTimeOut(true);
+    } else {
+      mBlockReportExecutor = null;
+    }
     Metrics.registerGauges(this);
 
     mWorkerInfoCache = CacheBuilder.newBuilder()
@@ -337,6 +363,15 @@ public class DefaultBlockMaster extends CoreMaster implements BlockMaster {
         this::getLostBlocksCount);
     MetricsSystem.registerCachedGaugeIfAbsent(MetricKey.MASTER_TO_REMOVE_BLOCK_COUNT.getName(),
         this::getToRemoveBlockCount, 30, TimeUnit.SECONDS);
+    MetricsSystem.registerGaugeIfAbsent(
+        MetricKey.MASTER_WORKER_REGISTER_LEASES_ACTIVE.getName(),
+        mRegisterLeaseManager::getActiveLeaseCount);
+    MetricsSystem.registerGaugeIfAbsent(
+        MetricKey.MASTER_WORKER_REGISTER_STREAMS_ACTIVE.getName(),
+        mActiveRegisterContexts::size);
+    MetricsSystem.registerGaugeIfAbsent(
+        MetricKey.MASTER_WORKER_BLOCK_REPORT_QUEUE_SIZE.getName(),
+        () -> mBlockReportExecutor == null ? 0 : mBlockReportExecutor.getQueue().size());
   }
 
   /**
@@ -596,6 +631,9 @@ public class DefaultBlockMaster extends CoreMaster implements BlockMaster {
     super.close();
     mBlockMetaStore.close();
 
+    if (mBlockReportExecutor != null) {
+      mBlockReportExecutor.shutdownNow();
+    }
     mContainerIdDetector.shutdown();
     try {
       mContainerIdDetector.awaitTermination(5000, TimeUnit.MILLISECONDS);
@@ -1756,6 +1794,11 @@ public class DefaultBlockMaster extends CoreMaster implements BlockMaster {
    */
   private void processWorkerAddedBlocks(MasterWorkerInfo workerInfo,
       Map<BlockLocation, List<Long>> addedBlockIds) {
+    if (mBlockReportExecutor != null && addedBlockIds.values().stream()
+        .mapToLong(List::size).sum() > BLOCK_REPORT_SHARD_SIZE) {
+      processWorkerAddedBlocksInShards(workerInfo, addedBlockIds);
+      return;
+    }
     long invalidBlockCount = 0;
     for (Map.Entry<BlockLocation, List<Long>> entry : addedBlockIds.entrySet()) {
       for (long blockId : entry.getValue()) {
@@ -1786,6 +1829,123 @@ public class DefaultBlockMaster extends CoreMaster implements BlockMaster {
     }
   }
 
+  /**
+   * Same as {@link #processWorkerAddedBlocks(MasterWorkerInfo, Map)}, except that the block
+   * locations are added in parallel shards by {@link #mBlockReportExecutor}. The worker metadata
+   * is only updated by the calling thread, which holds the worker lock.
+   *
+   * @param workerInfo The worker metadata object
+   * @param addedBlockIds A mapping from storage tier alias to a list of block ids added
+   */
+  private void processWorkerAddedBlocksInShards(MasterWorkerInfo workerInfo,
+      Map<BlockLocation, List<Long>> addedBlockIds) {
+    List<List<Long>> shards = new ArrayList<>();
+    List<Future<ShardResult>> shardResults = new ArrayList<>();
+    for (Map.Entry<BlockLocation, List<Long>> entry : addedBlockIds.entrySet()) {
+      BlockLocation location = entry.getKey();
+      Preconditions.checkState(location.getWorkerId() == workerInfo.getId(),
+          "BlockLocation has a different workerId %s from the request sender's workerId %s",
+          location.getWorkerId(), workerInfo.getId());
+      BlockLocation cachedLocation = BlockLocationUtils.getCached(location);
+      for (List<Long> shard : Lists.partition(entry.getValue(), BLOCK_REPORT_SHARD_SIZE)) {
+        shards.add(shard);
+        shardResults.add(
+            mBlockReportExecutor.submit(() -> addBlockLocations(shard, cachedLocation)));
+      }
+    }
+    long invalidBlockCount = 0;
+    Throwable failure = null;
+    // Wait for every shard, so the worker metadata matches all the locations that were added,
+    // including the ones added by a shard before it failed.
+    for (int i = 0; i < shards.size(); i++) {
+      ShardResult result;
+      try {
+        result = Uninterruptibles.getUninterruptibly(shardResults.get(i));
+      } catch (ExecutionException e) {
+        failure = e.getCause();
+        continue;
+      }
+      if (result.mFailure != null) {
+        failure = result.mFailure;
+      }
+      List<Long> shard = shards.get(i);
+      for (int j = 0; j < result.mProcessed; j++) {
+        long blockId = shard.get(j);
+        if (result.mPresent[j]) {
+          workerInfo.addBlock(blockId);
+        } else {
+          invalidBlockCount++;
+          // The block is not recognized and should therefore be purged from the worker
+          // The file may have been removed when the worker was lost
+          workerInfo.scheduleRemoveFromWorker(blockId);
+        }
+      }
+    }
+    if (invalidBlockCount > 0) {
+      LOG.warn("{} invalid blocks found on worker {} in total", invalidBlockCount,
+          workerInfo.getWorkerAddress().getHost());
+    }
+    if (failure != null) {
+      throw new InternalRuntimeException(String.format(
+          "Failed to process the blocks of worker %s", workerInfo.getId()), failure);
+    }
+  }
+
+  /**
+   * Adds a location to the blocks which exist in the block store. A failure stops the shard,
+   * and the locations added before it are still reported, so that the caller records them in
+   * the worker metadata and they are removed when the worker is lost.
+   *
+   * @param blockIds the block ids
+   * @param location the location to add
+   * @return the blocks processed before any failure, and whether each of them exists
+   */
+  private ShardResult addBlockLocations(List<Long> blockIds, BlockLocation location) {
+    ShardResult result = new ShardResult(blockIds.size());
+    for (; result.mProcessed < blockIds.size(); result.mProcessed++) {
+      long blockId = blockIds.get(result.mProcessed);
+      try (LockResource r = lockBlock(blockId)) {
+        if (mBlockMetaStore.getBlock(blockId).isPresent()) {
+          try {
+            mBlockMetaStore.addLocation(blockId, location);
+          } catch (RuntimeException e) {
+            // the location of the failed block may have been added, remove it as it is not
+            // recorded in the worker metadata
+            try {
+              mBlockMetaStore.removeLocation(blockId, location.getWorkerId());
+            } catch (RuntimeException e2) {
+              e.addSuppressed(e2);
+            }
+            throw e;
+          }
+          mLostBlocks.remove(blockId);
+          result.mPresent[result.mProcessed] = true;
+        }
+      } catch (RuntimeException e) {
+        result.mFailure = e;
+        break;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * The result of adding a location to a shard of the blocks of a block report.
+   */
+  private static final class ShardResult {
+    /** Whether each block exists, for the blocks processed. */
+    private final boolean[] mPresent;
+    /** The number of blocks processed, from the start of the shard. */
+    private int mProcessed;
+    /** The failure which stopped the shard, null if it completed. */
+    @Nullable
+    private RuntimeException mFailure;
+
+    private ShardResult(int size) {
+      mPresent = new boolean[size];
+    }
+  }
+
   /**
    * Checks the blocks on the worker. For blocks not present in Alluxio anymore,
    * they will be marked to-be-removed from the worker.
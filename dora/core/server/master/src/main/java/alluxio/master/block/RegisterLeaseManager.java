@@ -14,6 +14,8 @@ package alluxio.master.block;
 import alluxio.conf.Configuration;
 import alluxio.conf.PropertyKey;
 import alluxio.grpc.GetRegisterLeasePRequest;
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
 import alluxio.util.CommonUtils;
 import alluxio.wire.RegisterLease;
 
@@ -67,6 +69,7 @@ public class RegisterLeaseManager {
 
     // If the JVM space does not allow, reject the request
     if (mJvmChecker != null && !mJvmChecker.reviewLeaseRequest(request)) {
+      MetricsSystem.counter(MetricKey.MASTER_WORKER_REGISTER_LEASE_REJECTED.getName()).inc();
       return Optional.empty();
     }
 
@@ -83,6 +86,7 @@ public class RegisterLeaseManager {
       return Optional.of(lease);
     }
 
+    MetricsSystem.counter(MetricKey.MASTER_WORKER_REGISTER_LEASE_REJECTED.getName()).inc();
     return Optional.empty();
   }
 
@@ -100,6 +104,10 @@ public class RegisterLeaseManager {
     });
   }
 
+  int getActiveLeaseCount() {
+    return mActiveLeases.size();
+  }
+
   boolean hasLease(long workerId) {
     return mActiveLeases.containsKey(workerId);
   }
@@ -187,6 +187,7 @@ import alluxio.worker.job.JobMasterClientContext;
 import com.codahale.metrics.Counter;
 import com.codahale.metrics.Gauge;
 import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableMap;
@@ -4929,6 +4930,14 @@ public class DefaultFileSystemMaster extends CoreMaster
         = MetricsSystem.counter(MetricKey.MASTER_METADATA_SYNC_PREFETCH_CANCEL.getName());
     public static final Counter METADATA_SYNC_PREFETCH_PATHS
         = MetricsSystem.counter(MetricKey.MASTER_METADATA_SYNC_PREFETCH_PATHS.getName());
+    public static final Counter METADATA_SYNC_PREFETCH_DEFERRED
+        = MetricsSystem.counter(MetricKey.MASTER_METADATA_SYNC_PREFETCH_DEFERRED.getName());
+    public static final Counter METADATA_SYNC_LISTING_WAIT_TIME_MS
+        = MetricsSystem.counter(MetricKey.MASTER_METADATA_SYNC_LISTING_WAIT_TIME_MS.getName());
+    public static final Timer METADATA_SYNC_DIFF_TIMER
+        = MetricsSystem.timer(MetricKey.MASTER_METADATA_SYNC_DIFF_TIMER.getName());
+    public static final Timer METADATA_SYNC_JOURNAL_WRITE_TIMER
+        = MetricsSystem.timer(MetricKey.MASTER_METADATA_SYNC_JOURNAL_WRITE_TIMER.getName());
     public static final Counter UFS_STATUS_CACHE_SIZE_TOTAL
         = MetricsSystem.counter(MetricKey.MASTER_UFS_STATUS_CACHE_SIZE.getName());
     public static final Counter UFS_STATUS_CACHE_CHILDREN_SIZE_TOTAL
@@ -4995,6 +5004,8 @@ public class DefaultFileSystemMaster extends CoreMaster
           () -> inodeTree.getTtlBuckets().getNumBuckets());
       MetricsSystem.registerGaugeIfAbsent(MetricKey.MASTER_TTL_INODES.getName(),
           () -> inodeTree.getTtlBuckets().getNumInodes());
+      MetricsSystem.registerGaugeIfAbsent(MetricKey.MASTER_TTL_EXPIRY_LAG_MS.getName(),
+          () -> inodeTree.getTtlBuckets().getExpiryLagMs(System.currentTimeMillis()));
       MetricsSystem.registerGaugeIfAbsent(MetricKey.MASTER_TOTAL_PATHS.getName(),
           inodeTree::getInodeCount);
       MetricsSystem.registerGaugeIfAbsent(MetricKey.MASTER_FILE_SIZE.getName(),
@@ -71,19 +71,21 @@ public class DefaultPermissionChecker implements PermissionChecker {
       return;
     }
 
-    // collects existing inodes info on the path. Note that, not all the components of the path have
-    // corresponding inodes.
-    List<InodeView> inodeList = inodePath.getInodeViewList();
-
     // collects user and groups
     String user = AuthenticatedClientUser.getClientUser(Configuration.global());
     List<String> groups = getGroups(user);
 
-    // remove the last element if all components of the path exist, since we only check the parent.
-    if (inodePath.fullPathExists()) {
-      inodeList.remove(inodeList.size() - 1);
-    }
-    checkInodeList(user, groups, bits, inodePath.getUri().getPath(), inodeList, false);
+    // collects existing inodes info on the path. Note that, not all the components of the path have
+    // corresponding inodes.
+    checkInodes(inodePath, inodeList -> {
+      // remove the last element if all components of the path exist, since we only check the
+      // parent.
+      if (inodePath.fullPathExists()) {
+        inodeList.remove(inodeList.size() - 1);
+      }
+      checkInodeList(user, groups, bits, inodePath.getUri().getPath(), inodeList, false);
+      return null;
+    });
   }
 
   @Override
@@ -93,14 +95,15 @@ public class DefaultPermissionChecker implements PermissionChecker {
       return;
     }
 
-    // collects inodes info on the path
-    List<InodeView> inodeList = inodePath.getInodeViewList();
-
     // collects user and groups
     String user = AuthenticatedClientUser.getClientUser(Configuration.global());
     List<String> groups = getGroups(user);
 
-    checkInodeList(user, groups, bits, inodePath.getUri().getPath(), inodeList, false);
+    // collects inodes info on the path
+    checkInodes(inodePath, inodeList -> {
+      checkInodeList(user, groups, bits, inodePath.getUri().getPath(), inodeList, false);
+      return null;
+    });
   }
 
   @Override
@@ -108,14 +111,13 @@ public class DefaultPermissionChecker implements PermissionChecker {
     if (!mPermissionCheckEnabled) {
       return Mode.Bits.NONE;
     }
-    // collects inodes info on the path
-    List<InodeView> inodeList = inodePath.getInodeViewList();
-
     // collects user and groups
     try {
       String user = AuthenticatedClientUser.getClientUser(Configuration.global());
       List<String> groups = getGroups(user);
-      return getPermissionInternal(user, groups, inodePath.getUri().getPath(), inodeList);
+      // collects inodes info on the path
+      return checkInodes(inodePath, inodeList ->
+          getPermissionInternal(user, groups, inodePath.getUri().getPath(), inodeList));
     } catch (AccessControlException e) {
       return Mode.Bits.NONE;
     }
@@ -176,9 +178,6 @@ public class DefaultPermissionChecker implements PermissionChecker {
    */
   private void checkOwner(LockedInodePath inodePath)
       throws AccessControlException {
-    // collects inodes info on the path
-    List<InodeView> inodeList = inodePath.getInodeViewList();
-
     // collects user and groups
     String user = AuthenticatedClientUser.getClientUser(Configuration.global());
     List<String> groups = getGroups(user);
@@ -187,7 +186,39 @@ public class DefaultPermissionChecker implements PermissionChecker {
       return;
     }
 
-    checkInodeList(user, groups, null, inodePath.getUri().getPath(), inodeList, true);
+    // collects inodes info on the path
+    checkInodes(inodePath, inodeList -> {
+      checkInodeList(user, groups, null, inodePath.getUri().getPath(), inodeList, true);
+      return null;
+    });
+  }
+
+  /**
+   * Runs a check on the inodes of a path. The ancestors of a path traversed optimistically are
+   * not locked, so if they were modified during the check, the check runs again once the path
+   * is locked, see {@link LockedInodePath#validateAncestors()}.
+   *
+   * @param inodePath the path to check
+   * @param check the check of the inodes of the path
+   * @return the result of the check
+   * @throws AccessControlException if permission checking fails
+   */
+  private static <T> T checkInodes(LockedInodePath inodePath, InodeListCheck<T> check)
+      throws AccessControlException {
+    while (true) {
+      T result;
+      try {
+        result = check.check(inodePath.getInodeViewList());
+      } catch (AccessControlException e) {
+        if (inodePath.validateAncestors()) {
+          throw e;
+        }
+        continue;
+      }
+      if (inodePath.validateAncestors()) {
+        return result;
+      }
+    }
   }
 
   /**
@@ -305,4 +336,19 @@ public class DefaultPermissionChecker implements PermissionChecker {
             .append(", inode mode=").append(new Mode(inode.getMode()).toString());
     return sb.toString();
   }
+
+  /**
+   * A check of the inodes of a path.
+   *
+   * @param <T> the result of the check
+   */
+  @FunctionalInterface
+  private interface InodeListCheck<T> {
+    /**
+     * @param inodeList the inodes of the path
+     * @return the result of the check
+     * @throws AccessControlException if permission checking fails
+     */
+    T check(List<InodeView> inodeList) throws AccessControlException;
+  }
 }
@@ -77,6 +77,7 @@ import alluxio.util.interfaces.Scoped;
 import alluxio.util.io.PathUtils;
 
 import com.codahale.metrics.Counter;
+import com.codahale.metrics.Timer;
 import com.google.common.base.MoreObjects;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -88,16 +89,18 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.ConcurrentModificationException;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
@@ -112,14 +115,19 @@ import javax.annotation.Nullable;
  * {@link #processSyncPath(AlluxioURI, RpcContext)}.
  * The processing of inode paths will discover new paths to
  * sync depending on the {@link #mDescendantType}. Syncing is finished when all submitted tasks
- * are completed and there are no new inodes left in the queue.
+ * are completed and there are no new inodes left in the queue. A new path is submitted as soon
+ * as any submitted path finishes, so that a directory which is slow to list does not hold up
+ * the syncing of its siblings.
  *
  * Syncing inode metadata requires making calls to the UFS. This implementation will schedule UFS
  * RPCs with the {@link UfsStatusCache#prefetchChildren(AlluxioURI, MountTable)}. Then, once the
  * inode begins processing, it can retrieve the results. After processing, it can then remove its
  * {@link UfsStatus} from the cache. This strategy helps reduce memory pressure on the master
  * while performing a sync for a large tree. Additionally, by using a prefetch mechanism we can
- * concurrently process other inodes while waiting for UFS RPCs to complete.
+ * concurrently process other inodes while waiting for UFS RPCs to complete. The number of
+ * directories prefetched ahead of being synced is bounded by
+ * {@link PropertyKey#MASTER_METADATA_SYNC_UFS_PREFETCH_MAX_DIRECTORIES}, further prefetches are
+ * deferred until the prefetched directories are synced.
  *
  * With regard to locking, this class expects to be able to take a write lock on any inode, and
  * then subsequently downgrades or unlocks after the sync is finished. Even though we use
@@ -283,12 +291,35 @@ public class InodeSyncStream {
   /** The traversal order of {@link #mPendingPaths}. */
   private final MetadataSyncTraversalOrder mTraverseType;
 
-  /** Queue of paths that have been submitted to the executor. */
-  private final Queue<Future<SyncResult>> mSyncPathJobs;
+  /** Paths that have been submitted to the executor, by job id. */
+  private final Map<Long, Future<SyncResult>> mSyncPathJobs;
+
+  /** Ids of the submitted paths that have completed, in the order they completed. */
+  private final BlockingQueue<Long> mCompletedSyncPathJobs;
+
+  /** The id of the next path submitted to the executor. */
+  private long mNextSyncPathJobId = 0;
 
   /** The executor enabling concurrent processing. */
   private final ExecutorService mMetadataSyncService;
 
+  /**
+   * Directories to prefetch once fewer directories than the maximum are prefetched, in the
+   * order they were deferred. It may contain directories which were synced since, and which are
+   * skipped, see {@link #mDeferredPrefetchSet}.
+   */
+  private final ConcurrentLinkedDeque<AlluxioURI> mDeferredPrefetches;
+
+  /**
+   * The directories in {@link #mDeferredPrefetches} which are still to be prefetched, so that a
+   * synced directory is dropped from the deferred prefetches in constant time.
+   */
+  private final Set<AlluxioURI> mDeferredPrefetchSet;
+
+  /** The maximum number of directories to prefetch ahead of syncing them. */
+  private final int mMaxPrefetchedDirectories =
+      Configuration.getInt(PropertyKey.MASTER_METADATA_SYNC_UFS_PREFETCH_MAX_DIRECTORIES);
+
   /** The interval of time passed (in ms) to require a new sync. */
   private final long mSyncInterval;
 
@@ -340,13 +371,16 @@ public class InodeSyncStream {
         MetadataSyncTraversalOrder.class);
     mDescendantType = descendantType;
     mRpcContext = rpcContext;
+    mCompletedSyncPathJobs = new LinkedBlockingQueue<>();
     mMetadataSyncService = fsMaster.mSyncMetadataExecutorIns;
+    mDeferredPrefetches = new ConcurrentLinkedDeque<>();
+    mDeferredPrefetchSet = ConcurrentHashMap.newKeySet();
     mClock = fsMaster.mClock;
     mForceSync = forceSync;
     mRootScheme = rootPath;
     mSyncOptions = options;
     mLoadOnly = loadOnly;
-    mSyncPathJobs = new LinkedList<>();
+    mSyncPathJobs = new HashMap<>();
     mFsMaster = fsMaster;
     mInodeLockManager = fsMaster.getInodeLockManager();
     mInodeStore = fsMaster.getInodeStore();
@@ -537,22 +571,24 @@ public class InodeSyncStream {
       }
       // There are still paths to process
       // First, remove any futures which have completed. Add to the sync path count if they sync'd
-      // successfully
-      while (true) {
-        Future<SyncResult> job = mSyncPathJobs.peek();
-        if (job == null || !job.isDone()) {
-          break;
-        }
+      // successfully. If no more paths can be submitted, wait for any of the submitted paths to
+      // complete.
+      boolean canSubmit =
+          !mPendingPaths.isEmpty() && mSyncPathJobs.size() < mConcurrencyLevel;
+      Long jobId = canSubmit || mSyncPathJobs.isEmpty()
+          ? mCompletedSyncPathJobs.poll() : takeCompletedJob();
+      for (; jobId != null; jobId = mCompletedSyncPathJobs.poll()) {
         // remove the job because we know it is done.
-        if (mSyncPathJobs.poll() != job) {
+        Future<SyncResult> job = mSyncPathJobs.remove(jobId);
+        if (job == null) {
           updateMetrics(false, startTime, syncPathCount, failedSyncPathCount);
-          throw new ConcurrentModificationException("Head of queue modified while executing");
+          throw new ConcurrentModificationException("Completed job was not submitted");
         }
         // Update a global counter
         DefaultFileSystemMaster.Metrics.INODE_SYNC_STREAM_ACTIVE_PATHS_TOTAL.dec();
         try {
           // we synced the path successfully
-          // This shouldn't block because we checked job.isDone() earlier
+          // This shouldn't block for long because the job has finished processing the path
           SyncResult result = job.get();
           if (!result.isResultValid()) {
             failedSyncPathCount++;
@@ -582,6 +618,9 @@ public class InodeSyncStream {
         break;
       }
 
+      // Prefetch the deferred directories now that the completed paths released their statuses
+      prefetchDeferredDirectories();
+
       // We can submit up to ( max_concurrency - <jobs queue size>) jobs back into the queue
       int submissions = mConcurrencyLevel - mSyncPathJobs.size();
       for (int i = 0; i < submissions; i++) {
@@ -590,29 +629,21 @@ public class InodeSyncStream {
           // no paths left to sync
           break;
         }
+        // the path fetches its own children if their prefetch is still deferred
+        mDeferredPrefetchSet.remove(path);
         RpcContext rpcContextForSyncPath = getMetadataSyncRpcContext();
-        Future<SyncResult> job =
-            mMetadataSyncService.submit(() -> processSyncPath(path, rpcContextForSyncPath));
-        mSyncPathJobs.offer(job);
+        long newJobId = mNextSyncPathJobId++;
+        mSyncPathJobs.put(newJobId, mMetadataSyncService.submit(() -> {
+          try {
+            return processSyncPath(path, rpcContextForSyncPath);
+          } finally {
+            mCompletedSyncPathJobs.add(newJobId);
+          }
+        }));
         // Update global counters for all sync streams
         DefaultFileSystemMaster.Metrics.INODE_SYNC_STREAM_PENDING_PATHS_TOTAL.dec();
         DefaultFileSystemMaster.Metrics.INODE_SYNC_STREAM_ACTIVE_PATHS_TOTAL.inc();
       }
-      // After submitting all jobs wait for the job at the head of the queue to finish.
-      Future<SyncResult> oldestJob = mSyncPathJobs.peek();
-      if (oldestJob == null) { // There might not be any jobs, restart the loop.
-        continue;
-      }
-      try {
-        oldestJob.get(); // block until the oldest job finished.
-      } catch (InterruptedException | ExecutionException e) {
-        LogUtils.warnWithException(
-                LOG, "Exception while waiting for oldest metadata sync job to finish: {}",
-                toString(), e);
-        if (e instanceof InterruptedException) {
-          Thread.currentThread().interrupt();
-        }
-      }
     }
 
     boolean success = syncPathCount > 0;
@@ -627,7 +658,9 @@ public class InodeSyncStream {
           startTime, childOldestSkippedSync, rootPathIsFile);
     }
     mStatusCache.cancelAllPrefetch();
-    mSyncPathJobs.forEach(f -> f.cancel(true));
+    mDeferredPrefetches.clear();
+    mDeferredPrefetchSet.clear();
+    mSyncPathJobs.values().forEach(f -> f.cancel(true));
     if (!mPendingPaths.isEmpty() || !mSyncPathJobs.isEmpty()) {
       DefaultFileSystemMaster.Metrics.INODE_SYNC_STREAM_SYNC_PATHS_CANCEL.inc(
           mPendingPaths.size() + mSyncPathJobs.size());
@@ -648,6 +681,57 @@ public class InodeSyncStream {
     return success ? SyncStatus.OK : SyncStatus.FAILED;
   }
 
+  /**
+   * Waits for any of the submitted paths to complete.
+   *
+   * @return the id of the completed job, or null if the thread was interrupted
+   */
+  @Nullable
+  private Long takeCompletedJob() {
+    try {
+      return mCompletedSyncPathJobs.take();
+    } catch (InterruptedException e) {
+      LogUtils.warnWithException(
+          LOG, "Interrupted while waiting for a metadata sync job to finish: {}", toString(), e);
+      Thread.currentThread().interrupt();
+      return null;
+    }
+  }
+
+  /**
+   * Prefetches the children of a directory which is going to be synced, unless the maximum
+   * number of directories are already prefetched, in which case the prefetch is deferred.
+   *
+   * @param path the directory to prefetch
+   */
+  private void prefetchOrDefer(AlluxioURI path) {
+    if (mDeferredPrefetchSet.isEmpty()
+        && mStatusCache.getPrefetchedDirectoryCount() < mMaxPrefetchedDirectories) {
+      mStatusCache.prefetchChildren(path, mMountTable);
+    } else if (mDeferredPrefetchSet.add(path)) {
+      mDeferredPrefetches.add(path);
+      DefaultFileSystemMaster.Metrics.METADATA_SYNC_PREFETCH_DEFERRED.inc();
+    }
+  }
+
+  /**
+   * Prefetches the deferred directories, in the order they are going to be synced, until the
+   * maximum number of directories are prefetched.
+   */
+  private void prefetchDeferredDirectories() {
+    while (mStatusCache.getPrefetchedDirectoryCount() < mMaxPrefetchedDirectories) {
+      AlluxioURI path = mTraverseType == MetadataSyncTraversalOrder.DFS
+          ? mDeferredPrefetches.pollLast() : mDeferredPrefetches.poll();
+      if (path == null) {
+        return;
+      }
+      // skip the directories synced since they were deferred
+      if (mDeferredPrefetchSet.remove(path)) {
+        mStatusCache.prefetchChildren(path, mMountTable);
+      }
+    }
+  }
+
   private void updateMetrics(boolean success, long startTime,
       int successPathCount, int failedPathCount) {
     long duration = mClock.millis() - startTime;
@@ -707,6 +791,8 @@ public class InodeSyncStream {
     }
 
     if (!scheme.shouldSync().isShouldSync() && !mForceSync) {
+      // release the prefetched statuses of the path, which are not going to be used
+      mStatusCache.remove(path);
       return scheme.shouldSync().skippedSync();
     }
     try (LockedInodePath inodePath =
@@ -715,7 +801,9 @@ public class InodeSyncStream {
         LOG.warn("Thread syncing {} was interrupted before completion", inodePath.getUri());
         return SyncResult.INVALID_RESULT;
       }
-      syncInodeMetadata(inodePath, rpcContext);
+      try (Timer.Context ctx = DefaultFileSystemMaster.Metrics.METADATA_SYNC_DIFF_TIMER.time()) {
+        syncInodeMetadata(inodePath, rpcContext);
+      }
       return scheme.shouldSync().syncSuccess();
     } catch (AccessControlException | BlockInfoException | FileAlreadyCompletedException
         | FileDoesNotExistException | InterruptedException | InvalidFileSizeException
@@ -922,8 +1010,11 @@ public class InodeSyncStream {
 
       // Fetch and populate children into the cache
       mStatusCache.prefetchChildren(inodePath.getUri(), mMountTable);
+      long listingStartMs = mClock.millis();
       Collection<UfsStatus> listStatus = mStatusCache
           .fetchChildrenIfAbsent(rpcContext, inodePath.getUri(), mMountTable);
+      DefaultFileSystemMaster.Metrics.METADATA_SYNC_LISTING_WAIT_TIME_MS.inc(
+          mClock.millis() - listingStartMs);
       // Iterate over UFS listings and process UFS children.
       if (listStatus != null) {
         for (UfsStatus ufsChildStatus : listStatus) {
@@ -963,16 +1054,17 @@ public class InodeSyncStream {
           }
           // If we're performing a recursive sync, add each child of our current Inode to the queue
           AlluxioURI child = inodePath.getUri().joinUnsafe(childInode.getName());
-          mPendingPaths.add(child);
-          // Update a global counter for all sync streams
-          DefaultFileSystemMaster.Metrics.INODE_SYNC_STREAM_PENDING_PATHS_TOTAL.inc();
-
           if (prefetchChildrenUfsStatus) {
             // This asynchronously schedules a job to pre-fetch the statuses into the cache.
+            // It is scheduled before the child is queued, so that the child cannot be synced
+            // before its prefetch, which would then never be consumed.
             if (childInode.isDirectory() && mDescendantType == DescendantType.ALL) {
-              mStatusCache.prefetchChildren(child, mMountTable);
+              prefetchOrDefer(child);
             }
           }
+          mPendingPaths.add(child);
+          // Update a global counter for all sync streams
+          DefaultFileSystemMaster.Metrics.INODE_SYNC_STREAM_PENDING_PATHS_TOTAL.inc();
         });
       }
     }
@@ -1379,7 +1471,8 @@ public class InodeSyncStream {
   private void maybeFlushJournalToAsyncJournalWriter(RpcContext rpcContext) {
     if (mUseFileSystemMergeJournalContext
         && rpcContext.getJournalContext() instanceof MetadataSyncMergeJournalContext) {
-      try {
+      try (Timer.Context ctx =
+               DefaultFileSystemMaster.Metrics.METADATA_SYNC_JOURNAL_WRITE_TIMER.time()) {
         rpcContext.getJournalContext().flush();
       } catch (UnavailableException e) {
         // This should never happen because rpcContext is a MetadataSyncMergeJournalContext type
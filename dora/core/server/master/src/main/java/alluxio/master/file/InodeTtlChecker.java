@@ -29,6 +29,8 @@ import alluxio.master.file.meta.TtlBucket;
 import alluxio.master.file.meta.TtlBucketList;
 import alluxio.master.journal.JournalContext;
 import alluxio.master.journal.NoopJournalContext;
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
 import alluxio.proto.journal.File.UpdateInodeEntry;
 import alluxio.util.ThreadUtils;
 
@@ -42,10 +44,14 @@ import javax.annotation.concurrent.NotThreadSafe;
 
 /**
  * This class represents the executor for periodic inode ttl check.
+ *
+ * The ttl of freed inodes is reset in batches, each written through a single journal context.
  */
 @NotThreadSafe
 final class InodeTtlChecker implements HeartbeatExecutor {
   private static final Logger LOG = LoggerFactory.getLogger(InodeTtlChecker.class);
+  /** Maximum number of ttl resets of freed inodes written through one journal context. */
+  private static final int TTL_RESET_BATCH_SIZE = 1000;
 
   private final FileSystemMaster mFileSystemMaster;
   private final InodeTree mInodeTree;
@@ -64,6 +70,8 @@ final class InodeTtlChecker implements HeartbeatExecutor {
   public void heartbeat(long timeLimitMs) throws InterruptedException {
     Set<TtlBucket> expiredBuckets = mTtlBuckets.pollExpiredBuckets(System.currentTimeMillis());
     Map<Inode, Integer> failedInodesToRetryNum = new HashMap<>();
+    // Freed inodes waiting for their ttl to be reset, mapped to their left retry attempts.
+    Map<Inode, Integer> freedInodesToRetryNum = new HashMap<>();
     for (TtlBucket bucket : expiredBuckets) {
       for (Map.Entry<Long, Integer> inodeExpiryEntry : bucket.getInodeExpiries()) {
         // Throw if interrupted.
@@ -77,11 +85,14 @@ final class InodeTtlChecker implements HeartbeatExecutor {
           continue;
         }
         AlluxioURI path = null;
+        Inode inode = null;
         try (LockedInodePath inodePath =
             mInodeTree.lockFullInodePath(
                 inodeId, LockPattern.READ, NoopJournalContext.INSTANCE)
         ) {
           path = inodePath.getUri();
+          // Take the inode from the locked path, instead of loading it from the inode store again.
+          inode = inodePath.getInode();
         } catch (FileDoesNotExistException e) {
           // The inode has already been deleted, nothing needs to be done.
           continue;
@@ -89,12 +100,10 @@ final class InodeTtlChecker implements HeartbeatExecutor {
           LOG.error("Exception trying to clean up inode:{},path:{} for ttl check: {}", inodeId,
               path, e.toString());
         }
-        if (path != null) {
-          Inode inode = null;
+        if (path != null && inode != null) {
           try {
-            inode = mTtlBuckets.loadInode(inodeId);
             // Check again if this inode is indeed expired.
-            if (inode == null || inode.getTtl() == Constants.NO_TTL
+            if (inode.getTtl() == Constants.NO_TTL
                 || inode.getCreationTimeMs() + inode.getTtl() > System.currentTimeMillis()) {
               continue;
             }
@@ -111,13 +120,9 @@ final class InodeTtlChecker implements HeartbeatExecutor {
                   mFileSystemMaster.free(path,
                       FreeContext.mergeFrom(FreePOptions.newBuilder().setForced(true)));
                 }
-                try (JournalContext journalContext = mFileSystemMaster.createJournalContext()) {
-                  // Reset state
-                  mInodeTree.updateInode(journalContext, UpdateInodeEntry.newBuilder()
-                      .setId(inode.getId())
-                      .setTtl(Constants.NO_TTL)
-                      .setTtlAction(ProtobufUtils.toProtobuf(TtlAction.DELETE))
-                      .build());
+                freedInodesToRetryNum.put(inode, leftRetries);
+                if (freedInodesToRetryNum.size() >= TTL_RESET_BATCH_SIZE) {
+                  resetTtl(freedInodesToRetryNum, failedInodesToRetryNum);
                 }
                 break;
               case DELETE:
@@ -129,6 +134,7 @@ final class InodeTtlChecker implements HeartbeatExecutor {
                 } else {
                   mFileSystemMaster.delete(path, DeleteContext.defaults());
                 }
+                MetricsSystem.meter(MetricKey.MASTER_TTL_EXPIRED_INODES.getName()).mark();
                 break;
               case DELETE_ALLUXIO:
                 // public delete method will lock the path, and check WRITE permission required at
@@ -142,6 +148,7 @@ final class InodeTtlChecker implements HeartbeatExecutor {
                           DeleteContext.mergeFrom(DeletePOptions.newBuilder()
                                   .setAlluxioOnly(true)));
                 }
+                MetricsSystem.meter(MetricKey.MASTER_TTL_EXPIRED_INODES.getName()).mark();
                 break;
               default:
                 LOG.error("Unknown ttl action {}", ttlAction);
@@ -151,13 +158,14 @@ final class InodeTtlChecker implements HeartbeatExecutor {
             if (retryExhausted) {
               LOG.error("Retry exhausted to clean up {} for ttl check. {}",
                   path, ThreadUtils.formatStackTrace(e));
-            } else if (inode != null) {
+            } else {
               failedInodesToRetryNum.put(inode, leftRetries);
             }
           }
         }
       }
     }
+    resetTtl(freedInodesToRetryNum, failedInodesToRetryNum);
     // Put back those failed-to-expire inodes for next round retry.
     if (!failedInodesToRetryNum.isEmpty()) {
       for (Map.Entry<Inode, Integer> failedInodeEntry : failedInodesToRetryNum.entrySet()) {
@@ -166,6 +174,67 @@ final class InodeTtlChecker implements HeartbeatExecutor {
     }
   }
 
+  /**
+   * Resets the ttl of freed inodes, writing the updates through a single journal context. Each
+   * inode is write locked while its ttl is reset. Inodes deleted since they were freed are
+   * skipped, and so are inodes whose ttl was changed to a ttl which has not expired.
+   *
+   * @param freedInodesToRetryNum the freed inodes mapped to their left retry attempts, which is
+   *        cleared when this method returns
+   * @param failedInodesToRetryNum the inodes to retry in the next round
+   */
+  private void resetTtl(Map<Inode, Integer> freedInodesToRetryNum,
+      Map<Inode, Integer> failedInodesToRetryNum) {
+    if (freedInodesToRetryNum.isEmpty()) {
+      return;
+    }
+    Map<Inode, Integer> failedResets = new HashMap<>();
+    try {
+      try (JournalContext journalContext = mFileSystemMaster.createJournalContext()) {
+        for (Map.Entry<Inode, Integer> freedInodeEntry : freedInodesToRetryNum.entrySet()) {
+          long inodeId = freedInodeEntry.getKey().getId();
+          try (LockedInodePath inodePath = mInodeTree.lockFullInodePath(
+              inodeId, LockPattern.WRITE_INODE, journalContext)) {
+            Inode inode = inodePath.getInode();
+            // The ttl may have been changed since the inode was freed.
+            if (inode.getTtl() == Constants.NO_TTL
+                || inode.getCreationTimeMs() + inode.getTtl() > System.currentTimeMillis()) {
+              continue;
+            }
+            // Reset state
+            mInodeTree.updateInode(journalContext, UpdateInodeEntry.newBuilder()
+                .setId(inodeId)
+                .setTtl(Constants.NO_TTL)
+                .setTtlAction(ProtobufUtils.toProtobuf(TtlAction.DELETE))
+                .build());
+          } catch (FileDoesNotExistException e) {
+            // The inode has been deleted since it was freed, nothing needs to be done.
+          } catch (Exception e) {
+            failedResets.put(freedInodeEntry.getKey(), freedInodeEntry.getValue());
+            LOG.warn("Failed to reset ttl of inode {} for ttl check: {}", inodeId, e.toString());
+          }
+        }
+      }
+      MetricsSystem.meter(MetricKey.MASTER_TTL_EXPIRED_INODES.getName())
+          .mark(freedInodesToRetryNum.size() - failedResets.size());
+    } catch (Exception e) {
+      // The journal context failed, so retry the whole batch. Freeing again is harmless.
+      failedResets = freedInodesToRetryNum;
+      LOG.warn("Failed to reset ttl of {} inodes for ttl check: {}",
+          freedInodesToRetryNum.size(), e.toString());
+    }
+    for (Map.Entry<Inode, Integer> failedReset : failedResets.entrySet()) {
+      int leftRetries = failedReset.getValue() - 1;
+      if (leftRetries <= 0) {
+        LOG.error("Retry exhausted to reset ttl of inode {} for ttl check",
+            failedReset.getKey().getId());
+      } else {
+        failedInodesToRetryNum.put(failedReset.getKey(), leftRetries);
+      }
+    }
+    freedInodesToRetryNum.clear();
+  }
+
   @Override
   public void close() {
     // Nothing to clean up
@@ -12,7 +12,6 @@
 package alluxio.master.file.meta;
 
 import alluxio.AlluxioURI;
-import alluxio.collections.Pair;
 import alluxio.conf.Configuration;
 import alluxio.conf.PropertyKey;
 import alluxio.exception.InvalidPathException;
@@ -24,9 +23,12 @@ import alluxio.underfs.UnderFileSystem;
 import alluxio.util.ThreadFactoryUtils;
 import alluxio.util.io.PathUtils;
 
+import com.codahale.metrics.Counter;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -43,29 +45,34 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 
 /**
  * This is a {@link UfsAbsentPathCache} which implements asynchronous addition and removal to the
  * cache, since the processing of the path may be slow.
+ *
+ * When {@link PropertyKey#MASTER_UFS_PATH_CACHE_FILTER_ENABLED} is set, paths evicted from the
+ * exact cache are kept in a {@link UfsAbsentPathFilter}, which answers lookups missing the exact
+ * cache at a small false positive rate.
  */
 @ThreadSafe
 public class AsyncUfsAbsentPathCache implements UfsAbsentPathCache {
   private static final Logger LOG = LoggerFactory.getLogger(AsyncUfsAbsentPathCache.class);
   /** Number of seconds to keep threads alive. */
   private static final int THREAD_KEEP_ALIVE_SECONDS = 60;
-  /** Number of paths to cache. */
-  private static final int MAX_PATHS =
-      Configuration.getInt(PropertyKey.MASTER_UFS_PATH_CACHE_CAPACITY);
 
   /** The mount table. */
   private final MountTable mMountTable;
   /** Paths currently being processed. This is used to prevent duplicate processing. */
   private final ConcurrentHashMap<String, PathLock> mCurrentPaths;
-  /** Cache of paths which are absent in the ufs, maps an alluxio path to a Pair
-   *  which is the sync time and the mount id.
-   */
-  private final Cache<String, Pair<Long, Long>> mCache;
+  /** Cache of paths which are absent in the ufs, maps an alluxio path to its cache entry. */
+  private final Cache<String, CacheEntry> mCache;
+  /** Filter of the absent paths evicted from the cache, or null if disabled. */
+  @Nullable
+  private final UfsAbsentPathFilter mFilter;
+  private final Counter mFilterHits =
+      MetricsSystem.counter(MetricKey.MASTER_ABSENT_CACHE_FILTER_HITS.getName());
   /** A thread pool for the async tasks. */
   private final ThreadPoolExecutor mPool;
 
@@ -82,8 +89,17 @@ public class AsyncUfsAbsentPathCache implements UfsAbsentPathCache {
     mMountTable = mountTable;
     mClock = clock;
     mCurrentPaths = new ConcurrentHashMap<>(8, 0.95f, 8);
-    mCache = CacheBuilder.newBuilder().maximumSize(MAX_PATHS).concurrencyLevel(Configuration.getInt(
-        PropertyKey.MASTER_UFS_PATH_CACHE_THREADS)).recordStats().build();
+    mFilter = Configuration.getBoolean(PropertyKey.MASTER_UFS_PATH_CACHE_FILTER_ENABLED)
+        ? new UfsAbsentPathFilter(
+            Configuration.getInt(PropertyKey.MASTER_UFS_PATH_CACHE_FILTER_CAPACITY),
+            Configuration.getMs(PropertyKey.MASTER_UFS_PATH_CACHE_FILTER_GENERATION_DURATION))
+        : null;
+    mCache = CacheBuilder.newBuilder()
+        .maximumSize(Configuration.getInt(PropertyKey.MASTER_UFS_PATH_CACHE_CAPACITY))
+        .concurrencyLevel(Configuration.getInt(PropertyKey.MASTER_UFS_PATH_CACHE_THREADS))
+        .recordStats()
+        .<String, CacheEntry>removalListener(this::onCacheRemoval)
+        .build();
     /* Number of threads for the async pool. */
 
     mPool = new ThreadPoolExecutor(numThreads, numThreads, THREAD_KEEP_ALIVE_SECONDS,
@@ -100,6 +116,17 @@ public class AsyncUfsAbsentPathCache implements UfsAbsentPathCache {
     MetricsSystem.registerCachedGaugeIfAbsent(
         MetricKey.MASTER_ABSENT_PATH_CACHE_QUEUE_SIZE.getName(),
         () -> mPool.getQueue().size(), timeout, TimeUnit.MILLISECONDS);
+    if (mFilter != null) {
+      MetricsSystem.registerCachedGaugeIfAbsent(
+          MetricKey.MASTER_ABSENT_CACHE_FILTER_PATHS.getName(),
+          mFilter::getPathCount, timeout, TimeUnit.MILLISECONDS);
+      MetricsSystem.registerCachedGaugeIfAbsent(
+          MetricKey.MASTER_ABSENT_CACHE_FILTER_SIZE_BYTES.getName(),
+          mFilter::getSizeInBytes, timeout, TimeUnit.MILLISECONDS);
+      MetricsSystem.registerCachedGaugeIfAbsent(
+          MetricKey.MASTER_ABSENT_CACHE_FILTER_EXPECTED_FPP.getName(),
+          mFilter::expectedFpp, timeout, TimeUnit.MILLISECONDS);
+    }
   }
 
   @VisibleForTesting
@@ -138,7 +165,7 @@ public class AsyncUfsAbsentPathCache implements UfsAbsentPathCache {
       if (pathLock != null) {
         pathLock.setInvalidate();
       }
-      removeCacheEntry(alluxioUri.getPath());
+      removeCacheEntry(alluxioUri.getPath(), mountInfo);
     }
   }
 
@@ -151,12 +178,18 @@ public class AsyncUfsAbsentPathCache implements UfsAbsentPathCache {
     AlluxioURI mountBaseUri = mountInfo.getAlluxioUri();
 
     while (path != null && !path.equals(mountBaseUri)) {
-      Pair<Long, Long> cacheResult = mCache.getIfPresent(path.getPath());
+      CacheEntry cacheResult = mCache.getIfPresent(path.getPath());
 
-      if (cacheResult != null && cacheResult.getFirst() != null
-          && cacheResult.getSecond() != null
-          && cacheResult.getFirst() >= absentSince
-          && cacheResult.getSecond() == mountInfo.getMountId()) {
+      if (cacheResult != null
+          && cacheResult.mSyncTimeMs >= absentSince
+          && cacheResult.mMountId == mountInfo.getMountId()) {
+        return true;
+      }
+      // A path absent since ALWAYS is never looked up in the UFS again, so a false positive of the
+      // filter would hide an existing path. Only lookups bounded in time use the filter.
+      if (cacheResult == null && mFilter != null && absentSince != ALWAYS
+          && mFilter.mightContainSince(path.getPath(), mountInfo.getMountId(), absentSince)) {
+        mFilterHits.inc();
         return true;
       }
       path = path.getParent();
@@ -209,7 +242,7 @@ public class AsyncUfsAbsentPathCache implements UfsAbsentPathCache {
         }
         if (existsInUfs) {
           // This ufs path exists. Remove the cache entry.
-          removeCacheEntry(alluxioUri.getPath());
+          removeCacheEntry(alluxioUri.getPath(), mountInfo);
         } else {
           // This is the first ufs path which does not exist. Add it to the cache.
           addCacheEntry(alluxioUri.getPath(), mountInfo);
@@ -218,7 +251,7 @@ public class AsyncUfsAbsentPathCache implements UfsAbsentPathCache {
             // This path was marked to be invalidated, meaning this UFS path was just created,
             // and now exists. Invalidate the entry.
             // This check is necessary to avoid the race with the invalidating thread.
-            removeCacheEntry(alluxioUri.getPath());
+            removeCacheEntry(alluxioUri.getPath(), mountInfo);
           } else {
             // Further traversal is unnecessary.
             return false;
@@ -325,12 +358,44 @@ public class AsyncUfsAbsentPathCache implements UfsAbsentPathCache {
 
   private void addCacheEntry(String path, MountInfo mountInfo) {
     LOG.debug("Add cacheEntry={}", path);
-    mCache.put(path, new Pair<>(mClock.millis(), mountInfo.getMountId()));
+    int removalEpoch = mFilter == null ? 0 : mFilter.getRemovalEpoch();
+    mCache.put(path, new CacheEntry(mClock.millis(), mountInfo.getMountId(), removalEpoch));
   }
 
-  private void removeCacheEntry(String path) {
+  private void removeCacheEntry(String path, MountInfo mountInfo) {
     LOG.debug("Remove cacheEntry={}", path);
     mCache.invalidate(path);
+    if (mFilter != null) {
+      mFilter.remove(path, mountInfo.getMountId());
+    }
+  }
+
+  private void onCacheRemoval(RemovalNotification<String, CacheEntry> notification) {
+    if (mFilter != null && notification.getCause() == RemovalCause.SIZE) {
+      CacheEntry value = notification.getValue();
+      // the filter drops the path if it was found to exist since it was cached, so that an
+      // eviction racing with the removal of the path does not add it back
+      mFilter.put(notification.getKey(), value.mMountId, value.mSyncTimeMs,
+          value.mRemovalEpoch);
+    }
+  }
+
+  /**
+   * An absent path in the cache.
+   */
+  private static final class CacheEntry {
+    /** The time the path was found to be absent. */
+    private final long mSyncTimeMs;
+    /** The id of the mount the path belongs to. */
+    private final long mMountId;
+    /** The removal epoch of the filter when the path was cached. */
+    private final int mRemovalEpoch;
+
+    private CacheEntry(long syncTimeMs, long mountId, int removalEpoch) {
+      mSyncTimeMs = syncTimeMs;
+      mMountId = mountId;
+      mRemovalEpoch = removalEpoch;
+    }
   }
 
   /**
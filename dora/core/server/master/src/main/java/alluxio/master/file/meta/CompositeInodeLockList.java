@@ -56,6 +56,12 @@ public class CompositeInodeLockList implements InodeLockList {
         "lockRootEdge is not supported for composite lock lists");
   }
 
+  @Override
+  public void addUnlockedInodes(List<Inode> inodes) {
+    throw new UnsupportedOperationException(
+        "addUnlockedInodes is not supported for composite lock lists");
+  }
+
   @Override
   public void lockInode(Inode inode, LockMode mode) {
     mode = nextLockMode(mode);
@@ -51,6 +51,23 @@ public interface InodeLockList extends AutoCloseable {
    */
   void lockRootEdge(LockMode mode);
 
+  /**
+   * Adds inodes starting from the root to the lock list without locking them, along with the
+   * edges leading to them. This is used for the prefix of a path which was resolved without
+   * locking, and which is validated once the rest of the path is locked. The locks of the list
+   * are all read locks.
+   *
+   * The lock list must be empty to call this method.
+   *
+   * Example
+   * Starting from []
+   *
+   * addUnlockedInodes([/, a]) results in [->/, /, /->a, a], where no element is locked
+   *
+   * @param inodes the inodes to add
+   */
+  void addUnlockedInodes(List<Inode> inodes);
+
   /**
    * Locks the given inode and adds it to the lock list. This method does *not* check that the inode
    * is still a child of the previous inode, or that the inode still exists. This method should only
@@ -29,11 +29,15 @@ import com.google.common.util.concurrent.Striped;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.lang.reflect.Field;
 import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import javax.annotation.Nullable;
 
 /**
  * Class for managing inode locking. We manage locks centrally instead of embedded in the inode
@@ -41,6 +45,37 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
  * use. As a result, we save memory when the inode tree contains many millions of files.
  */
 public class InodeLockManager implements Closeable {
+  /** The version of inodes and edges which are write locked, see {@link #getInodeVersion}. */
+  public static final long WRITE_LOCKED = -1;
+  /** The number of bits to shift a hash to get its version stripe. */
+  private static final int VERSION_STRIPE_SHIFT = 16;
+  /** The low bits of a version, counting the write locks held on inodes or edges of the stripe. */
+  private static final long VERSION_WRITERS_MASK = (1L << 16) - 1;
+  /** The increment of a version whenever a write lock of the stripe is acquired or released. */
+  private static final long VERSION_INCREMENT = 1L << 16;
+  /** Used for the load fence of {@link #loadFence()}. */
+  private static final sun.misc.Unsafe UNSAFE;
+
+  static {
+    try {
+      Field field = sun.misc.Unsafe.class.getDeclaredField("theUnsafe");
+      field.setAccessible(true);
+      UNSAFE = (sun.misc.Unsafe) field.get(null);
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  /**
+   * Versions of the inodes and edges for optimistic reads, striped by their hash codes. The high
+   * bits count the write locks acquired and released on inodes and edges of the stripe, and the
+   * low bits count the write locks currently held. Null if optimistic reads are disabled.
+   */
+  @Nullable
+  private final AtomicLongArray mVersions =
+      Configuration.getBoolean(PropertyKey.MASTER_LOCK_OPTIMISTIC_READ_ENABLED)
+          ? new AtomicLongArray(1 << (Integer.SIZE - VERSION_STRIPE_SHIFT)) : null;
+
   /**
    * Pool for supplying inode locks. To lock an inode, its inode id must be searched in this
    * pool to get the appropriate read lock.
@@ -49,7 +84,7 @@ public class InodeLockManager implements Closeable {
    * a lock, the garbage collector can remove the lock's entry from the pool.
    */
   private final LockPool<Long> mInodeLocks =
-      new LockPool<>((key) -> new ReentrantReadWriteLock(),
+      new LockPool<>(this::createLock,
           Configuration.getInt(PropertyKey.MASTER_LOCK_POOL_INITSIZE),
           Configuration.getInt(PropertyKey.MASTER_LOCK_POOL_LOW_WATERMARK),
           Configuration.getInt(PropertyKey.MASTER_LOCK_POOL_HIGH_WATERMARK),
@@ -58,7 +93,7 @@ public class InodeLockManager implements Closeable {
    * Cache for supplying edge locks, similar to mInodeLocks.
    */
   private final LockPool<Edge> mEdgeLocks =
-      new LockPool<>((key) -> new ReentrantReadWriteLock(),
+      new LockPool<>(this::createLock,
           Configuration.getInt(PropertyKey.MASTER_LOCK_POOL_INITSIZE),
           Configuration.getInt(PropertyKey.MASTER_LOCK_POOL_LOW_WATERMARK),
           Configuration.getInt(PropertyKey.MASTER_LOCK_POOL_HIGH_WATERMARK),
@@ -105,6 +140,61 @@ public class InodeLockManager implements Closeable {
         () -> mEdgeLocks.size());
   }
 
+  private ReentrantReadWriteLock createLock(Object key) {
+    if (mVersions == null) {
+      return new ReentrantReadWriteLock();
+    }
+    return new VersionedReadWriteLock(mVersions, getVersionStripe(key.hashCode()));
+  }
+
+  private static int getVersionStripe(int hash) {
+    return (hash * 0x9E3779B9) >>> VERSION_STRIPE_SHIFT;
+  }
+
+  private long getVersion(int hash) {
+    long version = mVersions.get(getVersionStripe(hash));
+    return (version & VERSION_WRITERS_MASK) != 0 ? WRITE_LOCKED : version;
+  }
+
+  /**
+   * @return whether inode paths may be resolved without locking, see {@link #getInodeVersion}
+   */
+  public boolean isOptimisticReadEnabled() {
+    return mVersions != null;
+  }
+
+  /**
+   * Gets the version of an inode, which changes whenever the inode is write locked or unlocked.
+   * A read of the inode without locking it is valid if the inode has the same version after the
+   * read. Inodes and edges share versions, so a read may be invalidated by unrelated writes.
+   * This requires optimistic reads to be enabled.
+   *
+   * @param inodeId the inode id
+   * @return the version of the inode, or {@link #WRITE_LOCKED} if it may be write locked
+   */
+  public long getInodeVersion(long inodeId) {
+    return getVersion(Long.hashCode(inodeId));
+  }
+
+  /**
+   * Prevents the reads before this call from being reordered after the reads of versions
+   * following it, so that validating the versions also validates the inodes read under them, as
+   * {@link java.util.concurrent.locks.StampedLock#validate(long)} does.
+   */
+  public static void loadFence() {
+    UNSAFE.loadFence();
+  }
+
+  /**
+   * Gets the version of an edge, similar to {@link #getInodeVersion(long)}.
+   *
+   * @param edge the edge
+   * @return the version of the edge, or {@link #WRITE_LOCKED} if it may be write locked
+   */
+  public long getEdgeVersion(Edge edge) {
+    return getVersion(edge.hashCode());
+  }
+
   @VisibleForTesting
   boolean inodeReadLockedByCurrentThread(long inodeId) {
     return mInodeLocks.getRawReadWriteLock(inodeId).getReadHoldCount() > 0;
@@ -242,4 +332,80 @@ public class InodeLockManager implements Closeable {
     mInodeLocks.close();
     mEdgeLocks.close();
   }
+
+  /**
+   * A read-write lock which updates the version of its stripe when its write lock is acquired
+   * or released, including when it is downgraded to the read lock.
+   */
+  private static final class VersionedReadWriteLock extends ReentrantReadWriteLock {
+    private static final long serialVersionUID = 1L;
+
+    private final VersionedWriteLock mWriteLock;
+
+    VersionedReadWriteLock(AtomicLongArray versions, int stripe) {
+      mWriteLock = new VersionedWriteLock(this, versions, stripe);
+    }
+
+    @Override
+    public WriteLock writeLock() {
+      return mWriteLock;
+    }
+  }
+
+  private static final class VersionedWriteLock extends ReentrantReadWriteLock.WriteLock {
+    private static final long serialVersionUID = 1L;
+
+    private final transient AtomicLongArray mVersions;
+    private final int mStripe;
+
+    VersionedWriteLock(ReentrantReadWriteLock lock, AtomicLongArray versions, int stripe) {
+      super(lock);
+      mVersions = versions;
+      mStripe = stripe;
+    }
+
+    @Override
+    public void lock() {
+      super.lock();
+      onLocked();
+    }
+
+    @Override
+    public void lockInterruptibly() throws InterruptedException {
+      super.lockInterruptibly();
+      onLocked();
+    }
+
+    @Override
+    public boolean tryLock() {
+      if (super.tryLock()) {
+        onLocked();
+        return true;
+      }
+      return false;
+    }
+
+    @Override
+    public boolean tryLock(long timeout, TimeUnit unit) throws InterruptedException {
+      if (super.tryLock(timeout, unit)) {
+        onLocked();
+        return true;
+      }
+      return false;
+    }
+
+    @Override
+    public void unlock() {
+      if (getHoldCount() == 1) {
+        mVersions.addAndGet(mStripe, VERSION_INCREMENT - 1);
+      }
+      super.unlock();
+    }
+
+    private void onLocked() {
+      if (getHoldCount() == 1) {
+        mVersions.addAndGet(mStripe, VERSION_INCREMENT + 1);
+      }
+    }
+  }
 }
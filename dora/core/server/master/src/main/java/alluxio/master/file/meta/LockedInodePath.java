@@ -23,14 +23,18 @@ import alluxio.master.file.meta.InodeTree.LockPattern;
 import alluxio.master.journal.FileSystemMergeJournalContext;
 import alluxio.master.journal.JournalContext;
 import alluxio.master.metastore.ReadOnlyInodeStore;
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
 import alluxio.resource.AlluxioResourceLeakDetectorFactory;
 import alluxio.util.io.PathUtils;
 
+import com.codahale.metrics.Counter;
 import com.google.common.base.Preconditions;
 import io.netty.util.ResourceLeakDetector;
 import io.netty.util.ResourceLeakTracker;
 
 import java.io.Closeable;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.locks.Lock;
@@ -65,6 +69,10 @@ public class LockedInodePath implements Closeable {
 
   private static final ResourceLeakDetector<LockedInodePath> DETECTOR =
       AlluxioResourceLeakDetectorFactory.instance().newResourceLeakDetector(LockedInodePath.class);
+  private static final Counter OPTIMISTIC_TRAVERSALS =
+      MetricsSystem.counter(MetricKey.MASTER_OPTIMISTIC_PATH_TRAVERSALS.getName());
+  private static final Counter OPTIMISTIC_TRAVERSAL_CONFLICTS =
+      MetricsSystem.counter(MetricKey.MASTER_OPTIMISTIC_PATH_TRAVERSAL_CONFLICTS.getName());
   /**
    * The root inode of the inode tree. This is needed to bootstrap the inode path.
    */
@@ -87,6 +95,17 @@ public class LockedInodePath implements Closeable {
   private final ResourceLeakTracker<LockedInodePath> mTracker;
   /** To determine if we should flush the journals when lock is released or scope reduced. */
   private final boolean mMergeInodeJournals;
+  /**
+   * The versions read by the optimistic traversal of the path, whose ancestors are not locked.
+   * Null if the path was traversed with locks.
+   */
+  @Nullable
+  private OptimisticTraversal mOptimisticTraversal;
+  /**
+   * Whether the path must be traversed with locks, because an optimistic traversal conflicted
+   * with a concurrent write, or the path was extended.
+   */
+  private boolean mOptimisticDisabled = false;
 
   /**
    * Keeps a reference of JournalContext and flushes it before the lock is released.
@@ -388,6 +407,7 @@ public class LockedInodePath implements Closeable {
    */
   public LockedInodePath lockDescendant(AlluxioURI descendantUri, LockPattern lockPattern)
       throws InvalidPathException {
+    lockAncestors();
     LockedInodePath path = new LockedInodePath(descendantUri, this,
         PathUtils.getPathComponents(descendantUri.getPath()), lockPattern, mUseTryLock);
     path.traverseOrClose();
@@ -437,6 +457,7 @@ public class LockedInodePath implements Closeable {
    */
   public LockedInodePath lockChildByName(String childName, LockPattern lockPattern,
       String[] childComponentsHint) throws InvalidPathException {
+    lockAncestors();
     LockedInodePath path = new LockedInodePath(mUri.joinUnsafe(childName), this,
         childComponentsHint, lockPattern, mUseTryLock);
     path.traverseOrClose();
@@ -459,6 +480,7 @@ public class LockedInodePath implements Closeable {
   public LockedInodePath lockFinalEdgeWrite() throws InvalidPathException {
     Preconditions.checkState(!fullPathExists());
 
+    lockAncestors();
     LockedInodePath newPath =
         new LockedInodePath(mUri, this, mPathComponents, LockPattern.WRITE_EDGE, mUseTryLock);
     newPath.traverse();
@@ -488,6 +510,11 @@ public class LockedInodePath implements Closeable {
    * lock is released, where the journals will be flushed anyway.
    */
   public void traverse() throws InvalidPathException {
+    if (mLockList.isEmpty() && mLockPattern == LockPattern.READ && mPathComponents.length > 1
+        && !mOptimisticDisabled && mLockList.getInodeLockManager().isOptimisticReadEnabled()
+        && traverseOptimistically()) {
+      return;
+    }
     // This locks the root edge and inode.
     bootstrapTraversal();
 
@@ -543,6 +570,151 @@ public class LockedInodePath implements Closeable {
     }
   }
 
+  /**
+   * Traverses the inode path without locking the ancestors of its last existing inode. The
+   * versions of the edges and inodes of the path are read before reading them, then the last
+   * existing inode and the edge leading to it are read locked, and the versions are validated.
+   * If any of them changed, the path is unlocked so that it can be traversed with locks.
+   *
+   * On success, the lock list is in the same state as after a traversal with the READ pattern,
+   * except that the ancestors are not locked. The path is consistent with the state of the inode
+   * tree when the last inode was locked, but the ancestors may be modified afterwards, so reads
+   * of the ancestors must be validated with {@link #validateAncestors()}, and the ancestors are
+   * locked before the path is extended, see {@link #lockAncestors()}.
+   *
+   * @return whether the path was traversed
+   */
+  private boolean traverseOptimistically() {
+    InodeLockManager lockManager = mLockList.getInodeLockManager();
+    List<Inode> inodes = new ArrayList<>(mPathComponents.length);
+    long[] edgeVersions = new long[mPathComponents.length];
+    long[] inodeVersions = new long[mPathComponents.length];
+    edgeVersions[0] = lockManager.getEdgeVersion(SimpleInodeLockList.ROOT_EDGE);
+    inodeVersions[0] = lockManager.getInodeVersion(mRoot.getId());
+    inodes.add(mRoot);
+    int numEdges = 1;
+    while (numEdges < mPathComponents.length) {
+      Inode lastInode = inodes.get(numEdges - 1);
+      if (!lastInode.isDirectory()) {
+        // Let the traversal with locks report the invalid path.
+        return false;
+      }
+      String nextComponent = mPathComponents[numEdges];
+      edgeVersions[numEdges] =
+          lockManager.getEdgeVersion(new Edge(lastInode.getId(), nextComponent));
+      numEdges++;
+      Optional<Inode> nextInode = mInodeStore.getChild(lastInode.asDirectory(), nextComponent);
+      if (!nextInode.isPresent()) {
+        break;
+      }
+      inodeVersions[inodes.size()] = lockManager.getInodeVersion(nextInode.get().getId());
+      inodes.add(nextInode.get());
+    }
+    for (int i = 0; i < numEdges; i++) {
+      if (edgeVersions[i] == InodeLockManager.WRITE_LOCKED
+          || (i < inodes.size() && inodeVersions[i] == InodeLockManager.WRITE_LOCKED)) {
+        OPTIMISTIC_TRAVERSAL_CONFLICTS.inc();
+        return false;
+      }
+    }
+
+    int lastIndex = inodes.size() - 1;
+    mLockList.addUnlockedInodes(inodes.subList(0, lastIndex));
+    if (lastIndex == 0) {
+      mLockList.lockRootEdge(LockMode.READ);
+    } else {
+      mLockList.lockEdge(inodes.get(lastIndex - 1), mPathComponents[lastIndex], LockMode.READ);
+    }
+    OptimisticTraversal traversal =
+        new OptimisticTraversal(inodes, edgeVersions, inodeVersions, numEdges);
+    // The edge must still lead to the last inode before locking it.
+    if (validateVersions(traversal)) {
+      mLockList.lockInode(inodes.get(lastIndex), LockMode.READ);
+      if (validateVersions(traversal)) {
+        mOptimisticTraversal = traversal;
+        OPTIMISTIC_TRAVERSALS.inc();
+        return true;
+      }
+    }
+    mLockList.close();
+    OPTIMISTIC_TRAVERSAL_CONFLICTS.inc();
+    return false;
+  }
+
+  /**
+   * Validates the reads of the ancestors of a path traversed optimistically, e.g. to check
+   * permissions. The ancestors are not locked, so this must be called after reading them. If any
+   * of them was modified since the traversal, the path is traversed again with locks, and the
+   * ancestors must be read again. Paths traversed with locks are always valid.
+   *
+   * @return true if the ancestors were not modified, false if the path was traversed again
+   */
+  public boolean validateAncestors() {
+    if (mOptimisticTraversal == null || validateVersions(mOptimisticTraversal)) {
+      return true;
+    }
+    OPTIMISTIC_TRAVERSAL_CONFLICTS.inc();
+    try {
+      traverseWithLocks();
+    } catch (InvalidPathException e) {
+      // A directory of the path was replaced by a file. The path is locked up to the file, as if
+      // the rest of the path did not exist.
+    }
+    return false;
+  }
+
+  /**
+   * Locks the ancestors of a path traversed optimistically before it is extended, since the
+   * extended path may be used to modify the inode tree below ancestors which are not locked,
+   * e.g. while one of them is renamed. The path is traversed again with locks, so the inodes of
+   * the path must be read again.
+   */
+  private void lockAncestors() throws InvalidPathException {
+    if (mOptimisticTraversal != null) {
+      traverseWithLocks();
+    }
+  }
+
+  /**
+   * Traverses a path traversed optimistically again, with locks.
+   *
+   * @throws InvalidPathException if a directory of the path was replaced by a file, the path is
+   *         then locked up to the file
+   */
+  private void traverseWithLocks() throws InvalidPathException {
+    mOptimisticTraversal = null;
+    mOptimisticDisabled = true;
+    mLockList.close();
+    try {
+      traverse();
+    } catch (InvalidPathException e) {
+      if (!mLockList.endsInInode()) {
+        mLockList.unlockLastEdge();
+      }
+      throw e;
+    }
+  }
+
+  private boolean validateVersions(OptimisticTraversal traversal) {
+    InodeLockManager lockManager = mLockList.getInodeLockManager();
+    // The inodes read before must not be reordered after the versions read below.
+    InodeLockManager.loadFence();
+    for (int i = 0; i < traversal.mNumEdges; i++) {
+      Edge edge = i == 0 ? SimpleInodeLockList.ROOT_EDGE
+          : new Edge(traversal.mInodes.get(i - 1).getId(), mPathComponents[i]);
+      if (lockManager.getEdgeVersion(edge) != traversal.mEdgeVersions[i]) {
+        return false;
+      }
+    }
+    for (int i = 0; i < traversal.mInodes.size(); i++) {
+      if (lockManager.getInodeVersion(traversal.mInodes.get(i).getId())
+          != traversal.mInodeVersions[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   private void bootstrapTraversal() {
     if (!mLockList.isEmpty()) {
       return;
@@ -571,6 +743,7 @@ public class LockedInodePath implements Closeable {
         mTracker.close(this);
       }
       mLockList.close();
+      mOptimisticTraversal = null;
     }
   }
 
@@ -579,6 +752,24 @@ public class LockedInodePath implements Closeable {
     return mUri.toString();
   }
 
+  /**
+   * The inodes of an optimistic traversal, and the versions of the edges and inodes read.
+   */
+  private static final class OptimisticTraversal {
+    private final List<Inode> mInodes;
+    private final long[] mEdgeVersions;
+    private final long[] mInodeVersions;
+    private final int mNumEdges;
+
+    private OptimisticTraversal(List<Inode> inodes, long[] edgeVersions, long[] inodeVersions,
+        int numEdges) {
+      mInodes = inodes;
+      mEdgeVersions = edgeVersions;
+      mInodeVersions = inodeVersions;
+      mNumEdges = numEdges;
+    }
+  }
+
   private void maybeFlushJournals() {
     if (mMergeInodeJournals) {
       try {
@@ -22,6 +22,7 @@ import org.slf4j.LoggerFactory;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.locks.Lock;
 import java.util.stream.Collectors;
 import javax.annotation.concurrent.NotThreadSafe;
@@ -37,7 +38,7 @@ public class SimpleInodeLockList implements InodeLockList {
    * Default value for {@link #mFirstWriteLockIndex} when there is no write lock.
    */
   private static final int NO_WRITE_LOCK_INDEX = -1;
-  private static final Edge ROOT_EDGE = new Edge(-1, "");
+  static final Edge ROOT_EDGE = new Edge(-1, "");
 
   private final InodeLockManager mInodeLockManager;
 
@@ -54,6 +55,7 @@ public class SimpleInodeLockList implements InodeLockList {
    * Lock list.
    * The locks always alternate between Inode lock and Edge lock.
    * The first lock can be either Inode or Edge lock.
+   * The locks of the elements added by {@link #addUnlockedInodes(List)} are null.
    */
   private LinkedList<RWLockResource> mLocks;
   /**
@@ -135,6 +137,17 @@ public class SimpleInodeLockList implements InodeLockList {
     lockAndAddEdge(ROOT_EDGE, mode);
   }
 
+  @Override
+  public void addUnlockedInodes(List<Inode> inodes) {
+    Preconditions.checkState(mLocks.isEmpty(),
+        "Cannot add unlocked inodes when lock list %s is nonempty", this);
+    for (Inode inode : inodes) {
+      addEdgeLock(mInodes.isEmpty() ? ROOT_EDGE
+          : new Edge(mInodes.getLast().getId(), inode.getName()), LockMode.READ, null);
+      addInodeLock(inode, LockMode.READ, null);
+    }
+  }
+
   @Override
   public void pushWriteLockedEdge(Inode inode, String childName) {
     Edge edge = new Edge(inode.getId(), childName);
@@ -180,7 +193,7 @@ public class SimpleInodeLockList implements InodeLockList {
 
   @Override
   public void downgradeToReadLocks() {
-    mLocks.forEach(RWLockResource::downgrade);
+    mLocks.stream().filter(Objects::nonNull).forEach(RWLockResource::downgrade);
     mFirstWriteLockIndex = NO_WRITE_LOCK_INDEX;
   }
 
@@ -222,7 +235,9 @@ public class SimpleInodeLockList implements InodeLockList {
     } catch (Error e) {
       // If adding to mLocks fails due to OOM, this lock
       // will not be tracked so we must close it manually
-      lock.close();
+      if (lock != null) {
+        lock.close();
+      }
       throw e;
     }
   }
@@ -250,7 +265,10 @@ public class SimpleInodeLockList implements InodeLockList {
    * Removes and unlocks the last lock.
    */
   private void removeLastLock() {
-    mLocks.removeLast().close();
+    RWLockResource lock = mLocks.removeLast();
+    if (lock != null) {
+      lock.close();
+    }
     if (mFirstWriteLockIndex >= mLocks.size()) {
       mFirstWriteLockIndex = NO_WRITE_LOCK_INDEX;
     }
@@ -348,7 +366,7 @@ public class SimpleInodeLockList implements InodeLockList {
   @Override
   public void close() {
     mInodes.clear();
-    mLocks.forEach(LockResource::close);
+    mLocks.stream().filter(Objects::nonNull).forEach(LockResource::close);
     mLocks.clear();
   }
 }
@@ -27,6 +27,7 @@ import java.io.EOFException;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.HashSet;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentSkipListSet;
@@ -83,6 +84,21 @@ public final class TtlBucketList implements Checkpointed {
     return mBucketList.stream().mapToInt((bucket) -> bucket.size()).sum();
   }
 
+  /**
+   * @param time the current time
+   * @return how long the oldest bucket whose ttl interval has expired before the given time has
+   *         been waiting to be polled, or 0 if there is no such bucket
+   */
+  public long getExpiryLagMs(long time) {
+    TtlBucket first;
+    try {
+      first = mBucketList.first();
+    } catch (NoSuchElementException e) {
+      return 0;
+    }
+    return Math.max(0, time - first.getTtlIntervalEndTimeMs());
+  }
+
   /**
    * Gets the bucket in the list that contains the inode.
    *
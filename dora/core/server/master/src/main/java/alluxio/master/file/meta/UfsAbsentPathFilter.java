@@ -0,0 +1,305 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.master.file.meta;
+
+import alluxio.client.file.cache.cuckoofilter.CuckooTable;
+import alluxio.client.file.cache.cuckoofilter.CuckooUtils;
+import alluxio.client.file.cache.cuckoofilter.SimpleCuckooTable;
+import alluxio.collections.BuiltinBitSet;
+
+import com.google.common.base.Preconditions;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A compact, approximate set of absent UFS paths, used by {@link AsyncUfsAbsentPathCache} to
+ * remember the paths evicted from its exact cache.
+ *
+ * Paths are kept as 16 bit fingerprints in a cuckoo filter, keyed by the path and the mount id,
+ * so entries of a previous mount never match after a remount. The filter is made of a fixed
+ * number of generations, each sized for the configured capacity. Every generation holds the paths
+ * found absent from its start time on, and is only consulted by lookups that accept entries at
+ * least that old. A new generation is started when the newest one is full, or when it is older
+ * than the generation duration, so that the newest paths stay visible to lookups bounded by a
+ * sync interval longer than that duration. The oldest generation is then dropped, and paths
+ * older than every remaining generation are not added.
+ *
+ * Fingerprints can be deleted, so paths created through Alluxio are removed from the filter. A
+ * deletion may remove the fingerprint of another path sharing it, which only causes an extra UFS
+ * check for that path. Every deletion also records a removal epoch for the bucket of the path, so
+ * that a path found absent before it was removed is not added back, see
+ * {@link #getRemovalEpoch()}.
+ */
+@ThreadSafe
+public final class UfsAbsentPathFilter {
+  private static final int NUM_GENERATIONS = 2;
+  private static final int TAGS_PER_BUCKET = 4;
+  private static final int BITS_PER_TAG = 16;
+  private static final double LOAD_FACTOR = 0.955;
+  /** Maximum number of displacements before an insertion gives up. */
+  private static final int MAX_KICKS = 500;
+  private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+  private final int mCapacity;
+  private final int mNumBuckets;
+  private final long mGenerationDurationMs;
+  /** The generations, newest first. */
+  private final Deque<Generation> mGenerations = new ArrayDeque<>(NUM_GENERATIONS);
+  /** The removal epoch of each bucket, the epoch of the last path of the bucket removed. */
+  private final int[] mRemovalEpochs;
+  /** The number of paths removed. */
+  private final AtomicInteger mRemovalEpoch = new AtomicInteger();
+  private final ReadWriteLock mLock = new ReentrantReadWriteLock();
+
+  /**
+   * Creates a new instance of {@link UfsAbsentPathFilter}.
+   *
+   * @param capacity the number of paths each generation is sized for
+   * @param generationDurationMs the time after which a new generation is started
+   */
+  public UfsAbsentPathFilter(int capacity, long generationDurationMs) {
+    Preconditions.checkArgument(capacity > 0, "capacity must be positive");
+    Preconditions.checkArgument(generationDurationMs > 0,
+        "generation duration must be positive");
+    long numBuckets = CuckooUtils.optimalBuckets(capacity, LOAD_FACTOR, TAGS_PER_BUCKET);
+    Preconditions.checkArgument(numBuckets * TAGS_PER_BUCKET * BITS_PER_TAG <= Integer.MAX_VALUE,
+        "capacity %s is too large for the absent path filter", capacity);
+    mCapacity = capacity;
+    mNumBuckets = (int) numBuckets;
+    mGenerationDurationMs = generationDurationMs;
+    mRemovalEpochs = new int[mNumBuckets];
+  }
+
+  /**
+   * @return the current removal epoch, to be passed to {@link #put(String, long, long, int)} for
+   *         a path found absent now
+   */
+  public int getRemovalEpoch() {
+    return mRemovalEpoch.get();
+  }
+
+  /**
+   * Adds an absent path.
+   *
+   * @param path the Alluxio path
+   * @param mountId the id of the mount the path belongs to
+   * @param syncTimeMs the time the path was found to be absent
+   * @param removalEpoch the removal epoch when the path was found to be absent, the path is not
+   *        added if a path of its bucket was removed since
+   */
+  public void put(String path, long mountId, long syncTimeMs, int removalEpoch) {
+    long hash = hash(path, mountId);
+    mLock.writeLock().lock();
+    try {
+      // the epochs may wrap around, only their distance matters
+      if (mRemovalEpochs[bucket(hash)] - removalEpoch > 0) {
+        return;
+      }
+      Generation newest = mGenerations.peekFirst();
+      Generation target = null;
+      for (Generation generation : mGenerations) {
+        if (generation.mStartMs <= syncTimeMs) {
+          target = generation;
+          break;
+        }
+      }
+      if (target != newest) {
+        // older than the newest generation, add it to the generation of its sync time, unless
+        // that generation was dropped or is full
+        if (target == null || target.isFull()) {
+          return;
+        }
+      } else if (newest == null || newest.isFull()
+          || syncTimeMs - newest.mStartMs >= mGenerationDurationMs) {
+        target = new Generation(syncTimeMs);
+        mGenerations.addFirst(target);
+        if (mGenerations.size() > NUM_GENERATIONS) {
+          mGenerations.removeLast();
+        }
+      }
+      if (target.contains(hash)) {
+        return;
+      }
+      if (!target.insert(hash)) {
+        // The table is too crowded, and a fingerprint was dropped. Start a new generation on the
+        // next insertion.
+        target.mFull = true;
+      }
+    } finally {
+      mLock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * @param path the Alluxio path
+   * @param mountId the id of the mount the path belongs to
+   * @param absentSince the earliest acceptable sync time
+   * @return true if the path may have been found absent at or after the given time
+   */
+  public boolean mightContainSince(String path, long mountId, long absentSince) {
+    long hash = hash(path, mountId);
+    mLock.readLock().lock();
+    try {
+      for (Generation generation : mGenerations) {
+        if (generation.mStartMs >= absentSince && generation.contains(hash)) {
+          return true;
+        }
+      }
+      return false;
+    } finally {
+      mLock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Removes a path, because it is known to exist.
+   *
+   * @param path the Alluxio path
+   * @param mountId the id of the mount the path belongs to
+   */
+  public void remove(String path, long mountId) {
+    long hash = hash(path, mountId);
+    mLock.writeLock().lock();
+    try {
+      mRemovalEpochs[bucket(hash)] = mRemovalEpoch.incrementAndGet();
+      for (Generation generation : mGenerations) {
+        generation.delete(hash);
+      }
+    } finally {
+      mLock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * @return the number of paths in the filter
+   */
+  public long getPathCount() {
+    mLock.readLock().lock();
+    try {
+      long count = 0;
+      for (Generation generation : mGenerations) {
+        count += generation.mCount;
+      }
+      return count;
+    } finally {
+      mLock.readLock().unlock();
+    }
+  }
+
+  /**
+   * @return the memory used by the filter tables in bytes
+   */
+  public long getSizeInBytes() {
+    mLock.readLock().lock();
+    try {
+      long bytes = (long) mRemovalEpochs.length * Integer.BYTES;
+      for (Generation generation : mGenerations) {
+        bytes += generation.mTable.getSizeInBytes();
+      }
+      return bytes;
+    } finally {
+      mLock.readLock().unlock();
+    }
+  }
+
+  /**
+   * @return the expected probability that a lookup of an unknown path reports it absent
+   */
+  public double expectedFpp() {
+    mLock.readLock().lock();
+    try {
+      // A lookup compares against the two candidate buckets of each generation, and matches an
+      // occupied slot with probability 1 / (2^bits - 1), as the zero tag marks an empty slot.
+      double fpp = 0;
+      for (Generation generation : mGenerations) {
+        fpp += 2.0 * generation.mCount / mNumBuckets / ((1 << BITS_PER_TAG) - 1);
+      }
+      return fpp;
+    } finally {
+      mLock.readLock().unlock();
+    }
+  }
+
+  private static long hash(String path, long mountId) {
+    return HASH_FUNCTION.newHasher().putLong(mountId).putString(path, StandardCharsets.UTF_8)
+        .hash().asLong();
+  }
+
+  private int bucket(long hash) {
+    return CuckooUtils.indexHash((int) hash, mNumBuckets);
+  }
+
+  /**
+   * A single cuckoo table, holding the paths found absent from its start time on.
+   */
+  private final class Generation {
+    private final CuckooTable mTable = new SimpleCuckooTable(
+        new BuiltinBitSet(mNumBuckets * TAGS_PER_BUCKET * BITS_PER_TAG), mNumBuckets,
+        TAGS_PER_BUCKET, BITS_PER_TAG);
+    private final long mStartMs;
+    private int mCount = 0;
+    private boolean mFull = false;
+
+    private Generation(long startMs) {
+      mStartMs = startMs;
+    }
+
+    private boolean isFull() {
+      return mFull || mCount >= mCapacity;
+    }
+
+    private boolean contains(long hash) {
+      int tag = tag(hash);
+      int bucket = bucket(hash);
+      int altBucket = CuckooUtils.altIndex(bucket, tag, mNumBuckets);
+      return mTable.findTag(bucket, altBucket, tag).getBucketIndex() >= 0;
+    }
+
+    private boolean insert(long hash) {
+      int tag = tag(hash);
+      int bucket = bucket(hash);
+      for (int kicks = 0; kicks < MAX_KICKS; kicks++) {
+        int victim = mTable.insertOrKickTag(bucket, tag);
+        if (victim == 0) {
+          mCount++;
+          return true;
+        }
+        tag = victim;
+        bucket = CuckooUtils.altIndex(bucket, tag, mNumBuckets);
+      }
+      return false;
+    }
+
+    private void delete(long hash) {
+      int tag = tag(hash);
+      int bucket = bucket(hash);
+      if (mTable.deleteTag(bucket, tag).getBucketIndex() < 0
+          && mTable.deleteTag(CuckooUtils.altIndex(bucket, tag, mNumBuckets), tag)
+              .getBucketIndex() < 0) {
+        return;
+      }
+      mCount--;
+    }
+
+    private int tag(long hash) {
+      return CuckooUtils.tagHash((int) (hash >>> 32), BITS_PER_TAG);
+    }
+  }
+}
@@ -21,6 +21,7 @@ import alluxio.conf.PropertyKey;
 import alluxio.exception.runtime.AlluxioRuntimeException;
 import alluxio.exception.runtime.InternalRuntimeException;
 import alluxio.exception.runtime.InvalidArgumentRuntimeException;
+import alluxio.exception.runtime.UnavailableRuntimeException;
 import alluxio.grpc.JobProgressReportFormat;
 import alluxio.grpc.LoadFileFailure;
 import alluxio.grpc.LoadFileRequest;
@@ -39,7 +40,9 @@ import alluxio.underfs.UfsStatus;
 import alluxio.underfs.UnderFileSystem;
 import alluxio.underfs.UnderFileSystemConfiguration;
 import alluxio.underfs.options.ListOptions;
+import alluxio.util.CommonUtils;
 import alluxio.util.FormatUtils;
+import alluxio.util.io.PathUtils;
 import alluxio.wire.WorkerInfo;
 
 import com.codahale.metrics.Counter;
@@ -77,6 +80,7 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.NotThreadSafe;
 
 /**
@@ -95,6 +99,8 @@ public class DoraLoadJob extends AbstractJob<DoraLoadJob.DoraLoadTask> {
   private static final int RETRY_BLOCK_CAPACITY = 1000;
   private static final double RETRY_THRESHOLD = 0.8 * RETRY_BLOCK_CAPACITY;
   private static final int BATCH_SIZE = Configuration.getInt(PropertyKey.JOB_BATCH_SIZE);
+  private static final long CHECKPOINT_INTERVAL_MS =
+      Configuration.getMs(PropertyKey.JOB_LOAD_CHECKPOINT_INTERVAL);
 
   /* TODO(lucy) add logic to detect loaded files, as currently each file loaded
      status is on each dora worker, so the decision to load or not delegates to
@@ -105,6 +111,7 @@ public class DoraLoadJob extends AbstractJob<DoraLoadJob.DoraLoadTask> {
   private OptionalLong mBandwidth;
   private boolean mUsePartialListing;
   private boolean mVerificationEnabled;
+  private final boolean mSkipIfCached;
 
   // Job states
   private final Queue<String> mRetryFiles = new ArrayDeque<>();
@@ -117,12 +124,26 @@ public class DoraLoadJob extends AbstractJob<DoraLoadJob.DoraLoadTask> {
   //including retry, do accurate stats later.
   private final AtomicLong mTotalFailureCount = new AtomicLong();
   private final AtomicLong mCurrentFailureCount = new AtomicLong();
+  // failed files recorded before the job was restored from a checkpoint
+  private final AtomicLong mRestoredFailedFileCount = new AtomicLong();
   private Optional<AlluxioRuntimeException> mFailedReason = Optional.empty();
   private Iterator<UfsStatus> mUfsStatusIterator;
   private AtomicBoolean mPreparingTasks = new AtomicBoolean(false);
   private final UnderFileSystem mUfs;
   private boolean mLoadMetadataOnly = false;
 
+  // Listing checkpoint states
+  // the listing batches whose tasks are not fully processed, in listing order
+  private final Queue<ListingBatch> mPendingBatches = new ArrayDeque<>();
+  private int mPendingRetryBatchCount = 0;
+  // name of the last status taken from the listing iterator, relative to the load root
+  @Nullable
+  private String mLastListedName;
+  // every status listed up to and including this name has been processed
+  @Nullable
+  private String mListingCheckpoint;
+  private long mLastCheckpointTimeMs = System.currentTimeMillis();
+
   /**
    * Constructor.
    *
@@ -141,6 +162,34 @@ public class DoraLoadJob extends AbstractJob<DoraLoadJob.DoraLoadTask> {
       boolean usePartialListing,
       boolean verificationEnabled,
       boolean loadMetadataOnly) {
+    this(path, user, jobId, bandwidth, usePartialListing, verificationEnabled, loadMetadataOnly,
+        false, null);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param path                file path
+   * @param user                user for authentication
+   * @param jobId               job identifier
+   * @param bandwidth           bandwidth
+   * @param usePartialListing   whether to use partial listing
+   * @param verificationEnabled whether to verify the job after loaded
+   * @param loadMetadataOnly    if set to true, only metadata will be loaded without loading
+   *                            file data
+   * @param skipIfCached        if set to true, workers skip files which are already fully cached
+   *                            and whose fingerprint has not changed
+   * @param listingCheckpoint   the listing checkpoint to resume from, null to list from the
+   *                            beginning
+   */
+  public DoraLoadJob(
+      String path,
+      Optional<String> user, String jobId, OptionalLong bandwidth,
+      boolean usePartialListing,
+      boolean verificationEnabled,
+      boolean loadMetadataOnly,
+      boolean skipIfCached,
+      @Nullable String listingCheckpoint) {
     super(user, jobId, new HashBasedWorkerAssignPolicy());
     mLoadRootAlluxioPath = requireNonNull(path, "path is null");
     mLoadRootAlluxioUri = new AlluxioURI(mLoadRootAlluxioPath);
@@ -157,6 +206,9 @@ public class DoraLoadJob extends AbstractJob<DoraLoadJob.DoraLoadTask> {
         ufsRoot,
         UnderFileSystemConfiguration.defaults(Configuration.global()));
     mLoadMetadataOnly = loadMetadataOnly;
+    mSkipIfCached = skipIfCached;
+    mListingCheckpoint = listingCheckpoint;
+    mLastListedName = listingCheckpoint;
     LOG.info(
         "DoraLoadJob for {} created. {} workers are active",
         path, Preconditions.checkNotNull(Scheduler.getInstance()).getActiveWorkers().size());
@@ -172,8 +224,7 @@ public class DoraLoadJob extends AbstractJob<DoraLoadJob.DoraLoadTask> {
         rootUfsStatus.setUfsFullPath(ufsSyncRootUri);
         mUfsStatusIterator = Iterators.singletonIterator(rootUfsStatus);
       } else {
-        mUfsStatusIterator = mUfs.listStatusIterable(
-            ufsSyncRootUri.toString(), ListOptions.defaults().setRecursive(true), null, 0);
+        mUfsStatusIterator = listUfsStatuses(ufsSyncRootUri, listingCheckpoint);
         if (mUfsStatusIterator == null) {
           mUfsStatusIterator = Collections.emptyIterator();
         } else {
@@ -188,6 +239,56 @@ public class DoraLoadJob extends AbstractJob<DoraLoadJob.DoraLoadTask> {
     }
   }
 
+  /**
+   * Lists the load root recursively, starting after the given checkpoint if any.
+   * Object stores resume the listing on the UFS side with a start-after key. Other UFSes list
+   * everything and skip the statuses up to the checkpoint, or start over if the checkpoint
+   * can no longer be found. Loading a file twice is harmless, so resuming is best-effort.
+   *
+   * @param ufsSyncRootUri the ufs uri of the load root
+   * @param checkpoint the name of the last processed status, relative to the load root
+   * @return the status iterator, or null if the load root is not a directory
+   */
+  @Nullable
+  private Iterator<UfsStatus> listUfsStatuses(AlluxioURI ufsSyncRootUri,
+      @Nullable String checkpoint) throws IOException {
+    ListOptions options = ListOptions.defaults().setRecursive(true);
+    String root = ufsSyncRootUri.toString();
+    if (checkpoint == null) {
+      return mUfs.listStatusIterable(root, options, null, 0);
+    }
+    LOG.info("Resuming listing of load job {} after {}", mJobId, checkpoint);
+    if (mUfs.isObjectStorage()) {
+      String rootKey = CommonUtils.stripPrefixIfPresent(ufsSyncRootUri.getPath(),
+          AlluxioURI.SEPARATOR);
+      String startAfter = rootKey.isEmpty() ? checkpoint : PathUtils.concatPath(rootKey,
+          checkpoint);
+      try {
+        Iterator<UfsStatus> statuses = mUfs.listStatusIterable(root, options, startAfter, 0);
+        return statuses == null ? Collections.emptyIterator() : statuses;
+      } catch (UnsupportedOperationException e) {
+        LOG.debug("UFS {} does not support start-after listing, filtering listing instead",
+            mUfs.getUnderFSType());
+      }
+      // object store listings are ordered by key
+      Iterator<UfsStatus> statuses = mUfs.listStatusIterable(root, options, null, 0);
+      return statuses == null ? null
+          : Iterators.filter(statuses, it -> it.getName().compareTo(checkpoint) > 0);
+    }
+    Iterator<UfsStatus> statuses = mUfs.listStatusIterable(root, options, null, 0);
+    if (statuses == null) {
+      return null;
+    }
+    while (statuses.hasNext()) {
+      if (statuses.next().getName().equals(checkpoint)) {
+        return statuses;
+      }
+    }
+    LOG.warn("Listing checkpoint {} of load job {} not found, listing from the beginning",
+        checkpoint, mJobId);
+    return mUfs.listStatusIterable(root, options, null, 0);
+  }
+
   /**
    * Prepare next set of tasks waiting to be kicked off.
    * it is made sure only one thread should be calling this.
@@ -201,6 +302,7 @@ public class DoraLoadJob extends AbstractJob<DoraLoadJob.DoraLoadTask> {
     int i = 0;
     int startRetryListSize = mRetryFiles.size();
     int filesToLoad = 0;
+    int retryFilesToLoad = 0;
     while (filesToLoad < RETRY_THRESHOLD
         && i++ < startRetryListSize && mRetryFiles.peek() != null) {
       String path = mRetryFiles.poll();
@@ -209,6 +311,7 @@ public class DoraLoadJob extends AbstractJob<DoraLoadJob.DoraLoadTask> {
         uriStatus.setUfsFullPath(new AlluxioURI(path));
         batchBuilder.add(uriStatus);
         ++filesToLoad;
+        ++retryFilesToLoad;
       } catch (IOException e) {
         // The previous list or get might contain stale file metadata.
         // For example, if a file gets removed before the worker actually loads it,
@@ -223,6 +326,7 @@ public class DoraLoadJob extends AbstractJob<DoraLoadJob.DoraLoadTask> {
     while (filesToLoad < BATCH_SIZE * workerNum && mUfsStatusIterator.hasNext()) {
       try {
         UfsStatus ufsStatus = mUfsStatusIterator.next();
+        mLastListedName = ufsStatus.getName();
         batchBuilder.add(ufsStatus);
         ++filesToLoad;
       } catch (AlluxioRuntimeException e) {
@@ -263,7 +367,14 @@ public class DoraLoadJob extends AbstractJob<DoraLoadJob.DoraLoadTask> {
     if (workerToTaskMap.isEmpty()) {
       return Collections.unmodifiableList(new ArrayList<>());
     }
+    ListingBatch batch = new ListingBatch(mLastListedName, workerToTaskMap.size(),
+        retryFilesToLoad > 0);
+    mPendingBatches.offer(batch);
+    if (batch.mHasRetryFiles) {
+      mPendingRetryBatchCount++;
+    }
     List<DoraLoadTask> tasks = workerToTaskMap.values().stream()
+        .peek(task -> task.mBatch = batch)
         .collect(Collectors.toList());
     LOG.debug("prepared tasks:{}", tasks);
     return tasks;
@@ -433,6 +544,8 @@ public class DoraLoadJob extends AbstractJob<DoraLoadJob.DoraLoadTask> {
         .add("Bandwidth", mBandwidth)
         .add("UsePartialListing", mUsePartialListing)
         .add("VerificationEnabled", mVerificationEnabled)
+        .add("SkipIfCached", mSkipIfCached)
+        .add("ListingCheckpoint", mListingCheckpoint)
         .add("RetryFiles", mRetryFiles)
         .add("FailedFiles", mFailedFiles)
         .add("StartTime", mStartTime)
@@ -456,10 +569,19 @@ public class DoraLoadJob extends AbstractJob<DoraLoadJob.DoraLoadTask> {
         .setState(JobState.toProto(mState))
         .setPartialListing(mUsePartialListing)
         .setVerify(mVerificationEnabled)
-        .setJobId(mJobId);
+        .setJobId(mJobId)
+        .setLoadMetadataOnly(mLoadMetadataOnly)
+        .setSkipIfCached(mSkipIfCached)
+        .setProcessedFileCount(mProcessedFileCount.get())
+        .setProcessedDirectoryCount(mProcessedDirectoryCount.get())
+        .setLoadedByteCount(mLoadedByteCount.get())
+        .setFailedFileCount(getFailedFileCount());
     mUser.ifPresent(jobEntry::setUser);
     mBandwidth.ifPresent(jobEntry::setBandwidth);
     mEndTime.ifPresent(jobEntry::setEndTime);
+    if (mListingCheckpoint != null) {
+      jobEntry.setListingCheckpoint(mListingCheckpoint);
+    }
     return Journal.JournalEntry
         .newBuilder()
         .setLoadJob(jobEntry.build())
@@ -539,12 +661,83 @@ public class DoraLoadJob extends AbstractJob<DoraLoadJob.DoraLoadTask> {
       Thread.currentThread().interrupt();
       // We don't count InterruptedException as task failure
       return true;
+    } finally {
+      onTaskProcessed(doraLoadTask);
     }
   }
 
+  /**
+   * Advances the listing checkpoint once all tasks of the oldest listing batches are processed,
+   * and journals the job progress if the checkpoint interval has elapsed.
+   * The checkpoint never moves while there are files waiting for retry, as those files would
+   * otherwise be lost when the job is resumed from the checkpoint.
+   *
+   * @param task the processed task
+   */
+  private void onTaskProcessed(DoraLoadTask task) {
+    ListingBatch batch = task.mBatch;
+    if (batch == null) {
+      return;
+    }
+    task.mBatch = null;
+    batch.mPendingTaskCount--;
+    if (batch.mPendingTaskCount == 0 && batch.mHasRetryFiles) {
+      mPendingRetryBatchCount--;
+    }
+    String checkpoint = mListingCheckpoint;
+    while (!mPendingBatches.isEmpty() && mPendingBatches.peek().mPendingTaskCount == 0
+        && mRetryFiles.isEmpty() && mPendingRetryBatchCount == 0) {
+      checkpoint = mPendingBatches.poll().mLastListedName;
+    }
+    if (checkpoint == null || checkpoint.equals(mListingCheckpoint)) {
+      return;
+    }
+    mListingCheckpoint = checkpoint;
+    long now = System.currentTimeMillis();
+    if (isRunning() && now - mLastCheckpointTimeMs >= CHECKPOINT_INTERVAL_MS) {
+      mLastCheckpointTimeMs = now;
+      try {
+        Scheduler.getInstance().getJobMetaStore().updateJob(this);
+      } catch (UnavailableRuntimeException e) {
+        LOG.warn("Failed to journal the listing checkpoint of load job {}, will retry later",
+            mJobId, e);
+      }
+    }
+  }
+
+  /**
+   * Restores the progress counters journaled with the last listing checkpoint.
+   *
+   * @param processedFileCount the number of processed files
+   * @param processedDirectoryCount the number of processed directories
+   * @param loadedByteCount the number of loaded bytes
+   * @param failedFileCount the number of failed files
+   */
+  public void restoreProgress(long processedFileCount, long processedDirectoryCount,
+      long loadedByteCount, long failedFileCount) {
+    mProcessedFileCount.set(processedFileCount);
+    mProcessedDirectoryCount.set(processedDirectoryCount);
+    mLoadedByteCount.set(loadedByteCount);
+    mRestoredFailedFileCount.set(failedFileCount);
+  }
+
+  /**
+   * @return the name of the last listed status, relative to the load root, up to which all
+   * listed statuses have been processed, or null if no checkpoint has been made
+   */
+  @VisibleForTesting
+  @Nullable
+  public String getListingCheckpoint() {
+    return mListingCheckpoint;
+  }
+
+  private long getFailedFileCount() {
+    return mRestoredFailedFileCount.get() + mFailedFiles.size();
+  }
+
   @Override
   public boolean hasFailure() {
-    return !mFailedFiles.isEmpty();
+    return getFailedFileCount() > 0;
   }
 
   /**
@@ -563,6 +756,9 @@ public class DoraLoadJob extends AbstractJob<DoraLoadJob.DoraLoadTask> {
   public class DoraLoadTask extends Task<LoadFileResponse> {
 
     protected List<UfsStatus> mFilesToLoad;
+    // the listing batch this task belongs to, null once processed
+    @Nullable
+    private ListingBatch mBatch;
 
     /**
      * Constructor.
@@ -605,6 +801,7 @@ public class DoraLoadJob extends AbstractJob<DoraLoadJob.DoraLoadTask> {
       mUser.ifPresent(ufsReadOptions::setUser);
       loadFileReqBuilder.setOptions(ufsReadOptions);
       loadFileReqBuilder.setLoadMetadataOnly(mLoadMetadataOnly);
+      loadFileReqBuilder.setSkipIfCached(mSkipIfCached);
       return workerClient.loadFile(loadFileReqBuilder.build());
     }
 
@@ -623,6 +820,27 @@ public class DoraLoadJob extends AbstractJob<DoraLoadJob.DoraLoadTask> {
     }
   }
 
+  /**
+   * A batch of tasks prepared from one round of listing.
+   */
+  private static class ListingBatch {
+    @Nullable
+    private final String mLastListedName;
+    private final boolean mHasRetryFiles;
+    private int mPendingTaskCount;
+
+    /**
+     * @param lastListedName the name of the last listed status when the batch was prepared
+     * @param taskCount the number of tasks in the batch
+     * @param hasRetryFiles whether the batch contains files to retry
+     */
+    ListingBatch(@Nullable String lastListedName, int taskCount, boolean hasRetryFiles) {
+      mLastListedName = lastListedName;
+      mPendingTaskCount = taskCount;
+      mHasRetryFiles = hasRetryFiles;
+    }
+  }
+
   private static class LoadProgressReport {
     private final boolean mVerbose;
     private final JobState mJobState;
@@ -670,7 +888,7 @@ public class DoraLoadJob extends AbstractJob<DoraLoadJob.DoraLoadTask> {
           ((double) (job.mTotalFailureCount.get())
               / (mProcessedFileCount + mProcessedDirectoryCount)) * 100;
       mFailureReason = job.mFailedReason.orElse(null);
-      mFailedFileCount = job.mFailedFiles.size();
+      mFailedFileCount = job.getFailedFileCount();
       if (verbose && mFailedFileCount > 0) {
         mFailedFilesWithReasons = job.mFailedFiles;
       } else {
@@ -46,7 +46,12 @@ public class JournalLoadJobFactory implements JobFactory {
         mJobEntry.hasUser() ? Optional.of(mJobEntry.getUser()) : Optional.empty();
     DoraLoadJob job = new DoraLoadJob(mJobEntry.getLoadPath(), user, mJobEntry.getJobId(),
         mJobEntry.hasBandwidth() ? OptionalLong.of(mJobEntry.getBandwidth()) : OptionalLong.empty(),
-        mJobEntry.getPartialListing(), mJobEntry.getVerify(), mJobEntry.getLoadMetadataOnly());
+        mJobEntry.getPartialListing(), mJobEntry.getVerify(), mJobEntry.getLoadMetadataOnly(),
+        mJobEntry.getSkipIfCached(),
+        mJobEntry.hasListingCheckpoint() ? mJobEntry.getListingCheckpoint() : null);
+    job.restoreProgress(mJobEntry.getProcessedFileCount(),
+        mJobEntry.getProcessedDirectoryCount(), mJobEntry.getLoadedByteCount(),
+        mJobEntry.getFailedFileCount());
     job.setJobState(JobState.fromProto(mJobEntry.getState()), false);
     if (mJobEntry.hasEndTime()) {
       job.setEndTime(mJobEntry.getEndTime());
@@ -52,7 +52,9 @@ public class LoadJobFactory implements JobFactory {
         bandwidth,
         partialListing,
         verificationEnabled,
-        options.getLoadMetadataOnly()
+        options.getLoadMetadataOnly(),
+        options.getSkipIfCached(),
+        null
     );
   }
 }
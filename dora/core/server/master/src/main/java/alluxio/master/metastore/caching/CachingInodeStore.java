@@ -36,6 +36,7 @@ import alluxio.master.metastore.ReadOption;
 import alluxio.master.metastore.heap.HeapInodeStore;
 import alluxio.metrics.MetricKey;
 import alluxio.metrics.MetricsSystem;
+import alluxio.proto.meta.InodeMeta;
 import alluxio.resource.CloseableIterator;
 import alluxio.resource.LockResource;
 import alluxio.resource.RWLockResource;
@@ -46,7 +47,11 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Stopwatch;
 import com.google.common.base.Throwables;
+import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Maps;
+import com.google.common.collect.PeekingIterator;
 import com.google.common.collect.Sets;
 import com.google.common.io.Closer;
 import io.grpc.Status;
@@ -57,6 +62,7 @@ import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
@@ -101,18 +107,29 @@ import javax.annotation.concurrent.ThreadSafe;
  * <p>
  * See the javadoc for {@link InodeCache}, {@link EdgeCache}, and {@link ListingCache} for details
  * about their inner workings.
+ * <p>
+ * When {@link PropertyKey#MASTER_METASTORE_INODE_CACHE_OFF_HEAP_ENABLED} is set, the inode cache
+ * is replaced by an {@link OffHeapInodeCache}, which keeps the inodes serialized off-heap.
  */
 @ThreadSafe
 public final class CachingInodeStore implements InodeStore, Closeable {
   private static final Logger LOG = LoggerFactory.getLogger(CachingInodeStore.class);
+  /** The number of cached children merged with the backing store at a time in paged listings. */
+  private static final int CHILD_ID_BATCH_SIZE = 1000;
 
   private final InodeStore mBackingStore;
   private final InodeLockManager mLockManager;
 
-  // Cache recently-accessed inodes.
+  // Cache recently-accessed inodes, null if they are cached off-heap.
   @VisibleForTesting
+  @Nullable
   final InodeCache mInodeCache;
 
+  // Cache recently-accessed inodes off-heap, null if they are cached on-heap.
+  @VisibleForTesting
+  @Nullable
+  final OffHeapInodeCache mOffHeapInodeCache;
+
   // Cache recently-accessed inode tree edges.
   @VisibleForTesting
   final EdgeCache mEdgeCache;
@@ -154,16 +171,24 @@ public final class CachingInodeStore implements InodeStore, Closeable {
         .setHighWaterMark(highWaterMark).setLowWaterMark(lowWaterMark)
         .setEvictBatchSize(conf.getInt(PropertyKey.MASTER_METASTORE_INODE_CACHE_EVICT_BATCH_SIZE))
         .build();
-    mInodeCache = new InodeCache(cacheConf);
+    if (conf.getBoolean(PropertyKey.MASTER_METASTORE_INODE_CACHE_OFF_HEAP_ENABLED)) {
+      mInodeCache = null;
+      mOffHeapInodeCache = new OffHeapInodeCache(cacheConf,
+          conf.getInt(PropertyKey.MASTER_METASTORE_INODE_CACHE_OFF_HEAP_HOT_SET_SIZE));
+    } else {
+      mInodeCache = new InodeCache(cacheConf);
+      mOffHeapInodeCache = null;
+    }
     mEdgeCache = new EdgeCache(cacheConf);
     mListingCache = new ListingCache(cacheConf);
     if (conf.getBoolean(PropertyKey.MASTER_METRICS_HEAP_ENABLED)) {
       MetricsSystem.registerCachedGaugeIfAbsent(MetricKey.MASTER_INODE_HEAP_SIZE.getName(),
           () -> {
             try {
-              return ObjectSizeCalculator.getObjectSize(mInodeCache.mMap,
-                  ImmutableSet.of(Long.class, MutableInodeFile.class, MutableInodeDirectory.class))
-                  + ObjectSizeCalculator.getObjectSize(mEdgeCache.mMap,
+              long inodeCacheSize = mInodeCache == null ? 0
+                  : ObjectSizeCalculator.getObjectSize(mInodeCache.mMap, ImmutableSet.of(
+                      Long.class, MutableInodeFile.class, MutableInodeDirectory.class));
+              return inodeCacheSize + ObjectSizeCalculator.getObjectSize(mEdgeCache.mMap,
                   ImmutableSet.of(Long.class, Edge.class))
                   + ObjectSizeCalculator.getObjectSize(mListingCache.mMap,
                   ImmutableSet.of(Long.class, ListingCache.ListingCacheEntry.class));
@@ -177,17 +202,38 @@ public final class CachingInodeStore implements InodeStore, Closeable {
 
   @Override
   public Optional<MutableInode<?>> getMutable(long id, ReadOption option) {
+    if (mOffHeapInodeCache != null) {
+      return mOffHeapInodeCache.get(id, option);
+    }
     return mInodeCache.get(id, option);
   }
 
+  @Override
+  public Optional<Inode> get(long id, ReadOption option) {
+    if (mOffHeapInodeCache != null) {
+      // Read only inodes can share the deserialized inodes of the hot set, as they are never
+      // modified.
+      return mOffHeapInodeCache.getShared(id, option).map(Inode::wrap);
+    }
+    return mInodeCache.get(id, option).map(Inode::wrap);
+  }
+
   @Override
   public void remove(Long inodeId) {
-    mInodeCache.remove(inodeId);
+    if (mOffHeapInodeCache != null) {
+      mOffHeapInodeCache.remove(inodeId);
+    } else {
+      mInodeCache.remove(inodeId);
+    }
   }
 
   @Override
   public void writeInode(MutableInode<?> inode) {
-    mInodeCache.put(inode.getId(), inode);
+    if (mOffHeapInodeCache != null) {
+      mOffHeapInodeCache.put(inode.getId(), inode);
+    } else {
+      mInodeCache.put(inode.getId(), inode);
+    }
   }
 
   @Override
@@ -195,12 +241,16 @@ public final class CachingInodeStore implements InodeStore, Closeable {
     if (inode.isDirectory()) {
       mListingCache.addEmptyDirectory(inode.getId());
     }
-    mInodeCache.putNewEntry(inode.getId(), inode);
+    if (mOffHeapInodeCache != null) {
+      mOffHeapInodeCache.put(inode.getId(), inode);
+    } else {
+      mInodeCache.putNewEntry(inode.getId(), inode);
+    }
   }
 
   @Override
   public void clear() {
-    mInodeCache.clear();
+    clearInodeCache();
     mEdgeCache.clear();
     mBackingStore.clear();
   }
@@ -249,6 +299,9 @@ public final class CachingInodeStore implements InodeStore, Closeable {
   @VisibleForTesting
   @Override
   public Set<MutableInode<?>> allInodes() {
+    if (mOffHeapInodeCache != null) {
+      return mOffHeapInodeCache.allInodes();
+    }
     return mInodeCache.allInodes();
   }
 
@@ -257,7 +310,7 @@ public final class CachingInodeStore implements InodeStore, Closeable {
     Closer closer = Closer.create();
     // Close the backing store last so that cache eviction threads don't hit errors.
     closer.register(mBackingStore);
-    closer.register(mInodeCache);
+    closer.register(mOffHeapInodeCache != null ? mOffHeapInodeCache : mInodeCache);
     closer.register(mEdgeCache);
     try {
       closer.close();
@@ -277,7 +330,7 @@ public final class CachingInodeStore implements InodeStore, Closeable {
     return CompletableFuture.runAsync(() -> {
       LOG.info("Flushing inodes to backing store");
       try {
-        mInodeCache.flush();
+        flushInodeCache();
         mEdgeCache.flush();
       } catch (InterruptedException e) {
         throw new AlluxioRuntimeException(Status.INTERNAL,
@@ -292,7 +345,7 @@ public final class CachingInodeStore implements InodeStore, Closeable {
   @Override
   public void writeToCheckpoint(OutputStream output) throws IOException, InterruptedException {
     LOG.info("Flushing inodes to backing store");
-    mInodeCache.flush();
+    flushInodeCache();
     mEdgeCache.flush();
     LOG.info("Finished flushing inodes to backing store");
     mBackingStore.writeToCheckpoint(output);
@@ -302,7 +355,7 @@ public final class CachingInodeStore implements InodeStore, Closeable {
   public CompletableFuture<Void> restoreFromCheckpoint(File directory,
                                                        ExecutorService executorService) {
     return CompletableFuture.runAsync(() -> {
-      mInodeCache.clear();
+      clearInodeCache();
       mEdgeCache.clear();
       mListingCache.clear();
       mBackingStore.restoreFromCheckpoint(directory, executorService).join();
@@ -312,13 +365,29 @@ public final class CachingInodeStore implements InodeStore, Closeable {
 
   @Override
   public void restoreFromCheckpoint(CheckpointInputStream input) throws IOException {
-    mInodeCache.clear();
+    clearInodeCache();
     mEdgeCache.clear();
     mListingCache.clear();
     mBackingStore.restoreFromCheckpoint(input);
     mBackingStoreEmpty = false;
   }
 
+  private void flushInodeCache() throws InterruptedException {
+    if (mOffHeapInodeCache != null) {
+      mOffHeapInodeCache.flush();
+    } else {
+      mInodeCache.flush();
+    }
+  }
+
+  private void clearInodeCache() {
+    if (mOffHeapInodeCache != null) {
+      mOffHeapInodeCache.clear();
+    } else {
+      mInodeCache.clear();
+    }
+  }
+
   /**
    * Cache for inode metadata.
    * <p>
@@ -419,6 +488,95 @@ public final class CachingInodeStore implements InodeStore, Closeable {
     }
   }
 
+  /**
+   * Cache for inode metadata which keeps the inodes serialized off-heap.
+   * <p>
+   * Unlike {@link InodeCache}, the cache never hands out the cached inode objects, so inodes can
+   * be flushed without locking them. Callers must write back the inodes they modify. The inodes
+   * of the hot set are only handed out wrapped as read only {@link Inode}s.
+   */
+  @VisibleForTesting
+  class OffHeapInodeCache extends OffHeapCache<MutableInode<?>> {
+    public OffHeapInodeCache(CacheConfiguration conf, int hotSetSize) {
+      super(conf, hotSetSize, "inode-cache", MetricKey.MASTER_INODE_CACHE_EVICTIONS,
+          MetricKey.MASTER_INODE_CACHE_HITS, MetricKey.MASTER_INODE_CACHE_LOAD_TIMES,
+          MetricKey.MASTER_INODE_CACHE_MISSES, MetricKey.MASTER_INODE_CACHE_SIZE,
+          MetricKey.MASTER_INODE_CACHE_OFF_HEAP_SIZE);
+    }
+
+    @Override
+    protected byte[] serialize(MutableInode<?> inode) {
+      return inode.toProto().toByteArray();
+    }
+
+    @Override
+    protected MutableInode<?> deserialize(byte[] bytes) {
+      try {
+        return MutableInode.fromProto(InodeMeta.Inode.parseFrom(bytes));
+      } catch (Exception e) {
+        throw new RuntimeException(e);
+      }
+    }
+
+    @Override
+    protected Optional<MutableInode<?>> load(long id) {
+      if (mBackingStoreEmpty) {
+        return Optional.empty();
+      }
+      return mBackingStore.getMutable(id, ReadOption.defaults());
+    }
+
+    @Override
+    protected void writeToBackingStore(long key, MutableInode<?> value) {
+      mBackingStoreEmpty = false;
+      mBackingStore.writeInode(value);
+    }
+
+    @Override
+    protected void removeFromBackingStore(long key) {
+      if (!mBackingStoreEmpty) {
+        mBackingStore.remove(key);
+      }
+    }
+
+    @Override
+    protected void flushEntries(List<FlushEntry> entries) {
+      mBackingStoreEmpty = false;
+      boolean useBatch = entries.size() > 0 && mBackingStore.supportsBatchWrite();
+      try (WriteBatch batch = useBatch ? mBackingStore.createWriteBatch() : null) {
+        for (FlushEntry entry : entries) {
+          if (entry.mValue == null) {
+            if (useBatch) {
+              batch.removeInode(entry.mKey);
+            } else {
+              mBackingStore.remove(entry.mKey);
+            }
+          } else {
+            if (useBatch) {
+              batch.writeInode(entry.mValue);
+            } else {
+              mBackingStore.writeInode(entry.mValue);
+            }
+          }
+        }
+        if (useBatch) {
+          batch.commit();
+        }
+      }
+    }
+
+    private Set<MutableInode<?>> allInodes() {
+      Map<Long, MutableInode<?>> cacheMap = getCacheMap();
+      Set<MutableInode<?>> cached = cacheMap.values().stream()
+          .filter(inode -> inode != null).collect(toSet());
+      Set<Long> unflushedRemoves = cacheMap.entrySet().stream()
+          .filter(entry -> entry.getValue() == null).map(Entry::getKey).collect(toSet());
+      Set<MutableInode<?>> flushed = mBackingStore.allInodes().stream()
+          .filter(inode -> !unflushedRemoves.contains(inode.getId())).collect(toSet());
+      return Sets.union(cached, flushed);
+    }
+  }
+
   /**
    * Cache for edge metadata.
    * <p>
@@ -440,6 +598,8 @@ public final class CachingInodeStore implements InodeStore, Closeable {
     // children.
     @VisibleForTesting
     Map<Long, Set<String>> mUnflushedDeletes = new ConcurrentHashMap<>();
+    @VisibleForTesting
+    int mChildIdBatchSize = CHILD_ID_BATCH_SIZE;
 
     public EdgeCache(CacheConfiguration conf) {
       super(conf, "edge-cache", MetricKey.MASTER_EDGE_CACHE_EVICTIONS,
@@ -491,6 +651,125 @@ public final class CachingInodeStore implements InodeStore, Closeable {
       return childIds;
     }
 
+    /**
+     * Gets the child ids for an inode from the start name and within the prefix of the given read
+     * options. Unlike {@link #getChildIds(Long, ReadOption)}, the backing store is read lazily
+     * from the start name as the returned iterator advances, so reading a page of a large
+     * directory only loads the inodes of that page. The consistency guarantees are the same as
+     * for {@link #getChildIds(Long, ReadOption)}.
+     *
+     * @param inodeId the inode to get the children for
+     * @param option  the read options
+     * @return an iterator over the ids of the children, sorted by name
+     */
+    public CloseableIterator<Long> getChildIdsFrom(Long inodeId, ReadOption option) {
+      SortedMap<String, Long> cachedChildren =
+          mIdToChildMap.getOrDefault(inodeId, Collections.emptySortedMap());
+      if (mBackingStoreEmpty) {
+        return CloseableIterator.noopCloseable(sortedMapToIterator(cachedChildren, option));
+      }
+      String prefix = option.getPrefix();
+      String start = option.getStartFrom();
+      if (prefix != null && (start == null || prefix.compareTo(start) > 0)) {
+        start = prefix;
+      }
+      ChildIdIterator iterator = new ChildIdIterator(inodeId, cachedChildren, option, start);
+      return CloseableIterator.create(iterator, (any) -> iterator.close());
+    }
+
+    /**
+     * Merges the cached children of an inode with the children in the backing store, in batches
+     * of cached children. As in {@link #getChildIds(Long, ReadOption)}, each batch reads the
+     * cache before the backing store, so that children evicted concurrently are not missed. The
+     * backing store is only read up to the last cached child of the batch, and the last batch
+     * reads the rest of the backing store lazily.
+     */
+    private final class ChildIdIterator extends AbstractIterator<Long> implements Closeable {
+      private final Long mInodeId;
+      private final SortedMap<String, Long> mCachedChildren;
+      private final ReadOption mOption;
+      private PeekingIterator<Map.Entry<String, Long>> mFromCache;
+      private PeekingIterator<Map.Entry<String, Long>> mFromStore;
+      private CloseableIterator<Long> mStoreIter;
+      /** The last cached child of the batch, or null if the batch has all the cached children. */
+      @Nullable
+      private String mBatchEnd;
+
+      private ChildIdIterator(Long inodeId, SortedMap<String, Long> cachedChildren,
+          ReadOption option, @Nullable String start) {
+        mInodeId = inodeId;
+        mCachedChildren = cachedChildren;
+        mOption = option;
+        loadBatch(start);
+      }
+
+      /**
+       * @param start the first child name of the batch, or null to start from the first child
+       */
+      private void loadBatch(@Nullable String start) {
+        String prefix = mOption.getPrefix();
+        List<Map.Entry<String, Long>> cached = new ArrayList<>();
+        for (Map.Entry<String, Long> child : (start == null ? mCachedChildren
+            : mCachedChildren.tailMap(start)).entrySet()) {
+          if (prefix != null && !child.getKey().startsWith(prefix)) {
+            break;
+          }
+          cached.add(Maps.immutableEntry(child.getKey(), child.getValue()));
+          if (cached.size() == mChildIdBatchSize) {
+            break;
+          }
+        }
+        mBatchEnd = cached.size() == mChildIdBatchSize
+            ? cached.get(cached.size() - 1).getKey() : null;
+        Set<String> unflushedDeletes =
+            new HashSet<>(mUnflushedDeletes.getOrDefault(mInodeId, Collections.emptySet()));
+        if (mStoreIter != null) {
+          mStoreIter.close();
+        }
+        mStoreIter = mBackingStore.getChildIds(mInodeId, ReadOption.newBuilder()
+            .setSkipCache(mOption.shouldSkipCache()).setPrefix(prefix).setReadFrom(start)
+            .build());
+        mFromCache = Iterators.peekingIterator(cached.iterator());
+        mFromStore = Iterators.peekingIterator(Iterators.filter(
+            Iterators.transform(mStoreIter, childId -> CachingInodeStore.this.get(childId, mOption)
+                .map(inode -> Maps.immutableEntry(inode.getName(), inode.getId())).orElse(null)),
+            child -> child != null && !unflushedDeletes.contains(child.getKey())));
+      }
+
+      @Override
+      protected Long computeNext() {
+        while (true) {
+          boolean storeHasNext = mFromStore.hasNext()
+              && (mBatchEnd == null || mFromStore.peek().getKey().compareTo(mBatchEnd) <= 0);
+          if (!mFromCache.hasNext()) {
+            if (storeHasNext) {
+              return mFromStore.next().getValue();
+            }
+            if (mBatchEnd == null) {
+              return endOfData();
+            }
+            // the smallest name after the end of the batch
+            loadBatch(mBatchEnd + '\0');
+            continue;
+          }
+          if (!storeHasNext) {
+            return mFromCache.next().getValue();
+          }
+          int cmp = mFromCache.peek().getKey().compareTo(mFromStore.peek().getKey());
+          if (cmp == 0) {
+            // the cached edge is the most recent one
+            mFromStore.next();
+          }
+          return cmp <= 0 ? mFromCache.next().getValue() : mFromStore.next().getValue();
+        }
+      }
+
+      @Override
+      public void close() {
+        mStoreIter.close();
+      }
+    }
+
     @Override
     protected Optional<Long> load(Edge edge) {
       if (mBackingStoreEmpty) {
@@ -762,6 +1041,9 @@ public final class CachingInodeStore implements InodeStore, Closeable {
      */
     public CloseableIterator<Long> getChildIds(Long inodeId, ReadOption option) {
       evictIfNecessary();
+      if (option.getStartFrom() != null || option.getPrefix() != null) {
+        return getPartialChildIds(inodeId, option);
+      }
       AtomicBoolean createdNewEntry = new AtomicBoolean(false);
       ListingCacheEntry entry = mMap.compute(inodeId, (key, value) -> {
         if (value == null) {
@@ -788,6 +1070,26 @@ public final class CachingInodeStore implements InodeStore, Closeable {
       return CloseableIterator.noopCloseable(sortedMapToIterator(childMap, option));
     }
 
+    /**
+     * Gets the children of an inode from a start name or within a prefix, as when a directory is
+     * listed page by page. If the listing is not cached, the children are streamed from the edge
+     * cache rather than loading the complete listing, so each page only costs its own size.
+     *
+     * @param inodeId the inode directory id
+     * @param option  the read options
+     * @return the ids of the children of the directory
+     */
+    private CloseableIterator<Long> getPartialChildIds(Long inodeId, ReadOption option) {
+      ListingCacheEntry entry = mMap.get(inodeId);
+      if (entry != null && entry.mChildren != null) {
+        mStatsCounter.recordHit();
+        entry.mReferenced = true;
+        return CloseableIterator.noopCloseable(sortedMapToIterator(entry.mChildren, option));
+      }
+      mStatsCounter.recordMiss();
+      return mEdgeCache.getChildIdsFrom(inodeId, option);
+    }
+
     public void clear() {
       mMap.clear();
       mWeight.set(0);
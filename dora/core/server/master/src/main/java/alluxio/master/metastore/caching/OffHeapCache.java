@@ -0,0 +1,1063 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.master.metastore.caching;
+
+import alluxio.Constants;
+import alluxio.master.metastore.ReadOption;
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
+import alluxio.util.io.BufferUtils;
+import alluxio.util.logging.SamplingLogger;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Stopwatch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.lang.Thread.State;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Base class for write-back caches which keep their values serialized in off-heap memory, and
+ * asynchronously evict entries to backing stores.
+ *
+ * The cache has the semantics of {@link Cache}, but it is keyed by primitive longs and keeps no
+ * object per entry on-heap. The entries are partitioned into segments, each of which is an open
+ * addressing hash table of primitive arrays guarded by a read-write lock. The values are
+ * serialized into chunks of off-heap slabs, which are allocated in power of 2 size classes and
+ * reused through per size class free lists. As values are deserialized on every access, callers
+ * must write back the values they modify, as with any serializing backing store.
+ *
+ * To avoid deserializing hot entries on every read, {@link #getShared(long, ReadOption)} keeps the
+ * values it deserializes in a small 2-way set associative hot set, along with the version of their
+ * entry. A value of the hot set is only returned while its entry has not been written since, and
+ * it is shared by all readers, which must not modify it.
+ *
+ * The cache uses the water mark based eviction of {@link Cache}: a dedicated thread waits for the
+ * cache to reach its high water mark, then evicts entries using the CLOCK algorithm until the
+ * cache size reaches the low water mark. Dirty entries are flushed to the backing store before
+ * they are evicted. Flushes are serialized, so that the backing store never receives an older
+ * value of a key after a newer one.
+ *
+ * @param <V> the cache value type
+ */
+@ThreadSafe
+public abstract class OffHeapCache<V> implements Closeable {
+  private static final Logger LOG = LoggerFactory.getLogger(OffHeapCache.class);
+
+  private static final int SEGMENT_BITS = 6;
+  private static final int INITIAL_SEGMENT_CAPACITY = 16;
+  private static final int MIN_CHUNK_BITS = 6;
+  private static final int MAX_CHUNK_BITS = 20;
+  /** The maximum size of a serialized value, larger values are written through. */
+  @VisibleForTesting
+  static final int MAX_VALUE_SIZE = 1 << MAX_CHUNK_BITS;
+  private static final int INITIAL_SLAB_SIZE = 64 * Constants.KB;
+  private static final int MAX_SLAB_SIZE = 4 * Constants.MB;
+  // The address of the entries of removed keys, which still need to be removed from the backing
+  // store.
+  private static final long NO_VALUE = -1;
+
+  private static final byte USED = 1;
+  // Whether the entry is out of sync with the backing store.
+  private static final byte DIRTY = 2;
+  // Whether the entry has been recently accessed, as the "referenced" bit of the CLOCK algorithm.
+  private static final byte REFERENCED = 4;
+
+  private final int mMaxSize;
+  private final int mHighWaterMark;
+  private final int mLowWaterMark;
+  private final int mEvictBatchSize;
+  private final String mName;
+  private final Segment[] mSegments;
+  private final AtomicInteger mSize = new AtomicInteger();
+  private final AtomicLong mOffHeapBytes = new AtomicLong();
+  // Held while flushing entries to the backing store, before the segment locks.
+  private final ReentrantLock mFlushLock = new ReentrantLock();
+  // The values deserialized by getShared, indexed by key hash, or null if disabled.
+  @Nullable
+  private final AtomicReferenceArray<HotEntry<V>> mHotSet;
+  @VisibleForTesting
+  final EvictionThread mEvictionThread;
+
+  private final StatsCounter mStatsCounter;
+
+  /**
+   * @param conf cache configuration
+   * @param hotSetSize the number of deserialized values to keep on-heap, or 0 for none
+   * @param name a name for the cache
+   * @param evictionsKey the cache evictions metric key
+   * @param hitsKey the cache hits metrics key
+   * @param loadTimesKey the load times metrics key
+   * @param missesKey the misses metrics key
+   * @param sizeKey the size metrics key
+   * @param offHeapSizeKey the off-heap size metrics key
+   */
+  public OffHeapCache(CacheConfiguration conf, int hotSetSize, String name,
+      MetricKey evictionsKey, MetricKey hitsKey, MetricKey loadTimesKey, MetricKey missesKey,
+      MetricKey sizeKey, MetricKey offHeapSizeKey) {
+    Preconditions.checkArgument(hotSetSize >= 0 && hotSetSize <= 1 << 30,
+        "hot set size %s must be between 0 and 2^30", hotSetSize);
+    mMaxSize = conf.getMaxSize();
+    mHighWaterMark = conf.getHighWaterMark();
+    mLowWaterMark = conf.getLowWaterMark();
+    mEvictBatchSize = conf.getEvictBatchSize();
+    mName = name;
+    mHotSet = hotSetSize == 0 ? null
+        : new AtomicReferenceArray<>(Math.max(2, Integer.highestOneBit(hotSetSize * 2 - 1)));
+    mSegments = new Segment[1 << SEGMENT_BITS];
+    for (int i = 0; i < mSegments.length; i++) {
+      mSegments[i] = new Segment(mSize, mOffHeapBytes);
+    }
+    mEvictionThread = new EvictionThread();
+    mEvictionThread.setDaemon(true);
+    // The eviction thread is started lazily when we first reach the high water mark.
+    mStatsCounter = new StatsCounter(evictionsKey, hitsKey, loadTimesKey, missesKey);
+
+    MetricsSystem.registerGaugeIfAbsent(sizeKey.getName(), mSize::get);
+    MetricsSystem.registerGaugeIfAbsent(offHeapSizeKey.getName(), mOffHeapBytes::get);
+  }
+
+  /**
+   * Retrieves a value from the cache, loading it from the backing store if necessary.
+   *
+   * If option.shouldSkipCache() is true, then the value loaded from the backing store will not be
+   * cached and the eviction thread will not be woken up.
+   *
+   * @param key the key to get the value for
+   * @param option the read options
+   * @return the value, or empty if the key doesn't exist in the cache or in the backing store
+   */
+  public Optional<V> get(long key, ReadOption option) {
+    return get(key, option, false);
+  }
+
+  private Optional<V> get(long key, ReadOption option, boolean shared) {
+    if (option.shouldSkipCache()) {
+      return getSkipCache(key, shared);
+    }
+    if (cacheIsFull()) {
+      wakeEvictionThreadIfNecessary();
+      return getSkipCache(key, shared);
+    }
+    Segment segment = segmentFor(key);
+    long evictions;
+    boolean hit = false;
+    int version = 0;
+    V hot = null;
+    byte[] cached = null;
+    Lock readLock = segment.mLock.readLock();
+    readLock.lock();
+    try {
+      int slot = segment.find(key);
+      if (slot >= 0) {
+        hit = true;
+        segment.mFlags[slot] |= REFERENCED;
+        version = segment.mVersions[slot];
+        hot = shared ? getHot(key, version) : null;
+        cached = hot == null ? segment.read(slot) : null;
+      }
+      evictions = segment.mEvictions;
+    } finally {
+      readLock.unlock();
+    }
+    if (hit) {
+      mStatsCounter.recordHit();
+      return decode(key, version, hot, cached, shared);
+    }
+    mStatsCounter.recordMiss();
+    final Stopwatch stopwatch = Stopwatch.createStarted();
+    Optional<V> value = load(key);
+    mStatsCounter.recordLoad(stopwatch.elapsed(TimeUnit.NANOSECONDS));
+    if (value.isPresent()) {
+      byte[] bytes = serialize(value.get());
+      Lock writeLock = segment.mLock.writeLock();
+      writeLock.lock();
+      try {
+        // The value may be stale if an entry of the key was evicted while it was loaded.
+        if (segment.mEvictions == evictions && bytes.length <= MAX_VALUE_SIZE && !cacheIsFull()
+            && segment.find(key) < 0) {
+          segment.set(segment.insert(key), bytes, false);
+        }
+      } finally {
+        writeLock.unlock();
+      }
+    }
+    wakeEvictionThreadIfNecessary();
+    return value;
+  }
+
+  /**
+   * @param key the key to get the value for
+   * @return the result of {@link #get(long, ReadOption)} with default option
+   */
+  public Optional<V> get(long key) {
+    return get(key, ReadOption.defaults());
+  }
+
+  /**
+   * Retrieves a value like {@link #get(long, ReadOption)}, except that the value may be taken from
+   * or added to the hot set, and shared with other callers. The value must not be modified.
+   *
+   * @param key the key to get the value for
+   * @param option the read options
+   * @return the value, or empty if the key doesn't exist in the cache or in the backing store
+   */
+  public Optional<V> getShared(long key, ReadOption option) {
+    return get(key, option, mHotSet != null);
+  }
+
+  /**
+   * Retrieves a value from the cache if already cached, otherwise, loads from the backing store
+   * without caching the value. Eviction is not triggered.
+   *
+   * @param key the key to get the value for
+   * @param shared whether the value may be taken from or added to the hot set
+   * @return the value, or empty if the key doesn't exist in the cache or in the backing store
+   */
+  private Optional<V> getSkipCache(long key, boolean shared) {
+    Segment segment = segmentFor(key);
+    boolean hit = false;
+    int version = 0;
+    V hot = null;
+    byte[] cached = null;
+    Lock readLock = segment.mLock.readLock();
+    readLock.lock();
+    try {
+      int slot = segment.find(key);
+      if (slot >= 0) {
+        hit = true;
+        version = segment.mVersions[slot];
+        hot = shared ? getHot(key, version) : null;
+        cached = hot == null ? segment.read(slot) : null;
+      }
+    } finally {
+      readLock.unlock();
+    }
+    if (hit) {
+      mStatsCounter.recordHit();
+      return decode(key, version, hot, cached, shared);
+    }
+    mStatsCounter.recordMiss();
+    final Stopwatch stopwatch = Stopwatch.createStarted();
+    final Optional<V> result = load(key);
+    mStatsCounter.recordLoad(stopwatch.elapsed(TimeUnit.NANOSECONDS));
+    return result;
+  }
+
+  /**
+   * @param key a key
+   * @param version the current version of the entry of the key
+   * @return the hot set value of the key at the given version, or null if there is none
+   */
+  @Nullable
+  private V getHot(long key, int version) {
+    int index = hotIndex(key);
+    for (int i = index; i <= (index | 1); i++) {
+      HotEntry<V> entry = mHotSet.get(i);
+      if (entry != null && entry.mKey == key && entry.mVersion == version) {
+        return entry.mValue;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @param key the key of a cache hit
+   * @param version the version of the entry
+   * @param hot the hot set value of the entry, or null if it was not in the hot set
+   * @param cached the serialized value of the entry, or null if it was in the hot set or removed
+   * @param shared whether to add the deserialized value to the hot set
+   * @return the value, or empty if the key was removed
+   */
+  private Optional<V> decode(long key, int version, @Nullable V hot, @Nullable byte[] cached,
+      boolean shared) {
+    if (hot != null) {
+      return Optional.of(hot);
+    }
+    if (cached == null) {
+      return Optional.empty();
+    }
+    V value = deserialize(cached);
+    if (shared) {
+      // The entry may have been written since it was read, in which case its version changed, and
+      // the hot set value is never returned.
+      mHotSet.set(hotSlot(key, version), new HotEntry<>(key, version, value));
+    }
+    return Optional.of(value);
+  }
+
+  /**
+   * @param key a key
+   * @return the first of the two hot set slots the key can be in
+   */
+  private int hotIndex(long key) {
+    return (int) hash(key) & (mHotSet.length() - 2);
+  }
+
+  /**
+   * @param key a key
+   * @param version the version of the entry of the key
+   * @return the hot set slot to put the value of the key in, which is the slot of the key if it
+   *         has one, otherwise an empty slot, otherwise an arbitrary slot
+   */
+  private int hotSlot(long key, int version) {
+    int index = hotIndex(key);
+    HotEntry<V> first = mHotSet.get(index);
+    HotEntry<V> second = mHotSet.get(index + 1);
+    if (first != null && first.mKey == key) {
+      return index;
+    }
+    if (second != null && second.mKey == key) {
+      return index + 1;
+    }
+    if (first == null || second == null) {
+      return first == null ? index : index + 1;
+    }
+    return index + (version & 1);
+  }
+
+  /**
+   * Writes a key/value pair to the cache.
+   *
+   * Values which serialize to more than {@link #MAX_VALUE_SIZE} bytes are written to the backing
+   * store synchronously instead of being cached.
+   *
+   * @param key the key
+   * @param value the value
+   */
+  public void put(long key, V value) {
+    byte[] bytes = serialize(value);
+    if (bytes.length > MAX_VALUE_SIZE) {
+      writeThrough(key, value);
+      return;
+    }
+    Segment segment = segmentFor(key);
+    Lock writeLock = segment.mLock.writeLock();
+    writeLock.lock();
+    try {
+      int slot = segment.find(key);
+      if (slot < 0 && cacheIsFull()) {
+        segment.mEvictions++;
+        writeToBackingStore(key, value);
+        return;
+      }
+      segment.set(slot < 0 ? segment.insert(key) : slot, bytes, true);
+    } finally {
+      writeLock.unlock();
+    }
+    wakeEvictionThreadIfNecessary();
+  }
+
+  private void writeThrough(long key, V value) {
+    Segment segment = segmentFor(key);
+    mFlushLock.lock();
+    try {
+      Lock writeLock = segment.mLock.writeLock();
+      writeLock.lock();
+      try {
+        segment.mEvictions++;
+        writeToBackingStore(key, value);
+        int slot = segment.find(key);
+        if (slot >= 0) {
+          segment.remove(slot);
+        }
+      } finally {
+        writeLock.unlock();
+      }
+    } finally {
+      mFlushLock.unlock();
+    }
+  }
+
+  /**
+   * Removes a key from the cache.
+   *
+   * As in {@link Cache#remove(Object)}, the key is removed from the backing store by the eviction
+   * thread, unless the cache is full.
+   *
+   * @param key the key to remove
+   */
+  public void remove(long key) {
+    Segment segment = segmentFor(key);
+    Lock writeLock = segment.mLock.writeLock();
+    writeLock.lock();
+    try {
+      int slot = segment.find(key);
+      if (slot < 0 && cacheIsFull()) {
+        segment.mEvictions++;
+        removeFromBackingStore(key);
+        return;
+      }
+      slot = slot < 0 ? segment.insert(key) : slot;
+      segment.set(slot, null, true);
+      segment.mFlags[slot] &= ~REFERENCED;
+    } finally {
+      writeLock.unlock();
+    }
+    wakeEvictionThreadIfNecessary();
+  }
+
+  /**
+   * Flushes all data to the backing store.
+   */
+  public void flush() throws InterruptedException {
+    mFlushLock.lockInterruptibly();
+    try {
+      for (Segment segment : mSegments) {
+        long[] dirtyKeys;
+        Lock readLock = segment.mLock.readLock();
+        readLock.lock();
+        try {
+          dirtyKeys = segment.dirtyKeys();
+        } finally {
+          readLock.unlock();
+        }
+        for (int i = 0; i < dirtyKeys.length; i += mEvictBatchSize) {
+          if (Thread.interrupted()) {
+            throw new InterruptedException();
+          }
+          flushKeys(segment,
+              Arrays.copyOfRange(dirtyKeys, i, Math.min(dirtyKeys.length, i + mEvictBatchSize)),
+              false);
+        }
+      }
+    } finally {
+      mFlushLock.unlock();
+    }
+  }
+
+  /**
+   * Flushes the dirty entries of the given keys to the backing store.
+   *
+   * @param segment the segment of the keys
+   * @param keys the keys to flush
+   * @param evict whether to evict the entries once flushed
+   * @return the number of evicted entries
+   */
+  @GuardedBy("mFlushLock")
+  private int flushKeys(Segment segment, long[] keys, boolean evict) {
+    List<FlushEntry> entries = new ArrayList<>(keys.length);
+    List<byte[]> values = new ArrayList<>(keys.length);
+    Lock readLock = segment.mLock.readLock();
+    readLock.lock();
+    try {
+      for (long key : keys) {
+        int slot = segment.find(key);
+        if (slot >= 0 && (segment.mFlags[slot] & DIRTY) != 0) {
+          entries.add(new FlushEntry(key, null, segment.mVersions[slot]));
+          values.add(segment.read(slot));
+        }
+      }
+    } finally {
+      readLock.unlock();
+    }
+    if (entries.isEmpty()) {
+      return 0;
+    }
+    for (int i = 0; i < entries.size(); i++) {
+      byte[] bytes = values.get(i);
+      if (bytes != null) {
+        FlushEntry entry = entries.get(i);
+        entries.set(i, new FlushEntry(entry.mKey, deserialize(bytes), entry.mVersion));
+      }
+    }
+    flushEntries(entries);
+    int evicted = 0;
+    Lock writeLock = segment.mLock.writeLock();
+    writeLock.lock();
+    try {
+      for (FlushEntry entry : entries) {
+        int slot = segment.find(entry.mKey);
+        // Entries written since they were read stay dirty.
+        if (slot < 0 || segment.mVersions[slot] != entry.mVersion) {
+          continue;
+        }
+        segment.mFlags[slot] &= ~DIRTY;
+        if (evict && (segment.mFlags[slot] & REFERENCED) == 0) {
+          segment.remove(slot);
+          evicted++;
+        }
+      }
+    } finally {
+      writeLock.unlock();
+    }
+    return evicted;
+  }
+
+  /**
+   * Clears all entries from the cache and releases their off-heap memory. This is not threadsafe,
+   * and requires external synchronization to prevent concurrent modifications to the cache.
+   */
+  public void clear() {
+    mFlushLock.lock();
+    try {
+      for (Segment segment : mSegments) {
+        Lock writeLock = segment.mLock.writeLock();
+        writeLock.lock();
+        try {
+          segment.clear();
+        } finally {
+          writeLock.unlock();
+        }
+      }
+      if (mHotSet != null) {
+        for (int i = 0; i < mHotSet.length(); i++) {
+          mHotSet.set(i, null);
+        }
+      }
+    } finally {
+      mFlushLock.unlock();
+    }
+  }
+
+  /**
+   * @return a copy of the cached entries, where the keys which were removed from the cache but
+   *         not yet from the backing store map to null
+   */
+  @VisibleForTesting
+  protected Map<Long, V> getCacheMap() {
+    Map<Long, V> map = new HashMap<>();
+    for (Segment segment : mSegments) {
+      Lock readLock = segment.mLock.readLock();
+      readLock.lock();
+      try {
+        for (int slot = 0; slot < segment.mKeys.length; slot++) {
+          if ((segment.mFlags[slot] & USED) != 0) {
+            byte[] bytes = segment.read(slot);
+            map.put(segment.mKeys[slot], bytes == null ? null : deserialize(bytes));
+          }
+        }
+      } finally {
+        readLock.unlock();
+      }
+    }
+    return map;
+  }
+
+  /**
+   * @return the number of cached entries
+   */
+  @VisibleForTesting
+  int size() {
+    return mSize.get();
+  }
+
+  /**
+   * @return the bytes of off-heap memory allocated by the cache
+   */
+  @VisibleForTesting
+  long getOffHeapBytes() {
+    return mOffHeapBytes.get();
+  }
+
+  private boolean underHighWaterMark() {
+    return mSize.get() < mHighWaterMark;
+  }
+
+  private boolean cacheIsFull() {
+    return mSize.get() >= mMaxSize;
+  }
+
+  private void wakeEvictionThreadIfNecessary() {
+    if (mEvictionThread.mIsSleeping && mSize.get() >= mHighWaterMark) {
+      kickEvictionThread();
+    }
+  }
+
+  private void kickEvictionThread() {
+    synchronized (mEvictionThread) {
+      if (mEvictionThread.getState() == State.NEW) {
+        mEvictionThread.start();
+      }
+      mEvictionThread.notifyAll();
+    }
+  }
+
+  private Segment segmentFor(long key) {
+    return mSegments[(int) (hash(key) >>> (Long.SIZE - SEGMENT_BITS))];
+  }
+
+  private static long hash(long key) {
+    long h = key * 0x9E3779B97F4A7C15L;
+    return h ^ (h >>> 32);
+  }
+
+  @Override
+  public void close() {
+    mEvictionThread.interrupt();
+    try {
+      mEvictionThread.join(10L * Constants.SECOND_MS);
+      if (mEvictionThread.isAlive()) {
+        LOG.warn("Failed to stop eviction thread");
+        return;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    }
+    clear();
+  }
+
+  @VisibleForTesting
+  class EvictionThread extends Thread {
+    @VisibleForTesting
+    volatile boolean mIsSleeping = true;
+
+    private final Logger mCacheFullLogger = new SamplingLogger(LOG, 10L * Constants.SECOND_MS);
+
+    private int mEvictionSegment = 0;
+
+    private EvictionThread() {
+      super(mName + "-eviction-thread");
+    }
+
+    @Override
+    public void run() {
+      while (!Thread.interrupted()) {
+        // Wait for the cache to get over the high water mark.
+        while (underHighWaterMark()) {
+          synchronized (mEvictionThread) {
+            if (underHighWaterMark()) {
+              try {
+                mIsSleeping = true;
+                mEvictionThread.wait();
+                mIsSleeping = false;
+              } catch (InterruptedException e) {
+                return;
+              }
+            }
+          }
+        }
+        if (cacheIsFull()) {
+          mCacheFullLogger.warn(
+              "Metastore {} cache is full. Consider increasing the cache size or lowering the "
+                  + "high water mark. size:{} lowWaterMark:{} highWaterMark:{} maxSize:{}",
+              mName, mSize.get(), mLowWaterMark, mHighWaterMark, mMaxSize);
+        }
+        evictToLowWaterMark();
+      }
+    }
+
+    private void evictToLowWaterMark() {
+      long evictionStart = System.nanoTime();
+      int toEvict = mSize.get() - mLowWaterMark;
+      int evictionCount = 0;
+      while (evictionCount < toEvict && mSize.get() > mLowWaterMark) {
+        Segment segment = mSegments[mEvictionSegment];
+        mEvictionSegment = (mEvictionSegment + 1) % mSegments.length;
+        evictionCount += evictBatch(segment, toEvict - evictionCount);
+      }
+      if (evictionCount > 0) {
+        mStatsCounter.recordEvictions(evictionCount);
+        LOG.debug("{}: Evicted {} entries in {}ms", mName, evictionCount,
+            (System.nanoTime() - evictionStart) / Constants.MS_NANO);
+      }
+    }
+
+    /**
+     * Evicts up to min(count, mEvictBatchSize) entries of a segment, advancing its clock hand
+     * over at most one round of the segment.
+     *
+     * @param segment the segment to evict entries from
+     * @param count maximum number of entries to evict
+     * @return the number of entries evicted
+     */
+    private int evictBatch(Segment segment, int count) {
+      int targetSize = Math.min(count, mEvictBatchSize);
+      int evicted = 0;
+      long[] dirtyKeys = new long[targetSize];
+      int dirtyCount = 0;
+      mFlushLock.lock();
+      try {
+        Lock writeLock = segment.mLock.writeLock();
+        writeLock.lock();
+        try {
+          int mask = segment.mKeys.length - 1;
+          for (int scanned = 0; scanned <= mask && evicted + dirtyCount < targetSize;
+              scanned++) {
+            int slot = segment.mClockHand;
+            segment.mClockHand = (slot + 1) & mask;
+            byte flags = segment.mFlags[slot];
+            if ((flags & USED) == 0) {
+              continue;
+            }
+            if ((flags & REFERENCED) != 0) {
+              segment.mFlags[slot] &= ~REFERENCED;
+            } else if ((flags & DIRTY) != 0) {
+              dirtyKeys[dirtyCount++] = segment.mKeys[slot];
+            } else {
+              segment.remove(slot);
+              evicted++;
+              // The removal may have shifted another entry into the slot.
+              segment.mClockHand = slot;
+            }
+          }
+        } finally {
+          writeLock.unlock();
+        }
+        if (dirtyCount > 0) {
+          evicted += flushKeys(segment, Arrays.copyOf(dirtyKeys, dirtyCount), true);
+        }
+      } finally {
+        mFlushLock.unlock();
+      }
+      return evicted;
+    }
+  }
+
+  /**
+   * An open addressing hash table with linear probing, whose values are stored in off-heap slabs.
+   * All accesses must hold the segment lock. The referenced flags are set while holding the read
+   * lock, which is benign as they are only cleared while holding the write lock.
+   */
+  private static final class Segment {
+    private final ReentrantReadWriteLock mLock = new ReentrantReadWriteLock();
+    // The entry count and the off-heap memory of the cache.
+    private final AtomicInteger mSize;
+    private final AtomicLong mOffHeapBytes;
+    private long[] mKeys;
+    // The slab index in the upper 32 bits and the offset in the lower 32 bits, or NO_VALUE.
+    private long[] mAddresses;
+    private int[] mLengths;
+    // Set from mWrites on every write, so that flushes and the hot set can detect writes. As
+    // mWrites is never reset, a key keeps getting new versions after it leaves the segment.
+    private int[] mVersions;
+    private int mWrites;
+    private byte[] mFlags;
+    private int mCount;
+    private int mClockHand;
+    // Incremented whenever an entry leaves the segment, so that loads can detect concurrent
+    // evictions.
+    private long mEvictions;
+    private final List<ByteBuffer> mSlabs = new ArrayList<>();
+    private int mSlabOffset;
+    private final long[][] mFreeChunks = new long[MAX_CHUNK_BITS - MIN_CHUNK_BITS + 1][];
+    private final int[] mFreeChunkCounts = new int[MAX_CHUNK_BITS - MIN_CHUNK_BITS + 1];
+
+    Segment(AtomicInteger size, AtomicLong offHeapBytes) {
+      mSize = size;
+      mOffHeapBytes = offHeapBytes;
+      allocateTable(INITIAL_SEGMENT_CAPACITY);
+    }
+
+    private void allocateTable(int capacity) {
+      mKeys = new long[capacity];
+      mAddresses = new long[capacity];
+      mLengths = new int[capacity];
+      mVersions = new int[capacity];
+      mFlags = new byte[capacity];
+      mClockHand = 0;
+    }
+
+    /**
+     * @param key a key
+     * @return the slot of the key, or -1 if the key is not in the segment
+     */
+    int find(long key) {
+      int mask = mKeys.length - 1;
+      for (int slot = (int) hash(key) & mask; (mFlags[slot] & USED) != 0;
+          slot = (slot + 1) & mask) {
+        if (mKeys[slot] == key) {
+          return slot;
+        }
+      }
+      return -1;
+    }
+
+    /**
+     * Inserts a key without value, which must not be in the segment.
+     *
+     * @param key the key
+     * @return the slot of the key
+     */
+    int insert(long key) {
+      if ((mCount + 1) * 4L > mKeys.length * 3L) {
+        resize(mKeys.length * 2);
+      }
+      int slot = insertSlot(key);
+      mKeys[slot] = key;
+      mAddresses[slot] = NO_VALUE;
+      mLengths[slot] = 0;
+      mFlags[slot] = USED;
+      mCount++;
+      mSize.incrementAndGet();
+      return slot;
+    }
+
+    private int insertSlot(long key) {
+      int mask = mKeys.length - 1;
+      int slot = (int) hash(key) & mask;
+      while ((mFlags[slot] & USED) != 0) {
+        slot = (slot + 1) & mask;
+      }
+      return slot;
+    }
+
+    private void resize(int capacity) {
+      long[] keys = mKeys;
+      long[] addresses = mAddresses;
+      int[] lengths = mLengths;
+      int[] versions = mVersions;
+      byte[] flags = mFlags;
+      allocateTable(capacity);
+      for (int i = 0; i < keys.length; i++) {
+        if ((flags[i] & USED) != 0) {
+          int slot = insertSlot(keys[i]);
+          mKeys[slot] = keys[i];
+          mAddresses[slot] = addresses[i];
+          mLengths[slot] = lengths[i];
+          mVersions[slot] = versions[i];
+          mFlags[slot] = flags[i];
+        }
+      }
+    }
+
+    /**
+     * Sets the value of a slot.
+     *
+     * @param slot the slot
+     * @param bytes the serialized value, or null if the key was removed
+     * @param dirty whether the value is out of sync with the backing store
+     */
+    void set(int slot, @Nullable byte[] bytes, boolean dirty) {
+      free(slot);
+      if (bytes != null) {
+        long address = allocate(bytes.length);
+        ByteBuffer buf = mSlabs.get((int) (address >>> 32)).duplicate();
+        buf.position((int) address);
+        buf.put(bytes);
+        mAddresses[slot] = address;
+        mLengths[slot] = bytes.length;
+      }
+      mVersions[slot] = ++mWrites;
+      mFlags[slot] = (byte) (USED | REFERENCED | (dirty ? DIRTY : 0));
+    }
+
+    /**
+     * @param slot the slot
+     * @return a copy of the serialized value of the slot, or null if its key was removed
+     */
+    @Nullable
+    byte[] read(int slot) {
+      long address = mAddresses[slot];
+      if (address == NO_VALUE) {
+        return null;
+      }
+      byte[] bytes = new byte[mLengths[slot]];
+      ByteBuffer buf = mSlabs.get((int) (address >>> 32)).duplicate();
+      buf.position((int) address);
+      buf.get(bytes);
+      return bytes;
+    }
+
+    /**
+     * Removes the entry of a slot, shifting back the entries of the following slots which would
+     * otherwise become unreachable.
+     *
+     * @param slot the slot
+     */
+    void remove(int slot) {
+      free(slot);
+      mCount--;
+      mSize.decrementAndGet();
+      mEvictions++;
+      int mask = mKeys.length - 1;
+      int hole = slot;
+      for (int next = (hole + 1) & mask; (mFlags[next] & USED) != 0; next = (next + 1) & mask) {
+        int home = (int) hash(mKeys[next]) & mask;
+        // Entries whose home slot is cyclically within (hole, next] stay in place.
+        boolean inPlace = hole <= next ? hole < home && home <= next : hole < home || home <= next;
+        if (!inPlace) {
+          mKeys[hole] = mKeys[next];
+          mAddresses[hole] = mAddresses[next];
+          mLengths[hole] = mLengths[next];
+          mVersions[hole] = mVersions[next];
+          mFlags[hole] = mFlags[next];
+          hole = next;
+        }
+      }
+      mAddresses[hole] = NO_VALUE;
+      mFlags[hole] = 0;
+    }
+
+    /**
+     * @return the keys of the dirty entries
+     */
+    long[] dirtyKeys() {
+      long[] keys = new long[mCount];
+      int count = 0;
+      for (int slot = 0; slot < mKeys.length; slot++) {
+        if ((mFlags[slot] & (USED | DIRTY)) == (USED | DIRTY)) {
+          keys[count++] = mKeys[slot];
+        }
+      }
+      return Arrays.copyOf(keys, count);
+    }
+
+    void clear() {
+      for (ByteBuffer slab : mSlabs) {
+        mOffHeapBytes.addAndGet(-slab.capacity());
+        BufferUtils.cleanDirectBuffer(slab);
+      }
+      mSlabs.clear();
+      mSlabOffset = 0;
+      Arrays.fill(mFreeChunkCounts, 0);
+      mSize.addAndGet(-mCount);
+      mCount = 0;
+      mEvictions++;
+      allocateTable(INITIAL_SEGMENT_CAPACITY);
+    }
+
+    private long allocate(int length) {
+      int sizeClass = sizeClass(length);
+      if (mFreeChunkCounts[sizeClass] > 0) {
+        return mFreeChunks[sizeClass][--mFreeChunkCounts[sizeClass]];
+      }
+      int chunkSize = 1 << (sizeClass + MIN_CHUNK_BITS);
+      ByteBuffer slab = mSlabs.isEmpty() ? null : mSlabs.get(mSlabs.size() - 1);
+      if (slab == null || slab.capacity() - mSlabOffset < chunkSize) {
+        // The rest of the current slab is left unused.
+        int slabSize = slab == null ? INITIAL_SLAB_SIZE
+            : Math.min(slab.capacity() * 2, MAX_SLAB_SIZE);
+        slabSize = Math.max(slabSize, chunkSize);
+        mSlabs.add(ByteBuffer.allocateDirect(slabSize));
+        mOffHeapBytes.addAndGet(slabSize);
+        mSlabOffset = 0;
+      }
+      long address = ((long) (mSlabs.size() - 1) << 32) | mSlabOffset;
+      mSlabOffset += chunkSize;
+      return address;
+    }
+
+    private void free(int slot) {
+      long address = mAddresses[slot];
+      if (address == NO_VALUE) {
+        return;
+      }
+      int sizeClass = sizeClass(mLengths[slot]);
+      long[] chunks = mFreeChunks[sizeClass];
+      if (chunks == null || mFreeChunkCounts[sizeClass] == chunks.length) {
+        chunks = chunks == null ? new long[16] : Arrays.copyOf(chunks, chunks.length * 2);
+        mFreeChunks[sizeClass] = chunks;
+      }
+      chunks[mFreeChunkCounts[sizeClass]++] = address;
+      mAddresses[slot] = NO_VALUE;
+    }
+  }
+
+  private static int sizeClass(int length) {
+    if (length <= 1 << MIN_CHUNK_BITS) {
+      return 0;
+    }
+    return Integer.SIZE - Integer.numberOfLeadingZeros(length - 1) - MIN_CHUNK_BITS;
+  }
+
+  /**
+   * Serializes a value.
+   *
+   * @param value the value
+   * @return the serialized value
+   */
+  protected abstract byte[] serialize(V value);
+
+  /**
+   * Deserializes a value.
+   *
+   * @param bytes the serialized value
+   * @return the value
+   */
+  protected abstract V deserialize(byte[] bytes);
+
+  /**
+   * Loads a key from the backing store.
+   *
+   * @param key the key to load
+   * @return the value for the key, or empty if the key doesn't exist in the backing store
+   */
+  protected abstract Optional<V> load(long key);
+
+  /**
+   * Writes a key/value pair to the backing store.
+   *
+   * @param key the key
+   * @param value the value
+   */
+  protected abstract void writeToBackingStore(long key, V value);
+
+  /**
+   * Removes a key from the backing store.
+   *
+   * @param key the key
+   */
+  protected abstract void removeFromBackingStore(long key);
+
+  /**
+   * Flushes the given entries to the backing store. The entries stay dirty if this throws.
+   *
+   * @param entries the entries to flush
+   */
+  protected abstract void flushEntries(List<FlushEntry> entries);
+
+  /**
+   * A deserialized value of the hot set.
+   *
+   * @param <V> the cache value type
+   */
+  private static final class HotEntry<V> {
+    private final long mKey;
+    private final int mVersion;
+    private final V mValue;
+
+    private HotEntry(long key, int version, V value) {
+      mKey = key;
+      mVersion = version;
+      mValue = value;
+    }
+  }
+
+  /**
+   * An entry to flush to the backing store.
+   */
+  protected final class FlushEntry {
+    protected final long mKey;
+    // null value means that the key has been removed from the cache, and needs to be removed from
+    // the backing store.
+    @Nullable
+    protected final V mValue;
+    private final int mVersion;
+
+    private FlushEntry(long key, @Nullable V value, int version) {
+      mKey = key;
+      mValue = value;
+      mVersion = version;
+    }
+  }
+}
@@ -371,6 +371,14 @@ public class UfsStatusCache {
     return mChildren.get(path);
   }
 
+  /**
+   * @return the number of directories whose children are being prefetched or are held in the
+   *         cache
+   */
+  public int getPrefetchedDirectoryCount() {
+    return mActivePrefetchJobs.size() + mChildren.size();
+  }
+
   /**
    * Submit a request to asynchronously fetch the statuses corresponding to a given directory.
    *
@@ -16,6 +16,7 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 
+import alluxio.ConfigurationRule;
 import alluxio.Constants;
 import alluxio.client.block.options.GetWorkerReportOptions;
 import alluxio.clock.ManualClock;
@@ -23,6 +24,7 @@ import alluxio.conf.Configuration;
 import alluxio.conf.PropertyKey;
 import alluxio.exception.BlockInfoException;
 import alluxio.exception.ExceptionMessage;
+import alluxio.exception.runtime.InternalRuntimeException;
 import alluxio.exception.status.NotFoundException;
 import alluxio.grpc.BuildVersion;
 import alluxio.grpc.Command;
@@ -45,6 +47,9 @@ import alluxio.master.WorkerState;
 import alluxio.master.block.meta.MasterWorkerInfo;
 import alluxio.master.journal.JournalSystem;
 import alluxio.master.journal.noop.NoopJournalSystem;
+import alluxio.master.metastore.BlockMetaStore;
+import alluxio.master.metastore.heap.HeapBlockMetaStore;
+import alluxio.master.metastore.heap.HeapInodeStore;
 import alluxio.master.metrics.MetricsMaster;
 import alluxio.master.metrics.MetricsMasterFactory;
 import alluxio.metrics.Metric;
@@ -71,11 +76,14 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.junit.rules.TemporaryFolder;
 
+import java.io.Closeable;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.ExecutorService;
@@ -914,6 +922,118 @@ public class BlockMasterTest {
         heartBeat.getDataList().stream().sorted().collect(Collectors.toList()));
   }
 
+  @Test
+  public void registerWithParallelBlockReport() throws Exception {
+    try (Closeable r = new ConfigurationRule(
+        PropertyKey.MASTER_WORKER_REGISTER_BLOCK_REPORT_THREADS, 4,
+        Configuration.modifiableGlobal()).toResource()) {
+      MasterRegistry registry = new MasterRegistry();
+      CoreMasterContext masterContext = MasterTestUtils.testMasterContext(
+          new NoopJournalSystem(), null, new AlwaysPrimaryPrimarySelector());
+      MetricsMaster metricsMaster = new MetricsMasterFactory().create(registry, masterContext);
+      ExecutorService executorService =
+          Executors.newFixedThreadPool(2, ThreadFactoryUtils.build("TestBlockMaster-%d", true));
+      BlockMaster blockMaster = new DefaultBlockMaster(metricsMaster, masterContext, mClock,
+          ExecutorServiceFactories.constantExecutorServiceFactory(executorService));
+      registry.add(BlockMaster.class, blockMaster);
+      registry.start(true);
+      try {
+        // Enough blocks for several shards, and a few blocks unknown to the master
+        int numBlocks = 25_000;
+        List<Long> blockIds = new ArrayList<>();
+        for (long blockId = 1; blockId <= numBlocks; blockId++) {
+          blockMaster.commitBlockInUFS(blockId, Constants.KB);
+          blockIds.add(blockId);
+        }
+        List<Long> unknownBlocks = Arrays.asList(numBlocks + 1L, numBlocks + 2L);
+        blockIds.addAll(unknownBlocks);
+
+        long workerId = blockMaster.getWorkerId(NET_ADDRESS_1);
+        Block.BlockLocation blockLoc = Block.BlockLocation.newBuilder()
+            .setWorkerId(workerId).setTier(Constants.MEDIUM_MEM)
+            .setMediumType(Constants.MEDIUM_MEM).build();
+        Map<String, Long> memUsage = ImmutableMap.of(Constants.MEDIUM_MEM, 10L);
+        blockMaster.workerRegister(workerId, Arrays.asList(Constants.MEDIUM_MEM),
+            ImmutableMap.of(Constants.MEDIUM_MEM, 100L), memUsage,
+            ImmutableMap.of(blockLoc, blockIds), NO_LOST_STORAGE,
+            RegisterWorkerPOptions.getDefaultInstance());
+
+        assertEquals(numBlocks, blockMaster.getWorker(workerId).getBlockCount());
+        for (long blockId = 1; blockId <= numBlocks; blockId += 1000) {
+          assertEquals(workerId, Iterables.getOnlyElement(
+              blockMaster.getBlockInfo(blockId).getLocations()).getWorkerId());
+        }
+        // The unknown blocks are removed from the worker on the next heartbeat
+        Command heartBeat = blockMaster.workerHeartbeat(workerId, null,
+            memUsage, NO_BLOCKS, NO_BLOCKS_ON_LOCATION, NO_LOST_STORAGE, mMetrics);
+        assertEquals(unknownBlocks,
+            heartBeat.getDataList().stream().sorted().collect(Collectors.toList()));
+      } finally {
+        registry.stop();
+        registry.close();
+      }
+    }
+  }
+
+  @Test
+  public void registerWithFailingBlockReportShard() throws Exception {
+    long failingBlockId = 15_000;
+    BlockMetaStore blockStore = new HeapBlockMetaStore() {
+      @Override
+      public void addLocation(long blockId, alluxio.proto.meta.Block.BlockLocation location) {
+        super.addLocation(blockId, location);
+        if (blockId == failingBlockId) {
+          throw new IllegalStateException("Failed to add the location of " + blockId);
+        }
+      }
+    };
+    try (Closeable r = new ConfigurationRule(
+        PropertyKey.MASTER_WORKER_REGISTER_BLOCK_REPORT_THREADS, 4,
+        Configuration.modifiableGlobal()).toResource()) {
+      MasterRegistry registry = new MasterRegistry();
+      CoreMasterContext masterContext = MasterTestUtils.testMasterContext(
+          new NoopJournalSystem(), null, () -> blockStore, x -> new HeapInodeStore());
+      MetricsMaster metricsMaster = new MetricsMasterFactory().create(registry, masterContext);
+      ExecutorService executorService =
+          Executors.newFixedThreadPool(2, ThreadFactoryUtils.build("TestBlockMaster-%d", true));
+      BlockMaster blockMaster = new DefaultBlockMaster(metricsMaster, masterContext, mClock,
+          ExecutorServiceFactories.constantExecutorServiceFactory(executorService));
+      registry.add(BlockMaster.class, blockMaster);
+      registry.start(true);
+      try {
+        int numBlocks = 25_000;
+        List<Long> blockIds = new ArrayList<>();
+        for (long blockId = 1; blockId <= numBlocks; blockId++) {
+          blockMaster.commitBlockInUFS(blockId, Constants.KB);
+          blockIds.add(blockId);
+        }
+        long workerId = blockMaster.getWorkerId(NET_ADDRESS_1);
+        Block.BlockLocation blockLoc = Block.BlockLocation.newBuilder()
+            .setWorkerId(workerId).setTier(Constants.MEDIUM_MEM)
+            .setMediumType(Constants.MEDIUM_MEM).build();
+        Map<String, Long> memUsage = ImmutableMap.of(Constants.MEDIUM_MEM, 10L);
+        blockMaster.workerRegister(workerId, Arrays.asList(Constants.MEDIUM_MEM),
+            ImmutableMap.of(Constants.MEDIUM_MEM, 100L), memUsage, NO_BLOCKS_ON_LOCATION,
+            NO_LOST_STORAGE, RegisterWorkerPOptions.getDefaultInstance());
+        assertThrows(InternalRuntimeException.class, () -> blockMaster.workerHeartbeat(workerId,
+            null, memUsage, NO_BLOCKS, ImmutableMap.of(blockLoc, blockIds), NO_LOST_STORAGE,
+            mMetrics));
+
+        // The failing shard stops at the failing block, whose location is rolled back, and
+        // the locations added by every shard are recorded in the worker metadata
+        assertTrue(blockStore.getLocations(failingBlockId).isEmpty());
+        Set<Long> locatedBlocks = blockIds.stream()
+            .filter(blockId -> !blockStore.getLocations(blockId).isEmpty())
+            .collect(Collectors.toSet());
+        assertEquals(numBlocks - 5_001, locatedBlocks.size());
+        assertEquals(locatedBlocks, blockMaster.getWorker(workerId).getBlocks());
+      } finally {
+        registry.stop();
+        registry.close();
+      }
+    }
+  }
+
   @Test
   public void workerHeartbeatUpdatesMemoryCount() throws Exception {
     // Create a worker.
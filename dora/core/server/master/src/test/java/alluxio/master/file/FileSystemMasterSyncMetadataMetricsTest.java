@@ -20,6 +20,7 @@ import static org.junit.Assert.assertTrue;
 
 import alluxio.AlluxioURI;
 import alluxio.conf.Configuration;
+import alluxio.conf.PropertyKey;
 import alluxio.file.options.DescendantType;
 import alluxio.grpc.FileSystemMasterCommonPOptions;
 import alluxio.master.file.contexts.ListStatusContext;
@@ -608,6 +609,32 @@ public class FileSystemMasterSyncMetadataMetricsTest extends FileSystemMasterSyn
     assertEquals(0, cacheChildrenSizeTotal.getCount());
   }
 
+  @Test
+  public void boundedPrefetchMetrics() throws Exception {
+    final Counter deferredPrefetchCounter =
+        DefaultFileSystemMaster.Metrics.METADATA_SYNC_PREFETCH_DEFERRED;
+    Configuration.set(PropertyKey.MASTER_METADATA_SYNC_UFS_PREFETCH_MAX_DIRECTORIES, 2);
+    // 4 directories with 4 directories with 4 files each
+    createUfsHierarchy(0, 3, "", 4);
+    long diffCount = DefaultFileSystemMaster.Metrics.METADATA_SYNC_DIFF_TIMER.getCount();
+
+    LockingScheme syncScheme = new LockingScheme(ROOT, InodeTree.LockPattern.READ, true);
+    InodeSyncStream syncStream = new InodeSyncStream(syncScheme, mFileSystemMaster,
+        mFileSystemMaster.getSyncPathCache(), RpcContext.NOOP, DescendantType.ALL,
+        FileSystemMasterCommonPOptions.newBuilder().setSyncIntervalMs(0).build(),
+        false, // forceSync
+        false, // loadOnly
+        false); // loadAlways
+    assertEquals(InodeSyncStream.SyncStatus.OK, syncStream.sync());
+
+    // all the paths are synced although most directories are not prefetched ahead
+    assertEquals(1 + 4 + 16 + 64, mInodeTree.getInodeCount());
+    assertTrue(deferredPrefetchCounter.getCount() > 0);
+    // every path below the root is diffed by a sync path job
+    assertEquals(diffCount + 4 + 16 + 64,
+        DefaultFileSystemMaster.Metrics.METADATA_SYNC_DIFF_TIMER.getCount());
+  }
+
   @Test
   public void instrumentedThreadPool() throws Exception {
     int threadNum = 10; // level of concurrency
@@ -22,6 +22,8 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.when;
 
@@ -70,6 +72,8 @@ import alluxio.master.file.contexts.SetAttributeContext;
 import alluxio.master.file.contexts.WorkerHeartbeatContext;
 import alluxio.master.file.meta.PersistenceState;
 import alluxio.master.journal.JournalContext;
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
 import alluxio.proto.journal.Journal;
 import alluxio.security.authorization.AclEntry;
 import alluxio.security.authorization.Mode;
@@ -108,6 +112,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
@@ -726,6 +731,90 @@ public final class FileSystemMasterTest extends FileSystemMasterTestBase {
     assertEquals(0, mBlockMaster.getBlockInfo(blockId).getLocations().size());
   }
 
+  /**
+   * Tests that the TTL check frees a batch of files, resets their TTL and counts them as expired.
+   */
+  @Test
+  public void ttlFreeResetsTtlOfEachFile() throws Exception {
+    long expiredBefore =
+        MetricsSystem.meter(MetricKey.MASTER_TTL_EXPIRED_INODES.getName()).getCount();
+    int numFiles = 5;
+    createTtlFreeFiles(numFiles);
+    HeartbeatScheduler.execute(HeartbeatContext.MASTER_TTL_CHECK);
+    for (int i = 0; i < numFiles; i++) {
+      FileInfo fileInfo =
+          mFileSystemMaster.getFileInfo(NESTED_URI.join("file" + i), GET_STATUS_CONTEXT);
+      assertEquals(Constants.NO_TTL, fileInfo.getTtl());
+    }
+    assertEquals(expiredBefore + numFiles,
+        MetricsSystem.meter(MetricKey.MASTER_TTL_EXPIRED_INODES.getName()).getCount());
+  }
+
+  /**
+   * Tests that the TTL reset of freed files skips the files deleted since they were freed.
+   */
+  @Test
+  public void ttlFreeResetSkipsDeletedFile() throws Exception {
+    createTtlFreeFiles(2);
+    AlluxioURI deleted = NESTED_URI.join("file0");
+    runTtlCheck(deleted, () -> {
+      mFileSystemMaster.delete(deleted, DeleteContext.defaults());
+      return null;
+    });
+    assertEquals(IdUtils.INVALID_FILE_ID, mFileSystemMaster.getFileId(deleted));
+    assertEquals(Constants.NO_TTL, mFileSystemMaster.getFileInfo(NESTED_URI.join("file1"),
+        GET_STATUS_CONTEXT).getTtl());
+  }
+
+  /**
+   * Tests that the TTL reset of freed files keeps a TTL set since they were freed.
+   */
+  @Test
+  public void ttlFreeResetKeepsChangedTtl() throws Exception {
+    createTtlFreeFiles(2);
+    AlluxioURI changed = NESTED_URI.join("file0");
+    runTtlCheck(changed, () -> {
+      mFileSystemMaster.setAttribute(changed, SetAttributeContext.mergeFrom(
+          SetAttributePOptions.newBuilder().setCommonOptions(FileSystemOptionsUtils
+              .commonDefaults(Configuration.global()).toBuilder().setTtl(Constants.HOUR_MS)
+              .setTtlAction(alluxio.grpc.TtlAction.FREE))));
+      return null;
+    });
+    assertEquals(Constants.HOUR_MS,
+        mFileSystemMaster.getFileInfo(changed, GET_STATUS_CONTEXT).getTtl());
+    assertEquals(Constants.NO_TTL, mFileSystemMaster.getFileInfo(NESTED_URI.join("file1"),
+        GET_STATUS_CONTEXT).getTtl());
+  }
+
+  private void createTtlFreeFiles(int numFiles) throws Exception {
+    mFileSystemMaster.createDirectory(NESTED_URI, CreateDirectoryContext
+        .mergeFrom(CreateDirectoryPOptions.newBuilder().setRecursive(true)));
+    for (int i = 0; i < numFiles; i++) {
+      CreateFileContext context = CreateFileContext.defaults();
+      context.getOptions().setBlockSizeBytes(Constants.KB)
+          .setCommonOptions(FileSystemMasterCommonPOptions.newBuilder().setTtl(0)
+              .setTtlAction(alluxio.grpc.TtlAction.FREE));
+      mFileSystemMaster.createFile(NESTED_URI.join("file" + i), context);
+    }
+  }
+
+  /**
+   * Runs a TTL check which runs an action once the given path is freed, before the TTL of the
+   * freed files is reset.
+   */
+  private void runTtlCheck(AlluxioURI path, Callable<?> afterFree)
+      throws Exception {
+    DefaultFileSystemMaster fileSystemMasterWithSpy = spy(mFileSystemMaster);
+    doAnswer(invocation -> {
+      invocation.callRealMethod();
+      if (path.equals(invocation.getArgument(0))) {
+        afterFree.call();
+      }
+      return null;
+    }).when(fileSystemMasterWithSpy).free(any(AlluxioURI.class), any(FreeContext.class));
+    new InodeTtlChecker(fileSystemMasterWithSpy, mInodeTree).heartbeat(Long.MAX_VALUE);
+  }
+
   /**
    * Tests that TTL free of a directory is not forgotten across restarts.
    */
@@ -35,6 +35,7 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 
+import java.io.Closeable;
 import java.io.File;
 import java.time.Clock;
 import java.util.Collections;
@@ -310,6 +311,61 @@ public class AsyncUfsAbsentPathCacheTest {
     assertEquals(2, (long) cacheMisses.call());
   }
 
+  @Test
+  public void filterKeepsEvictedPaths() throws Exception {
+    MetricsSystem.resetCountersAndGauges();
+    try (Closeable r = new ConfigurationRule(PropertyKey.MASTER_UFS_PATH_CACHE_FILTER_ENABLED,
+        true, Configuration.modifiableGlobal()).toResource()) {
+      AsyncUfsAbsentPathCache cache =
+          new AsyncUfsAbsentPathCache(mMountTable, THREADS, Clock.systemUTC());
+      long start = Clock.systemUTC().millis();
+      for (int i = 0; i < 10; i++) {
+        cache.addSinglePath(new AlluxioURI("/mnt/" + i));
+      }
+      // Only 3 paths fit in the exact cache, the rest are answered by the filter
+      for (int i = 0; i < 10; i++) {
+        assertTrue(cache.isAbsentSince(new AlluxioURI("/mnt/" + i), start));
+        assertTrue(cache.isAbsentSince(new AlluxioURI("/mnt/" + i + "/a"), start));
+      }
+      assertEquals(14,
+          MetricsSystem.counter(MetricKey.MASTER_ABSENT_CACHE_FILTER_HITS.getName()).getCount());
+      // Filter entries are not used for lookups requiring a sync newer than them
+      assertFalse(cache.isAbsentSince(new AlluxioURI("/mnt/0"), UfsAbsentPathCache.NEVER));
+      // nor for lookups which never expire, where a false positive would hide an existing path
+      assertFalse(cache.isAbsentSince(new AlluxioURI("/mnt/0"), UfsAbsentPathCache.ALWAYS));
+
+      // Creating the path removes it from the filter
+      cache.processExisting(new AlluxioURI("/mnt/0/a"));
+      assertFalse(cache.isAbsentSince(new AlluxioURI("/mnt/0"), start));
+      assertFalse(cache.isAbsentSince(new AlluxioURI("/mnt/0/a"), start));
+      assertTrue(cache.isAbsentSince(new AlluxioURI("/mnt/1"), start));
+    }
+  }
+
+  @Test
+  public void filterKeepsEvictedPathsDespiteOtherRemovals() throws Exception {
+    try (Closeable r = new ConfigurationRule(PropertyKey.MASTER_UFS_PATH_CACHE_FILTER_ENABLED,
+        true, Configuration.modifiableGlobal()).toResource()) {
+      AsyncUfsAbsentPathCache cache =
+          new AsyncUfsAbsentPathCache(mMountTable, THREADS, Clock.systemUTC());
+      long start = Clock.systemUTC().millis();
+      for (int i = 0; i < 3; i++) {
+        cache.addSinglePath(new AlluxioURI("/mnt/" + i));
+      }
+      // Other paths found to exist while the absent paths are cached
+      for (int i = 0; i < 100; i++) {
+        cache.processExisting(new AlluxioURI("/mnt/existing/" + i));
+      }
+      // Evict the paths cached before the removals
+      for (int i = 3; i < 10; i++) {
+        cache.addSinglePath(new AlluxioURI("/mnt/" + i));
+      }
+      for (int i = 0; i < 10; i++) {
+        assertTrue(cache.isAbsentSince(new AlluxioURI("/mnt/" + i), start));
+      }
+    }
+  }
+
   private void process(AlluxioURI path) throws Exception {
     mUfsAbsentPathCache.processPathSync(path, Collections.emptyList());
   }
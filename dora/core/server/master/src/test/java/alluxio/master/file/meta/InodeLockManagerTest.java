@@ -11,13 +11,20 @@
 
 package alluxio.master.file.meta;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
 
 import alluxio.concurrent.LockMode;
+import alluxio.conf.Configuration;
+import alluxio.conf.PropertyKey;
 import alluxio.master.file.contexts.CreateFileContext;
 import alluxio.resource.LockResource;
+import alluxio.resource.RWLockResource;
 import alluxio.util.CommonUtils;
 
+import org.junit.After;
 import org.junit.Test;
 
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -26,6 +33,41 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * Unit tests for {@link InodeLockManager}.
  */
 public class InodeLockManagerTest {
+  @After
+  public void after() {
+    Configuration.reloadProperties();
+  }
+
+  @Test
+  public void versions() throws Exception {
+    Configuration.set(PropertyKey.MASTER_LOCK_OPTIMISTIC_READ_ENABLED, true);
+    try (InodeLockManager lockManager = new InodeLockManager()) {
+      assertTrue(lockManager.isOptimisticReadEnabled());
+      MutableInodeFile inode =
+          MutableInodeFile.create(1, 0, "name", 0, CreateFileContext.defaults());
+      long version = lockManager.getInodeVersion(inode.getId());
+      assertNotEquals(InodeLockManager.WRITE_LOCKED, version);
+      try (LockResource lr = lockManager.lockInode(inode, LockMode.READ, false)) {
+        // read locks do not change the version
+        assertEquals(version, lockManager.getInodeVersion(inode.getId()));
+      }
+      try (RWLockResource lr = lockManager.lockInode(inode, LockMode.WRITE, false)) {
+        assertEquals(InodeLockManager.WRITE_LOCKED, lockManager.getInodeVersion(inode.getId()));
+        // reentrant write locks do not release the version
+        lockManager.lockInode(inode, LockMode.WRITE, false).close();
+        assertEquals(InodeLockManager.WRITE_LOCKED, lockManager.getInodeVersion(inode.getId()));
+        lr.downgrade();
+        assertNotEquals(InodeLockManager.WRITE_LOCKED,
+            lockManager.getInodeVersion(inode.getId()));
+        assertNotEquals(version, lockManager.getInodeVersion(inode.getId()));
+      }
+      Edge edge = new Edge(1, "name");
+      version = lockManager.getEdgeVersion(edge);
+      lockManager.tryLockEdge(edge, LockMode.WRITE).get().close();
+      assertNotEquals(version, lockManager.getEdgeVersion(new Edge(1, "name")));
+    }
+  }
+
   @Test(timeout = 10000)
   public void lockInode() throws Exception {
     inodeLockTest(LockMode.WRITE, LockMode.READ, true);
@@ -27,6 +27,8 @@ import alluxio.master.file.meta.InodeTree.LockPattern;
 import alluxio.master.journal.FileSystemMergeJournalContext;
 import alluxio.master.journal.JournalContext;
 import alluxio.master.journal.NoopJournalContext;
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
 
 import org.junit.After;
 import org.junit.Assert;
@@ -35,6 +37,10 @@ import org.junit.Test;
 import org.mockito.Mockito;
 
 import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -52,6 +58,7 @@ public class LockedInodePathTest extends BaseInodeLockingTest {
       mPath.close();
     }
     super.after();
+    Configuration.reloadProperties();
   }
 
   @Test
@@ -629,6 +636,121 @@ public class LockedInodePathTest extends BaseInodeLockingTest {
     Assert.assertEquals(3, journalFlushCount.get());
   }
 
+  @Test
+  public void optimisticReadLocksLastInode() throws Exception {
+    enableOptimisticReads();
+    long traversals = getCount(MetricKey.MASTER_OPTIMISTIC_PATH_TRAVERSALS);
+    mPath = create("/a/b/c", LockPattern.READ);
+
+    assertTrue(mPath.fullPathExists());
+    assertEquals(Arrays.asList(mRootDir, mDirA, mDirB, mFileC), mPath.getInodeList());
+    assertEquals(traversals + 1, getCount(MetricKey.MASTER_OPTIMISTIC_PATH_TRAVERSALS));
+
+    checkOnlyNodesReadLocked(mFileC);
+    checkOnlyNodesWriteLocked();
+    checkOnlyIncomingEdgesReadLocked(mFileC);
+    checkOnlyIncomingEdgesWriteLocked();
+
+    mPath.close();
+    mPath = create("/a/b", LockPattern.READ);
+    checkOnlyNodesReadLocked(mDirB);
+    // the ancestors are locked before the path is extended
+    try (LockedInodePath childPath =
+             mPath.lockDescendant(new AlluxioURI("/a/b/c"), LockPattern.WRITE_INODE)) {
+      checkOnlyNodesReadLocked(mRootDir, mDirA, mDirB);
+      checkOnlyNodesWriteLocked(mFileC);
+      checkOnlyIncomingEdgesReadLocked(mRootDir, mDirA, mDirB, mFileC);
+    }
+  }
+
+  @Test
+  public void optimisticReadRenameAncestorWhileCreating() throws Exception {
+    enableOptimisticReads();
+    // a sync locks the missing path /a/b/d to read, then creates d
+    mPath = create("/a/b/d", LockPattern.READ);
+    assertFalse(mPath.fullPathExists());
+    checkOnlyNodesReadLocked(mDirB);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<?> rename;
+      try (LockedInodePath createPath = mPath.lockFinalEdgeWrite()) {
+        checkOnlyNodesReadLocked(mRootDir, mDirA, mDirB);
+        checkOnlyIncomingEdgesReadLocked(mRootDir, mDirA, mDirB);
+        assertTrue(mInodeLockManager.edgeWriteLockedByCurrentThread(new Edge(mDirB.getId(), "d")));
+        // renaming a write locks the edge leading to it, which waits for the creation of d
+        rename = executor.submit(() -> {
+          try (LockedInodePath renamePath = create("/a", LockPattern.WRITE_EDGE)) {
+            return null;
+          }
+        });
+        Thread.sleep(100);
+        assertFalse(rename.isDone());
+      }
+      mPath.close();
+      mPath = null;
+      rename.get(10, TimeUnit.SECONDS);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void optimisticReadMissingPath() throws Exception {
+    enableOptimisticReads();
+    mPath = create("/a/missing/d", LockPattern.READ);
+
+    assertFalse(mPath.fullPathExists());
+    assertEquals(Arrays.asList(mRootDir, mDirA), mPath.getInodeList());
+
+    checkOnlyNodesReadLocked(mDirA);
+    checkOnlyNodesWriteLocked();
+    checkOnlyIncomingEdgesReadLocked(mDirA);
+    checkOnlyIncomingEdgesWriteLocked();
+  }
+
+  @Test
+  public void optimisticReadConflict() throws Exception {
+    enableOptimisticReads();
+    long conflicts = getCount(MetricKey.MASTER_OPTIMISTIC_PATH_TRAVERSAL_CONFLICTS);
+    try (LockedInodePath writePath = create("/a/b", LockPattern.WRITE_INODE)) {
+      // b is write locked, so the path is locked from the root
+      try (LockedInodePath readPath = create("/a/b/c", LockPattern.READ)) {
+        assertEquals(mFileC, readPath.getInode());
+        assertEquals(conflicts + 1,
+            getCount(MetricKey.MASTER_OPTIMISTIC_PATH_TRAVERSAL_CONFLICTS));
+        checkOnlyNodesReadLocked(mRootDir, mDirA, mDirB, mFileC);
+      }
+    }
+  }
+
+  @Test
+  public void optimisticReadValidateAncestors() throws Exception {
+    enableOptimisticReads();
+    mPath = create("/a/b/c", LockPattern.READ);
+    assertTrue(mPath.validateAncestors());
+    checkOnlyNodesReadLocked(mFileC);
+
+    // a is modified after the traversal, so the path is locked from the root
+    try (LockedInodePath writePath = create("/a", LockPattern.WRITE_INODE)) {
+      checkOnlyNodesWriteLocked(mDirA);
+    }
+    assertFalse(mPath.validateAncestors());
+    assertEquals(Arrays.asList(mRootDir, mDirA, mDirB, mFileC), mPath.getInodeList());
+    checkOnlyNodesReadLocked(mRootDir, mDirA, mDirB, mFileC);
+    checkOnlyIncomingEdgesReadLocked(mRootDir, mDirA, mDirB, mFileC);
+    assertTrue(mPath.validateAncestors());
+  }
+
+  private void enableOptimisticReads() throws Exception {
+    Configuration.set(PropertyKey.MASTER_LOCK_OPTIMISTIC_READ_ENABLED, true);
+    mInodeLockManager.close();
+    mInodeLockManager = new InodeLockManager();
+  }
+
+  private static long getCount(MetricKey key) {
+    return MetricsSystem.counter(key.getName()).getCount();
+  }
+
   private LockedInodePath create(String path, LockPattern lockPattern) throws InvalidPathException {
     return create(path, lockPattern, NoopJournalContext.INSTANCE);
   }
@@ -0,0 +1,131 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.master.file.meta;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link UfsAbsentPathFilter}.
+ */
+public class UfsAbsentPathFilterTest {
+  private static final long MOUNT_ID = 1L;
+
+  @Test
+  public void putAndRemove() {
+    UfsAbsentPathFilter filter = new UfsAbsentPathFilter(100, Long.MAX_VALUE);
+    filter.put("/mnt/a", MOUNT_ID, 10, filter.getRemovalEpoch());
+    assertTrue(filter.mightContainSince("/mnt/a", MOUNT_ID, UfsAbsentPathCache.ALWAYS));
+    assertTrue(filter.mightContainSince("/mnt/a", MOUNT_ID, 10));
+    assertFalse(filter.mightContainSince("/mnt/a", MOUNT_ID, 11));
+    assertFalse(filter.mightContainSince("/mnt/a", MOUNT_ID + 1, UfsAbsentPathCache.ALWAYS));
+    assertFalse(filter.mightContainSince("/mnt/b", MOUNT_ID, UfsAbsentPathCache.ALWAYS));
+    assertEquals(1, filter.getPathCount());
+
+    filter.remove("/mnt/a", MOUNT_ID);
+    assertFalse(filter.mightContainSince("/mnt/a", MOUNT_ID, UfsAbsentPathCache.ALWAYS));
+    assertEquals(0, filter.getPathCount());
+  }
+
+  @Test
+  public void oldestGenerationDropped() {
+    int capacity = 1000;
+    UfsAbsentPathFilter filter = new UfsAbsentPathFilter(capacity, Long.MAX_VALUE);
+    for (int i = 0; i < 3 * capacity; i++) {
+      filter.put("/mnt/" + i, MOUNT_ID, i, filter.getRemovalEpoch());
+    }
+    // The first generation was dropped, the two newer ones remain. A path whose fingerprint is
+    // already present is not added again, which may shift the generation boundaries slightly.
+    assertTrue(filter.getPathCount() <= 2 * capacity);
+    assertTrue(filter.getPathCount() > 2 * capacity - 10);
+    for (int i = capacity + 10; i < 3 * capacity; i++) {
+      assertTrue(filter.mightContainSince("/mnt/" + i, MOUNT_ID, UfsAbsentPathCache.ALWAYS));
+    }
+    // Lookups only see generations whose entries are all new enough
+    assertFalse(filter.mightContainSince("/mnt/" + (3 * capacity - 1), MOUNT_ID,
+        2 * capacity + 1));
+  }
+
+  @Test
+  public void generationStartedOnAge() {
+    long duration = 100;
+    UfsAbsentPathFilter filter = new UfsAbsentPathFilter(1000, duration);
+    filter.put("/mnt/a", MOUNT_ID, 0, filter.getRemovalEpoch());
+    // The generation of /mnt/a outlives the duration, the newer paths start a new one
+    filter.put("/mnt/b", MOUNT_ID, 150, filter.getRemovalEpoch());
+    filter.put("/mnt/c", MOUNT_ID, 180, filter.getRemovalEpoch());
+    // A path found absent before the newest generation started goes to the older one
+    filter.put("/mnt/d", MOUNT_ID, 120, filter.getRemovalEpoch());
+
+    // Lookups at time 200 with a sync interval of 100
+    long absentSince = 200 - duration;
+    assertTrue(filter.mightContainSince("/mnt/b", MOUNT_ID, absentSince));
+    assertTrue(filter.mightContainSince("/mnt/c", MOUNT_ID, absentSince));
+    assertFalse(filter.mightContainSince("/mnt/a", MOUNT_ID, absentSince));
+    assertFalse(filter.mightContainSince("/mnt/d", MOUNT_ID, absentSince));
+    assertTrue(filter.mightContainSince("/mnt/d", MOUNT_ID, 0));
+
+    // Lookups at time 300, answered by the generation started at 250
+    filter.put("/mnt/e", MOUNT_ID, 250, filter.getRemovalEpoch());
+    absentSince = 300 - duration;
+    assertTrue(filter.mightContainSince("/mnt/e", MOUNT_ID, absentSince));
+    // The generation started at 0 was dropped, and paths older than every generation are not
+    // added
+    assertFalse(filter.mightContainSince("/mnt/a", MOUNT_ID, UfsAbsentPathCache.ALWAYS));
+    filter.put("/mnt/f", MOUNT_ID, 100, filter.getRemovalEpoch());
+    assertFalse(filter.mightContainSince("/mnt/f", MOUNT_ID, UfsAbsentPathCache.ALWAYS));
+    assertEquals(3, filter.getPathCount());
+  }
+
+  @Test
+  public void removedPathNotAddedBack() {
+    UfsAbsentPathFilter filter = new UfsAbsentPathFilter(100_000, Long.MAX_VALUE);
+    int epoch = filter.getRemovalEpoch();
+    // Unrelated removals do not prevent adding the path
+    for (int i = 0; i < 100; i++) {
+      filter.remove("/mnt/other/" + i, MOUNT_ID);
+    }
+    filter.put("/mnt/a", MOUNT_ID, 10, epoch);
+    assertTrue(filter.mightContainSince("/mnt/a", MOUNT_ID, 10));
+
+    // A path removed after it was found absent is not added back
+    epoch = filter.getRemovalEpoch();
+    filter.remove("/mnt/b", MOUNT_ID);
+    filter.put("/mnt/b", MOUNT_ID, 10, epoch);
+    assertFalse(filter.mightContainSince("/mnt/b", MOUNT_ID, 10));
+    filter.put("/mnt/b", MOUNT_ID, 20, filter.getRemovalEpoch());
+    assertTrue(filter.mightContainSince("/mnt/b", MOUNT_ID, 10));
+  }
+
+  @Test
+  public void falsePositiveRate() {
+    int capacity = 100_000;
+    UfsAbsentPathFilter filter = new UfsAbsentPathFilter(capacity, Long.MAX_VALUE);
+    for (int i = 0; i < capacity; i++) {
+      filter.put("/mnt/absent/" + i, MOUNT_ID, 0, filter.getRemovalEpoch());
+    }
+    int falsePositives = 0;
+    for (int i = 0; i < capacity; i++) {
+      if (filter.mightContainSince("/mnt/present/" + i, MOUNT_ID, UfsAbsentPathCache.ALWAYS)) {
+        falsePositives++;
+      }
+    }
+    double expected = filter.expectedFpp();
+    assertTrue(String.valueOf(expected), expected < 1e-3);
+    assertTrue(String.valueOf(falsePositives), falsePositives < capacity * 1e-3);
+    // 16 bit fingerprints in 32768 buckets of 4 slots, and a removal epoch per bucket
+    assertEquals(256 * 1024 + 32768 * 4, filter.getSizeInBytes());
+  }
+}
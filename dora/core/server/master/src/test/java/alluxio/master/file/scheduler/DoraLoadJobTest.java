@@ -0,0 +1,147 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.master.file.scheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import alluxio.client.block.stream.BlockWorkerClient;
+import alluxio.client.file.FileSystemContext;
+import alluxio.conf.Configuration;
+import alluxio.conf.PropertyKey;
+import alluxio.grpc.LoadFileResponse;
+import alluxio.grpc.TaskStatus;
+import alluxio.master.file.DefaultFileSystemMaster;
+import alluxio.master.job.DoraLoadJob;
+import alluxio.master.job.JournalLoadJobFactory;
+import alluxio.master.journal.JournalContext;
+import alluxio.master.scheduler.DefaultWorkerProvider;
+import alluxio.master.scheduler.JournaledJobMetaStore;
+import alluxio.master.scheduler.Scheduler;
+import alluxio.proto.journal.Job;
+import alluxio.underfs.UfsStatus;
+import alluxio.wire.WorkerInfo;
+import alluxio.wire.WorkerNetAddress;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Futures;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.stream.Collectors;
+
+public class DoraLoadJobTest {
+  private static final int FILE_COUNT = 5;
+
+  @Rule
+  public TemporaryFolder mTestFolder = new TemporaryFolder();
+
+  private final List<WorkerInfo> mWorkers = ImmutableList.of(new WorkerInfo().setId(1)
+      .setAddress(new WorkerNetAddress().setHost("worker1").setRpcPort(1234)));
+
+  @Before
+  public void before() throws Exception {
+    File root = mTestFolder.newFolder("ufs");
+    File loadDir = new File(root, "load");
+    assertTrue(loadDir.mkdir());
+    for (int i = 0; i < FILE_COUNT; i++) {
+      assertTrue(new File(loadDir, "file" + i).createNewFile());
+    }
+    Configuration.set(PropertyKey.DORA_CLIENT_UFS_ROOT, root.getAbsolutePath());
+    DefaultFileSystemMaster fsMaster = mock(DefaultFileSystemMaster.class);
+    when(fsMaster.createJournalContext()).thenReturn(mock(JournalContext.class));
+    FileSystemContext fileSystemContext = mock(FileSystemContext.class);
+    new Scheduler(fileSystemContext, new DefaultWorkerProvider(fsMaster, fileSystemContext),
+        new JournaledJobMetaStore(fsMaster));
+  }
+
+  @After
+  public void after() {
+    Configuration.reloadProperties();
+  }
+
+  @Test
+  public void checkpointAdvancesAfterTasksProcessed() throws Exception {
+    DoraLoadJob job = new DoraLoadJob("/load", Optional.of("user"), "1", OptionalLong.empty(),
+        false, false, false);
+    assertNull(job.getListingCheckpoint());
+    List<DoraLoadJob.DoraLoadTask> tasks = job.getNextTasks(mWorkers);
+    assertEquals(1, tasks.size());
+    List<UfsStatus> files = tasks.get(0).getFilesToLoad();
+    assertEquals(FILE_COUNT, files.size());
+    // not processed yet
+    assertNull(job.getListingCheckpoint());
+
+    complete(job, tasks.get(0));
+    String lastListed = files.get(FILE_COUNT - 1).getName();
+    assertEquals(lastListed, job.getListingCheckpoint());
+    Job.LoadJobEntry entry = job.toJournalEntry().getLoadJob();
+    assertEquals(lastListed, entry.getListingCheckpoint());
+    assertEquals(FILE_COUNT, entry.getProcessedFileCount());
+  }
+
+  @Test
+  public void resumeFromCheckpoint() throws Exception {
+    DoraLoadJob job = new DoraLoadJob("/load", Optional.of("user"), "1", OptionalLong.empty(),
+        false, false, false);
+    List<String> listed = job.getNextTasks(mWorkers).get(0).getFilesToLoad().stream()
+        .map(UfsStatus::getName).collect(Collectors.toList());
+
+    Job.LoadJobEntry entry = new DoraLoadJob("/load", Optional.of("user"), "1",
+        OptionalLong.empty(), false, false, false, true, listed.get(1))
+        .toJournalEntry().getLoadJob().toBuilder()
+        .setProcessedFileCount(2)
+        .build();
+    DoraLoadJob resumed = (DoraLoadJob) new JournalLoadJobFactory(entry, null).create();
+    assertEquals(listed.get(1), resumed.getListingCheckpoint());
+    assertTrue(resumed.toJournalEntry().getLoadJob().getSkipIfCached());
+    assertEquals(2, resumed.toJournalEntry().getLoadJob().getProcessedFileCount());
+    List<String> remaining = resumed.getNextTasks(mWorkers).get(0).getFilesToLoad().stream()
+        .map(UfsStatus::getName).collect(Collectors.toList());
+    assertEquals(listed.subList(2, FILE_COUNT), remaining);
+  }
+
+  @Test
+  public void checkpointHeldByRetries() throws Exception {
+    DoraLoadJob job = new DoraLoadJob("/load", Optional.of("user"), "1", OptionalLong.empty(),
+        false, false, false);
+    DoraLoadJob.DoraLoadTask task = job.getNextTasks(mWorkers).get(0);
+    job.addFilesToRetry(task.getFilesToLoad().get(0).getUfsFullPath().toString());
+    complete(job, task);
+    assertNull(job.getListingCheckpoint());
+
+    DoraLoadJob.DoraLoadTask retryTask = job.getNextTasks(mWorkers).get(0);
+    assertEquals(1, retryTask.getFilesToLoad().size());
+    complete(job, retryTask);
+    assertEquals(task.getFilesToLoad().get(FILE_COUNT - 1).getName(),
+        job.getListingCheckpoint());
+  }
+
+  private void complete(DoraLoadJob job, DoraLoadJob.DoraLoadTask task) {
+    BlockWorkerClient client = mock(BlockWorkerClient.class);
+    when(client.loadFile(any())).thenReturn(Futures.immediateFuture(
+        LoadFileResponse.newBuilder().setStatus(TaskStatus.SUCCESS).build()));
+    task.execute(client, mWorkers.get(0));
+    job.processResponse(task);
+  }
+}
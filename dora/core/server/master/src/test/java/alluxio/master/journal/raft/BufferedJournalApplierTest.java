@@ -0,0 +1,195 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.master.journal.raft;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+
+import alluxio.ConfigurationRule;
+import alluxio.Constants;
+import alluxio.conf.Configuration;
+import alluxio.conf.PropertyKey;
+import alluxio.master.NoopMaster;
+import alluxio.master.journal.sink.JournalSink;
+import alluxio.proto.journal.Block;
+import alluxio.proto.journal.File;
+import alluxio.proto.journal.Journal.JournalEntry;
+import alluxio.util.CommonUtils;
+import alluxio.util.WaitForOptions;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BufferedJournalApplierTest {
+  @Rule
+  public ConfigurationRule mConf = new ConfigurationRule(
+      new ImmutableMap.Builder<PropertyKey, Object>()
+          .put(PropertyKey.MASTER_EMBEDDED_JOURNAL_PARALLEL_APPLY_ENABLED, true)
+          .put(PropertyKey.MASTER_EMBEDDED_JOURNAL_PARALLEL_APPLY_MAX_PENDING_ENTRIES, 16)
+          .build(),
+      Configuration.modifiableGlobal());
+
+  private RecordingMaster mFileSystemMaster;
+  private RecordingMaster mBlockMaster;
+  private final OverlapDetectingSink mSink = new OverlapDetectingSink();
+  private BufferedJournalApplier mApplier;
+
+  @Before
+  public void before() {
+    mFileSystemMaster = new RecordingMaster(Constants.FILE_SYSTEM_MASTER_NAME);
+    mBlockMaster = new RecordingMaster(Constants.BLOCK_MASTER_NAME);
+    Map<String, RaftJournal> journals = new HashMap<>();
+    journals.put(Constants.FILE_SYSTEM_MASTER_NAME,
+        new RaftJournal(mFileSystemMaster, null, null));
+    journals.put(Constants.BLOCK_MASTER_NAME, new RaftJournal(mBlockMaster, null, null));
+    mApplier = new BufferedJournalApplier(journals, () -> Collections.singleton(mSink));
+  }
+
+  @After
+  public void after() {
+    mFileSystemMaster.mLatch.countDown();
+    mApplier.close();
+  }
+
+  @Test
+  public void keepsOrderPerMaster() {
+    mFileSystemMaster.mLatch.countDown();
+    for (int i = 0; i < 100; i++) {
+      mApplier.processJournalEntry(i % 3 == 0 ? blockEntry(i) : fileSystemEntry(i));
+    }
+    mApplier.flush();
+    List<Long> fileSystemEntries = new ArrayList<>();
+    List<Long> blockEntries = new ArrayList<>();
+    for (long i = 0; i < 100; i++) {
+      (i % 3 == 0 ? blockEntries : fileSystemEntries).add(i);
+    }
+    assertEquals(fileSystemEntries, mFileSystemMaster.mApplied);
+    assertEquals(blockEntries, mBlockMaster.mApplied);
+  }
+
+  @Test
+  public void mastersApplyIndependently() throws Exception {
+    mApplier.processJournalEntry(fileSystemEntry(0));
+    for (int i = 1; i <= 10; i++) {
+      mApplier.processJournalEntry(blockEntry(i));
+    }
+    // the block entries are applied while the file system master is blocked
+    CommonUtils.waitFor("block entries to be applied", () -> mBlockMaster.mApplied.size() == 10,
+        WaitForOptions.defaults().setTimeoutMs(10000));
+    assertEquals(0, mFileSystemMaster.mApplied.size());
+    mFileSystemMaster.mLatch.countDown();
+    mApplier.flush();
+    assertEquals(1, mFileSystemMaster.mApplied.size());
+  }
+
+  @Test
+  public void serializesSinkAppends() {
+    mFileSystemMaster.mLatch.countDown();
+    for (int i = 0; i < 100; i++) {
+      mApplier.processJournalEntry(i % 2 == 0 ? blockEntry(i) : fileSystemEntry(i));
+    }
+    mApplier.flush();
+    assertEquals(100, mSink.mAppended.get());
+    assertFalse(mSink.mOverlapped);
+  }
+
+  @Test
+  public void flushThrowsApplyFailure() {
+    mApplier.processJournalEntry(fileSystemEntry(0));
+    mApplier.processJournalEntry(JournalEntry.newBuilder().setSequenceNumber(1)
+        .setDeleteFile(File.DeleteFileEntry.newBuilder().setId(1)).build());
+    mApplier.processJournalEntry(fileSystemEntry(2));
+    mFileSystemMaster.mLatch.countDown();
+    assertThrows(RuntimeException.class, mApplier::flush);
+    // entries after the failed entry are not applied
+    assertEquals(Collections.singletonList(0L), mFileSystemMaster.mApplied);
+    assertThrows(RuntimeException.class, () -> mApplier.processJournalEntry(fileSystemEntry(3)));
+  }
+
+  private static JournalEntry fileSystemEntry(long sequenceNumber) {
+    return JournalEntry.newBuilder().setSequenceNumber(sequenceNumber)
+        .setInodeLastModificationTime(
+            File.InodeLastModificationTimeEntry.newBuilder().setId(sequenceNumber))
+        .build();
+  }
+
+  private static JournalEntry blockEntry(long sequenceNumber) {
+    return JournalEntry.newBuilder().setSequenceNumber(sequenceNumber)
+        .setBlockContainerIdGenerator(
+            Block.BlockContainerIdGeneratorEntry.newBuilder().setNextContainerId(sequenceNumber))
+        .build();
+  }
+
+  /**
+   * A journal sink which detects appends running at the same time.
+   */
+  private static class OverlapDetectingSink implements JournalSink {
+    private final AtomicInteger mAppending = new AtomicInteger();
+    private final AtomicInteger mAppended = new AtomicInteger();
+    private volatile boolean mOverlapped = false;
+
+    @Override
+    public void append(JournalEntry entry) {
+      if (mAppending.incrementAndGet() > 1) {
+        mOverlapped = true;
+      }
+      try {
+        Thread.sleep(1);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      mAppended.incrementAndGet();
+      mAppending.decrementAndGet();
+    }
+  }
+
+  /**
+   * A master recording the sequence numbers of the entries applied to it, which waits for its
+   * latch before applying entries and fails on delete file entries.
+   */
+  private static class RecordingMaster extends NoopMaster {
+    private final List<Long> mApplied = Collections.synchronizedList(new ArrayList<>());
+    private final CountDownLatch mLatch;
+
+    RecordingMaster(String name) {
+      super(name);
+      mLatch = new CountDownLatch(name.equals(Constants.FILE_SYSTEM_MASTER_NAME) ? 1 : 0);
+    }
+
+    @Override
+    public boolean processJournalEntry(JournalEntry entry) {
+      try {
+        mLatch.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException(e);
+      }
+      if (entry.hasDeleteFile()) {
+        throw new IllegalStateException("failed to apply " + entry);
+      }
+      mApplied.add(entry.getSequenceNumber());
+      return true;
+    }
+  }
+}
@@ -75,7 +75,15 @@ public class InodeStoreTest {
     return Arrays.asList(
         lockManager -> new HeapInodeStore(),
         lockManager -> new RocksInodeStore(sDir),
-        lockManager -> new CachingInodeStore(new RocksInodeStore(sDir), lockManager));
+        lockManager -> new CachingInodeStore(new RocksInodeStore(sDir), lockManager),
+        lockManager -> {
+          Configuration.set(PropertyKey.MASTER_METASTORE_INODE_CACHE_OFF_HEAP_ENABLED, true);
+          try {
+            return new CachingInodeStore(new RocksInodeStore(sDir), lockManager);
+          } finally {
+            Configuration.unset(PropertyKey.MASTER_METASTORE_INODE_CACHE_OFF_HEAP_ENABLED);
+          }
+        });
   }
 
   @Rule
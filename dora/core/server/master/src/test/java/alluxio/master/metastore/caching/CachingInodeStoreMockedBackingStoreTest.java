@@ -17,6 +17,8 @@ import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.atMost;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
@@ -37,6 +39,7 @@ import alluxio.master.metastore.ReadOption;
 import alluxio.master.metastore.heap.HeapInodeStore;
 import alluxio.resource.CloseableIterator;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import io.netty.util.ResourceLeakDetector;
 import org.junit.After;
@@ -55,6 +58,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 public class CachingInodeStoreMockedBackingStoreTest {
   private static final int CACHE_SIZE = 20;
@@ -301,6 +305,97 @@ public class CachingInodeStoreMockedBackingStoreTest {
     assertEquals(CACHE_SIZE / 2, CloseableIterator.size(mBackingStore.getChildren(0L)));
   }
 
+  @Test
+  public void pagedListingFromBackingStore() throws Exception {
+    for (long inodeId = 100; inodeId < 100 + CACHE_SIZE * 4; inodeId++) {
+      MutableInodeDirectory dir = createInodeDir(inodeId, 0);
+      mStore.addChild(0, dir);
+    }
+    mStore.mEdgeCache.flush();
+    mStore.mInodeCache.flush();
+    // one removal which is not flushed yet, and one child which is only in the cache
+    mStore.removeChild(0, "150");
+    mStore.addChild(0, createInodeDir(1000, 0));
+
+    List<Long> listed = new ArrayList<>();
+    String from = "";
+    while (true) {
+      List<Long> page = new ArrayList<>();
+      try (CloseableIterator<? extends Inode> iter = mStore.getChildrenFrom(0, from)) {
+        while (iter.hasNext() && page.size() < 11) {
+          page.add(iter.next().getId());
+        }
+      }
+      // the first child of the next page is the last child of this page
+      if (!listed.isEmpty()) {
+        assertEquals(listed.remove(listed.size() - 1), page.get(0));
+      }
+      listed.addAll(page);
+      if (page.size() < 11) {
+        break;
+      }
+      from = Long.toString(page.get(page.size() - 1));
+    }
+    List<Long> expected = new ArrayList<>();
+    for (long inodeId = 100; inodeId < 100 + CACHE_SIZE * 4; inodeId++) {
+      if (inodeId != 150) {
+        expected.add(inodeId);
+      }
+    }
+    // children are sorted by name
+    expected.add(1, 1000L);
+    assertEquals(expected, listed);
+
+    List<Long> prefixed = new ArrayList<>();
+    try (CloseableIterator<? extends Inode> iter = mStore.getChildrenPrefixFrom(0, "10", "105")) {
+      iter.forEachRemaining(inode -> prefixed.add(inode.getId()));
+    }
+    assertEquals(ImmutableList.of(105L, 106L, 107L, 108L, 109L), prefixed);
+    // the pages are read from the backing store without listing the whole directory
+    verify(mBackingStore, times(0)).getChildIds(0L);
+  }
+
+  @Test
+  public void pagedListingInCachedBatches() throws Exception {
+    mStore.mEdgeCache.mChildIdBatchSize = 3;
+    for (long inodeId = 100; inodeId < 100 + CACHE_SIZE; inodeId++) {
+      mStore.addChild(0, createInodeDir(inodeId, 0));
+    }
+    mStore.mEdgeCache.flush();
+    mStore.mInodeCache.flush();
+    // children which are only in the cache, between and after the stored ones
+    for (long inodeId = 1000; inodeId < 1005; inodeId++) {
+      mStore.addChild(0, createInodeDir(inodeId, 0));
+    }
+    mStore.removeChild(0, "105");
+
+    List<Long> listed = new ArrayList<>();
+    try (CloseableIterator<? extends Inode> iter = mStore.getChildrenFrom(0, "")) {
+      iter.forEachRemaining(inode -> listed.add(inode.getId()));
+    }
+    List<String> expected = new ArrayList<>();
+    for (long inodeId = 100; inodeId < 100 + CACHE_SIZE; inodeId++) {
+      if (inodeId != 105) {
+        expected.add(Long.toString(inodeId));
+      }
+    }
+    for (long inodeId = 1000; inodeId < 1005; inodeId++) {
+      expected.add(Long.toString(inodeId));
+    }
+    // children are sorted by name
+    Collections.sort(expected);
+    assertEquals(expected.stream().map(Long::parseLong).collect(Collectors.toList()), listed);
+
+    List<Long> prefixed = new ArrayList<>();
+    try (CloseableIterator<? extends Inode> iter = mStore.getChildrenPrefixFrom(0, "10", "")) {
+      iter.forEachRemaining(inode -> prefixed.add(inode.getId()));
+    }
+    assertEquals(ImmutableList.of(100L, 1000L, 1001L, 1002L, 1003L, 1004L, 101L, 102L, 103L,
+        104L, 106L, 107L, 108L, 109L), prefixed);
+    // the backing store is read once per batch of cached children
+    verify(mBackingStore, atLeast(2)).getChildIds(eq(0L), any(ReadOption.class));
+  }
+
   private MutableInodeDirectory createInodeDir(long id, long parentId) {
     MutableInodeDirectory dir = MutableInodeDirectory.create(id, parentId, Long.toString(id),
         CreateDirectoryContext.defaults());
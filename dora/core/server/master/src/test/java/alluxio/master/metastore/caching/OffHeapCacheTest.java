@@ -0,0 +1,240 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.master.metastore.caching;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import alluxio.master.metastore.ReadOption;
+import alluxio.metrics.MetricKey;
+import alluxio.util.CommonUtils;
+import alluxio.util.WaitForOptions;
+
+import com.google.common.base.Strings;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class OffHeapCacheTest {
+  private static final int CACHE_SIZE = 20;
+
+  private Map<Long, String> mBackingStore;
+  private TestCache mCache;
+
+  @Before
+  public void before() {
+    mBackingStore = new ConcurrentHashMap<>();
+    mCache = new TestCache(CacheConfiguration.newBuilder().setMaxSize(CACHE_SIZE)
+        .setHighWaterMark(17).setLowWaterMark(15).setEvictBatchSize(5).build());
+  }
+
+  @After
+  public void after() {
+    mCache.close();
+  }
+
+  @Test
+  public void putGetRemove() throws Exception {
+    mCache.put(1, "a");
+    mCache.put(1, "b");
+    assertEquals(Optional.of("b"), mCache.get(1));
+    mCache.remove(1);
+    assertEquals(Optional.empty(), mCache.get(1));
+    assertTrue(mBackingStore.isEmpty());
+
+    mBackingStore.put(2L, "c");
+    assertEquals(Optional.of("c"), mCache.get(2));
+    mCache.remove(2);
+    mCache.flush();
+    assertFalse(mBackingStore.containsKey(2L));
+    assertEquals(Optional.empty(), mCache.get(2));
+  }
+
+  @Test
+  public void getSharedFromHotSet() throws Exception {
+    mCache.put(1, "a");
+    String value = mCache.getShared(1, ReadOption.defaults()).get();
+    assertSame(value, mCache.getShared(1, ReadOption.defaults()).get());
+    assertNotSame(value, mCache.get(1).get());
+
+    mCache.put(1, "b");
+    assertEquals(Optional.of("b"), mCache.getShared(1, ReadOption.defaults()));
+    mCache.remove(1);
+    assertEquals(Optional.empty(), mCache.getShared(1, ReadOption.defaults()));
+
+    // A key which left the cache gets a new version when it is loaded again.
+    mCache.put(2, "c");
+    mCache.getShared(2, ReadOption.defaults());
+    mCache.put(2, Strings.repeat("d", OffHeapCache.MAX_VALUE_SIZE + 1));
+    mBackingStore.put(2L, "d");
+    assertEquals(Optional.of("d"), mCache.get(2));
+    assertEquals(Optional.of("d"), mCache.getShared(2, ReadOption.defaults()));
+  }
+
+  @Test
+  public void flush() throws Exception {
+    for (long i = 0; i < 10; i++) {
+      mCache.put(i, "value" + i);
+    }
+    mCache.flush();
+    for (long i = 0; i < 10; i++) {
+      assertEquals("value" + i, mBackingStore.get(i));
+    }
+  }
+
+  @Test
+  public void evictToBackingStore() throws Exception {
+    for (long i = 0; i < 100; i++) {
+      mCache.put(i, "value" + i);
+      CommonUtils.waitFor("eviction", () -> mCache.size() < CACHE_SIZE,
+          WaitForOptions.defaults().setTimeoutMs(10000));
+    }
+    CommonUtils.waitFor("eviction", () -> mCache.size() <= 17,
+        WaitForOptions.defaults().setTimeoutMs(10000));
+    for (long i = 0; i < 100; i++) {
+      assertEquals(Optional.of("value" + i), mCache.get(i));
+    }
+    mCache.flush();
+    assertEquals(100, mBackingStore.size());
+  }
+
+  @Test
+  public void evictionKeepsOtherKeys() throws Exception {
+    TestCache cache = new TestCache(CacheConfiguration.newBuilder().setMaxSize(4000)
+        .setHighWaterMark(2000).setLowWaterMark(1000).setEvictBatchSize(100).build());
+    try {
+      for (long i = 0; i < 10_000; i++) {
+        cache.put(i, "value" + i);
+        if (i % 3 == 0) {
+          cache.remove(i);
+        }
+      }
+      for (long i = 0; i < 10_000; i++) {
+        assertEquals(i % 3 == 0 ? Optional.empty() : Optional.of("value" + i), cache.get(i));
+      }
+    } finally {
+      cache.close();
+    }
+  }
+
+  @Test
+  public void writeThroughLargeValues() throws Exception {
+    String large = Strings.repeat("a", OffHeapCache.MAX_VALUE_SIZE + 1);
+    mCache.put(1, "small");
+    mCache.put(1, large);
+    assertEquals(large, mBackingStore.get(1L));
+    assertEquals(0, mCache.size());
+    assertEquals(Optional.of(large), mCache.get(1));
+  }
+
+  @Test
+  public void clearReleasesMemory() throws Exception {
+    for (long i = 0; i < 10; i++) {
+      mCache.put(i, "value" + i);
+    }
+    assertTrue(mCache.getOffHeapBytes() > 0);
+    mCache.clear();
+    assertEquals(0, mCache.size());
+    assertEquals(0, mCache.getOffHeapBytes());
+    assertEquals(Optional.empty(), mCache.get(1));
+  }
+
+  @Test
+  public void concurrentWrites() throws Exception {
+    int threads = 4;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        long base = t * 1000L;
+        futures.add(executor.submit(() -> {
+          for (int round = 0; round < 20; round++) {
+            for (long key = base; key < base + 10; key++) {
+              mCache.put(key, key + ":" + round);
+              assertEquals(Optional.of(key + ":" + round), mCache.get(key));
+            }
+          }
+          return null;
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    mCache.flush();
+    for (long t = 0; t < threads; t++) {
+      for (long key = t * 1000; key < t * 1000 + 10; key++) {
+        assertEquals(key + ":19", mBackingStore.get(key));
+      }
+    }
+  }
+
+  private class TestCache extends OffHeapCache<String> {
+    TestCache(CacheConfiguration conf) {
+      super(conf, 16, "test-cache", MetricKey.MASTER_INODE_CACHE_EVICTIONS,
+          MetricKey.MASTER_INODE_CACHE_HITS, MetricKey.MASTER_INODE_CACHE_LOAD_TIMES,
+          MetricKey.MASTER_INODE_CACHE_MISSES, MetricKey.MASTER_INODE_CACHE_SIZE,
+          MetricKey.MASTER_INODE_CACHE_OFF_HEAP_SIZE);
+    }
+
+    @Override
+    protected byte[] serialize(String value) {
+      return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected String deserialize(byte[] bytes) {
+      return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected Optional<String> load(long key) {
+      return Optional.ofNullable(mBackingStore.get(key));
+    }
+
+    @Override
+    protected void writeToBackingStore(long key, String value) {
+      mBackingStore.put(key, value);
+    }
+
+    @Override
+    protected void removeFromBackingStore(long key) {
+      mBackingStore.remove(key);
+    }
+
+    @Override
+    protected void flushEntries(List<FlushEntry> entries) {
+      for (FlushEntry entry : entries) {
+        if (entry.mValue == null) {
+          mBackingStore.remove(entry.mKey);
+        } else {
+          mBackingStore.put(entry.mKey, entry.mValue);
+        }
+      }
+    }
+  }
+}
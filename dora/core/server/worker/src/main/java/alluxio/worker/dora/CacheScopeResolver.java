@@ -0,0 +1,203 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.dora;
+
+import alluxio.AlluxioURI;
+import alluxio.client.file.CacheContext;
+import alluxio.client.file.cache.CacheManager;
+import alluxio.client.file.cache.CacheUsage;
+import alluxio.client.quota.CacheQuota;
+import alluxio.client.quota.CacheScope;
+import alluxio.conf.AlluxioConfiguration;
+import alluxio.conf.PropertyKey;
+import alluxio.metrics.Metric;
+import alluxio.metrics.MetricInfo;
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
+import alluxio.security.User;
+import alluxio.security.authentication.AuthenticatedClientUser;
+import alluxio.util.FormatUtils;
+
+import com.codahale.metrics.Counter;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Assigns the pages cached by the worker to cache scopes, i.e. tenants, and limits the bytes
+ * each scope can cache, so that a scan of one tenant can only evict the pages of that tenant
+ * once it reaches its quota.
+ * <br>
+ * The scope of a read is derived from the authority of the UFS path, e.g. the bucket, or from
+ * the user reading the file, see {@link CacheScopeSource}. The quotas are enforced by the
+ * {@link CacheManager} of the worker, which must be created with quotas enabled, from the
+ * {@link CacheQuota} of the {@link CacheContext}s returned here. The bytes cached, the bytes
+ * read from the cache and from the UFS, and the hit ratio of each scope are reported as metrics
+ * tagged with the scope.
+ */
+@ThreadSafe
+public class CacheScopeResolver {
+  private static final String DEFAULT_SCOPE_ID = "default";
+
+  private final CacheManager mCacheManager;
+  private final CacheScopeSource mSource;
+  private final CacheQuota mCacheQuota;
+  private final Map<String, ScopeMetrics> mScopeMetrics = new ConcurrentHashMap<>();
+
+  /**
+   * @param conf the Alluxio configuration
+   * @param cacheManager the cache manager of the worker
+   */
+  public CacheScopeResolver(AlluxioConfiguration conf, CacheManager cacheManager) {
+    mCacheManager = cacheManager;
+    mSource = conf.getEnum(PropertyKey.WORKER_PAGE_STORE_QUOTA_SCOPE_SOURCE,
+        CacheScopeSource.class);
+    Map<CacheScope, Long> scopeSizes = new HashMap<>();
+    List<String> scopeSizeList = conf.isSet(PropertyKey.WORKER_PAGE_STORE_QUOTA_SCOPE_SIZES)
+        ? conf.getList(PropertyKey.WORKER_PAGE_STORE_QUOTA_SCOPE_SIZES)
+        : Collections.emptyList();
+    for (String scopeSize : scopeSizeList) {
+      String[] parts = scopeSize.split("=");
+      Preconditions.checkArgument(parts.length == 2,
+          "invalid cache scope size %s in %s, expected scope=size", scopeSize,
+          PropertyKey.WORKER_PAGE_STORE_QUOTA_SCOPE_SIZES.getName());
+      scopeSizes.put(CacheScope.create(toScopeId(parts[0].trim())),
+          FormatUtils.parseSpaceSize(parts[1].trim()));
+    }
+    long defaultScopeSize =
+        conf.isSet(PropertyKey.WORKER_PAGE_STORE_QUOTA_DEFAULT_SCOPE_SIZE)
+            ? conf.getBytes(PropertyKey.WORKER_PAGE_STORE_QUOTA_DEFAULT_SCOPE_SIZE)
+            : Long.MAX_VALUE;
+    mCacheQuota = new CacheQuota() {
+      @Override
+      public long getQuota(CacheScope cacheScope) {
+        if (cacheScope == CacheScope.GLOBAL) {
+          return Long.MAX_VALUE;
+        }
+        return scopeSizes.getOrDefault(cacheScope, defaultScopeSize);
+      }
+    };
+  }
+
+  /**
+   * Creates the cache context of a read of a file by the current user.
+   *
+   * @param ufsPath the UFS path of the file
+   * @return the cache context, with the scope and quota of the read
+   */
+  public CacheContext getCacheContext(String ufsPath) {
+    String id = getScopeId(ufsPath);
+    ScopedCacheContext context =
+        new ScopedCacheContext(mScopeMetrics.computeIfAbsent(id, ScopeMetrics::new));
+    context.setCacheScope(CacheScope.create(id)).setCacheQuota(mCacheQuota);
+    return context;
+  }
+
+  /**
+   * @param ufsPath the UFS path of a file
+   * @return the id of the cache scope of a read of the file by the current user
+   */
+  @VisibleForTesting
+  String getScopeId(String ufsPath) {
+    String id;
+    if (mSource == CacheScopeSource.USER) {
+      User user = AuthenticatedClientUser.getOrNull();
+      id = (user == null) ? "" : user.getName();
+    } else {
+      AlluxioURI uri = new AlluxioURI(ufsPath);
+      id = uri.getAuthority().toString();
+      if (id.isEmpty() && uri.getScheme() != null) {
+        id = uri.getScheme();
+      }
+    }
+    return toScopeId(id);
+  }
+
+  /**
+   * @param cacheScope a cache scope
+   * @return the quota of the scope in bytes
+   */
+  @VisibleForTesting
+  long getQuota(CacheScope cacheScope) {
+    return mCacheQuota.getQuota(cacheScope);
+  }
+
+  /**
+   * @param name a bucket, user or other name
+   * @return the name as a single level scope id, in which only word characters are allowed
+   */
+  private static String toScopeId(String name) {
+    String id = name.replaceAll("\\W", "_");
+    return id.isEmpty() ? DEFAULT_SCOPE_ID : id;
+  }
+
+  /**
+   * The metrics of a cache scope.
+   */
+  private final class ScopeMetrics {
+    private final Counter mBytesReadCache;
+    private final Counter mBytesReadExternal;
+
+    private ScopeMetrics(String scopeId) {
+      CacheScope scope = CacheScope.create(scopeId);
+      mBytesReadCache = MetricsSystem.counter(getMetricName(
+          MetricKey.WORKER_CACHE_SCOPE_BYTES_READ_CACHE, scopeId));
+      mBytesReadExternal = MetricsSystem.counter(getMetricName(
+          MetricKey.WORKER_CACHE_SCOPE_BYTES_READ_EXTERNAL, scopeId));
+      MetricsSystem.registerGaugeIfAbsent(
+          MetricsSystem.getMetricName(getMetricName(MetricKey.WORKER_CACHE_SCOPE_BYTES, scopeId)),
+          () -> mCacheManager.getUsage()
+              .flatMap(usage -> usage.partitionedBy(new CacheUsage.ScopePartition(scope)))
+              .map(CacheUsage::used)
+              .orElse(0L));
+      MetricsSystem.registerGaugeIfAbsent(
+          MetricsSystem.getMetricName(
+              getMetricName(MetricKey.WORKER_CACHE_SCOPE_HIT_RATIO, scopeId)),
+          () -> {
+            long hits = mBytesReadCache.getCount();
+            long total = hits + mBytesReadExternal.getCount();
+            return total == 0 ? 0.0 : (double) hits / total;
+          });
+    }
+
+    private String getMetricName(MetricKey key, String scopeId) {
+      return Metric.getMetricNameWithTags(key.getName(), MetricInfo.TAG_CACHE_SCOPE, scopeId);
+    }
+  }
+
+  /**
+   * A {@link CacheContext} which records the bytes read from the cache and the UFS in the
+   * metrics of its scope.
+   */
+  private static final class ScopedCacheContext extends CacheContext {
+    private final ScopeMetrics mMetrics;
+
+    private ScopedCacheContext(ScopeMetrics metrics) {
+      mMetrics = metrics;
+    }
+
+    @Override
+    public void incrementCounter(String name, StatsUnit unit, long value) {
+      if (MetricKey.CLIENT_CACHE_BYTES_READ_CACHE.getMetricName().equals(name)) {
+        mMetrics.mBytesReadCache.inc(value);
+      } else if (MetricKey.CLIENT_CACHE_BYTES_REQUESTED_EXTERNAL.getMetricName().equals(name)) {
+        mMetrics.mBytesReadExternal.inc(value);
+      }
+    }
+  }
+}
@@ -0,0 +1,363 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.dora;
+
+import alluxio.AlluxioURI;
+import alluxio.grpc.FileInfo;
+import alluxio.proto.meta.DoraMeta;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A compact binary encoding of the {@link DoraMeta.FileStatus} stored for a file by the Dora
+ * worker, as an alternative to the serialized protobuf.
+ * <br>
+ * The protobuf of a file status repeats the full path of the file in three fields, as well as
+ * the owner, group and UFS type strings shared by most files. In the compact encoding:
+ * <ul>
+ *   <li>the name, path, UFS path and file id are not stored, but derived from the key the
+ *   status is stored under, which is the full path of the file</li>
+ *   <li>the owner, group and UFS type are replaced by the ids of these strings in a dictionary,
+ *   whose entries are persisted through the given writer when a new string is interned</li>
+ *   <li>the other fields are stored as varints behind a bit set of the fields present</li>
+ * </ul>
+ * Only the statuses built by the worker from UFS statuses can be encoded, see
+ * {@link #canEncode}. Other statuses must be stored as protobufs, which the first byte of a
+ * compact value never is, see {@link #isCompact}.
+ */
+@ThreadSafe
+public class CompactFileStatusCodec {
+  /** The first byte of a compact value, which is never the first byte of a protobuf. */
+  private static final byte MAGIC = 0;
+  private static final byte VERSION = 1;
+
+  private static final int HAS_TS = 1;
+  private static final int HAS_PATH = 1 << 1;
+  private static final int HAS_UFS_TYPE = 1 << 2;
+  private static final int HAS_MODE = 1 << 3;
+  private static final int HAS_OWNER = 1 << 4;
+  private static final int HAS_GROUP = 1 << 5;
+  private static final int HAS_FOLDER = 1 << 6;
+  private static final int HAS_COMPLETED = 1 << 7;
+  private static final int HAS_PERSISTED = 1 << 8;
+  private static final int HAS_LENGTH = 1 << 9;
+  private static final int HAS_LAST_MODIFICATION_TIME = 1 << 10;
+  private static final int HAS_BLOCK_SIZE = 1 << 11;
+  private static final int HAS_CONTENT_HASH = 1 << 12;
+  private static final int HAS_IN_ALLUXIO_PERCENTAGE = 1 << 13;
+  private static final int HAS_IN_MEMORY_PERCENTAGE = 1 << 14;
+  private static final int FOLDER = 1 << 15;
+  private static final int COMPLETED = 1 << 16;
+  private static final int PERSISTED = 1 << 17;
+
+  private final ConcurrentHashMap<String, Integer> mDictionaryIds = new ConcurrentHashMap<>();
+  /** The interned strings by id, copied when a string is interned, which is rare. */
+  private volatile String[] mDictionary = new String[0];
+  private final BiConsumer<Integer, String> mDictionaryWriter;
+
+  /**
+   * @param dictionaryWriter persists a new dictionary entry, given its id and value, before the
+   *        first value referencing it is written
+   */
+  public CompactFileStatusCodec(BiConsumer<Integer, String> dictionaryWriter) {
+    mDictionaryWriter = dictionaryWriter;
+  }
+
+  /**
+   * Restores a persisted dictionary entry. The entries must be restored in the order of their
+   * ids, before any value is encoded or decoded.
+   *
+   * @param id the id of the entry
+   * @param value the interned string
+   */
+  public synchronized void restoreDictionaryEntry(int id, String value) {
+    if (id != mDictionary.length) {
+      throw new IllegalStateException(String.format(
+          "Dictionary entry %d restored after %d entries", id, mDictionary.length));
+    }
+    addDictionaryEntry(value);
+  }
+
+  /**
+   * @return the number of entries in the dictionary
+   */
+  public int getDictionarySize() {
+    return mDictionary.length;
+  }
+
+  /**
+   * @param value the value stored for a file
+   * @return true if the value is in the compact encoding, false if it is a protobuf
+   */
+  public static boolean isCompact(byte[] value) {
+    return value.length > 0 && value[0] == MAGIC;
+  }
+
+  /**
+   * Checks if a file status only has the fields the compact encoding can represent.
+   *
+   * @param path the full path of the file
+   * @param status the file status
+   * @return true if the status can be encoded
+   */
+  public boolean canEncode(String path, DoraMeta.FileStatus status) {
+    if (!status.hasFileInfo()
+        || !status.toBuilder().clearFileInfo().clearTs().build()
+            .equals(DoraMeta.FileStatus.getDefaultInstance())) {
+      return false;
+    }
+    FileInfo info = status.getFileInfo();
+    boolean hasPath = info.hasName() || info.hasPath() || info.hasUfsPath() || info.hasFileId();
+    if (hasPath && !(path.equals(info.getPath()) && path.equals(info.getUfsPath())
+        && info.getFileId() == path.hashCode() && getName(path).equals(info.getName()))) {
+      return false;
+    }
+    return info.toBuilder()
+        .clearName().clearPath().clearUfsPath().clearFileId()
+        .clearUfsType().clearMode().clearOwner().clearGroup()
+        .clearFolder().clearCompleted().clearPersisted()
+        .clearLength().clearLastModificationTimeMs().clearBlockSizeBytes().clearContentHash()
+        .clearInAlluxioPercentage().clearInMemoryPercentage()
+        .build().equals(FileInfo.getDefaultInstance());
+  }
+
+  /**
+   * Encodes a file status, which must be encodable according to {@link #canEncode}.
+   *
+   * @param status the file status
+   * @return the compact value
+   */
+  public byte[] encode(DoraMeta.FileStatus status) {
+    FileInfo info = status.getFileInfo();
+    int flags = (status.hasTs() ? HAS_TS : 0)
+        | (info.hasPath() ? HAS_PATH : 0)
+        | (info.hasUfsType() ? HAS_UFS_TYPE : 0)
+        | (info.hasMode() ? HAS_MODE : 0)
+        | (info.hasOwner() ? HAS_OWNER : 0)
+        | (info.hasGroup() ? HAS_GROUP : 0)
+        | (info.hasFolder() ? HAS_FOLDER : 0)
+        | (info.hasCompleted() ? HAS_COMPLETED : 0)
+        | (info.hasPersisted() ? HAS_PERSISTED : 0)
+        | (info.hasLength() ? HAS_LENGTH : 0)
+        | (info.hasLastModificationTimeMs() ? HAS_LAST_MODIFICATION_TIME : 0)
+        | (info.hasBlockSizeBytes() ? HAS_BLOCK_SIZE : 0)
+        | (info.hasContentHash() ? HAS_CONTENT_HASH : 0)
+        | (info.hasInAlluxioPercentage() ? HAS_IN_ALLUXIO_PERCENTAGE : 0)
+        | (info.hasInMemoryPercentage() ? HAS_IN_MEMORY_PERCENTAGE : 0)
+        | (info.getFolder() ? FOLDER : 0)
+        | (info.getCompleted() ? COMPLETED : 0)
+        | (info.getPersisted() ? PERSISTED : 0);
+    // intern the strings first, so that a failure to persist a new entry fails the encoding
+    int ufsType = info.hasUfsType() ? intern(info.getUfsType()) : 0;
+    int owner = info.hasOwner() ? intern(info.getOwner()) : 0;
+    int group = info.hasGroup() ? intern(info.getGroup()) : 0;
+
+    int size = 2 + CodedOutputStream.computeUInt32SizeNoTag(flags);
+    if (status.hasTs()) {
+      size += CodedOutputStream.computeSInt64SizeNoTag(status.getTs());
+    }
+    if (info.hasUfsType()) {
+      size += CodedOutputStream.computeUInt32SizeNoTag(ufsType);
+    }
+    if (info.hasMode()) {
+      size += CodedOutputStream.computeInt32SizeNoTag(info.getMode());
+    }
+    if (info.hasOwner()) {
+      size += CodedOutputStream.computeUInt32SizeNoTag(owner);
+    }
+    if (info.hasGroup()) {
+      size += CodedOutputStream.computeUInt32SizeNoTag(group);
+    }
+    if (info.hasLength()) {
+      size += CodedOutputStream.computeSInt64SizeNoTag(info.getLength());
+    }
+    if (info.hasLastModificationTimeMs()) {
+      size += CodedOutputStream.computeSInt64SizeNoTag(info.getLastModificationTimeMs());
+    }
+    if (info.hasBlockSizeBytes()) {
+      size += CodedOutputStream.computeSInt64SizeNoTag(info.getBlockSizeBytes());
+    }
+    if (info.hasContentHash()) {
+      size += CodedOutputStream.computeStringSizeNoTag(info.getContentHash());
+    }
+    if (info.hasInAlluxioPercentage()) {
+      size += CodedOutputStream.computeInt32SizeNoTag(info.getInAlluxioPercentage());
+    }
+    if (info.hasInMemoryPercentage()) {
+      size += CodedOutputStream.computeInt32SizeNoTag(info.getInMemoryPercentage());
+    }
+
+    byte[] value = new byte[size];
+    CodedOutputStream out = CodedOutputStream.newInstance(value);
+    try {
+      out.writeRawByte(MAGIC);
+      out.writeRawByte(VERSION);
+      out.writeUInt32NoTag(flags);
+      if (status.hasTs()) {
+        out.writeSInt64NoTag(status.getTs());
+      }
+      if (info.hasUfsType()) {
+        out.writeUInt32NoTag(ufsType);
+      }
+      if (info.hasMode()) {
+        out.writeInt32NoTag(info.getMode());
+      }
+      if (info.hasOwner()) {
+        out.writeUInt32NoTag(owner);
+      }
+      if (info.hasGroup()) {
+        out.writeUInt32NoTag(group);
+      }
+      if (info.hasLength()) {
+        out.writeSInt64NoTag(info.getLength());
+      }
+      if (info.hasLastModificationTimeMs()) {
+        out.writeSInt64NoTag(info.getLastModificationTimeMs());
+      }
+      if (info.hasBlockSizeBytes()) {
+        out.writeSInt64NoTag(info.getBlockSizeBytes());
+      }
+      if (info.hasContentHash()) {
+        out.writeStringNoTag(info.getContentHash());
+      }
+      if (info.hasInAlluxioPercentage()) {
+        out.writeInt32NoTag(info.getInAlluxioPercentage());
+      }
+      if (info.hasInMemoryPercentage()) {
+        out.writeInt32NoTag(info.getInMemoryPercentage());
+      }
+      out.checkNoSpaceLeft();
+    } catch (IOException e) {
+      // the value is sized before being written
+      throw new IllegalStateException(e);
+    }
+    return value;
+  }
+
+  /**
+   * Decodes a compact value.
+   *
+   * @param path the full path of the file, i.e. the key the value is stored under
+   * @param value the compact value
+   * @return the file status
+   * @throws IOException if the value is corrupted or of an unknown version
+   */
+  public DoraMeta.FileStatus decode(String path, byte[] value) throws IOException {
+    CodedInputStream in = CodedInputStream.newInstance(value);
+    if (in.readRawByte() != MAGIC) {
+      throw new IOException("Not a compact file status");
+    }
+    byte version = in.readRawByte();
+    if (version != VERSION) {
+      throw new IOException("Unknown compact file status version " + version);
+    }
+    int flags = in.readUInt32();
+    DoraMeta.FileStatus.Builder status = DoraMeta.FileStatus.newBuilder();
+    FileInfo.Builder info = FileInfo.newBuilder();
+    if ((flags & HAS_TS) != 0) {
+      status.setTs(in.readSInt64());
+    }
+    if ((flags & HAS_PATH) != 0) {
+      info.setName(getName(path)).setPath(path).setUfsPath(path).setFileId(path.hashCode());
+    }
+    if ((flags & HAS_UFS_TYPE) != 0) {
+      info.setUfsType(lookup(in.readUInt32()));
+    }
+    if ((flags & HAS_MODE) != 0) {
+      info.setMode(in.readInt32());
+    }
+    if ((flags & HAS_OWNER) != 0) {
+      info.setOwner(lookup(in.readUInt32()));
+    }
+    if ((flags & HAS_GROUP) != 0) {
+      info.setGroup(lookup(in.readUInt32()));
+    }
+    if ((flags & HAS_FOLDER) != 0) {
+      info.setFolder((flags & FOLDER) != 0);
+    }
+    if ((flags & HAS_COMPLETED) != 0) {
+      info.setCompleted((flags & COMPLETED) != 0);
+    }
+    if ((flags & HAS_PERSISTED) != 0) {
+      info.setPersisted((flags & PERSISTED) != 0);
+    }
+    if ((flags & HAS_LENGTH) != 0) {
+      info.setLength(in.readSInt64());
+    }
+    if ((flags & HAS_LAST_MODIFICATION_TIME) != 0) {
+      info.setLastModificationTimeMs(in.readSInt64());
+    }
+    if ((flags & HAS_BLOCK_SIZE) != 0) {
+      info.setBlockSizeBytes(in.readSInt64());
+    }
+    if ((flags & HAS_CONTENT_HASH) != 0) {
+      info.setContentHash(in.readString());
+    }
+    if ((flags & HAS_IN_ALLUXIO_PERCENTAGE) != 0) {
+      info.setInAlluxioPercentage(in.readInt32());
+    }
+    if ((flags & HAS_IN_MEMORY_PERCENTAGE) != 0) {
+      info.setInMemoryPercentage(in.readInt32());
+    }
+    if (!in.isAtEnd()) {
+      throw new IOException("Trailing bytes in compact file status");
+    }
+    return status.setFileInfo(info).build();
+  }
+
+  private int intern(String value) {
+    Integer id = mDictionaryIds.get(value);
+    if (id != null) {
+      return id;
+    }
+    synchronized (this) {
+      id = mDictionaryIds.get(value);
+      if (id != null) {
+        return id;
+      }
+      int newId = mDictionary.length;
+      mDictionaryWriter.accept(newId, value);
+      addDictionaryEntry(value);
+      return newId;
+    }
+  }
+
+  private synchronized void addDictionaryEntry(String value) {
+    String[] dictionary = Arrays.copyOf(mDictionary, mDictionary.length + 1);
+    dictionary[dictionary.length - 1] = value;
+    mDictionaryIds.put(value, dictionary.length - 1);
+    mDictionary = dictionary;
+  }
+
+  private String lookup(int id) throws IOException {
+    String[] dictionary = mDictionary;
+    if (id >= dictionary.length) {
+      throw new IOException("Unknown dictionary entry " + id);
+    }
+    return dictionary[id];
+  }
+
+  /**
+   * Derives the name of a file from its path. Parsing the path as an {@link AlluxioURI} would
+   * dominate the decoding time, the statuses whose name differs are stored as protobufs.
+   */
+  private static String getName(String path) {
+    return path.substring(path.lastIndexOf(AlluxioURI.SEPARATOR) + 1);
+  }
+}
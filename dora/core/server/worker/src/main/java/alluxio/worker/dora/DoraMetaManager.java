@@ -13,11 +13,14 @@ package alluxio.worker.dora;
 
 import alluxio.AlluxioURI;
 import alluxio.client.file.cache.CacheManager;
+import alluxio.collections.Pair;
 import alluxio.conf.AlluxioConfiguration;
 import alluxio.conf.Configuration;
 import alluxio.conf.PropertyKey;
 import alluxio.file.FileId;
 import alluxio.grpc.FileInfo;
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
 import alluxio.proto.meta.DoraMeta;
 import alluxio.proto.meta.DoraMeta.FileStatus;
 import alluxio.underfs.Fingerprint;
@@ -26,7 +29,9 @@ import alluxio.underfs.UnderFileSystem;
 import alluxio.underfs.UnderFileSystemConfiguration;
 import alluxio.underfs.options.GetStatusOptions;
 import alluxio.underfs.options.ListOptions;
+import alluxio.util.io.PathUtils;
 
+import com.codahale.metrics.Counter;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.common.base.Preconditions;
@@ -37,8 +42,15 @@ import org.slf4j.LoggerFactory;
 import java.io.Closeable;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 
 /**
  * The Dora metadata manager that orchestrates the metadata operations.
@@ -58,6 +70,8 @@ public class DoraMetaManager implements Closeable {
       = Configuration.getInt(PropertyKey.DORA_UFS_LIST_STATUS_CACHE_NR_FILES);
   private final boolean mGetRealContentHash
       = Configuration.getBoolean(PropertyKey.USER_FILE_METADATA_LOAD_REAL_CONTENT_HASH);
+  private final boolean mCacheListedStatus
+      = Configuration.getBoolean(PropertyKey.DORA_WORKER_METASTORE_CACHE_LISTED_STATUS_ENABLED);
   private final Cache<String, ListStatusResult> mListStatusCache = mListingCacheCapacity == 0
       ? null
       : Caffeine.newBuilder()
@@ -66,6 +80,18 @@ public class DoraMetaManager implements Closeable {
           v.mUfsStatuses == null ? 0 : v.mUfsStatuses.length)
       .expireAfterWrite(Configuration.getDuration(PropertyKey.DORA_UFS_LIST_STATUS_CACHE_TTL))
       .build();
+  /**
+   * The UFS listings in progress, keyed by the path and whether the listing is recursive.
+   * Concurrent callers listing the same path join the listing in progress instead of each
+   * issuing their own UFS listing.
+   */
+  private final ConcurrentHashMap<Pair<String, Boolean>, CompletableFuture<Optional<UfsStatus[]>>>
+      mInProgressListings = new ConcurrentHashMap<>();
+
+  private static final Counter LIST_STATUS_UFS_COUNT =
+      MetricsSystem.counter(MetricKey.WORKER_LIST_STATUS_UFS_COUNT.getName());
+  private static final Counter LIST_STATUS_COALESCED_COUNT =
+      MetricsSystem.counter(MetricKey.WORKER_LIST_STATUS_COALESCED_COUNT.getName());
 
   /**
    * Creates a dora meta manager.
@@ -81,7 +107,9 @@ public class DoraMetaManager implements Closeable {
     String dbDir = mConf.getString(PropertyKey.DORA_WORKER_METASTORE_ROCKSDB_DIR);
     Duration duration = mConf.getDuration(PropertyKey.DORA_WORKER_METASTORE_ROCKSDB_TTL);
     long ttl = (duration.isNegative() || duration.isZero()) ? -1 : duration.getSeconds();
-    mMetaStore = new RocksDBDoraMetaStore(dbDir, ttl);
+    mMetaStore = new RocksDBDoraMetaStore(dbDir, ttl,
+        mConf.getBoolean(PropertyKey.DORA_WORKER_METASTORE_ROCKSDB_WAL_ENABLED),
+        mConf.getBoolean(PropertyKey.DORA_WORKER_METASTORE_ROCKSDB_COMPACT_ENCODING_ENABLED));
     mCacheManager = cacheManger;
     mDoraWorker = doraWorker;
     mUfsManager = ufsManager;
@@ -164,6 +192,36 @@ public class DoraMetaManager implements Closeable {
     mMetaStore.putDoraMeta(path, status);
   }
 
+  /**
+   * Gets the meta of several files from the metastore in a single lookup.
+   * @param paths the full ufs paths
+   * @return the file metas found, keyed by path
+   */
+  public Map<String, FileStatus> getAllFromMetaStore(Collection<String> paths) {
+    return mMetaStore.getDoraMetas(paths);
+  }
+
+  /**
+   * Puts meta of several files into the metastore in a single write, and invalidates the data
+   * cache of the files whose content changed.
+   * @param statuses the file metas, keyed by full ufs path
+   */
+  public void putAll(Map<String, FileStatus> statuses) {
+    if (statuses.isEmpty()) {
+      return;
+    }
+    Map<String, FileStatus> existingStatuses = mMetaStore.getDoraMetas(statuses.keySet());
+    for (Map.Entry<String, FileStatus> existing : existingStatuses.entrySet()) {
+      FileInfo existingInfo = existing.getValue().getFileInfo();
+      if (!existingInfo.getFolder() && existingInfo.getLength() != 0
+          && shouldInvalidatePageCache(existingInfo,
+              statuses.get(existing.getKey()).getFileInfo())) {
+        invalidateCachedFile(existing.getKey());
+      }
+    }
+    mMetaStore.putDoraMetas(statuses);
+  }
+
   /**
    * Removes meta of a file from the meta store.
    * @param path the full ufs path
@@ -239,6 +297,9 @@ public class DoraMetaManager implements Closeable {
       ListStatusResult cached = mListStatusCache.get(path, (k) -> {
         try {
           Optional<UfsStatus[]> listResults = listFromUfs(path, false);
+          if (mCacheListedStatus) {
+            listResults.ifPresent(ufsStatuses -> putListedStatuses(path, ufsStatuses));
+          }
           return listResults.map(
                   ufsStatuses -> new ListStatusResult(
                       System.nanoTime(), ufsStatuses,
@@ -265,8 +326,30 @@ public class DoraMetaManager implements Closeable {
     }
   }
 
+  /**
+   * Puts the statuses of the files of a directory listing into the metastore.
+   * @param path the ufs path of the listed directory
+   * @param ufsStatuses the listed statuses, named relative to the directory
+   */
+  private void putListedStatuses(String path, UfsStatus[] ufsStatuses) {
+    Map<String, FileStatus> statuses = new HashMap<>();
+    for (UfsStatus status : ufsStatuses) {
+      // only file statuses carry the full metadata of the listed files
+      if (!status.isFile()) {
+        continue;
+      }
+      String fullPath = status.getName().isEmpty() ? path
+          : PathUtils.concatPath(path, status.getName());
+      statuses.put(fullPath, mDoraWorker.buildFileStatusFromUfsStatus(status, fullPath));
+    }
+    putAll(statuses);
+  }
+
   /**
    * Lists a directory from UFS.
+   * If a listing of the same path is already in progress, waits for it and returns its result
+   * instead of listing the UFS again. The returned array is shared by all callers and must not
+   * be modified.
    * @param path the ufs path
    * @param isRecursive if the listing is recursive
    * @return an empty option if the directory does not exist or
@@ -276,6 +359,49 @@ public class DoraMetaManager implements Closeable {
    */
   public Optional<UfsStatus[]> listFromUfs(String path, boolean isRecursive)
       throws IOException {
+    Pair<String, Boolean> key = new Pair<>(path, isRecursive);
+    CompletableFuture<Optional<UfsStatus[]>> listing = new CompletableFuture<>();
+    CompletableFuture<Optional<UfsStatus[]>> inProgress =
+        mInProgressListings.putIfAbsent(key, listing);
+    if (inProgress != null) {
+      LIST_STATUS_COALESCED_COUNT.inc();
+      return waitForListing(path, inProgress);
+    }
+    try {
+      Optional<UfsStatus[]> result = listFromUfsInternal(path, isRecursive);
+      listing.complete(result);
+      return result;
+    } catch (IOException | RuntimeException e) {
+      listing.completeExceptionally(e);
+      throw e;
+    } finally {
+      mInProgressListings.remove(key, listing);
+    }
+  }
+
+  private Optional<UfsStatus[]> waitForListing(String path,
+      CompletableFuture<Optional<UfsStatus[]>> listing) throws IOException {
+    try {
+      return listing.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException(
+          String.format("Interrupted while waiting for the listing of %s", path));
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new IOException(cause);
+    }
+  }
+
+  private Optional<UfsStatus[]> listFromUfsInternal(String path, boolean isRecursive)
+      throws IOException {
+    LIST_STATUS_UFS_COUNT.inc();
     ListOptions ufsListOptions = ListOptions.defaults().setRecursive(isRecursive);
     UnderFileSystem ufs = getUfsInstance(path);
     try {
@@ -288,7 +414,6 @@ public class DoraMetaManager implements Closeable {
         throw e;
       }
     }
-    // TODO(yimin) put the ufs status into the metastore
     // If list does not give a result,
     // the request path might either be a regular file/object or not exist.
     // Try getStatus() instead.
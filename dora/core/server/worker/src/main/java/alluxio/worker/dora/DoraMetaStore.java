@@ -13,6 +13,8 @@ package alluxio.worker.dora;
 
 import alluxio.proto.meta.DoraMeta.FileStatus;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -27,6 +29,14 @@ public interface DoraMetaStore {
    */
   Optional<FileStatus> getDoraMeta(String path);
 
+  /**
+   * Queries the dora metadata of several files from the dora meta store in a single operation.
+   *
+   * @param paths the full paths of the files
+   * @return the metadata of the files found, keyed by path
+   */
+  Map<String, FileStatus> getDoraMetas(Collection<String> paths);
+
   /**
    * Adds dora metadata to the dora meta store. If the dora meta already exists,
    * its metadata will be updated to the given metadata.
@@ -36,6 +46,14 @@ public interface DoraMetaStore {
    */
   void putDoraMeta(String path, FileStatus meta);
 
+  /**
+   * Adds the dora metadata of several files to the dora meta store in a single atomic write.
+   * The dora meta of a file which already exists is updated to the given metadata.
+   *
+   * @param metas the metadata of the files, keyed by path
+   */
+  void putDoraMetas(Map<String, FileStatus> metas);
+
   /**
    * Removes a dora meta, or does nothing if the dora meta does not exist.
    *
@@ -43,6 +61,14 @@ public interface DoraMetaStore {
    */
   void removeDoraMeta(String path);
 
+  /**
+   * Removes the dora metadata of several files in a single atomic write. The files without
+   * dora meta are ignored.
+   *
+   * @param paths the full paths of the files
+   */
+  void removeDoraMetas(Collection<String> paths);
+
   /**
    * Removes all metadata from the dora meta store.
    */
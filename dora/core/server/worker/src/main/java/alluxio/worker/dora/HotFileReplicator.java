@@ -0,0 +1,301 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.dora;
+
+import alluxio.AlluxioURI;
+import alluxio.Constants;
+import alluxio.client.block.BlockWorkerInfo;
+import alluxio.client.block.stream.BlockWorkerClient;
+import alluxio.client.file.FileSystemContext;
+import alluxio.client.file.cache.CacheManager;
+import alluxio.client.file.dora.ConsistentHashProvider;
+import alluxio.conf.AlluxioConfiguration;
+import alluxio.conf.PropertyKey;
+import alluxio.grpc.LoadFileRequest;
+import alluxio.grpc.LoadFileResponse;
+import alluxio.grpc.TaskStatus;
+import alluxio.grpc.UfsReadOptions;
+import alluxio.heartbeat.HeartbeatExecutor;
+import alluxio.membership.MembershipManager;
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
+import alluxio.resource.CloseableResource;
+import alluxio.underfs.UfsStatus;
+import alluxio.util.executor.ExecutorServiceFactories;
+import alluxio.wire.WorkerNetAddress;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+
+/**
+ * Replicates the hot files served by a worker to the next workers on the consistent hash ring,
+ * and drops the replicas held by this worker once the files cool down.
+ * <br>
+ * The worker owning a file on the hash ring pushes a hot file to the next
+ * {@link PropertyKey#WORKER_HOT_FILE_REPLICATION_COUNT} workers on the ring, and advertises
+ * the workers holding a replica in the file status, so that clients spread their reads across
+ * the owner and the replicas. As each worker then only sees its share of the reads, the heat
+ * seen by a worker is scaled by the number of workers serving the file before it is compared to
+ * the thresholds. Once the scaled heat of the file falls below half of the replication threshold,
+ * the owner stops advertising the replicas. The replicas then stop receiving reads, cool down as
+ * well, and are evicted from the cache of the workers holding them.
+ * <br>
+ * The replications run on the replication executor, so that the UFS calls they make do not
+ * delay the heartbeat. A replica is charged to the cache scope of the last user known to read
+ * the file on the owner, or else of the owner of the file in the UFS.
+ */
+public class HotFileReplicator implements HeartbeatExecutor {
+  private static final Logger LOG = LoggerFactory.getLogger(HotFileReplicator.class);
+  private static final String REPLICATION_TAG = "hot-file-replication";
+
+  private final PagedDoraWorker mWorker;
+  private final HotFileTracker mTracker;
+  private final MembershipManager mMembershipManager;
+  private final CacheManager mCacheManager;
+  private final FileSystemContext mFsContext;
+  private final WorkerNetAddress mAddress;
+  private final ConsistentHashProvider mHashProvider =
+      new ConsistentHashProvider(100, Constants.SECOND_MS);
+  private final int mNumVirtualNodes;
+  private final int mReplicaCount;
+  private final double mHotThreshold;
+  private final double mColdThreshold;
+  /** The files owned by this worker which are replicated, to the workers holding a replica. */
+  private final Map<String, Set<WorkerNetAddress>> mReplicas = new ConcurrentHashMap<>();
+  /** The files owned by this worker whose replication is in progress. */
+  private final Set<String> mPendingReplications = ConcurrentHashMap.newKeySet();
+  private final ExecutorService mReplicationExecutor;
+
+  /**
+   * @param conf the configuration
+   * @param worker the worker
+   * @param tracker the tracker of the heat of the files served by the worker
+   * @param membershipManager the membership manager
+   * @param cacheManager the cache manager of the worker
+   * @param fsContext the file system context used to connect to other workers
+   * @param address the address of the worker
+   */
+  public HotFileReplicator(AlluxioConfiguration conf, PagedDoraWorker worker,
+      HotFileTracker tracker, MembershipManager membershipManager, CacheManager cacheManager,
+      FileSystemContext fsContext, WorkerNetAddress address) {
+    this(conf, worker, tracker, membershipManager, cacheManager, fsContext, address,
+        ExecutorServiceFactories.fixedThreadPool("hot-file-replication", 1).create());
+  }
+
+  /**
+   * @param conf the configuration
+   * @param worker the worker
+   * @param tracker the tracker of the heat of the files served by the worker
+   * @param membershipManager the membership manager
+   * @param cacheManager the cache manager of the worker
+   * @param fsContext the file system context used to connect to other workers
+   * @param address the address of the worker
+   * @param replicationExecutor the executor running the replications, shut down on close
+   */
+  @VisibleForTesting
+  HotFileReplicator(AlluxioConfiguration conf, PagedDoraWorker worker,
+      HotFileTracker tracker, MembershipManager membershipManager, CacheManager cacheManager,
+      FileSystemContext fsContext, WorkerNetAddress address,
+      ExecutorService replicationExecutor) {
+    mReplicationExecutor = replicationExecutor;
+    mWorker = worker;
+    mTracker = tracker;
+    mMembershipManager = membershipManager;
+    mCacheManager = cacheManager;
+    mFsContext = fsContext;
+    mAddress = address;
+    mNumVirtualNodes = conf.getInt(PropertyKey.USER_CONSISTENT_HASH_VIRTUAL_NODE_COUNT);
+    mReplicaCount = conf.getInt(PropertyKey.WORKER_HOT_FILE_REPLICATION_COUNT);
+    mHotThreshold = conf.getDouble(PropertyKey.WORKER_HOT_FILE_REPLICATION_THRESHOLD);
+    mColdThreshold = mHotThreshold / 2;
+  }
+
+  /**
+   * @param ufsPath the ufs path of a file
+   * @return the workers holding a replica of the file pushed by this worker
+   */
+  public List<WorkerNetAddress> getReplicas(String ufsPath) {
+    Set<WorkerNetAddress> replicas = mReplicas.get(ufsPath);
+    return replicas == null ? Collections.emptyList() : new ArrayList<>(replicas);
+  }
+
+  @Override
+  public void heartbeat(long timeLimitMs) throws InterruptedException {
+    List<BlockWorkerInfo> workers;
+    try {
+      workers = mMembershipManager.getLiveMembers().stream()
+          .map(w -> new BlockWorkerInfo(w.getAddress(), w.getCapacityBytes(), w.getUsedBytes()))
+          .collect(Collectors.toList());
+    } catch (IOException e) {
+      LOG.warn("Failed to get live workers for hot file replication", e);
+      return;
+    }
+    if (workers.size() <= 1) {
+      mReplicas.clear();
+      return;
+    }
+    mHashProvider.refresh(workers, mNumVirtualNodes);
+    int ringSize = Math.min(workers.size(), mReplicaCount + 1);
+    for (HotFileTracker.FileHeat fileHeat : mTracker.getHeats()) {
+      String ufsPath = fileHeat.getUfsPath();
+      List<WorkerNetAddress> ring = mHashProvider.getMultiple(ufsPath, ringSize).stream()
+          .map(BlockWorkerInfo::getNetAddress).collect(Collectors.toList());
+      int position = ring.indexOf(mAddress);
+      if (position == 0) {
+        Set<WorkerNetAddress> replicas = mReplicas.get(ufsPath);
+        if (replicas == null) {
+          if (fileHeat.getHeat() >= mHotThreshold && mPendingReplications.add(ufsPath)) {
+            List<WorkerNetAddress> targets = new ArrayList<>(ring.subList(1, ring.size()));
+            try {
+              mReplicationExecutor.execute(
+                  () -> replicate(ufsPath, targets, fileHeat.getUser()));
+            } catch (RejectedExecutionException e) {
+              // the worker is closing
+              mPendingReplications.remove(ufsPath);
+            }
+          }
+          continue;
+        }
+        // replicas which left the ring do not receive reads anymore
+        replicas.retainAll(ring);
+        // the reads of a replicated file are split between the owner and the replicas
+        if (replicas.isEmpty()
+            || fileHeat.getHeat() * (replicas.size() + 1) < mColdThreshold) {
+          mReplicas.remove(ufsPath);
+        }
+      } else {
+        mReplicas.remove(ufsPath);
+        // The reads of a replicated file are split between the owner and the replicas. Give the
+        // clients one half life to discover a new replica before considering it cold.
+        if (position > 0 && fileHeat.getHeat() * ring.size() < mColdThreshold
+            && fileHeat.getTrackedTimeMs() >= mTracker.getHalfLifeMs()) {
+          dropReplica(ufsPath);
+        }
+      }
+    }
+  }
+
+  private void replicate(String ufsPath, List<WorkerNetAddress> targets,
+      @Nullable String user) {
+    if (targets.isEmpty()) {
+      mPendingReplications.remove(ufsPath);
+      return;
+    }
+    UfsStatus status;
+    try {
+      status = mWorker.getUfsInstance(ufsPath).getStatus(ufsPath);
+    } catch (IOException | RuntimeException e) {
+      LOG.warn("Failed to get the status of hot file {} for replication", ufsPath, e);
+      mPendingReplications.remove(ufsPath);
+      return;
+    }
+    if (!status.isFile()) {
+      mPendingReplications.remove(ufsPath);
+      return;
+    }
+    status.setUfsFullPath(new AlluxioURI(ufsPath));
+    UfsReadOptions.Builder options = UfsReadOptions.newBuilder()
+        .setTag(REPLICATION_TAG)
+        .setPositionShort(false);
+    if (user != null) {
+      options.setUser(user);
+    } else if (status.getOwner() != null && !status.getOwner().isEmpty()) {
+      options.setUser(status.getOwner());
+    }
+    LoadFileRequest request = LoadFileRequest.newBuilder()
+        .addUfsStatus(status.toProto())
+        .setOptions(options)
+        .setSkipIfCached(true)
+        .build();
+    LOG.debug("Replicating hot file {} to {}", ufsPath, targets);
+    MetricsSystem.counter(MetricKey.WORKER_HOT_FILE_REPLICATED_COUNT.getName()).inc();
+    // The file is recorded as replicated once a target holds it. If every target fails, the
+    // file is replicated again on the next heartbeat.
+    AtomicInteger remaining = new AtomicInteger(targets.size());
+    Runnable onTargetDone = () -> {
+      if (remaining.decrementAndGet() == 0) {
+        mPendingReplications.remove(ufsPath);
+      }
+    };
+    for (WorkerNetAddress target : targets) {
+      CloseableResource<BlockWorkerClient> client;
+      try {
+        client = mFsContext.acquireBlockWorkerClient(target);
+      } catch (IOException | RuntimeException e) {
+        LOG.warn("Failed to connect to {} to replicate hot file {}", target, ufsPath, e);
+        onTargetDone.run();
+        continue;
+      }
+      ListenableFuture<LoadFileResponse> response;
+      try {
+        response = client.get().loadFile(request);
+      } catch (RuntimeException e) {
+        client.close();
+        LOG.warn("Failed to replicate hot file {} to {}", ufsPath, target, e);
+        onTargetDone.run();
+        continue;
+      }
+      Futures.addCallback(response, new FutureCallback<LoadFileResponse>() {
+        @Override
+        public void onSuccess(LoadFileResponse result) {
+          client.close();
+          if (result.getStatus() == TaskStatus.SUCCESS) {
+            mReplicas.computeIfAbsent(ufsPath, path -> ConcurrentHashMap.newKeySet())
+                .add(target);
+          } else {
+            LOG.warn("Failed to replicate hot file {} to {}: {}", ufsPath, target,
+                result.getFailuresList());
+          }
+          onTargetDone.run();
+        }
+
+        @Override
+        public void onFailure(Throwable t) {
+          client.close();
+          LOG.warn("Failed to replicate hot file {} to {}", ufsPath, target, t);
+          onTargetDone.run();
+        }
+      }, MoreExecutors.directExecutor());
+    }
+  }
+
+  private void dropReplica(String ufsPath) {
+    LOG.debug("Dropping the replica of cold file {}", ufsPath);
+    // cache manager uses hashed ufs path as file ID
+    mCacheManager.deleteFile(new AlluxioURI(ufsPath).hash());
+    mTracker.remove(ufsPath);
+    MetricsSystem.counter(MetricKey.WORKER_HOT_FILE_REPLICA_DROPPED_COUNT.getName()).inc();
+  }
+
+  @Override
+  public void close() {
+    mReplicationExecutor.shutdownNow();
+  }
+}
@@ -0,0 +1,217 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.dora;
+
+import alluxio.Constants;
+import alluxio.conf.AlluxioConfiguration;
+import alluxio.conf.PropertyKey;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Tracks how frequently the files served by a worker are read.
+ * <br>
+ * The heat of a file is the number of read requests it received, where the contribution of
+ * each request decays exponentially over time. A file that keeps being read at a steady rate
+ * converges to a heat proportional to its request rate, while a file no longer read cools
+ * down and is eventually forgotten.
+ */
+@ThreadSafe
+public class HotFileTracker {
+  private final Cache<String, Heat> mHeats;
+  private final double mDecayRatePerNano;
+  private final long mHalfLifeNs;
+  private final LongSupplier mClock;
+
+  /**
+   * @param conf the configuration
+   */
+  public HotFileTracker(AlluxioConfiguration conf) {
+    this(conf.getInt(PropertyKey.WORKER_HOT_FILE_TRACKER_MAX_SIZE),
+        conf.getMs(PropertyKey.WORKER_HOT_FILE_REPLICATION_HALF_LIFE), System::nanoTime);
+  }
+
+  @VisibleForTesting
+  HotFileTracker(int maxSize, long halfLifeMs, LongSupplier clock) {
+    Preconditions.checkArgument(halfLifeMs > 0, "half life must be positive");
+    mHalfLifeNs = halfLifeMs * Constants.MS_NANO;
+    mDecayRatePerNano = Math.log(2) / mHalfLifeNs;
+    mClock = clock;
+    // after ten half lives the heat of a file not read anymore is below 0.1%
+    mHeats = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterAccess(mHalfLifeNs * 10, TimeUnit.NANOSECONDS)
+        .ticker(clock::getAsLong)
+        .build();
+  }
+
+  /**
+   * Records a read request of a file.
+   *
+   * @param ufsPath the ufs path of the file
+   */
+  public void recordAccess(String ufsPath) {
+    recordAccess(ufsPath, null);
+  }
+
+  /**
+   * Records a read request of a file by a user.
+   *
+   * @param ufsPath the ufs path of the file
+   * @param user the user reading the file, null if unknown
+   */
+  public void recordAccess(String ufsPath, @Nullable String user) {
+    long now = mClock.getAsLong();
+    mHeats.get(ufsPath, path -> new Heat(now)).add(now, user);
+  }
+
+  /**
+   * @param ufsPath the ufs path of the file
+   * @return the current heat of the file, 0 if the file is not tracked
+   */
+  public double getHeat(String ufsPath) {
+    Heat heat = mHeats.getIfPresent(ufsPath);
+    return heat == null ? 0 : heat.get(mClock.getAsLong());
+  }
+
+  /**
+   * @return a snapshot of the heat of all tracked files
+   */
+  public List<FileHeat> getHeats() {
+    long now = mClock.getAsLong();
+    return mHeats.asMap().entrySet().stream()
+        .map(entry -> new FileHeat(entry.getKey(), entry.getValue().get(now),
+            (now - entry.getValue().mFirstAccessNs) / Constants.MS_NANO,
+            entry.getValue().mLastUser))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Stops tracking a file.
+   *
+   * @param ufsPath the ufs path of the file
+   */
+  public void remove(String ufsPath) {
+    mHeats.invalidate(ufsPath);
+  }
+
+  /**
+   * @return the half life of a read request in milliseconds
+   */
+  public long getHalfLifeMs() {
+    return mHalfLifeNs / Constants.MS_NANO;
+  }
+
+  private final class Heat {
+    private final long mFirstAccessNs;
+    private long mLastUpdateNs;
+    private double mValue;
+    @Nullable
+    private volatile String mLastUser;
+
+    private Heat(long now) {
+      mFirstAccessNs = now;
+      mLastUpdateNs = now;
+    }
+
+    private synchronized void add(long now, @Nullable String user) {
+      mValue = decay(now) + 1;
+      mLastUpdateNs = Math.max(now, mLastUpdateNs);
+      if (user != null) {
+        mLastUser = user;
+      }
+    }
+
+    private synchronized double get(long now) {
+      return decay(now);
+    }
+
+    private double decay(long now) {
+      long elapsed = Math.max(0, now - mLastUpdateNs);
+      return mValue * Math.exp(-mDecayRatePerNano * elapsed);
+    }
+  }
+
+  /**
+   * The heat of a file at a point in time.
+   */
+  public static final class FileHeat {
+    private final String mUfsPath;
+    private final double mHeat;
+    private final long mTrackedTimeMs;
+    @Nullable
+    private final String mUser;
+
+    /**
+     * @param ufsPath the ufs path of the file
+     * @param heat the heat of the file
+     * @param trackedTimeMs the time since the file was first tracked in milliseconds
+     * @param user the last known user who read the file, null if unknown
+     */
+    public FileHeat(String ufsPath, double heat, long trackedTimeMs, @Nullable String user) {
+      mUfsPath = ufsPath;
+      mHeat = heat;
+      mTrackedTimeMs = trackedTimeMs;
+      mUser = user;
+    }
+
+    /**
+     * @return the ufs path of the file
+     */
+    public String getUfsPath() {
+      return mUfsPath;
+    }
+
+    /**
+     * @return the heat of the file
+     */
+    public double getHeat() {
+      return mHeat;
+    }
+
+    /**
+     * @return the time since the file was first tracked in milliseconds
+     */
+    public long getTrackedTimeMs() {
+      return mTrackedTimeMs;
+    }
+
+    /**
+     * @return the last known user who read the file, null if unknown
+     */
+    @Nullable
+    public String getUser() {
+      return mUser;
+    }
+
+    @Override
+    public String toString() {
+      return MoreObjects.toStringHelper(this)
+          .add("ufsPath", mUfsPath)
+          .add("heat", mHeat)
+          .add("trackedTimeMs", mTrackedTimeMs)
+          .add("user", mUser)
+          .toString();
+    }
+  }
+}
@@ -18,6 +18,7 @@ import alluxio.Constants;
 import alluxio.DefaultStorageTierAssoc;
 import alluxio.Server;
 import alluxio.StorageTierAssoc;
+import alluxio.client.file.CacheContext;
 import alluxio.client.file.FileSystem;
 import alluxio.client.file.FileSystemContext;
 import alluxio.client.file.cache.CacheManager;
@@ -65,6 +66,7 @@ import alluxio.proto.meta.DoraMeta;
 import alluxio.resource.PooledResource;
 import alluxio.retry.RetryPolicy;
 import alluxio.retry.RetryUtils;
+import alluxio.security.User;
 import alluxio.security.authentication.AuthenticatedClientUser;
 import alluxio.security.authorization.Mode;
 import alluxio.security.user.ServerUserState;
@@ -101,6 +103,7 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.io.Closer;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.google.inject.Inject;
 import io.netty.buffer.ByteBuf;
 import org.slf4j.Logger;
@@ -111,12 +114,15 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import javax.inject.Named;
 
@@ -148,6 +154,18 @@ public class PagedDoraWorker extends AbstractWorker implements DoraWorker {
   private final DoraOpenFileHandleContainer mOpenFileHandleContainer;
 
   private final boolean mClientWriteToUFSEnabled;
+  private final boolean mUfsAsyncLoadEnabled;
+  private final int mUfsAsyncLoadMaxInFlightPages;
+  /** Caches the pages fetched by asynchronous loads, null if they are disabled. */
+  @Nullable
+  private final ExecutorService mUfsAsyncLoadExecutor;
+
+  private final HotFileTracker mHotFileTracker;
+  @Nullable
+  private volatile HotFileReplicator mHotFileReplicator;
+  /** Assigns the cached pages to cache scopes when cache quotas are enabled. */
+  @Nullable
+  private final CacheScopeResolver mCacheScopeResolver;
 
   /**
    * Constructor.
@@ -186,6 +204,18 @@ public class PagedDoraWorker extends AbstractWorker implements DoraWorker {
     mUfsStreamCache = new UfsInputStreamCache();
 
     mPageSize = mConf.getBytes(PropertyKey.WORKER_PAGE_STORE_PAGE_SIZE);
+    mUfsAsyncLoadEnabled = mConf.getBoolean(PropertyKey.WORKER_UFS_ASYNC_LOAD_ENABLED);
+    mUfsAsyncLoadMaxInFlightPages =
+        mConf.getInt(PropertyKey.WORKER_UFS_ASYNC_LOAD_MAX_INFLIGHT_PAGES);
+    if (mUfsAsyncLoadEnabled) {
+      ExecutorService executor = ExecutorServiceFactories.fixedThreadPool(
+          "dora-worker-async-load", mConf.getInt(PropertyKey.WORKER_UFS_ASYNC_LOAD_THREADS))
+          .create();
+      mResourceCloser.register(executor::shutdownNow);
+      mUfsAsyncLoadExecutor = executor;
+    } else {
+      mUfsAsyncLoadExecutor = null;
+    }
     mBlockMasterClientPool = blockMasterClientPool;
     mCacheManager = cacheManager;
     mMetaManager = mResourceCloser.register(
@@ -198,6 +228,14 @@ public class PagedDoraWorker extends AbstractWorker implements DoraWorker {
 
     mClientWriteToUFSEnabled = mConf
         .getBoolean(PropertyKey.CLIENT_WRITE_TO_UFS_ENABLED);
+    mHotFileTracker = new HotFileTracker(mConf);
+    mCacheScopeResolver = mConf.getBoolean(PropertyKey.WORKER_PAGE_STORE_QUOTA_ENABLED)
+        ? new CacheScopeResolver(mConf, mCacheManager) : null;
+  }
+
+  private CacheContext getCacheContext(String ufsPath) {
+    return (mCacheScopeResolver == null) ? CacheContext.defaults()
+        : mCacheScopeResolver.getCacheContext(ufsPath);
   }
 
   @VisibleForTesting
@@ -252,6 +290,20 @@ public class PagedDoraWorker extends AbstractWorker implements DoraWorker {
                   PropertyKey.WORKER_BLOCK_HEARTBEAT_INTERVAL_MS)),
               mConf, ServerUserState.global()));
     }
+    if (mConf.getBoolean(PropertyKey.WORKER_HOT_FILE_REPLICATION_ENABLED)) {
+      if (mMembershipManager instanceof NoOpMembershipManager) {
+        LOG.warn("Hot file replication is disabled as it requires a membership manager");
+      } else {
+        mHotFileReplicator = new HotFileReplicator(mConf, this, mHotFileTracker,
+            mMembershipManager, mCacheManager, mFsContext, mAddress);
+        getExecutorService()
+            .submit(new HeartbeatThread(HeartbeatContext.WORKER_HOT_FILE_REPLICATION,
+                mHotFileReplicator,
+                () -> new FixedIntervalSupplier(
+                    mConf.getMs(PropertyKey.WORKER_HOT_FILE_REPLICATION_INTERVAL)),
+                mConf, ServerUserState.global()));
+      }
+    }
   }
 
   /**
@@ -372,10 +424,13 @@ public class PagedDoraWorker extends AbstractWorker implements DoraWorker {
         -1;
     alluxio.grpc.FileInfo fi = getGrpcFileInfo(ufsFullPath, syncIntervalMs);
     int cachedPercentage = getCachedPercentage(fi, ufsFullPath);
+    HotFileReplicator replicator = mHotFileReplicator;
 
     return GrpcUtils.fromProto(fi)
         .setInAlluxioPercentage(cachedPercentage)
-        .setInMemoryPercentage(cachedPercentage);
+        .setInMemoryPercentage(cachedPercentage)
+        .setHotReplicas(replicator == null ? Collections.emptyList()
+            : replicator.getReplicas(ufsFullPath));
   }
 
   protected alluxio.grpc.FileInfo getGrpcFileInfo(String ufsFullPath, long syncIntervalMs)
@@ -485,9 +540,14 @@ public class PagedDoraWorker extends AbstractWorker implements DoraWorker {
   @Override
   public BlockReader createFileReader(String fileId, long offset, boolean positionShort,
       Protocol.OpenUfsBlockOptions options) throws IOException, AccessControlException {
+    if (mHotFileReplicator != null) {
+      User user = AuthenticatedClientUser.getOrNull();
+      mHotFileTracker.recordAccess(options.getUfsPath(), user == null ? null : user.getName());
+    }
     UnderFileSystem ufs = getUfsInstance(options.getUfsPath());
     return PagedFileReader.create(mConf, mCacheManager, ufs, fileId,
-        options.getUfsPath(), options.getBlockSize(), offset);
+        options.getUfsPath(), options.getBlockSize(), offset,
+        getCacheContext(options.getUfsPath()));
   }
 
   @Override
@@ -498,14 +558,34 @@ public class PagedDoraWorker extends AbstractWorker implements DoraWorker {
 
   @Override
   public ListenableFuture<List<LoadFileFailure>> load(
-      boolean loadData, List<UfsStatus> ufsStatuses, UfsReadOptions options)
+      boolean loadData, boolean skipIfCached, List<UfsStatus> ufsStatuses,
+      UfsReadOptions options)
       throws AccessControlException, IOException {
     List<ListenableFuture<Void>> futures = new ArrayList<>();
     List<LoadFileFailure> errors = Collections.synchronizedList(new ArrayList<>());
+    Map<String, DoraMeta.FileStatus> cachedStatuses = skipIfCached
+        ? mMetaManager.getAllFromMetaStore(ufsStatuses.stream()
+            .map(status -> status.getUfsFullPath().toString()).collect(Collectors.toList()))
+        : Collections.emptyMap();
+    Map<String, DoraMeta.FileStatus> statusesToPut = new HashMap<>();
+    List<UfsStatus> statusesToLoad = new ArrayList<>();
     for (UfsStatus status : ufsStatuses) {
       String ufsFullPath = status.getUfsFullPath().toString();
       DoraMeta.FileStatus fs = buildFileStatusFromUfsStatus(status, ufsFullPath);
-      mMetaManager.put(ufsFullPath, fs);
+      if (skipIfCached && isCachedAndUnchanged(cachedStatuses.get(ufsFullPath), fs, ufsFullPath,
+          loadData)) {
+        LOG.debug("Skip loading {} as it is cached and unchanged", ufsFullPath);
+        continue;
+      }
+      statusesToPut.put(ufsFullPath, fs);
+      statusesToLoad.add(status);
+    }
+    mMetaManager.putAll(statusesToPut);
+    // the data are loaded on other threads, and charged to the cache scope of the user who
+    // submitted the load, or else of the user calling the worker
+    User user = options.hasUser() ? new User(options.getUser())
+        : AuthenticatedClientUser.getOrNull();
+    for (UfsStatus status : statusesToLoad) {
       // We use the ufs status sent from master to construct the file metadata,
       // and that ufs status might be stale.
       // This is a known consistency issue and will remain as long as the get metadata and
@@ -519,23 +599,27 @@ public class PagedDoraWorker extends AbstractWorker implements DoraWorker {
       // in the future.
       if (loadData && status.isFile() && (status.asUfsFileStatus().getContentLength() > 0)) {
         try {
-          ListenableFuture<Void> loadFuture = Futures.submit(() -> {
-            try {
-              if (options.hasUser()) {
-                AuthenticatedClientUser.set(options.getUser());
+          ListenableFuture<Void> loadFuture;
+          if (mUfsAsyncLoadEnabled) {
+            loadFuture = Futures.catching(loadDataAsync(status.getUfsFullPath().toString(),
+                status.asUfsFileStatus().getContentLength(),
+                user == null ? null : user.getName()), Throwable.class, e -> {
+                  addLoadFailure(errors, status, e);
+                  return null;
+                }, MoreExecutors.directExecutor());
+          } else {
+            loadFuture = Futures.submit(() -> {
+              AuthenticatedClientUser.set(user);
+              try {
+                loadData(status.getUfsFullPath().toString(), 0,
+                    status.asUfsFileStatus().getContentLength());
+              } catch (Throwable e) {
+                addLoadFailure(errors, status, e);
+              } finally {
+                AuthenticatedClientUser.remove();
               }
-              loadData(status.getUfsFullPath().toString(), 0,
-                  status.asUfsFileStatus().getContentLength());
-            } catch (Throwable e) {
-              LOG.error("Loading {} failed", status, e);
-              boolean permissionCheckSucceeded = !(e instanceof AccessControlException);
-              AlluxioRuntimeException t = AlluxioRuntimeException.from(e);
-              errors.add(LoadFileFailure.newBuilder().setUfsStatus(status.toProto())
-                  .setCode(t.getStatus().getCode().value())
-                  .setRetryable(t.isRetryable() && permissionCheckSucceeded)
-                  .setMessage(t.getMessage()).build());
-            }
-          }, GrpcExecutors.READER_EXECUTOR);
+            }, GrpcExecutors.READER_EXECUTOR);
+          }
           futures.add(loadFuture);
         } catch (RejectedExecutionException ex) {
           LOG.warn("BlockDataReaderExecutor overloaded.");
@@ -550,6 +634,79 @@ public class PagedDoraWorker extends AbstractWorker implements DoraWorker {
     return Futures.whenAllComplete(futures).call(() -> errors, GrpcExecutors.READER_EXECUTOR);
   }
 
+  /**
+   * Checks if a file is unchanged in UFS compared to the cached metadata and, when data are
+   * loaded, if the file data are fully cached.
+   *
+   * @param cached the file status in the metastore, or null if the file is not in the metastore
+   * @param status the file status built from the latest ufs status
+   * @param ufsFullPath the full ufs path
+   * @param loadData true if data are loaded
+   * @return true if loading the file can be skipped
+   */
+  private boolean isCachedAndUnchanged(@Nullable DoraMeta.FileStatus cached,
+      DoraMeta.FileStatus status, String ufsFullPath, boolean loadData) {
+    if (cached == null) {
+      return false;
+    }
+    alluxio.grpc.FileInfo cachedInfo = cached.getFileInfo();
+    alluxio.grpc.FileInfo info = status.getFileInfo();
+    if (cachedInfo.getFolder() != info.getFolder()) {
+      return false;
+    }
+    if (info.getFolder()) {
+      return true;
+    }
+    if (cachedInfo.getLength() != info.getLength()
+        || cachedInfo.getLastModificationTimeMs() != info.getLastModificationTimeMs()
+        || !cachedInfo.getContentHash().equals(info.getContentHash())) {
+      return false;
+    }
+    return !loadData || getCachedPercentage(info, ufsFullPath) >= 100;
+  }
+
+  private static void addLoadFailure(List<LoadFileFailure> errors, UfsStatus status,
+      Throwable e) {
+    LOG.error("Loading {} failed", status, e);
+    boolean permissionCheckSucceeded = !(e instanceof AccessControlException);
+    AlluxioRuntimeException t = AlluxioRuntimeException.from(e);
+    errors.add(LoadFileFailure.newBuilder().setUfsStatus(status.toProto())
+        .setCode(t.getStatus().getCode().value())
+        .setRetryable(t.isRetryable() && permissionCheckSucceeded)
+        .setMessage(t.getMessage()).build());
+  }
+
+  /**
+   * Loads the data of a file into the cache with asynchronous UFS reads, so that the load
+   * does not hold a reader thread while waiting for the UFS.
+   *
+   * @param ufsPath the ufs path
+   * @param length the file length
+   * @param user the user loading the file, or null for the current user
+   * @return a future completed once the file is cached
+   */
+  protected ListenableFuture<Void> loadDataAsync(String ufsPath, long length,
+      @Nullable String user) {
+    String fileId = new AlluxioURI(ufsPath).hash();
+    UnderFileSystem ufs;
+    try {
+      ufs = getUfsInstance(ufsPath);
+    } catch (RuntimeException e) {
+      return Futures.immediateFailedFuture(e);
+    }
+    // the cache scope and the pages are charged to the user loading the file
+    User previousUser = AuthenticatedClientUser.getOrNull();
+    if (user != null) {
+      AuthenticatedClientUser.set(user);
+    }
+    try {
+      return PagedFileReader.cacheAsync(mCacheManager, ufs, fileId, ufsPath, length, mPageSize,
+          mUfsAsyncLoadMaxInFlightPages, getCacheContext(ufsPath), mUfsAsyncLoadExecutor);
+    } finally {
+      AuthenticatedClientUser.set(previousUser);
+    }
+  }
+
   protected void loadData(String ufsPath, long mountId, long length)
       throws AccessControlException, IOException {
     Protocol.OpenUfsBlockOptions options =
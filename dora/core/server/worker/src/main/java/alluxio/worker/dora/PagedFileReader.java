@@ -16,35 +16,56 @@ import alluxio.PositionReader;
 import alluxio.client.file.CacheContext;
 import alluxio.client.file.cache.CacheManager;
 import alluxio.client.file.cache.LocalCachePositionReader;
+import alluxio.client.file.cache.PageId;
 import alluxio.conf.AlluxioConfiguration;
 import alluxio.conf.PropertyKey;
 import alluxio.file.FileId;
 import alluxio.file.NettyBufTargetBuffer;
 import alluxio.file.ReadTargetBuffer;
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
 import alluxio.network.protocol.databuffer.CompositeDataBuffer;
 import alluxio.network.protocol.databuffer.DataBuffer;
 import alluxio.network.protocol.databuffer.DataFileChannel;
 import alluxio.network.protocol.databuffer.NettyDataBuffer;
+import alluxio.security.User;
+import alluxio.security.authentication.AuthenticatedClientUser;
 import alluxio.underfs.UnderFileSystem;
 import alluxio.worker.block.io.BlockReadableChannel;
 import alluxio.worker.block.io.BlockReader;
 
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.ReadableByteChannel;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
 
 /**
  * Paged file reader.
  */
 public class PagedFileReader extends BlockReader implements PositionReader {
+  private static final Logger LOG = LoggerFactory.getLogger(PagedFileReader.class);
   private static final ByteBuffer EMPTY_BYTE_BUFFER = ByteBuffer.allocate(0);
   private final long mFileSize;
   private final LocalCachePositionReader mPositionReader;
@@ -62,16 +83,45 @@ public class PagedFileReader extends BlockReader implements PositionReader {
    * @param ufsPath
    * @param fileSize
    * @param startPosition
+   * @param cacheContext the cache context of the pages read
    * @return a new {@link PagedFileReader}
    */
   public static PagedFileReader create(AlluxioConfiguration conf, CacheManager cacheManager,
                                        UnderFileSystem ufs, String fileId,
-                                       String ufsPath, long fileSize, long startPosition) {
+                                       String ufsPath, long fileSize, long startPosition,
+                                       CacheContext cacheContext) {
     FileId fileIdField = FileId.of(fileId);
     return new PagedFileReader(ufs, LocalCachePositionReader.create(cacheManager,
         new CloseableSupplier<>(() -> ufs.openPositionRead(ufsPath, fileSize)),
         fileIdField, fileSize, conf.getBytes(PropertyKey.WORKER_PAGE_STORE_PAGE_SIZE),
-        CacheContext.defaults()), fileSize, startPosition);
+        cacheContext), fileSize, startPosition);
+  }
+
+  /**
+   * Caches the pages of a file which are not cached yet, fetching them from the UFS with
+   * {@link UnderFileSystem#positionReadAsync}. At most {@code maxInFlightPages} pages are
+   * fetched concurrently, and when the UFS client is non-blocking, no thread is held while the
+   * pages are fetched. The pages are cached on the given executor, as the current
+   * {@link AuthenticatedClientUser}.
+   *
+   * @param cacheManager the cache manager
+   * @param ufs the ufs
+   * @param fileId the file id
+   * @param ufsPath the ufs path
+   * @param fileSize the file size
+   * @param pageSize the page size
+   * @param maxInFlightPages the maximum number of pages fetched concurrently
+   * @param cacheContext the cache context of the pages cached
+   * @param executor the executor caching the pages and issuing the next fetches
+   * @return a future completed once all the pages are cached, or failed with the first error
+   */
+  public static ListenableFuture<Void> cacheAsync(CacheManager cacheManager,
+      UnderFileSystem ufs, String fileId, String ufsPath, long fileSize, long pageSize,
+      int maxInFlightPages, CacheContext cacheContext, Executor executor) {
+    Preconditions.checkArgument(maxInFlightPages > 0, "maxInFlightPages must be positive");
+    return new AsyncPageLoader(cacheManager, ufs, fileId, ufsPath, fileSize, pageSize,
+        cacheContext, executor)
+        .start(maxInFlightPages);
   }
 
   /**
@@ -232,4 +282,211 @@ public class PagedFileReader extends BlockReader implements PositionReader {
   public String getLocation() {
     return null;
   }
+
+  /**
+   * Loads the missing pages of a file through several fetch chains, each of which issues the
+   * fetch of the next missing page once its previous fetch completes. The fetched pages are
+   * cached, and the next fetches issued, on the loader executor rather than on the thread
+   * completing the read, which belongs to the UFS client, and as the user who started the load.
+   * When the UFS has no non-blocking client, the pages are read on the loader executor through
+   * a single reader of the file.
+   */
+  private static final class AsyncPageLoader {
+    private final CacheManager mCacheManager;
+    private final UnderFileSystem mUfs;
+    private final String mFileId;
+    private final String mUfsPath;
+    private final long mFileSize;
+    private final long mPageSize;
+    private final long mPageCount;
+    private final CacheContext mCacheContext;
+    private final Set<PageId> mCachedPages;
+    private final Executor mExecutor;
+    @Nullable
+    private final User mUser;
+    private final boolean mNonBlocking;
+    private final AtomicLong mNextPageIndex = new AtomicLong();
+    private final AtomicInteger mActiveChains = new AtomicInteger();
+    private final AtomicInteger mPendingReads = new AtomicInteger();
+    private final SettableFuture<Void> mResult = SettableFuture.create();
+    @GuardedBy("this")
+    @Nullable
+    private PositionReader mReader;
+    @GuardedBy("this")
+    private boolean mReaderClosed;
+
+    private AsyncPageLoader(CacheManager cacheManager, UnderFileSystem ufs, String fileId,
+        String ufsPath, long fileSize, long pageSize, CacheContext cacheContext,
+        Executor executor) {
+      mCacheManager = cacheManager;
+      mUfs = ufs;
+      mFileId = fileId;
+      mUfsPath = ufsPath;
+      mFileSize = fileSize;
+      mPageSize = pageSize;
+      mPageCount = (fileSize + pageSize - 1) / pageSize;
+      mCacheContext = cacheContext;
+      mExecutor = executor;
+      mUser = AuthenticatedClientUser.getOrNull();
+      mNonBlocking = ufs.isPositionReadAsyncNonBlocking();
+      Set<PageId> cachedPages;
+      try {
+        cachedPages = new HashSet<>(cacheManager.getCachedPageIdsByFileId(fileId, fileSize));
+      } catch (UnsupportedOperationException e) {
+        cachedPages = Collections.emptySet();
+      }
+      mCachedPages = cachedPages;
+    }
+
+    private ListenableFuture<Void> start(int maxInFlightPages) {
+      int chains = (int) Math.min(maxInFlightPages, mPageCount);
+      if (chains == 0) {
+        mResult.set(null);
+        return mResult;
+      }
+      mResult.addListener(this::closeReaderIfIdle, MoreExecutors.directExecutor());
+      mActiveChains.set(chains);
+      for (int i = 0; i < chains; i++) {
+        fetchNextPage();
+      }
+      return mResult;
+    }
+
+    private void fetchNextPage() {
+      while (!mResult.isDone()) {
+        long pageIndex = mNextPageIndex.getAndIncrement();
+        if (pageIndex >= mPageCount) {
+          break;
+        }
+        PageId pageId = new PageId(mFileId, pageIndex);
+        if (mCachedPages.contains(pageId)) {
+          continue;
+        }
+        long pageStart = pageIndex * mPageSize;
+        int pageLength = (int) Math.min(mPageSize, mFileSize - pageStart);
+        ByteBuf page = Unpooled.buffer(pageLength, pageLength);
+        fetch(pageId, pageStart, page);
+        return;
+      }
+      if (mActiveChains.decrementAndGet() == 0) {
+        mResult.set(null);
+      }
+    }
+
+    private void fetch(PageId pageId, long pageStart, ByteBuf page) {
+      CompletableFuture<Integer> read;
+      mPendingReads.incrementAndGet();
+      try {
+        read = readAsync(pageStart + page.writerIndex(), page);
+      } catch (RuntimeException e) {
+        mPendingReads.decrementAndGet();
+        mResult.setException(e);
+        closeReaderIfIdle();
+        return;
+      }
+      // reads of the non-blocking client complete on its own threads, the others already
+      // complete on the loader executor
+      Executor callbackExecutor = mNonBlocking ? mExecutor : MoreExecutors.directExecutor();
+      read.whenComplete((bytesRead, error) -> {
+        try {
+          callbackExecutor.execute(() -> runAsUser(() -> onRead(pageId, pageStart, page,
+              bytesRead, error)));
+        } catch (RuntimeException e) {
+          mPendingReads.decrementAndGet();
+          mResult.setException(e);
+          closeReaderIfIdle();
+        }
+      });
+    }
+
+    private CompletableFuture<Integer> readAsync(long position, ByteBuf page) {
+      if (mNonBlocking) {
+        return mUfs.positionReadAsync(mUfsPath, mFileSize, position, page.writableBytes(),
+            page);
+      }
+      return CompletableFuture.supplyAsync(() -> {
+        try {
+          return getReader().read(position, page, page.writableBytes());
+        } catch (IOException e) {
+          throw new CompletionException(e);
+        }
+      }, mExecutor);
+    }
+
+    private void onRead(PageId pageId, long pageStart, ByteBuf page, Integer bytesRead,
+        Throwable error) {
+      try {
+        if (error != null) {
+          Throwable cause = error instanceof CompletionException && error.getCause() != null
+              ? error.getCause() : error;
+          mResult.setException(cause);
+          return;
+        }
+        if (bytesRead > 0) {
+          MetricsSystem.meter(MetricKey.CLIENT_CACHE_BYTES_READ_EXTERNAL.getName())
+              .mark(bytesRead);
+        }
+        if (page.isWritable()) {
+          if (bytesRead <= 0) {
+            mResult.setException(new IOException(String.format(
+                "Failed to read complete page %s of %s from UFS. Bytes read: %s, "
+                    + "page size: %s", pageId, mUfsPath, page.writerIndex(),
+                page.capacity())));
+            return;
+          }
+          // a partial read, fetch the remaining part of the page
+          fetch(pageId, pageStart, page);
+          return;
+        }
+        mCacheManager.put(pageId, page.array(), mCacheContext);
+        fetchNextPage();
+      } catch (Throwable t) {
+        mResult.setException(t);
+      } finally {
+        mPendingReads.decrementAndGet();
+        closeReaderIfIdle();
+      }
+    }
+
+    private void runAsUser(Runnable task) {
+      AuthenticatedClientUser.set(mUser);
+      try {
+        task.run();
+      } finally {
+        AuthenticatedClientUser.remove();
+      }
+    }
+
+    private synchronized PositionReader getReader() throws IOException {
+      if (mReaderClosed) {
+        throw new IOException(String.format("The load of %s is already complete", mUfsPath));
+      }
+      if (mReader == null) {
+        mReader = mUfs.openPositionRead(mUfsPath, mFileSize);
+      }
+      return mReader;
+    }
+
+    /**
+     * Closes the reader of the file once the load is complete and no read is pending.
+     */
+    private void closeReaderIfIdle() {
+      if (!mResult.isDone() || mPendingReads.get() > 0) {
+        return;
+      }
+      PositionReader reader;
+      synchronized (this) {
+        mReaderClosed = true;
+        reader = mReader;
+        mReader = null;
+      }
+      if (reader != null) {
+        try {
+          reader.close();
+        } catch (IOException e) {
+          LOG.warn("Failed to close the reader of {}", mUfsPath, e);
+        }
+      }
+    }
+  }
 }
@@ -31,14 +31,19 @@ import org.rocksdb.ReadOptions;
 import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.RocksObject;
+import org.rocksdb.WriteBatch;
 import org.rocksdb.WriteOptions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
@@ -53,9 +58,15 @@ public class RocksDBDoraMetaStore implements DoraMetaStore {
   private static final String DORA_META_DB_NAME = "DoraMeta";
   private static final String DORA_META_FILE_STATUS_COLUMN = "FileStatusCF";
   private static final String DORA_META_STORE_NAME = "DoraMetaStore";
+  /**
+   * The prefix of the keys of the dictionary entries of the compact encoding, which are stored
+   * along with the file statuses. No path starts with a NUL character.
+   */
+  private static final String DICTIONARY_KEY_PREFIX = "\0dictionary/";
 
   // These are fields instead of constants because they depend on the call to RocksDB.loadLibrary().
   private final WriteOptions mWriteOption;
+  private final WriteOptions mDictionaryWriteOption;
   private final ReadOptions mReadOption;
   private final RocksStore mRocksStore;
 
@@ -67,20 +78,40 @@ public class RocksDBDoraMetaStore implements DoraMetaStore {
 
   private final AtomicReference<ColumnFamilyHandle> mFileStatusColumn = new AtomicReference<>();
 
+  private final CompactFileStatusCodec mCodec;
+  private final boolean mCompactEncoding;
+
   /**
-   * Creates and initializes a rocks block store.
+   * Creates and initializes a rocks block store with the write-ahead log enabled, which writes
+   * file statuses as protobufs.
    *
    * @param baseDir the base directory in which to store inode metadata
    * @param metaTTL The TTL for this metastore
    */
   public RocksDBDoraMetaStore(String baseDir, long metaTTL) {
+    this(baseDir, metaTTL, true, false);
+  }
+
+  /**
+   * Creates and initializes a rocks block store.
+   *
+   * @param baseDir the base directory in which to store inode metadata
+   * @param metaTTL The TTL for this metastore
+   * @param walEnabled whether the writes of file statuses go through the write-ahead log
+   * @param compactEncoding whether file statuses are written in the compact encoding
+   */
+  public RocksDBDoraMetaStore(String baseDir, long metaTTL, boolean walEnabled,
+      boolean compactEncoding) {
     RocksDB.loadLibrary();
 
     Preconditions.checkState(metaTTL > 0 || metaTTL == -1);
 
     // the rocksDB objects must be initialized after RocksDB.loadLibrary() is called
-    mWriteOption = new WriteOptions().setDisableWAL(false);
+    mWriteOption = new WriteOptions().setDisableWAL(!walEnabled);
     mToClose.add(mWriteOption);
+    // a lost dictionary entry would make the values referencing it unreadable
+    mDictionaryWriteOption = new WriteOptions();
+    mToClose.add(mDictionaryWriteOption);
     mReadOption  = new ReadOptions();
     mToClose.add(mReadOption);
     String dbPath = PathUtils.concatPath(baseDir, DORA_META_DB_NAME);
@@ -111,6 +142,54 @@ public class RocksDBDoraMetaStore implements DoraMetaStore {
     mRocksStore = new RocksStore(DORA_META_STORE_NAME, dbPath, backupPath, opts, columns,
             Arrays.asList(mFileStatusColumn), false);
     mMetaTTL = metaTTL;
+    mCodec = new CompactFileStatusCodec(this::putDictionaryEntry);
+    mCompactEncoding = compactEncoding;
+    loadDictionary();
+  }
+
+  /**
+   * Restores the dictionary of the compact encoding. The entries are read by id until the
+   * first missing one, as they are written in the order of their ids.
+   */
+  private void loadDictionary() {
+    try (RocksSharedLockHandle lock = mRocksStore.checkAndAcquireSharedLock()) {
+      for (int id = 0; ; id++) {
+        byte[] value = db().get(mFileStatusColumn.get(), getDictionaryKey(id));
+        if (value == null) {
+          break;
+        }
+        mCodec.restoreDictionaryEntry(id, new String(value, StandardCharsets.UTF_8));
+      }
+    } catch (RocksDBException e) {
+      throw new RuntimeException(e);
+    }
+    LOG.info("Loaded {} dictionary entries of " + DORA_META_DB_NAME,
+        mCodec.getDictionarySize());
+  }
+
+  private void putDictionaryEntry(int id, String value) {
+    try {
+      db().put(mFileStatusColumn.get(), mDictionaryWriteOption, getDictionaryKey(id),
+          value.getBytes(StandardCharsets.UTF_8));
+    } catch (RocksDBException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private static byte[] getDictionaryKey(int id) {
+    return (DICTIONARY_KEY_PREFIX + id).getBytes();
+  }
+
+  /**
+   * @param path the full path of the file
+   * @param meta the metadata
+   * @return the metadata serialized in the configured encoding
+   */
+  private byte[] serializeDoraMeta(String path, DoraMeta.FileStatus meta) {
+    if (mCompactEncoding && mCodec.canEncode(path, meta)) {
+      return mCodec.encode(meta);
+    }
+    return meta.toByteArray();
   }
 
   /**
@@ -130,18 +209,71 @@ public class RocksDBDoraMetaStore implements DoraMetaStore {
     if (status == null) {
       return Optional.empty();
     }
+    Optional<DoraMeta.FileStatus> fs = parseDoraMeta(path, status);
+    if (!fs.isPresent()) {
+      removeDoraMeta(path);
+    }
+    return fs;
+  }
+
+  /**
+   * Queries the metadata of several files with a single RocksDB multiGet.
+   *
+   * @param paths the full paths of the files
+   * @return the metadata of the files found, keyed by path
+   */
+  @Override
+  public Map<String, DoraMeta.FileStatus> getDoraMetas(Collection<String> paths) {
+    if (paths.isEmpty()) {
+      return Collections.emptyMap();
+    }
+    List<String> keys = new ArrayList<>(paths);
+    List<byte[]> statuses;
+    try (RocksSharedLockHandle lock = mRocksStore.checkAndAcquireSharedLock()) {
+      statuses = db().multiGetAsList(mReadOption,
+          Collections.nCopies(keys.size(), mFileStatusColumn.get()),
+          keys.stream().map(String::getBytes).collect(Collectors.toList()));
+    } catch (RocksDBException e) {
+      throw new RuntimeException(e);
+    }
+    Map<String, DoraMeta.FileStatus> result = new HashMap<>();
+    List<String> invalid = new ArrayList<>();
+    for (int i = 0; i < keys.size(); i++) {
+      byte[] status = statuses.get(i);
+      if (status == null) {
+        continue;
+      }
+      Optional<DoraMeta.FileStatus> fs = parseDoraMeta(keys.get(i), status);
+      if (fs.isPresent()) {
+        result.put(keys.get(i), fs.get());
+      } else {
+        invalid.add(keys.get(i));
+      }
+    }
+    if (!invalid.isEmpty()) {
+      removeDoraMetas(invalid);
+    }
+    return result;
+  }
+
+  /**
+   * @param path the full path of the file
+   * @param status the serialized metadata
+   * @return the metadata, or empty if it is expired or cannot be parsed
+   */
+  private Optional<DoraMeta.FileStatus> parseDoraMeta(String path, byte[] status) {
     try {
-      DoraMeta.FileStatus fs = DoraMeta.FileStatus.parseFrom(status);
+      // the values are auto-detected, so that both encodings can be read at any time
+      DoraMeta.FileStatus fs = CompactFileStatusCodec.isCompact(status)
+          ? mCodec.decode(path, status) : DoraMeta.FileStatus.parseFrom(status);
       if (mMetaTTL != -1) {
         if (System.nanoTime() - fs.getTs() > mMetaTTL * Constants.SECOND_NANO) {
           // The Metadata is out of date.
-          removeDoraMeta(path);
           return Optional.empty();
         }
       }
       return Optional.of(fs);
     } catch (Exception e) {
-      removeDoraMeta(path);
       LOG.error("Cannot parse get result for {} : {}", path, e);
       return Optional.empty();
     }
@@ -157,12 +289,34 @@ public class RocksDBDoraMetaStore implements DoraMetaStore {
   public void putDoraMeta(String path, DoraMeta.FileStatus meta) {
     try (RocksSharedLockHandle lock = mRocksStore.checkAndAcquireSharedLock()) {
       db().put(mFileStatusColumn.get(), mWriteOption, path.getBytes(),
-              meta.toByteString().toByteArray());
+              serializeDoraMeta(path, meta));
     } catch (RocksDBException e) {
       LOG.error("Cannot put {} : {}", path, e);
     }
   }
 
+  /**
+   * Stores the metadata of several files with a single RocksDB write batch.
+   *
+   * @param metas the metadata of the files, keyed by path
+   */
+  @Override
+  public void putDoraMetas(Map<String, DoraMeta.FileStatus> metas) {
+    if (metas.isEmpty()) {
+      return;
+    }
+    try (RocksSharedLockHandle lock = mRocksStore.checkAndAcquireSharedLock();
+         WriteBatch batch = new WriteBatch()) {
+      for (Map.Entry<String, DoraMeta.FileStatus> entry : metas.entrySet()) {
+        batch.put(mFileStatusColumn.get(), entry.getKey().getBytes(),
+            serializeDoraMeta(entry.getKey(), entry.getValue()));
+      }
+      db().write(mWriteOption, batch);
+    } catch (RocksDBException e) {
+      LOG.error("Cannot put {} entries : {}", metas.size(), e);
+    }
+  }
+
   /**
    * Removes the metadata from the RocksDB. It is not an error if the record specified by the key
    * is not found.
@@ -178,6 +332,27 @@ public class RocksDBDoraMetaStore implements DoraMetaStore {
     }
   }
 
+  /**
+   * Removes the metadata of several files with a single RocksDB write batch.
+   *
+   * @param paths the full paths of the files whose metadata to be removed
+   */
+  @Override
+  public void removeDoraMetas(Collection<String> paths) {
+    if (paths.isEmpty()) {
+      return;
+    }
+    try (RocksSharedLockHandle lock = mRocksStore.checkAndAcquireSharedLock();
+         WriteBatch batch = new WriteBatch()) {
+      for (String path : paths) {
+        batch.delete(mFileStatusColumn.get(), path.getBytes());
+      }
+      db().write(mWriteOption, batch);
+    } catch (RocksDBException e) {
+      LOG.error("Cannot remove {} entries : {}", paths.size(), e);
+    }
+  }
+
   /**
    * Clears all the metadata in this RocksDB.
    */
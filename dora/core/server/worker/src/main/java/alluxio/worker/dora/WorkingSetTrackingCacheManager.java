@@ -0,0 +1,213 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.dora;
+
+import alluxio.client.file.CacheContext;
+import alluxio.client.file.cache.CacheManager;
+import alluxio.client.file.cache.CacheUsage;
+import alluxio.client.file.cache.ClockCuckooShadowCacheManager;
+import alluxio.client.file.cache.MissRatioCurveEstimator;
+import alluxio.client.file.cache.PageId;
+import alluxio.client.file.cache.PageInfo;
+import alluxio.client.file.cache.ShadowCacheManager;
+import alluxio.client.quota.CacheScope;
+import alluxio.conf.AlluxioConfiguration;
+import alluxio.conf.PropertyKey;
+import alluxio.exception.PageNotFoundException;
+import alluxio.file.ReadTargetBuffer;
+import alluxio.metrics.Metric;
+import alluxio.metrics.MetricInfo;
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
+import alluxio.network.protocol.databuffer.DataFileChannel;
+import alluxio.util.FormatUtils;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * A {@link CacheManager} which estimates how much cache the pages read on the worker need.
+ * <br>
+ * The pages read and cached are tracked by a {@link ClockCuckooShadowCacheManager}, whose
+ * approximate number of pages and bytes accessed within its window are reported as the working
+ * set of the worker. In addition, the reads are sampled by a {@link MissRatioCurveEstimator}, to
+ * report the hit ratio the cache would have at several sizes.
+ */
+public class WorkingSetTrackingCacheManager implements CacheManager {
+  private final CacheManager mCacheManager;
+  private final ShadowCacheManager mShadowCacheManager;
+  private final MissRatioCurveEstimator mMissRatioCurveEstimator;
+  private final int mPageSize;
+
+  /**
+   * @param cacheManager the cache manager of the worker
+   * @param conf the Alluxio configuration
+   */
+  public WorkingSetTrackingCacheManager(CacheManager cacheManager, AlluxioConfiguration conf) {
+    this(cacheManager, new ClockCuckooShadowCacheManager(conf),
+        new MissRatioCurveEstimator(
+            conf.getList(PropertyKey.WORKER_CACHE_SHADOW_MRC_CACHE_SIZES).stream()
+                .mapToLong(FormatUtils::parseSpaceSize).toArray(),
+            conf.getDouble(PropertyKey.WORKER_CACHE_SHADOW_MRC_SAMPLING_RATE),
+            conf.getMs(PropertyKey.USER_CLIENT_CACHE_SHADOW_WINDOW),
+            System::currentTimeMillis),
+        (int) conf.getBytes(PropertyKey.WORKER_PAGE_STORE_PAGE_SIZE));
+  }
+
+  @VisibleForTesting
+  WorkingSetTrackingCacheManager(CacheManager cacheManager,
+      ShadowCacheManager shadowCacheManager, MissRatioCurveEstimator missRatioCurveEstimator,
+      int pageSize) {
+    mCacheManager = cacheManager;
+    mShadowCacheManager = shadowCacheManager;
+    mMissRatioCurveEstimator = missRatioCurveEstimator;
+    mPageSize = pageSize;
+    registerGauges();
+  }
+
+  private void registerGauges() {
+    MetricsSystem.registerGaugeIfAbsent(
+        MetricsSystem.getMetricName(MetricKey.WORKER_CACHE_WORKING_SET_BYTES.getName()),
+        () -> {
+          mShadowCacheManager.updateWorkingSetSize();
+          return mShadowCacheManager.getShadowCacheBytes();
+        });
+    MetricsSystem.registerGaugeIfAbsent(
+        MetricsSystem.getMetricName(MetricKey.WORKER_CACHE_WORKING_SET_PAGES.getName()),
+        () -> {
+          mShadowCacheManager.updateWorkingSetSize();
+          return mShadowCacheManager.getShadowCachePages();
+        });
+    long[] cacheSizes = mMissRatioCurveEstimator.getCacheSizes();
+    for (int i = 0; i < cacheSizes.length; i++) {
+      int index = i;
+      MetricsSystem.registerGaugeIfAbsent(MetricsSystem.getMetricName(
+          Metric.getMetricNameWithTags(MetricKey.WORKER_CACHE_PREDICTED_HIT_RATIO.getName(),
+              MetricInfo.TAG_CACHE_SIZE, Long.toString(cacheSizes[i]))),
+          () -> mMissRatioCurveEstimator.getHitRatio(index));
+    }
+  }
+
+  private void recordRead(PageId pageId, CacheContext cacheContext) {
+    if (mShadowCacheManager.get(pageId, mPageSize, getCacheScope(cacheContext)) <= 0) {
+      mShadowCacheManager.put(pageId, mPageSize, getCacheScope(cacheContext));
+    }
+    mMissRatioCurveEstimator.recordAccess(pageId, mPageSize);
+  }
+
+  private static CacheScope getCacheScope(CacheContext cacheContext) {
+    return (cacheContext == null) ? CacheScope.GLOBAL : cacheContext.getCacheScope();
+  }
+
+  @Override
+  public boolean put(PageId pageId, ByteBuffer page, CacheContext cacheContext) {
+    mShadowCacheManager.put(pageId, mPageSize, getCacheScope(cacheContext));
+    return mCacheManager.put(pageId, page, cacheContext);
+  }
+
+  @Override
+  public int get(PageId pageId, int pageOffset, int bytesToRead, ReadTargetBuffer buffer,
+      CacheContext cacheContext) {
+    recordRead(pageId, cacheContext);
+    return mCacheManager.get(pageId, pageOffset, bytesToRead, buffer, cacheContext);
+  }
+
+  @Override
+  public int getAndLoad(PageId pageId, int pageOffset, int bytesToRead,
+      ReadTargetBuffer buffer, CacheContext cacheContext, Supplier<byte[]> externalDataSupplier) {
+    recordRead(pageId, cacheContext);
+    return mCacheManager.getAndLoad(pageId, pageOffset, bytesToRead, buffer, cacheContext,
+        externalDataSupplier);
+  }
+
+  @Override
+  public int getPages(List<PageId> pageIds, int pageOffset, int bytesToRead, long pageSize,
+      ReadTargetBuffer buffer, CacheContext cacheContext) {
+    int bytesRead = mCacheManager.getPages(pageIds, pageOffset, bytesToRead, pageSize, buffer,
+        cacheContext);
+    // the pages not read are recorded when they are loaded
+    long pageStart = 0;
+    for (int i = 0; i < pageIds.size() && bytesRead > pageStart; i++) {
+      recordRead(pageIds.get(i), cacheContext);
+      pageStart += (i == 0) ? pageSize - pageOffset : pageSize;
+    }
+    return bytesRead;
+  }
+
+  @Override
+  public Optional<DataFileChannel> getDataFileChannel(PageId pageId, int pageOffset,
+      int bytesToRead, CacheContext cacheContext) throws PageNotFoundException {
+    recordRead(pageId, cacheContext);
+    return mCacheManager.getDataFileChannel(pageId, pageOffset, bytesToRead, cacheContext);
+  }
+
+  @Override
+  public List<PageId> getCachedPageIdsByFileId(String fileId, long fileLength) {
+    return mCacheManager.getCachedPageIdsByFileId(fileId, fileLength);
+  }
+
+  @Override
+  public void deleteFile(String fileId) {
+    mCacheManager.deleteFile(fileId);
+  }
+
+  @Override
+  public void deleteTempFile(String fileId) {
+    mCacheManager.deleteTempFile(fileId);
+  }
+
+  @Override
+  public boolean delete(PageId pageId) {
+    return mCacheManager.delete(pageId);
+  }
+
+  @Override
+  public boolean isConcurrentPageReadEnabled() {
+    return mCacheManager.isConcurrentPageReadEnabled();
+  }
+
+  @Override
+  public State state() {
+    return mCacheManager.state();
+  }
+
+  @Override
+  public boolean append(PageId pageId, int appendAt, byte[] page, CacheContext cacheContext) {
+    return mCacheManager.append(pageId, appendAt, page, cacheContext);
+  }
+
+  @Override
+  public void invalidate(Predicate<PageInfo> predicate) {
+    mCacheManager.invalidate(predicate);
+  }
+
+  @Override
+  public Optional<CacheUsage> getUsage() {
+    return mCacheManager.getUsage();
+  }
+
+  @Override
+  public void commitFile(String fileId) {
+    mCacheManager.commitFile(fileId);
+  }
+
+  @Override
+  public void close() throws Exception {
+    mShadowCacheManager.stopUpdate();
+    mCacheManager.close();
+  }
+}
@@ -131,7 +131,8 @@ public class DoraWorkerClientServiceHandler extends BlockWorkerGrpc.BlockWorkerI
   public void loadFile(LoadFileRequest request, StreamObserver<LoadFileResponse> responseObserver) {
     try {
       ListenableFuture<List<LoadFileFailure>> failures =
-          mWorker.load(!request.getLoadMetadataOnly(), request.getUfsStatusList().stream().map(
+          mWorker.load(!request.getLoadMetadataOnly(), request.getSkipIfCached(),
+              request.getUfsStatusList().stream().map(
               UfsStatus::fromProto).collect(
               Collectors.toList()), request.getOptions());
       ListenableFuture<LoadFileResponse> future = Futures.transform(failures, fail -> {
@@ -27,6 +27,7 @@ import alluxio.worker.Worker;
 import alluxio.worker.dora.DoraUfsManager;
 import alluxio.worker.dora.DoraWorker;
 import alluxio.worker.dora.PagedDoraWorker;
+import alluxio.worker.dora.WorkingSetTrackingCacheManager;
 import alluxio.worker.file.FileSystemMasterClient;
 import alluxio.worker.http.HttpServer;
 import alluxio.worker.http.HttpServerInitializer;
@@ -67,8 +68,12 @@ public class DoraWorkerModule extends AbstractModule {
       bind(CacheManager.class).toProvider(() ->
       {
         try {
-          return CacheManager.Factory.create(Configuration.global(),
+          CacheManager cacheManager = CacheManager.Factory.create(Configuration.global(),
               cacheManagerOptions, pageMetaStore);
+          if (Configuration.getBoolean(PropertyKey.WORKER_CACHE_SHADOW_ENABLED)) {
+            return new WorkingSetTrackingCacheManager(cacheManager, Configuration.global());
+          }
+          return cacheManager;
         } catch (IOException e) {
           throw new RuntimeException(e);
         }
@@ -0,0 +1,148 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.dora;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import alluxio.AuthenticatedClientUserResource;
+import alluxio.Constants;
+import alluxio.client.file.CacheContext;
+import alluxio.client.file.cache.CacheManager;
+import alluxio.client.file.cache.CacheManagerOptions;
+import alluxio.client.file.cache.LocalCacheManager;
+import alluxio.client.file.cache.PageId;
+import alluxio.client.file.cache.PageMetaStore;
+import alluxio.client.file.cache.store.PageStoreType;
+import alluxio.client.quota.CacheScope;
+import alluxio.conf.Configuration;
+import alluxio.conf.InstancedConfiguration;
+import alluxio.conf.PropertyKey;
+import alluxio.file.ByteArrayTargetBuffer;
+import alluxio.metrics.Metric;
+import alluxio.metrics.MetricInfo;
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
+import alluxio.util.io.BufferUtils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CacheScopeResolverTest {
+  private static final int PAGE_SIZE = Constants.KB;
+
+  @Rule
+  public TemporaryFolder mTemp = new TemporaryFolder();
+
+  private InstancedConfiguration mConf;
+  private CacheManager mCacheManager;
+
+  @Before
+  public void before() throws Exception {
+    MetricsSystem.clearAllMetrics();
+    mConf = Configuration.copyGlobal();
+    mConf.set(PropertyKey.WORKER_PAGE_STORE_PAGE_SIZE, PAGE_SIZE);
+    mConf.set(PropertyKey.WORKER_PAGE_STORE_SIZES, String.valueOf(8 * PAGE_SIZE));
+    mConf.set(PropertyKey.WORKER_PAGE_STORE_DIRS, mTemp.getRoot().getAbsolutePath());
+    mConf.set(PropertyKey.WORKER_PAGE_STORE_TYPE, PageStoreType.MEM);
+    mConf.set(PropertyKey.WORKER_PAGE_STORE_OVERHEAD, 0);
+    mConf.set(PropertyKey.WORKER_PAGE_STORE_ASYNC_RESTORE_ENABLED, false);
+    mConf.set(PropertyKey.WORKER_PAGE_STORE_ASYNC_WRITE_ENABLED, false);
+    mConf.set(PropertyKey.WORKER_PAGE_STORE_QUOTA_ENABLED, true);
+    CacheManagerOptions options = CacheManagerOptions.createForWorker(mConf);
+    mCacheManager = LocalCacheManager.create(options, PageMetaStore.create(options));
+  }
+
+  @After
+  public void after() throws Exception {
+    mCacheManager.close();
+    MetricsSystem.clearAllMetrics();
+  }
+
+  @Test
+  public void scopeFromPath() {
+    CacheScopeResolver resolver = new CacheScopeResolver(mConf, mCacheManager);
+    assertEquals("etl_bucket", resolver.getScopeId("s3://etl-bucket/warehouse/part-0"));
+    assertEquals("namenode_8020", resolver.getScopeId("hdfs://namenode:8020/data"));
+    assertEquals("file", resolver.getScopeId("file:///tmp/data"));
+    assertEquals("default", resolver.getScopeId("/tmp/data"));
+    assertEquals(CacheScope.create("etl_bucket"),
+        resolver.getCacheContext("s3://etl-bucket/warehouse/part-0").getCacheScope());
+  }
+
+  @Test
+  public void scopeFromUser() throws Exception {
+    mConf.set(PropertyKey.WORKER_PAGE_STORE_QUOTA_SCOPE_SOURCE, CacheScopeSource.USER);
+    CacheScopeResolver resolver = new CacheScopeResolver(mConf, mCacheManager);
+    try (AuthenticatedClientUserResource r =
+             new AuthenticatedClientUserResource("etl.user", mConf)) {
+      assertEquals("etl_user", resolver.getScopeId("s3://etl-bucket/warehouse/part-0"));
+    }
+  }
+
+  @Test
+  public void quotas() {
+    mConf.set(PropertyKey.WORKER_PAGE_STORE_QUOTA_SCOPE_SIZES, "etl-bucket=4KB,adhoc=2KB");
+    CacheScopeResolver resolver = new CacheScopeResolver(mConf, mCacheManager);
+    assertEquals(4 * PAGE_SIZE, resolver.getQuota(CacheScope.create("etl_bucket")));
+    assertEquals(2 * PAGE_SIZE, resolver.getQuota(CacheScope.create("adhoc")));
+    assertEquals(Long.MAX_VALUE, resolver.getQuota(CacheScope.create("other")));
+    assertEquals(Long.MAX_VALUE, resolver.getQuota(CacheScope.GLOBAL));
+
+    mConf.set(PropertyKey.WORKER_PAGE_STORE_QUOTA_DEFAULT_SCOPE_SIZE, "1KB");
+    resolver = new CacheScopeResolver(mConf, mCacheManager);
+    assertEquals(PAGE_SIZE, resolver.getQuota(CacheScope.create("other")));
+  }
+
+  @Test
+  public void scanDoesNotEvictOtherScopes() {
+    mConf.set(PropertyKey.WORKER_PAGE_STORE_QUOTA_SCOPE_SIZES, "scan=2KB");
+    CacheScopeResolver resolver = new CacheScopeResolver(mConf, mCacheManager);
+    CacheContext hot = resolver.getCacheContext("s3://hot/file");
+    for (int i = 0; i < 4; i++) {
+      assertTrue(mCacheManager.put(new PageId("hot", i), page(i), hot));
+    }
+    // a scan larger than the cache only evicts its own pages once it reaches its quota
+    CacheContext scan = resolver.getCacheContext("s3://scan/file");
+    for (int i = 0; i < 16; i++) {
+      assertTrue(mCacheManager.put(new PageId("scan", i), page(i), scan));
+    }
+    byte[] buffer = new byte[PAGE_SIZE];
+    for (int i = 0; i < 4; i++) {
+      assertEquals(PAGE_SIZE, mCacheManager.get(new PageId("hot", i), 0, PAGE_SIZE,
+          new ByteArrayTargetBuffer(buffer, 0), hot));
+    }
+    assertEquals(4L * PAGE_SIZE, getGauge(MetricKey.WORKER_CACHE_SCOPE_BYTES, "hot"));
+    assertEquals(2L * PAGE_SIZE, getGauge(MetricKey.WORKER_CACHE_SCOPE_BYTES, "scan"));
+
+    // one hit and one miss
+    mCacheManager.getAndLoad(new PageId("scan", 20), 0, PAGE_SIZE,
+        new ByteArrayTargetBuffer(buffer, 0), scan, () -> page(20));
+    mCacheManager.getAndLoad(new PageId("scan", 20), 0, PAGE_SIZE,
+        new ByteArrayTargetBuffer(buffer, 0), scan, () -> page(20));
+    assertEquals(1.0, getGauge(MetricKey.WORKER_CACHE_SCOPE_HIT_RATIO, "hot"));
+    assertEquals(0.5, getGauge(MetricKey.WORKER_CACHE_SCOPE_HIT_RATIO, "scan"));
+  }
+
+  private static byte[] page(int i) {
+    return BufferUtils.getIncreasingByteArray(i, PAGE_SIZE);
+  }
+
+  private static Object getGauge(MetricKey key, String scope) {
+    return MetricsSystem.METRIC_REGISTRY.getGauges().get(MetricsSystem.getMetricName(
+        Metric.getMetricNameWithTags(key.getName(), MetricInfo.TAG_CACHE_SCOPE, scope)))
+        .getValue();
+  }
+}
@@ -0,0 +1,126 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.dora;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import alluxio.grpc.FileInfo;
+import alluxio.proto.meta.DoraMeta;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+public class CompactFileStatusCodecTest {
+  private static final String PATH = "s3://bucket/dir/file.parquet";
+
+  private final Map<Integer, String> mPersistedDictionary = new HashMap<>();
+  private CompactFileStatusCodec mCodec;
+
+  @Before
+  public void before() {
+    mCodec = new CompactFileStatusCodec(mPersistedDictionary::put);
+  }
+
+  @Test
+  public void roundTrip() throws Exception {
+    DoraMeta.FileStatus file = status(PATH, fileInfo(PATH));
+    assertTrue(mCodec.canEncode(PATH, file));
+    byte[] value = mCodec.encode(file);
+    assertTrue(CompactFileStatusCodec.isCompact(value));
+    assertTrue(value.length < file.getSerializedSize() / 2);
+    assertEquals(file, mCodec.decode(PATH, value));
+
+    String dir = "s3://bucket/dir";
+    DoraMeta.FileStatus folder = status(dir, FileInfo.newBuilder()
+        .setName("dir").setPath(dir).setUfsPath(dir).setFileId(dir.hashCode())
+        .setUfsType("s3").setMode(0755).setFolder(true).setOwner("owner").setGroup("group")
+        .setCompleted(true).setPersisted(true).build());
+    assertEquals(folder, mCodec.decode(dir, mCodec.encode(folder)));
+
+    DoraMeta.FileStatus partial = DoraMeta.FileStatus.newBuilder()
+        .setFileInfo(FileInfo.newBuilder().setLength(-1).setCompleted(false)).build();
+    assertTrue(mCodec.canEncode(PATH, partial));
+    assertEquals(partial, mCodec.decode(PATH, mCodec.encode(partial)));
+  }
+
+  @Test
+  public void stringsAreInterned() throws Exception {
+    mCodec.encode(status(PATH, fileInfo(PATH)));
+    mCodec.encode(status("s3://bucket/other", fileInfo("s3://bucket/other")));
+    assertEquals(3, mCodec.getDictionarySize());
+    assertEquals(3, mPersistedDictionary.size());
+
+    // a codec restored from the persisted dictionary decodes the values of the previous one
+    byte[] value = mCodec.encode(status(PATH, fileInfo(PATH)));
+    CompactFileStatusCodec restored = new CompactFileStatusCodec((id, v) -> { });
+    for (int id = 0; id < mPersistedDictionary.size(); id++) {
+      restored.restoreDictionaryEntry(id, mPersistedDictionary.get(id));
+    }
+    assertEquals(status(PATH, fileInfo(PATH)), restored.decode(PATH, value));
+
+    CompactFileStatusCodec empty = new CompactFileStatusCodec((id, v) -> { });
+    assertThrows(IOException.class, () -> empty.decode(PATH, value));
+  }
+
+  @Test
+  public void unsupportedStatuses() {
+    // the path fields do not match the key
+    assertFalse(mCodec.canEncode("s3://bucket/other", status(PATH, fileInfo(PATH))));
+    assertFalse(mCodec.canEncode(PATH, status(PATH, fileInfo(PATH).toBuilder()
+        .setFileId(1).build())));
+    // fields which are not part of the compact encoding
+    assertFalse(mCodec.canEncode(PATH, status(PATH, fileInfo(PATH).toBuilder()
+        .addBlockIds(1).build())));
+    assertFalse(mCodec.canEncode(PATH, DoraMeta.FileStatus.newBuilder().setTs(1).build()));
+  }
+
+  @Test
+  public void protobufIsNotCompact() {
+    assertFalse(CompactFileStatusCodec.isCompact(status(PATH, fileInfo(PATH)).toByteArray()));
+    assertFalse(CompactFileStatusCodec.isCompact(
+        DoraMeta.FileStatus.newBuilder().setTs(1).build().toByteArray()));
+    assertFalse(CompactFileStatusCodec.isCompact(new byte[0]));
+  }
+
+  private static FileInfo fileInfo(String path) {
+    return FileInfo.newBuilder()
+        .setUfsType("s3")
+        .setFileId(path.hashCode())
+        .setName(path.substring(path.lastIndexOf('/') + 1))
+        .setPath(path)
+        .setUfsPath(path)
+        .setMode(0644)
+        .setFolder(false)
+        .setOwner("owner")
+        .setGroup("group")
+        .setCompleted(true)
+        .setPersisted(true)
+        .setLength(123456789L)
+        .setLastModificationTimeMs(1697000000000L)
+        .setBlockSizeBytes(64L * 1024 * 1024)
+        .setContentHash("d41d8cd98f00b204e9800998ecf8427e")
+        .setInAlluxioPercentage(50)
+        .setInMemoryPercentage(50)
+        .build();
+  }
+
+  private static DoraMeta.FileStatus status(String path, FileInfo info) {
+    return DoraMeta.FileStatus.newBuilder().setFileInfo(info).setTs(123456789012345L).build();
+  }
+}
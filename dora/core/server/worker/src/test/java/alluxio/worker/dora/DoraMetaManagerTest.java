@@ -0,0 +1,157 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.dora;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import alluxio.Constants;
+import alluxio.client.file.cache.CacheManager;
+import alluxio.conf.Configuration;
+import alluxio.conf.PropertyKey;
+import alluxio.grpc.FileInfo;
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
+import alluxio.proto.meta.DoraMeta;
+import alluxio.underfs.UfsDirectoryStatus;
+import alluxio.underfs.UfsFileStatus;
+import alluxio.underfs.UfsStatus;
+import alluxio.underfs.UnderFileSystem;
+import alluxio.util.CommonUtils;
+import alluxio.util.WaitForOptions;
+
+import com.codahale.metrics.Counter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class DoraMetaManagerTest {
+  private static final String PATH = "s3://bucket/dir";
+  private static final int CONCURRENCY = 8;
+
+  @Rule
+  public TemporaryFolder mTestFolder = new TemporaryFolder();
+
+  private UnderFileSystem mUfs;
+  private DoraMetaManager mMetaManager;
+  private ExecutorService mExecutor;
+
+  @Before
+  public void before() throws Exception {
+    Configuration.set(PropertyKey.DORA_WORKER_METASTORE_ROCKSDB_DIR,
+        mTestFolder.newFolder("rocks").getAbsolutePath());
+    mUfs = mock(UnderFileSystem.class);
+    DoraUfsManager ufsManager = mock(DoraUfsManager.class);
+    when(ufsManager.getOrAdd(any(), any())).thenReturn(mUfs);
+    mMetaManager = new DoraMetaManager(Configuration.global(), mock(PagedDoraWorker.class),
+        mock(CacheManager.class), ufsManager);
+    mExecutor = Executors.newFixedThreadPool(CONCURRENCY);
+  }
+
+  @After
+  public void after() throws Exception {
+    mExecutor.shutdownNow();
+    mMetaManager.close();
+    Configuration.reloadProperties();
+  }
+
+  @Test
+  public void concurrentListingsAreCoalesced() throws Exception {
+    UfsStatus[] statuses = new UfsStatus[0];
+    CountDownLatch listingStarted = new CountDownLatch(1);
+    CountDownLatch finishListing = new CountDownLatch(1);
+    when(mUfs.listStatus(anyString(), any())).thenAnswer(invocation -> {
+      listingStarted.countDown();
+      finishListing.await();
+      return statuses;
+    });
+
+    Counter coalesced =
+        MetricsSystem.counter(MetricKey.WORKER_LIST_STATUS_COALESCED_COUNT.getName());
+    long coalescedBefore = coalesced.getCount();
+    List<Future<Optional<UfsStatus[]>>> results = new ArrayList<>();
+    results.add(mExecutor.submit(() -> mMetaManager.listFromUfs(PATH, true)));
+    listingStarted.await();
+    for (int i = 1; i < CONCURRENCY; i++) {
+      results.add(mExecutor.submit(() -> mMetaManager.listFromUfs(PATH, true)));
+    }
+    // wait for the late callers to join the listing in progress
+    CommonUtils.waitFor("late callers to join the listing",
+        () -> coalesced.getCount() - coalescedBefore == CONCURRENCY - 1,
+        WaitForOptions.defaults().setTimeoutMs(10 * Constants.SECOND_MS));
+    finishListing.countDown();
+    for (Future<Optional<UfsStatus[]>> result : results) {
+      assertSame(statuses, result.get(10, TimeUnit.SECONDS).get());
+    }
+    verify(mUfs, times(1)).listStatus(anyString(), any());
+
+    // a new listing is issued once the previous one completed
+    mMetaManager.listFromUfs(PATH, true);
+    verify(mUfs, times(2)).listStatus(anyString(), any());
+  }
+
+  @Test
+  public void listingFailureIsSharedAndNotCached() throws Exception {
+    when(mUfs.listStatus(anyString(), any()))
+        .thenThrow(new IOException("listing failed"))
+        .thenReturn(new UfsStatus[0]);
+    IOException e = assertThrows(IOException.class, () -> mMetaManager.listFromUfs(PATH, false));
+    assertEquals("listing failed", e.getMessage());
+    assertEquals(0, mMetaManager.listFromUfs(PATH, false).get().length);
+  }
+
+  @Test
+  public void listedStatusesAreCached() throws Exception {
+    mMetaManager.close();
+    Configuration.set(PropertyKey.DORA_WORKER_METASTORE_CACHE_LISTED_STATUS_ENABLED, true);
+    PagedDoraWorker worker = mock(PagedDoraWorker.class);
+    when(worker.buildFileStatusFromUfsStatus(any(), anyString())).thenAnswer(invocation ->
+        DoraMeta.FileStatus.newBuilder().setFileInfo(FileInfo.newBuilder()
+            .setUfsPath(invocation.getArgument(1))
+            .setLength(((UfsStatus) invocation.getArgument(0)).asUfsFileStatus()
+                .getContentLength())).build());
+    DoraUfsManager ufsManager = mock(DoraUfsManager.class);
+    when(ufsManager.getOrAdd(any(), any())).thenReturn(mUfs);
+    mMetaManager = new DoraMetaManager(Configuration.global(), worker,
+        mock(CacheManager.class), ufsManager);
+    when(mUfs.listStatus(anyString(), any())).thenReturn(new UfsStatus[] {
+        new UfsFileStatus("a", "hash", 10L, 0L, "owner", "group", (short) 0644),
+        new UfsDirectoryStatus("b", "owner", "group", (short) 0755)});
+
+    assertEquals(2, mMetaManager.listFromUfsThenCache(PATH, false).get().length);
+    Map<String, DoraMeta.FileStatus> cached =
+        mMetaManager.getAllFromMetaStore(Arrays.asList(PATH + "/a", PATH + "/b"));
+    assertEquals(1, cached.size());
+    assertEquals(10, cached.get(PATH + "/a").getFileInfo().getLength());
+  }
+}
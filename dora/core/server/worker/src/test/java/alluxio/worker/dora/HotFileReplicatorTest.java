@@ -0,0 +1,232 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.dora;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import alluxio.AlluxioURI;
+import alluxio.Constants;
+import alluxio.client.block.BlockWorkerInfo;
+import alluxio.client.block.stream.BlockWorkerClient;
+import alluxio.client.file.FileSystemContext;
+import alluxio.client.file.cache.CacheManager;
+import alluxio.client.file.dora.ConsistentHashProvider;
+import alluxio.conf.Configuration;
+import alluxio.conf.PropertyKey;
+import alluxio.exception.status.UnavailableException;
+import alluxio.grpc.LoadFileRequest;
+import alluxio.grpc.LoadFileResponse;
+import alluxio.grpc.TaskStatus;
+import alluxio.membership.MembershipManager;
+import alluxio.resource.CloseableResource;
+import alluxio.underfs.UfsFileStatus;
+import alluxio.underfs.UnderFileSystem;
+import alluxio.wire.WorkerInfo;
+import alluxio.wire.WorkerNetAddress;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.MoreExecutors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+public class HotFileReplicatorTest {
+  private static final String PATH = "s3://bucket/model.bin";
+  private static final long HALF_LIFE_MS = Constants.MINUTE_MS;
+  private static final int WORKER_COUNT = 4;
+
+  private final AtomicLong mClock = new AtomicLong();
+  private HotFileTracker mTracker;
+  private CacheManager mCacheManager;
+  private BlockWorkerClient mWorkerClient;
+  private FileSystemContext mFsContext;
+  private PagedDoraWorker mWorker;
+  private MembershipManager mMembershipManager;
+  /** The workers on the hash ring for {@link #PATH}, the first one being the owner. */
+  private List<WorkerNetAddress> mRing;
+
+  @Before
+  public void before() throws Exception {
+    Configuration.set(PropertyKey.WORKER_HOT_FILE_REPLICATION_COUNT, 2);
+    Configuration.set(PropertyKey.WORKER_HOT_FILE_REPLICATION_THRESHOLD, 10.0);
+    mTracker = new HotFileTracker(100, HALF_LIFE_MS, mClock::get);
+    mCacheManager = mock(CacheManager.class);
+
+    List<WorkerInfo> workers = new ArrayList<>();
+    for (int i = 0; i < WORKER_COUNT; i++) {
+      workers.add(new WorkerInfo().setAddress(new WorkerNetAddress()
+          .setHost("worker" + i).setRpcPort(29999).setDataPort(29997).setWebPort(30000)));
+    }
+    mMembershipManager = mock(MembershipManager.class);
+    when(mMembershipManager.getLiveMembers()).thenReturn(workers);
+    ConsistentHashProvider provider = new ConsistentHashProvider(100, Constants.SECOND_MS);
+    provider.refresh(workers.stream()
+        .map(w -> new BlockWorkerInfo(w.getAddress(), 0, 0)).collect(Collectors.toList()),
+        Configuration.getInt(PropertyKey.USER_CONSISTENT_HASH_VIRTUAL_NODE_COUNT));
+    mRing = provider.getMultiple(PATH, 3).stream()
+        .map(BlockWorkerInfo::getNetAddress).collect(Collectors.toList());
+
+    UnderFileSystem ufs = mock(UnderFileSystem.class);
+    when(ufs.getStatus(anyString())).thenReturn(
+        new UfsFileStatus("model.bin", "hash", Constants.MB, 0L, "owner", "group", (short) 0644));
+    mWorker = mock(PagedDoraWorker.class);
+    when(mWorker.getUfsInstance(anyString())).thenReturn(ufs);
+    mWorkerClient = mock(BlockWorkerClient.class);
+    when(mWorkerClient.loadFile(any())).thenReturn(Futures.immediateFuture(
+        LoadFileResponse.newBuilder().setStatus(TaskStatus.SUCCESS).build()));
+    mFsContext = mock(FileSystemContext.class);
+    when(mFsContext.acquireBlockWorkerClient(any())).thenAnswer(invocation ->
+        new CloseableResource<BlockWorkerClient>(mWorkerClient) {
+          @Override
+          public void closeResource() {
+          }
+        });
+  }
+
+  @After
+  public void after() {
+    Configuration.reloadProperties();
+  }
+
+  @Test
+  public void ownerReplicatesHotFile() throws Exception {
+    HotFileReplicator replicator = createReplicator(mRing.get(0));
+    access(5);
+    replicator.heartbeat(Long.MAX_VALUE);
+    assertEquals(0, replicator.getReplicas(PATH).size());
+    verify(mWorkerClient, never()).loadFile(any());
+
+    access(10);
+    replicator.heartbeat(Long.MAX_VALUE);
+    assertEquals(new HashSet<>(mRing.subList(1, 3)), new HashSet<>(replicator.getReplicas(PATH)));
+    verify(mFsContext).acquireBlockWorkerClient(mRing.get(1));
+    verify(mFsContext).acquireBlockWorkerClient(mRing.get(2));
+    // an already replicated file is not replicated again
+    replicator.heartbeat(Long.MAX_VALUE);
+    verify(mWorkerClient, times(2)).loadFile(any());
+
+    // the owner only sees its share of the reads of a replicated file
+    advance(2 * HALF_LIFE_MS);
+    replicator.heartbeat(Long.MAX_VALUE);
+    assertEquals(2, replicator.getReplicas(PATH).size());
+
+    // the replicas are no longer advertised once the file cools down
+    advance(2 * HALF_LIFE_MS);
+    replicator.heartbeat(Long.MAX_VALUE);
+    assertEquals(0, replicator.getReplicas(PATH).size());
+    verify(mCacheManager, never()).deleteFile(anyString());
+  }
+
+  @Test
+  public void onlySuccessfulReplicasAdvertised() throws Exception {
+    when(mFsContext.acquireBlockWorkerClient(mRing.get(1)))
+        .thenThrow(new UnavailableException("worker is down"));
+    HotFileReplicator replicator = createReplicator(mRing.get(0));
+    access(10);
+    replicator.heartbeat(Long.MAX_VALUE);
+    assertEquals(Collections.singletonList(mRing.get(2)), replicator.getReplicas(PATH));
+  }
+
+  @Test
+  public void replicationRetriedWhenAllTargetsFail() throws Exception {
+    when(mWorkerClient.loadFile(any()))
+        .thenReturn(Futures.immediateFailedFuture(new IOException("load failed")))
+        .thenReturn(Futures.immediateFuture(
+            LoadFileResponse.newBuilder().setStatus(TaskStatus.FAILURE).build()))
+        .thenReturn(Futures.immediateFuture(
+            LoadFileResponse.newBuilder().setStatus(TaskStatus.SUCCESS).build()));
+    HotFileReplicator replicator = createReplicator(mRing.get(0));
+    access(10);
+    replicator.heartbeat(Long.MAX_VALUE);
+    assertEquals(0, replicator.getReplicas(PATH).size());
+
+    replicator.heartbeat(Long.MAX_VALUE);
+    verify(mWorkerClient, times(4)).loadFile(any());
+    assertEquals(new HashSet<>(mRing.subList(1, 3)), new HashSet<>(replicator.getReplicas(PATH)));
+  }
+
+  @Test
+  public void replicaChargedToReadingUser() throws Exception {
+    HotFileReplicator replicator = createReplicator(mRing.get(0));
+    for (int i = 0; i < 10; i++) {
+      mTracker.recordAccess(PATH, "alice");
+    }
+    // reads by unknown users keep the last known user
+    mTracker.recordAccess(PATH, null);
+    replicator.heartbeat(Long.MAX_VALUE);
+    ArgumentCaptor<LoadFileRequest> request = ArgumentCaptor.forClass(LoadFileRequest.class);
+    verify(mWorkerClient, times(2)).loadFile(request.capture());
+    assertEquals("alice", request.getValue().getOptions().getUser());
+  }
+
+  @Test
+  public void replicaChargedToFileOwnerWithoutReadingUser() throws Exception {
+    HotFileReplicator replicator = createReplicator(mRing.get(0));
+    access(10);
+    replicator.heartbeat(Long.MAX_VALUE);
+    ArgumentCaptor<LoadFileRequest> request = ArgumentCaptor.forClass(LoadFileRequest.class);
+    verify(mWorkerClient, times(2)).loadFile(request.capture());
+    assertEquals("owner", request.getValue().getOptions().getUser());
+  }
+
+  @Test
+  public void replicaDroppedWhenCold() throws Exception {
+    HotFileReplicator replicator = createReplicator(mRing.get(1));
+    // the replica is loaded and read a few times
+    access(3);
+    replicator.heartbeat(Long.MAX_VALUE);
+    verify(mCacheManager, never()).deleteFile(anyString());
+
+    // a new replica is kept for one half life even though it is cold
+    advance(HALF_LIFE_MS / 2);
+    replicator.heartbeat(Long.MAX_VALUE);
+    verify(mCacheManager, never()).deleteFile(anyString());
+
+    advance(HALF_LIFE_MS);
+    replicator.heartbeat(Long.MAX_VALUE);
+    verify(mCacheManager).deleteFile(new AlluxioURI(PATH).hash());
+    assertEquals(0, mTracker.getHeats().size());
+    verify(mWorkerClient, never()).loadFile(any());
+  }
+
+  private HotFileReplicator createReplicator(WorkerNetAddress address) {
+    // the replications run on the heartbeat thread
+    return new HotFileReplicator(Configuration.global(), mWorker, mTracker, mMembershipManager,
+        mCacheManager, mFsContext, address, MoreExecutors.newDirectExecutorService());
+  }
+
+  private void access(int count) {
+    for (int i = 0; i < count; i++) {
+      mTracker.recordAccess(PATH);
+    }
+  }
+
+  private void advance(long ms) {
+    mClock.addAndGet(ms * Constants.MS_NANO);
+  }
+}
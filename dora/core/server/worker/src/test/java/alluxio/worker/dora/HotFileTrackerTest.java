@@ -0,0 +1,87 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.dora;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import alluxio.Constants;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class HotFileTrackerTest {
+  private static final long HALF_LIFE_MS = Constants.MINUTE_MS;
+  private static final double DELTA = 1e-6;
+
+  private final AtomicLong mClock = new AtomicLong();
+  private HotFileTracker mTracker;
+
+  @Before
+  public void before() {
+    mTracker = new HotFileTracker(100, HALF_LIFE_MS, mClock::get);
+  }
+
+  @Test
+  public void heatDecays() {
+    for (int i = 0; i < 8; i++) {
+      mTracker.recordAccess("s3://bucket/hot");
+    }
+    mTracker.recordAccess("s3://bucket/cold");
+    assertEquals(8, mTracker.getHeat("s3://bucket/hot"), DELTA);
+    assertEquals(1, mTracker.getHeat("s3://bucket/cold"), DELTA);
+    assertEquals(0, mTracker.getHeat("s3://bucket/unknown"), DELTA);
+
+    advance(HALF_LIFE_MS);
+    assertEquals(4, mTracker.getHeat("s3://bucket/hot"), DELTA);
+    mTracker.recordAccess("s3://bucket/hot");
+    assertEquals(5, mTracker.getHeat("s3://bucket/hot"), DELTA);
+    advance(2 * HALF_LIFE_MS);
+    assertEquals(1.25, mTracker.getHeat("s3://bucket/hot"), DELTA);
+    assertEquals(0.125, mTracker.getHeat("s3://bucket/cold"), DELTA);
+  }
+
+  @Test
+  public void snapshot() {
+    mTracker.recordAccess("s3://bucket/a");
+    advance(HALF_LIFE_MS);
+    mTracker.recordAccess("s3://bucket/b");
+    List<HotFileTracker.FileHeat> heats = mTracker.getHeats();
+    assertEquals(2, heats.size());
+    for (HotFileTracker.FileHeat heat : heats) {
+      if (heat.getUfsPath().equals("s3://bucket/a")) {
+        assertEquals(0.5, heat.getHeat(), DELTA);
+        assertEquals(HALF_LIFE_MS, heat.getTrackedTimeMs());
+      } else {
+        assertEquals(1, heat.getHeat(), DELTA);
+        assertEquals(0, heat.getTrackedTimeMs());
+      }
+    }
+  }
+
+  @Test
+  public void coldFilesAreForgotten() {
+    mTracker.recordAccess("s3://bucket/a");
+    mTracker.recordAccess("s3://bucket/b");
+    mTracker.remove("s3://bucket/b");
+    assertEquals(0, mTracker.getHeat("s3://bucket/b"), DELTA);
+    advance(20 * HALF_LIFE_MS);
+    assertTrue(mTracker.getHeats().isEmpty());
+  }
+
+  private void advance(long ms) {
+    mClock.addAndGet(ms * Constants.MS_NANO);
+  }
+}
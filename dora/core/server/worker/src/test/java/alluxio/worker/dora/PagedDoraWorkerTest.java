@@ -13,6 +13,7 @@ package alluxio.worker.dora;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThrows;
@@ -24,6 +25,7 @@ import alluxio.client.file.cache.CacheManagerOptions;
 import alluxio.client.file.cache.PageId;
 import alluxio.client.file.cache.PageMetaStore;
 import alluxio.conf.Configuration;
+import alluxio.conf.InstancedConfiguration;
 import alluxio.conf.PropertyKey;
 import alluxio.exception.AccessControlException;
 import alluxio.grpc.CompleteFilePOptions;
@@ -43,10 +45,17 @@ import alluxio.grpc.SetAttributePOptions;
 import alluxio.grpc.UfsReadOptions;
 import alluxio.grpc.WriteOptions;
 import alluxio.membership.MembershipManager;
+import alluxio.metrics.Metric;
+import alluxio.metrics.MetricInfo;
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
+import alluxio.proto.meta.DoraMeta;
+import alluxio.security.authentication.AuthenticatedClientUser;
 import alluxio.security.authorization.Mode;
 import alluxio.underfs.UfsStatus;
 import alluxio.util.io.BufferUtils;
 
+import com.codahale.metrics.Meter;
 import com.google.common.base.Strings;
 import com.google.common.util.concurrent.ListenableFuture;
 import org.junit.After;
@@ -117,7 +126,8 @@ public class PagedDoraWorkerTest {
     BufferUtils.writeBufferToFile(ufsPath, buffer);
     alluxio.grpc.File file =
         alluxio.grpc.File.newBuilder().setUfsPath(ufsPath).setLength(length).setMountId(1).build();
-    ListenableFuture<List<LoadFileFailure>> load = mWorker.load(true, Collections.emptyList(),
+    ListenableFuture<List<LoadFileFailure>> load = mWorker.load(true, false,
+        Collections.emptyList(),
         UfsReadOptions.newBuilder().setUser("test").setTag("1").setPositionShort(false).build());
     List<LoadFileFailure> fileFailures = load.get(30, TimeUnit.SECONDS);
     Assert.assertEquals(0, fileFailures.size());
@@ -731,13 +741,138 @@ public class PagedDoraWorkerTest {
     assertEquals(0, cachedPages.size());
   }
 
+  @Test
+  public void testLoadSkipIfCached() throws Exception {
+    File f = mTestFolder.newFile("skipIfCached");
+    Files.write(f.toPath(), "foobar".getBytes());
+    String path = f.getAbsolutePath();
+    loadFileData(path);
+    long ts = mWorker.getMetaManager().getFromMetaStore(path).get().getTs();
+
+    // unchanged and fully cached, the metadata is not reloaded
+    loadFileData(path, true);
+    assertEquals(ts, mWorker.getMetaManager().getFromMetaStore(path).get().getTs());
+
+    // changed in UFS, the file is loaded again
+    Files.write(f.toPath(), "foobarfoobar".getBytes());
+    loadFileData(path, true);
+    DoraMeta.FileStatus status = mWorker.getMetaManager().getFromMetaStore(path).get();
+    assertNotEquals(ts, status.getTs());
+    assertEquals(12, status.getFileInfo().getLength());
+  }
+
+  @Test
+  public void testLoadWithAsyncUfsRead() throws Exception {
+    mWorker.close();
+    InstancedConfiguration conf = Configuration.copyGlobal();
+    conf.set(PropertyKey.WORKER_UFS_ASYNC_LOAD_ENABLED, true);
+    conf.set(PropertyKey.WORKER_UFS_ASYNC_LOAD_MAX_INFLIGHT_PAGES, 2);
+    mWorker = new PagedDoraWorker(new AtomicReference<>(1L), conf, mCacheManager,
+        mMembershipManager);
+
+    int length = (int) (mPageSize * 3 + mPageSize / 2);
+    File f = mTestFolder.newFile("asyncLoad");
+    BufferUtils.writeBufferToFile(f.getAbsolutePath(),
+        BufferUtils.getIncreasingByteArray(length));
+    String path = f.getAbsolutePath();
+    String fileId = new AlluxioURI(path).hash();
+    // a page already cached is not fetched again
+    byte[] firstPage = BufferUtils.getIncreasingByteArray((int) mPageSize);
+    mCacheManager.put(new PageId(fileId, 0), firstPage);
+    Meter bytesReadExternal =
+        MetricsSystem.meter(MetricKey.CLIENT_CACHE_BYTES_READ_EXTERNAL.getName());
+    long bytesReadBefore = bytesReadExternal.getCount();
+    loadFileData(path);
+    assertEquals(length - mPageSize, bytesReadExternal.getCount() - bytesReadBefore);
+
+    List<PageId> cachedPages = mCacheManager.getCachedPageIdsByFileId(fileId, length);
+    assertEquals(4, cachedPages.size());
+    for (PageId pageId : cachedPages) {
+      int offset = (int) (pageId.getPageIndex() * mPageSize);
+      int pageLength = (int) Math.min(mPageSize, length - offset);
+      byte[] buff = new byte[pageLength];
+      assertEquals(pageLength, mCacheManager.get(pageId, pageLength, buff, 0));
+      assertTrue(BufferUtils.equalIncreasingByteArray(offset, pageLength, buff));
+    }
+  }
+
+  @Test
+  public void testAsyncUfsReadChargesLoadingUser() throws Exception {
+    mWorker.close();
+    InstancedConfiguration conf = Configuration.copyGlobal();
+    conf.set(PropertyKey.WORKER_UFS_ASYNC_LOAD_ENABLED, true);
+    conf.set(PropertyKey.WORKER_PAGE_STORE_QUOTA_ENABLED, true);
+    conf.set(PropertyKey.WORKER_PAGE_STORE_QUOTA_SCOPE_SOURCE, CacheScopeSource.USER);
+    CacheManagerOptions cacheManagerOptions = CacheManagerOptions.createForWorker(conf);
+    mCacheManager.close();
+    mCacheManager = CacheManager.Factory.create(conf, cacheManagerOptions,
+        PageMetaStore.create(cacheManagerOptions));
+    mWorker = new PagedDoraWorker(new AtomicReference<>(1L), conf, mCacheManager,
+        mMembershipManager);
+
+    int length = (int) (mPageSize * 2);
+    File f = mTestFolder.newFile("asyncLoadUser");
+    BufferUtils.writeBufferToFile(f.getAbsolutePath(),
+        BufferUtils.getIncreasingByteArray(length));
+    loadFileData(f.getAbsolutePath());
+    // the pages are cached in the scope of the user who submitted the load
+    assertEquals((long) length, MetricsSystem.METRIC_REGISTRY.getGauges().get(
+        MetricsSystem.getMetricName(Metric.getMetricNameWithTags(
+            MetricKey.WORKER_CACHE_SCOPE_BYTES.getName(), MetricInfo.TAG_CACHE_SCOPE, "test")))
+        .getValue());
+  }
+
+  @Test
+  public void testLoadChargesSubmittingUser() throws Exception {
+    mWorker.close();
+    InstancedConfiguration conf = Configuration.copyGlobal();
+    conf.set(PropertyKey.WORKER_PAGE_STORE_QUOTA_ENABLED, true);
+    conf.set(PropertyKey.WORKER_PAGE_STORE_QUOTA_SCOPE_SOURCE, CacheScopeSource.USER);
+    CacheManagerOptions cacheManagerOptions = CacheManagerOptions.createForWorker(conf);
+    mCacheManager.close();
+    mCacheManager = CacheManager.Factory.create(conf, cacheManagerOptions,
+        PageMetaStore.create(cacheManagerOptions));
+    mWorker = new PagedDoraWorker(new AtomicReference<>(1L), conf, mCacheManager,
+        mMembershipManager);
+
+    int length = (int) (mPageSize * 2);
+    File f = mTestFolder.newFile("loadSubmittingUser");
+    BufferUtils.writeBufferToFile(f.getAbsolutePath(),
+        BufferUtils.getIncreasingByteArray(length));
+    UfsStatus ufsStatus = mWorker.getUfsInstance(f.getAbsolutePath())
+        .getStatus(f.getAbsolutePath());
+    ufsStatus.setUfsFullPath(new AlluxioURI(f.getAbsolutePath()));
+    // the load options carry no user, the pages are charged to the user calling the worker
+    AuthenticatedClientUser.set("submitter");
+    try {
+      List<LoadFileFailure> fileFailures = mWorker.load(true, false,
+          Collections.singletonList(ufsStatus),
+          UfsReadOptions.newBuilder().setTag("1").setPositionShort(false).build())
+          .get(30, TimeUnit.SECONDS);
+      assertEquals(0, fileFailures.size());
+    } finally {
+      AuthenticatedClientUser.remove();
+    }
+    assertEquals((long) length, MetricsSystem.METRIC_REGISTRY.getGauges().get(
+        MetricsSystem.getMetricName(Metric.getMetricNameWithTags(
+            MetricKey.WORKER_CACHE_SCOPE_BYTES.getName(), MetricInfo.TAG_CACHE_SCOPE,
+            "submitter")))
+        .getValue());
+  }
+
   private void loadFileData(String path)
       throws ExecutionException, InterruptedException, TimeoutException, IOException,
       AccessControlException {
+    loadFileData(path, false);
+  }
+
+  private void loadFileData(String path, boolean skipIfCached)
+      throws ExecutionException, InterruptedException, TimeoutException, IOException,
+      AccessControlException {
     UfsStatus ufsStatus = mWorker.getUfsInstance(path).getStatus(path);
     ufsStatus.setUfsFullPath(new AlluxioURI(path));
     ListenableFuture<List<LoadFileFailure>> load =
-        mWorker.load(true, Collections.singletonList(ufsStatus),
+        mWorker.load(true, skipIfCached, Collections.singletonList(ufsStatus),
             UfsReadOptions.newBuilder().setUser("test").setTag("1").setPositionShort(false)
                 .build());
     List<LoadFileFailure> fileFailures = load.get(30, TimeUnit.SECONDS);
@@ -17,6 +17,11 @@ import alluxio.util.CommonUtils;
 
 import junit.framework.TestCase;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public class RocksDBDoraMetaStoreTest extends TestCase {
@@ -90,6 +95,65 @@ public class RocksDBDoraMetaStoreTest extends TestCase {
     System.out.println("End testRemoveNotExist");
   }
 
+  public void testBatchPutAndGetAndDel() {
+    Map<String, DoraMeta.FileStatus> metas = new HashMap<>();
+    for (int i = 0; i < 10; i++) {
+      FileInfo fi = FileInfo.newBuilder()
+          .setFileId(2000 + i)
+          .setMode(0567)
+          .setLength(1000)
+          .build();
+      metas.put("/BATCH" + i, DoraMeta.FileStatus.newBuilder()
+          .setFileInfo(fi)
+          .setTs(System.nanoTime())
+          .build());
+    }
+    mTestMetastore.putDoraMetas(metas);
+    assertEquals(metas.get("/BATCH3"), mTestMetastore.getDoraMeta("/BATCH3").get());
+
+    List<String> paths = new ArrayList<>(metas.keySet());
+    paths.add("/BATCH_NOT_EXIST");
+    Map<String, DoraMeta.FileStatus> res = mTestMetastore.getDoraMetas(paths);
+    assertEquals(metas, res);
+
+    mTestMetastore.removeDoraMetas(Arrays.asList("/BATCH0", "/BATCH1", "/BATCH_NOT_EXIST"));
+    res = mTestMetastore.getDoraMetas(paths);
+    assertEquals(8, res.size());
+    assertFalse(res.containsKey("/BATCH0"));
+    assertFalse(mTestMetastore.getDoraMeta("/BATCH1").isPresent());
+    assertTrue(mTestMetastore.getDoraMeta("/BATCH2").isPresent());
+  }
+
+  public void testCompactEncoding() {
+    String path = "s3://bucket/COMPACT";
+    DoraMeta.FileStatus fs = DoraMeta.FileStatus.newBuilder()
+        .setFileInfo(FileInfo.newBuilder()
+            .setFileId(path.hashCode())
+            .setName("COMPACT")
+            .setPath(path)
+            .setUfsPath(path)
+            .setOwner("COMPACT_OWNER")
+            .setGroup("COMPACT_GROUP")
+            .setMode(0567)
+            .setLength(1000)
+            .build())
+        .setTs(System.nanoTime())
+        .build();
+    // an entry written as a protobuf before the compact encoding is enabled
+    mTestMetastore.putDoraMeta("/LEGACY", fs);
+    mTestMetastore.close();
+
+    mTestMetastore = new RocksDBDoraMetaStore("/tmp/", 3 /* seconds */, true, true);
+    mTestMetastore.putDoraMeta(path, fs);
+    assertEquals(fs, mTestMetastore.getDoraMeta(path).get());
+    assertEquals(fs, mTestMetastore.getDoraMeta("/LEGACY").get());
+
+    // the dictionary is restored when the store is reopened
+    mTestMetastore.close();
+    mTestMetastore = new RocksDBDoraMetaStore("/tmp/", 3 /* seconds */, true, true);
+    assertEquals(fs, mTestMetastore.getDoraMeta(path).get());
+  }
+
   public void testGetExpire() {
     System.out.println("Start testGetExpire");
 
@@ -0,0 +1,96 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.dora;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import alluxio.Constants;
+import alluxio.client.file.CacheContext;
+import alluxio.client.file.cache.CacheManager;
+import alluxio.client.file.cache.ClockCuckooShadowCacheManager;
+import alluxio.client.file.cache.MissRatioCurveEstimator;
+import alluxio.client.file.cache.PageId;
+import alluxio.conf.Configuration;
+import alluxio.conf.InstancedConfiguration;
+import alluxio.conf.PropertyKey;
+import alluxio.file.ByteArrayTargetBuffer;
+import alluxio.metrics.Metric;
+import alluxio.metrics.MetricInfo;
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+public class WorkingSetTrackingCacheManagerTest {
+  private static final int PAGE_SIZE = Constants.KB;
+
+  private CacheManager mInnerCacheManager;
+  private WorkingSetTrackingCacheManager mCacheManager;
+
+  @Before
+  public void before() {
+    MetricsSystem.clearAllMetrics();
+    InstancedConfiguration conf = Configuration.copyGlobal();
+    conf.set(PropertyKey.USER_CLIENT_CACHE_SHADOW_MEMORY_OVERHEAD, Constants.MB);
+    mInnerCacheManager = mock(CacheManager.class);
+    mCacheManager = new WorkingSetTrackingCacheManager(mInnerCacheManager,
+        new ClockCuckooShadowCacheManager(conf),
+        new MissRatioCurveEstimator(new long[] {4 * PAGE_SIZE, 16 * PAGE_SIZE}, 1,
+            Constants.HOUR_MS, System::currentTimeMillis),
+        PAGE_SIZE);
+  }
+
+  @After
+  public void after() throws Exception {
+    mCacheManager.close();
+    MetricsSystem.clearAllMetrics();
+  }
+
+  @Test
+  public void workingSetAndHitRatios() {
+    byte[] buffer = new byte[PAGE_SIZE];
+    for (int loop = 0; loop < 2; loop++) {
+      for (int i = 0; i < 8; i++) {
+        mCacheManager.get(new PageId("file", i), 0, PAGE_SIZE,
+            new ByteArrayTargetBuffer(buffer, 0), CacheContext.defaults());
+      }
+    }
+    mCacheManager.put(new PageId("other", 0), ByteBuffer.wrap(buffer), CacheContext.defaults());
+    verify(mInnerCacheManager).put(any(PageId.class), any(ByteBuffer.class), any());
+
+    assertEquals(9L, getGauge(MetricKey.WORKER_CACHE_WORKING_SET_PAGES.getName()));
+    assertEquals(9L * PAGE_SIZE, getGauge(MetricKey.WORKER_CACHE_WORKING_SET_BYTES.getName()));
+    // the loop of 8 pages does not fit in 4 pages
+    assertEquals(0.0, getGauge(Metric.getMetricNameWithTags(
+        MetricKey.WORKER_CACHE_PREDICTED_HIT_RATIO.getName(),
+        MetricInfo.TAG_CACHE_SIZE, Long.toString(4 * PAGE_SIZE))));
+    assertEquals(0.5, getGauge(Metric.getMetricNameWithTags(
+        MetricKey.WORKER_CACHE_PREDICTED_HIT_RATIO.getName(),
+        MetricInfo.TAG_CACHE_SIZE, Long.toString(16 * PAGE_SIZE))));
+    verify(mInnerCacheManager, times(16))
+        .get(any(PageId.class), anyInt(), anyInt(), any(ByteArrayTargetBuffer.class), any());
+  }
+
+  private static Object getGauge(String name) {
+    return MetricsSystem.METRIC_REGISTRY.getGauges()
+        .get(MetricsSystem.getMetricName(name)).getValue();
+  }
+}
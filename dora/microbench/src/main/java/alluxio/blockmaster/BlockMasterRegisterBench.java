@@ -0,0 +1,154 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.blockmaster;
+
+import alluxio.Constants;
+import alluxio.conf.Configuration;
+import alluxio.conf.PropertyKey;
+import alluxio.grpc.RegisterWorkerPOptions;
+import alluxio.master.AlwaysPrimaryPrimarySelector;
+import alluxio.master.CoreMasterContext;
+import alluxio.master.MasterRegistry;
+import alluxio.master.MasterTestUtils;
+import alluxio.master.block.BlockMaster;
+import alluxio.master.block.BlockMasterFactory;
+import alluxio.master.journal.noop.NoopJournalSystem;
+import alluxio.master.metrics.MetricsMaster;
+import alluxio.master.metrics.MetricsMasterFactory;
+import alluxio.proto.meta.Block;
+import alluxio.util.ThreadFactoryUtils;
+import alluxio.wire.WorkerNetAddress;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.apache.log4j.Logger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This benchmark measures the time the block master takes to process the registrations of a
+ * group of workers arriving together, as after a master failover. Each worker reports its own
+ * set of blocks, all of which are known to the master.
+ * The following parameters can be varied:
+ * mBlockReportThreads - the number of threads applying a single large block report
+ * mWorkers - the number of workers registering concurrently
+ * mBlocksPerWorker - the number of blocks reported by each worker
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BlockMasterRegisterBench {
+
+  @State(Scope.Benchmark)
+  public static class BlockMasterState {
+    @Param({"1", "8"})
+    public int mBlockReportThreads;
+
+    @Param({"16"})
+    public int mWorkers;
+
+    @Param({"100000"})
+    public int mBlocksPerWorker;
+
+    MasterRegistry mRegistry;
+    BlockMaster mBlockMaster;
+    ExecutorService mRegisterPool;
+    List<Long> mWorkerIds;
+    List<Map<Block.BlockLocation, List<Long>>> mBlockReports;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+      Logger.getRootLogger().setLevel(org.apache.log4j.Level.ERROR);
+      Configuration.set(PropertyKey.MASTER_WORKER_REGISTER_BLOCK_REPORT_THREADS,
+          mBlockReportThreads);
+      mRegistry = new MasterRegistry();
+      CoreMasterContext masterContext = MasterTestUtils.testMasterContext(
+          new NoopJournalSystem(), null, new AlwaysPrimaryPrimarySelector());
+      MetricsMaster metricsMaster = new MetricsMasterFactory().create(mRegistry, masterContext);
+      mRegistry.add(MetricsMaster.class, metricsMaster);
+      mBlockMaster = new BlockMasterFactory().create(mRegistry, masterContext);
+      mRegistry.start(true);
+
+      mRegisterPool = Executors.newFixedThreadPool(mWorkers,
+          ThreadFactoryUtils.build("block-master-register-bench-%d", true));
+      mWorkerIds = new ArrayList<>(mWorkers);
+      mBlockReports = new ArrayList<>(mWorkers);
+      long nextBlockId = 1;
+      for (int i = 0; i < mWorkers; i++) {
+        long workerId = mBlockMaster.getWorkerId(new WorkerNetAddress().setHost("worker" + i)
+            .setRpcPort(29998).setDataPort(29999).setWebPort(30000));
+        List<Long> blockIds = new ArrayList<>(mBlocksPerWorker);
+        for (int j = 0; j < mBlocksPerWorker; j++) {
+          mBlockMaster.commitBlockInUFS(nextBlockId, Constants.KB);
+          blockIds.add(nextBlockId++);
+        }
+        Block.BlockLocation location = Block.BlockLocation.newBuilder().setWorkerId(workerId)
+            .setTier(Constants.MEDIUM_MEM).setMediumType(Constants.MEDIUM_MEM).build();
+        mWorkerIds.add(workerId);
+        mBlockReports.add(ImmutableMap.of(location, blockIds));
+      }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+      mRegisterPool.shutdownNow();
+      mRegistry.stop();
+      mRegistry.close();
+      Configuration.reloadProperties();
+    }
+  }
+
+  @Benchmark
+  public void registerWorkers(BlockMasterState state) throws Exception {
+    List<Future<?>> futures = new ArrayList<>(state.mWorkers);
+    for (int i = 0; i < state.mWorkers; i++) {
+      long workerId = state.mWorkerIds.get(i);
+      Map<Block.BlockLocation, List<Long>> blockReport = state.mBlockReports.get(i);
+      futures.add(state.mRegisterPool.submit(() -> {
+        state.mBlockMaster.workerRegister(workerId, ImmutableList.of(Constants.MEDIUM_MEM),
+            ImmutableMap.of(Constants.MEDIUM_MEM, Constants.TB),
+            ImmutableMap.of(Constants.MEDIUM_MEM, 0L), blockReport, ImmutableMap.of(),
+            RegisterWorkerPOptions.getDefaultInstance());
+        return null;
+      }));
+    }
+    for (Future<?> future : futures) {
+      future.get();
+    }
+  }
+
+  public static void main(String []args) throws RunnerException {
+    Options opt = new OptionsBuilder().include(BlockMasterRegisterBench.class.getSimpleName())
+        .warmupIterations(2)
+        .forks(1).build();
+    new Runner(opt).run();
+  }
+}
@@ -0,0 +1,126 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.dora.cache;
+
+import alluxio.client.file.CacheContext;
+import alluxio.client.file.cache.CacheManager;
+import alluxio.client.file.cache.CacheManagerOptions;
+import alluxio.client.file.cache.LocalCacheManager;
+import alluxio.client.file.cache.PageId;
+import alluxio.client.file.cache.PageMetaStore;
+import alluxio.client.file.cache.store.PageStoreType;
+import alluxio.conf.Configuration;
+import alluxio.conf.InstancedConfiguration;
+import alluxio.conf.PropertyKey;
+import alluxio.file.ByteArrayTargetBuffer;
+import alluxio.util.CommonUtils;
+import alluxio.util.io.BufferUtils;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * This benchmark measures the overhead of verifying the page checksums on the read path of the
+ * worker cache, reading random 64KB ranges of cached pages.
+ * The following parameters can be varied:
+ * mPageSize - the size of the pages read
+ * mVerification - "off" to disable the checksums, otherwise the fraction of the reads which
+ * verify the checksum of the page
+ * mStoreType - the type of the page store
+ */
+public class LocalCacheManagerChecksumBench {
+  private static final int PAGE_COUNT = 128;
+  private static final int READ_SIZE = 64 * 1024;
+
+  @State(Scope.Benchmark)
+  public static class Cache {
+    @Param({"65536", "1048576"})
+    public int mPageSize;
+
+    @Param({"off", "0.01", "1"})
+    public String mVerification;
+
+    @Param({"LOCAL"})
+    public PageStoreType mStoreType;
+
+    Path mRoot;
+    CacheManager mCacheManager;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+      mRoot = Files.createTempDirectory("cache-checksum-bench");
+      InstancedConfiguration conf = Configuration.copyGlobal();
+      conf.set(PropertyKey.WORKER_PAGE_STORE_PAGE_SIZE, mPageSize);
+      conf.set(PropertyKey.WORKER_PAGE_STORE_SIZES, String.valueOf(2L * PAGE_COUNT * mPageSize));
+      conf.set(PropertyKey.WORKER_PAGE_STORE_DIRS, mRoot.toString());
+      conf.set(PropertyKey.WORKER_PAGE_STORE_TYPE, mStoreType);
+      conf.set(PropertyKey.WORKER_PAGE_STORE_ASYNC_RESTORE_ENABLED, false);
+      conf.set(PropertyKey.WORKER_PAGE_STORE_ASYNC_WRITE_ENABLED, false);
+      boolean checksumEnabled = !mVerification.equals("off");
+      conf.set(PropertyKey.WORKER_PAGE_STORE_CHECKSUM_ENABLED, checksumEnabled);
+      conf.set(PropertyKey.WORKER_PAGE_STORE_CHECKSUM_SCRUB_RATE, 0);
+      if (checksumEnabled) {
+        conf.set(PropertyKey.WORKER_PAGE_STORE_CHECKSUM_READ_VERIFICATION_RATIO,
+            Double.parseDouble(mVerification));
+      }
+      CacheManagerOptions options = CacheManagerOptions.createForWorker(conf);
+      mCacheManager = LocalCacheManager.create(options, PageMetaStore.create(options));
+      CommonUtils.waitFor("cache ready",
+          () -> mCacheManager.state() == CacheManager.State.READ_WRITE);
+      byte[] page = BufferUtils.getIncreasingByteArray(mPageSize);
+      for (int i = 0; i < PAGE_COUNT; i++) {
+        mCacheManager.put(new PageId("file", i), page);
+      }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+      mCacheManager.close();
+      FileUtils.deleteDirectory(mRoot.toFile());
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class Buffer {
+    byte[] mBuffer = new byte[READ_SIZE];
+  }
+
+  @Benchmark
+  public int randomRead(Cache cache, Buffer buffer) {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    int length = Math.min(READ_SIZE, cache.mPageSize);
+    int offset = random.nextInt(cache.mPageSize - length + 1);
+    return cache.mCacheManager.get(new PageId("file", random.nextInt(PAGE_COUNT)), offset,
+        length, new ByteArrayTargetBuffer(buffer.mBuffer, 0), CacheContext.defaults());
+  }
+
+  public static void main(String []args) throws RunnerException {
+    Options opt = new OptionsBuilder().include(LocalCacheManagerChecksumBench.class.getSimpleName())
+        .warmupIterations(3)
+        .forks(1).threads(1).build();
+    new Runner(opt).run();
+  }
+}
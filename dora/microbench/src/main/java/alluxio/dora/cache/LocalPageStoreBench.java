@@ -0,0 +1,138 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.dora.cache;
+
+import alluxio.client.file.cache.PageId;
+import alluxio.client.file.cache.PageStore;
+import alluxio.client.file.cache.store.PageStoreOptions;
+import alluxio.client.file.cache.store.PageStoreType;
+import alluxio.file.ByteArrayTargetBuffer;
+import alluxio.util.io.BufferUtils;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * This benchmark measures random page reads from a local page store, in batches of
+ * {@link #BATCH_SIZE} pages, either read one after the other, or submitted at once to an
+ * asynchronous local page store.
+ * The following parameters can be varied:
+ * mPageSize - the size of the pages read
+ * mQueueDepth - 0 for synchronous reads, otherwise the queue depth of the asynchronous reads
+ * mStoreSizeMB - the total size of the pages, to set larger than the memory of the host to
+ * measure the device rather than the OS page cache
+ * mDir - the directory the page store is created in
+ */
+public class LocalPageStoreBench {
+  private static final int BATCH_SIZE = 32;
+
+  @State(Scope.Benchmark)
+  public static class Store {
+    @Param({"4096", "65536", "1048576"})
+    public int mPageSize;
+
+    @Param({"0", "32"})
+    public int mQueueDepth;
+
+    @Param({"256"})
+    public long mStoreSizeMB;
+
+    @Param({""})
+    public String mDir;
+
+    Path mRoot;
+    PageStore mPageStore;
+    int mPageCount;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+      mRoot = mDir.isEmpty() ? Files.createTempDirectory("page-store-bench")
+          : Files.createTempDirectory(Paths.get(mDir), "page-store-bench");
+      mPageCount = (int) (mStoreSizeMB * 1024 * 1024 / mPageSize);
+      PageStoreOptions options = new PageStoreOptions()
+          .setStoreType(PageStoreType.LOCAL)
+          .setRootDir(mRoot)
+          .setPageSize(mPageSize)
+          .setCacheSize(2 * mStoreSizeMB * 1024 * 1024)
+          .setAsyncIoQueueDepth(mQueueDepth);
+      mPageStore = PageStore.create(options);
+      byte[] page = BufferUtils.getIncreasingByteArray(mPageSize);
+      for (int i = 0; i < mPageCount; i++) {
+        mPageStore.put(new PageId("file" + i % 64, i), page);
+      }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+      mPageStore.close();
+      FileUtils.deleteDirectory(mRoot.toFile());
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class Buffers {
+    byte[][] mBuffers;
+
+    @Setup(Level.Trial)
+    public void setup(Store store) {
+      mBuffers = new byte[BATCH_SIZE][store.mPageSize];
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH_SIZE)
+  public void randomRead(Store store, Buffers buffers, Blackhole bh) throws Exception {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    if (store.mQueueDepth == 0) {
+      for (int i = 0; i < BATCH_SIZE; i++) {
+        int page = random.nextInt(store.mPageCount);
+        bh.consume(store.mPageStore.get(new PageId("file" + page % 64, page), 0,
+            store.mPageSize, new ByteArrayTargetBuffer(buffers.mBuffers[i], 0), false));
+      }
+      return;
+    }
+    CompletableFuture<?>[] futures = new CompletableFuture<?>[BATCH_SIZE];
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      int page = random.nextInt(store.mPageCount);
+      futures[i] = store.mPageStore.getAsync(new PageId("file" + page % 64, page), 0,
+          store.mPageSize, new ByteArrayTargetBuffer(buffers.mBuffers[i], 0), false);
+    }
+    for (CompletableFuture<?> future : futures) {
+      bh.consume(future.get());
+    }
+  }
+
+  public static void main(String []args) throws RunnerException {
+    Options opt = new OptionsBuilder().include(LocalPageStoreBench.class.getSimpleName())
+        .warmupIterations(3)
+        .forks(1).threads(1).build();
+    new Runner(opt).run();
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.dora.cache;
+
+import alluxio.client.file.cache.PageId;
+import alluxio.client.file.cache.PageStore;
+import alluxio.client.file.cache.store.PageStoreOptions;
+import alluxio.client.file.cache.store.PageStoreType;
+import alluxio.util.io.BufferUtils;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * This benchmark measures a cold bulk load into a local page store, i.e. writes of new pages,
+ * and how much the page cache of the OS grows while loading.
+ * The following parameters can be varied:
+ * mPageSize - the size of the pages written
+ * mDirectIo - whether the pages are written with direct I/O
+ * mStoreSizeMB - the size of the page store, after which pages are overwritten
+ * mDir - the directory the page store is created in
+ * The growth of the page cache, from the "Cached" entry of /proc/meminfo, is printed after each
+ * iteration.
+ */
+public class LocalPageStoreWriteBench {
+  @State(Scope.Benchmark)
+  public static class Store {
+    @Param({"1048576"})
+    public int mPageSize;
+
+    @Param({"false", "true"})
+    public boolean mDirectIo;
+
+    @Param({"1024"})
+    public long mStoreSizeMB;
+
+    @Param({""})
+    public String mDir;
+
+    Path mRoot;
+    PageStore mPageStore;
+    int mPageCount;
+    ByteBuffer mPage;
+    long mPageIndex;
+    long mCachedKB;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+      mRoot = mDir.isEmpty() ? Files.createTempDirectory("page-store-bench")
+          : Files.createTempDirectory(Paths.get(mDir), "page-store-bench");
+      mPageCount = (int) (mStoreSizeMB * 1024 * 1024 / mPageSize);
+      PageStoreOptions options = new PageStoreOptions()
+          .setStoreType(PageStoreType.LOCAL)
+          .setRootDir(mRoot)
+          .setPageSize(mPageSize)
+          .setCacheSize(2 * mStoreSizeMB * 1024 * 1024)
+          .setDirectIoWriteEnabled(mDirectIo);
+      mPageStore = PageStore.create(options);
+      mPage = ByteBuffer.wrap(BufferUtils.getIncreasingByteArray(mPageSize));
+    }
+
+    @Setup(Level.Iteration)
+    public void startIteration() throws IOException {
+      mCachedKB = getCachedKB();
+    }
+
+    @TearDown(Level.Iteration)
+    public void endIteration() throws IOException {
+      System.out.printf("%npage cache grew by %d MB%n", (getCachedKB() - mCachedKB) / 1024);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+      mPageStore.close();
+      FileUtils.deleteDirectory(mRoot.toFile());
+    }
+  }
+
+  @Benchmark
+  public void bulkLoad(Store store) throws Exception {
+    int page = (int) (store.mPageIndex++ % store.mPageCount);
+    store.mPage.rewind();
+    store.mPageStore.put(new PageId("file" + page / 64, page % 64), store.mPage, false);
+  }
+
+  private static long getCachedKB() throws IOException {
+    for (String line : Files.readAllLines(Paths.get("/proc/meminfo"), StandardCharsets.UTF_8)) {
+      if (line.startsWith("Cached:")) {
+        return Long.parseLong(line.replaceAll("[^0-9]", ""));
+      }
+    }
+    return 0;
+  }
+
+  public static void main(String []args) throws RunnerException {
+    Options opt = new OptionsBuilder().include(LocalPageStoreWriteBench.class.getSimpleName())
+        .warmupIterations(1)
+        .forks(1).threads(1).build();
+    new Runner(opt).run();
+  }
+}
@@ -18,6 +18,7 @@ import static alluxio.dora.meta.DoraMetaBenchBase.makeFileStatus;
 
 import alluxio.BaseFileStructure;
 import alluxio.BaseThreadState;
+import alluxio.proto.meta.DoraMeta;
 
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.Level;
@@ -34,6 +35,11 @@ import org.openjdk.jmh.runner.RunnerException;
 import org.openjdk.jmh.runner.options.Options;
 import org.openjdk.jmh.runner.options.OptionsBuilder;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * This benchmark measures the time it takes to read/write metadata from the dora worker metastore
  * The following parameters can be varied:
@@ -43,9 +49,14 @@ import org.openjdk.jmh.runner.options.OptionsBuilder;
  *   with shallow depth will be more likely to be chosen, and files with
  *   larger ids are more likely to be chosen (i.e. those written later).
  * mType - the type of inode storage to use
- * mOperation - read or write
+ * mOperation - READ or WRITE a single file meta per operation, or BATCH_READ or BATCH_WRITE
+ *   mBatchSize file metas per operation
+ * mBatchSize - the number of file metas read or written by a batch operation
+ * mWalEnabled - if false, writes to RocksDB skip the write-ahead log
  */
 public class DoraMetaBench {
+  private static final int SETUP_BATCH_SIZE = 1000;
+
   @State(Scope.Thread)
   public static class ThreadState extends BaseThreadState { }
 
@@ -63,14 +74,25 @@ public class DoraMetaBench {
     @Param({"READ"})
     public String mOperation;
 
+    @Param({"100"})
+    public int mBatchSize;
+
+    @Param({"true"})
+    public boolean mWalEnabled;
+
     DoraMetaBenchBase mBase;
 
     @Setup(Level.Trial)
     public void setup() throws Exception {
       super.init(0, 0, mFileCount, mDistribution);
-      mBase = new DoraMetaBenchBase(mType);
+      mBase = new DoraMetaBenchBase(mType, mWalEnabled);
+      Map<String, DoraMeta.FileStatus> batch = new HashMap<>();
       for (int i = 0; i < mFileCount; ++i) {
-        mBase.getDoraMetaStore().putDoraMeta(UFS_PATH_PREFIX + i, makeFileStatus());
+        batch.put(UFS_PATH_PREFIX + i, makeFileStatus());
+        if (batch.size() == SETUP_BATCH_SIZE || i == mFileCount - 1) {
+          mBase.getDoraMetaStore().putDoraMetas(batch);
+          batch.clear();
+        }
       }
     }
 
@@ -84,12 +106,31 @@ public class DoraMetaBench {
 
   @Benchmark
   public void testMethod(Db db, ThreadState ts, Blackhole bh) throws Exception {
-    if (db.mOperation.equals("READ")) {
-      bh.consume(db.mBase.getDoraMetaStore().getDoraMeta(UFS_PATH_PREFIX +  ts.nextFileId(db, 0)));
-    } else
-    {
-      db.mBase.getDoraMetaStore().putDoraMeta(
-          UFS_PATH_PREFIX +  ts.nextFileId(db, 0), makeFileStatus());
+    switch (db.mOperation) {
+      case "READ":
+        bh.consume(db.mBase.getDoraMetaStore().getDoraMeta(
+            UFS_PATH_PREFIX + ts.nextFileId(db, 0)));
+        break;
+      case "WRITE":
+        db.mBase.getDoraMetaStore().putDoraMeta(
+            UFS_PATH_PREFIX + ts.nextFileId(db, 0), makeFileStatus());
+        break;
+      case "BATCH_READ":
+        List<String> paths = new ArrayList<>(db.mBatchSize);
+        for (int i = 0; i < db.mBatchSize; i++) {
+          paths.add(UFS_PATH_PREFIX + ts.nextFileId(db, 0));
+        }
+        bh.consume(db.mBase.getDoraMetaStore().getDoraMetas(paths));
+        break;
+      case "BATCH_WRITE":
+        Map<String, DoraMeta.FileStatus> metas = new HashMap<>();
+        for (int i = 0; i < db.mBatchSize; i++) {
+          metas.put(UFS_PATH_PREFIX + ts.nextFileId(db, 0), makeFileStatus());
+        }
+        db.mBase.getDoraMetaStore().putDoraMetas(metas);
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown operation: " + db.mOperation);
     }
   }
 
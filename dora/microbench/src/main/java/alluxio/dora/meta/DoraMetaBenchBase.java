@@ -79,23 +79,27 @@ class DoraMetaBenchBase {
   }
 
   DoraMetaBenchBase(String inodeStoreType) throws Exception {
-    mDoraMetaStore = getMetastore(inodeStoreType);
+    this(inodeStoreType, true);
+  }
+
+  DoraMetaBenchBase(String inodeStoreType, boolean walEnabled) throws Exception {
+    mDoraMetaStore = getMetastore(inodeStoreType, walEnabled);
   }
 
   public void after() throws Exception {
   }
 
-  static DoraMetaStore getMetastore(String type) throws IOException {
+  static DoraMetaStore getMetastore(String type, boolean walEnabled) throws IOException {
     String dir =
         AlluxioTestDirectory.createTemporaryDirectory("dora-metastore-bench")
             .getAbsolutePath();
     switch (type) {
       case ROCKS:
-        return new RocksDBDoraMetaStore(dir, -1);
+        return new RocksDBDoraMetaStore(dir, -1, walEnabled, false);
       case ROCKS_1GB_CACHE:
         Configuration.set(PropertyKey.DORA_WORKER_METASTORE_ROCKSDB_CACHE_SIZE,
             (long) 1024 * 1204 * 1024); // 1GB
-        return new RocksDBDoraMetaStore(dir, -1);
+        return new RocksDBDoraMetaStore(dir, -1, walEnabled, false);
       default:
         throw new IllegalStateException("Invalid type: " + type);
     }
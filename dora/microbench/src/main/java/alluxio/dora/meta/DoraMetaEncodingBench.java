@@ -0,0 +1,132 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.dora.meta;
+
+import static alluxio.dora.meta.DoraMetaBenchBase.UFS_PATH_PREFIX;
+
+import alluxio.grpc.FileInfo;
+import alluxio.proto.meta.DoraMeta;
+import alluxio.worker.dora.CompactFileStatusCodec;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * This benchmark measures the size and the encoding and decoding time of the file statuses
+ * stored by the dora worker metastore, as built by the worker from the UFS statuses.
+ * The following parameters can be varied:
+ * mFileCount - the number of file statuses encoded
+ * mEncoding - PROTOBUF or COMPACT, see {@link CompactFileStatusCodec}
+ * The average number of bytes per entry is printed when the entries are set up.
+ */
+public class DoraMetaEncodingBench {
+  private static final String PROTOBUF = "PROTOBUF";
+  private static final String COMPACT = "COMPACT";
+
+  @State(Scope.Benchmark)
+  public static class Entries {
+    @Param({"10000"})
+    public int mFileCount;
+
+    @Param({PROTOBUF, COMPACT})
+    public String mEncoding;
+
+    CompactFileStatusCodec mCodec;
+    String[] mPaths;
+    DoraMeta.FileStatus[] mStatuses;
+    byte[][] mValues;
+
+    @Setup(Level.Trial)
+    public void setup() {
+      mCodec = new CompactFileStatusCodec((id, value) -> { });
+      mPaths = new String[mFileCount];
+      mStatuses = new DoraMeta.FileStatus[mFileCount];
+      mValues = new byte[mFileCount][];
+      long totalBytes = 0;
+      for (int i = 0; i < mFileCount; i++) {
+        mPaths[i] = UFS_PATH_PREFIX + "part-" + i + ".parquet";
+        mStatuses[i] = makeFileStatus(mPaths[i], i);
+        mValues[i] = encodeEntry(this, i);
+        totalBytes += mValues[i].length;
+      }
+      System.out.printf("%n%s encoding: %.1f bytes per entry%n", mEncoding,
+          (double) totalBytes / mFileCount);
+    }
+  }
+
+  @Benchmark
+  public void encode(Entries entries, Blackhole bh) {
+    int i = ThreadLocalRandom.current().nextInt(entries.mFileCount);
+    bh.consume(encodeEntry(entries, i));
+  }
+
+  @Benchmark
+  public void decode(Entries entries, Blackhole bh) throws Exception {
+    int i = ThreadLocalRandom.current().nextInt(entries.mFileCount);
+    if (entries.mEncoding.equals(COMPACT)) {
+      bh.consume(entries.mCodec.decode(entries.mPaths[i], entries.mValues[i]));
+    } else {
+      bh.consume(DoraMeta.FileStatus.parseFrom(entries.mValues[i]));
+    }
+  }
+
+  private static byte[] encodeEntry(Entries entries, int i) {
+    if (entries.mEncoding.equals(COMPACT)) {
+      return entries.mCodec.encode(entries.mStatuses[i]);
+    }
+    return entries.mStatuses[i].toByteArray();
+  }
+
+  private static DoraMeta.FileStatus makeFileStatus(String path, int i) {
+    return DoraMeta.FileStatus.newBuilder()
+        .setFileInfo(FileInfo.newBuilder()
+            .setUfsType("s3")
+            .setFileId(path.hashCode())
+            .setName(path.substring(path.lastIndexOf('/') + 1))
+            .setPath(path)
+            .setUfsPath(path)
+            .setMode(0644)
+            .setFolder(false)
+            .setOwner("owner" + i % 4)
+            .setGroup("group" + i % 2)
+            .setCompleted(true)
+            .setPersisted(true)
+            .setLength(128L * 1024 * 1024 + i)
+            .setLastModificationTimeMs(1697000000000L + i)
+            .setBlockSizeBytes(64L * 1024 * 1024)
+            .setContentHash(String.format("%032x", i))
+            .setInAlluxioPercentage(0)
+            .setInMemoryPercentage(0))
+        .setTs(System.nanoTime())
+        .build();
+  }
+
+  public static void main(String []args) throws RunnerException {
+    Options opt = new OptionsBuilder().include(DoraMetaEncodingBench.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .warmupIterations(3)
+        .forks(1).threads(1).build();
+    new Runner(opt).run();
+  }
+}
@@ -18,7 +18,9 @@ import static org.mockito.Mockito.mock;
 
 import alluxio.AlluxioTestDirectory;
 import alluxio.AlluxioURI;
+import alluxio.client.WriteType;
 import alluxio.conf.Configuration;
+import alluxio.conf.PropertyKey;
 import alluxio.exception.BlockInfoException;
 import alluxio.exception.FileAlreadyExistsException;
 import alluxio.exception.FileDoesNotExistException;
@@ -60,9 +62,10 @@ class InodeBenchBase {
   public static final String HEAP = "heap";
   public static final String ROCKS = "rocks";
   public static final String ROCKSCACHE = "rocksCache";
+  public static final String ROCKS_OFF_HEAP_CACHE = "rocksOffHeapCache";
   private static final CreateDirectoryContext DIRECTORY_CONTEXT = CreateDirectoryContext
       .mergeFrom(CreateDirectoryPOptions.newBuilder().setMode(TEST_DIR_MODE.toProto()))
-      .setOwner(TEST_OWNER).setGroup(TEST_GROUP);
+      .setOwner(TEST_OWNER).setGroup(TEST_GROUP).setWriteType(WriteType.MUST_CACHE);
 
   private ArrayList<String> mBasePath;
   private final InodeStore mInodeStore;
@@ -115,6 +118,15 @@ class InodeBenchBase {
         dir =
             AlluxioTestDirectory.createTemporaryDirectory("inode-store-bench").getAbsolutePath();
         return new CachingInodeStore(new RocksInodeStore(dir), lockManager);
+      case ROCKS_OFF_HEAP_CACHE:
+        dir =
+            AlluxioTestDirectory.createTemporaryDirectory("inode-store-bench").getAbsolutePath();
+        Configuration.set(PropertyKey.MASTER_METASTORE_INODE_CACHE_OFF_HEAP_ENABLED, true);
+        try {
+          return new CachingInodeStore(new RocksInodeStore(dir), lockManager);
+        } finally {
+          Configuration.unset(PropertyKey.MASTER_METASTORE_INODE_CACHE_OFF_HEAP_ENABLED);
+        }
       default:
         throw new IllegalStateException("Invalid type: " + inodeStoreType);
     }
@@ -15,6 +15,8 @@ import static alluxio.inode.InodeBenchBase.ROCKSCACHE;
 
 import alluxio.BaseFileStructure;
 import alluxio.BaseThreadState;
+import alluxio.conf.Configuration;
+import alluxio.conf.PropertyKey;
 
 import org.junit.Assert;
 import org.openjdk.jmh.annotations.Benchmark;
@@ -46,6 +48,7 @@ import org.openjdk.jmh.runner.options.OptionsBuilder;
  *   larger ids are more likely to be chosen (i.e. those written later).
  * mType - the type of inode storage to use
  * mRocksConfig - see {@link RocksBenchConfig}
+ * mOptimisticRead - whether paths are resolved without locking the ancestors of the inodes read
  */
 public class InodeBenchRead {
 
@@ -75,6 +78,9 @@ public class InodeBenchRead {
     @Param({RocksBenchConfig.JAVA_CONFIG})
     public String mRocksConfig;
 
+    @Param({"false", "true"})
+    public boolean mOptimisticRead;
+
     InodeBenchBase mBase;
 
     @Setup(Level.Trial)
@@ -83,6 +89,7 @@ public class InodeBenchRead {
       Assert.assertTrue("mFileCount needs to be > 0 if mSingleFile is true",
           !mSingleFile || mFileCount > 0);
 
+      Configuration.set(PropertyKey.MASTER_LOCK_OPTIMISTIC_READ_ENABLED, mOptimisticRead);
       mBase = new InodeBenchBase(mType, mRocksConfig);
       mBase.createBasePath(mDepth);
       for (int d = 0; d <= mDepth; d++) {
@@ -96,6 +103,7 @@ public class InodeBenchRead {
     public void after() throws Exception {
       mBase.after();
       mBase = null;
+      Configuration.reloadProperties();
     }
   }
 
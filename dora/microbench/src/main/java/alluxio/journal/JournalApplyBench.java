@@ -0,0 +1,161 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.journal;
+
+import alluxio.Constants;
+import alluxio.conf.Configuration;
+import alluxio.conf.PropertyKey;
+import alluxio.master.NoopMaster;
+import alluxio.master.journal.raft.BufferedJournalApplier;
+import alluxio.master.journal.raft.RaftJournal;
+import alluxio.proto.journal.Block;
+import alluxio.proto.journal.File;
+import alluxio.proto.journal.Journal.JournalEntry;
+import alluxio.proto.journal.Meta;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This benchmark measures how fast a standby master catches up on a journal, i.e. the rate at
+ * which journal entries are applied to the masters.
+ * The following parameters can be varied:
+ * mParallel - whether the entries of different masters are applied in parallel
+ * mApplyCost - the CPU cost of applying an entry to a master, in JMH tokens
+ * mJournalFile - a file of length delimited journal entries to replay; if empty, a bulk create
+ * of files is replayed, where each file is journaled as an inode, a block and a file update
+ * entry, followed by an entry of the meta master every 100 files
+ */
+public class JournalApplyBench {
+  private static final int ENTRIES = 300_000;
+
+  @State(Scope.Benchmark)
+  public static class Journal {
+    @Param({"false", "true"})
+    public boolean mParallel;
+
+    @Param({"200"})
+    public long mApplyCost;
+
+    @Param({""})
+    public String mJournalFile;
+
+    List<JournalEntry> mEntries;
+    BufferedJournalApplier mApplier;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+      mEntries = mJournalFile.isEmpty() ? recordBulkCreate() : readJournal(mJournalFile);
+      Configuration.set(PropertyKey.MASTER_EMBEDDED_JOURNAL_PARALLEL_APPLY_ENABLED, mParallel);
+      Map<String, RaftJournal> journals = new HashMap<>();
+      for (String name : new String[] {Constants.FILE_SYSTEM_MASTER_NAME,
+          Constants.BLOCK_MASTER_NAME, Constants.META_MASTER_NAME}) {
+        journals.put(name, new RaftJournal(new ApplyingMaster(name, mApplyCost), null, null));
+      }
+      mApplier = new BufferedJournalApplier(journals, Collections::emptySet);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+      mApplier.close();
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ENTRIES)
+  public void catchup(Journal journal) {
+    for (int i = 0; i < ENTRIES; i++) {
+      journal.mApplier.processJournalEntry(journal.mEntries.get(i % journal.mEntries.size()));
+    }
+    journal.mApplier.flush();
+  }
+
+  private static List<JournalEntry> recordBulkCreate() {
+    List<JournalEntry> entries = new ArrayList<>(ENTRIES);
+    long sequenceNumber = 0;
+    for (long id = 1; entries.size() < ENTRIES; id++) {
+      entries.add(JournalEntry.newBuilder().setSequenceNumber(sequenceNumber++)
+          .setInodeFile(File.InodeFileEntry.newBuilder().setId(id).setParentId(0)
+              .setName("file" + id).setBlockSizeBytes(Constants.MB))
+          .build());
+      entries.add(JournalEntry.newBuilder().setSequenceNumber(sequenceNumber++)
+          .setBlockInfo(Block.BlockInfoEntry.newBuilder().setBlockId(id).setLength(Constants.MB))
+          .build());
+      entries.add(JournalEntry.newBuilder().setSequenceNumber(sequenceNumber++)
+          .setUpdateInodeFile(File.UpdateInodeFileEntry.newBuilder().setId(id)
+              .setLength(Constants.MB).setCompleted(true).addSetBlocks(id))
+          .build());
+      if (id % 100 == 0) {
+        entries.add(JournalEntry.newBuilder().setSequenceNumber(sequenceNumber++)
+            .setClusterInfo(Meta.ClusterInfoEntry.newBuilder().setClusterId("cluster"))
+            .build());
+      }
+    }
+    return entries;
+  }
+
+  private static List<JournalEntry> readJournal(String path) throws IOException {
+    List<JournalEntry> entries = new ArrayList<>();
+    try (InputStream in = new FileInputStream(path)) {
+      JournalEntry entry;
+      while ((entry = JournalEntry.parseDelimitedFrom(in)) != null) {
+        entries.add(entry);
+      }
+    }
+    return entries;
+  }
+
+  /**
+   * A master which spends a fixed amount of CPU applying each entry.
+   */
+  private static class ApplyingMaster extends NoopMaster {
+    private final long mApplyCost;
+
+    ApplyingMaster(String name, long applyCost) {
+      super(name);
+      mApplyCost = applyCost;
+    }
+
+    @Override
+    public boolean processJournalEntry(JournalEntry entry) {
+      Blackhole.consumeCPU(mApplyCost);
+      return true;
+    }
+  }
+
+  public static void main(String []args) throws RunnerException {
+    Options opt = new OptionsBuilder().include(JournalApplyBench.class.getSimpleName())
+        .warmupIterations(2)
+        .forks(1).threads(1).build();
+    new Runner(opt).run();
+  }
+}
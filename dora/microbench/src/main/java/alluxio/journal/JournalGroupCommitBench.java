@@ -0,0 +1,131 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.journal;
+
+import alluxio.Constants;
+import alluxio.conf.Configuration;
+import alluxio.conf.PropertyKey;
+import alluxio.master.NoopMaster;
+import alluxio.master.journal.Journal;
+import alluxio.master.journal.JournalContext;
+import alluxio.master.journal.JournalType;
+import alluxio.master.journal.raft.RaftJournalSystem;
+import alluxio.proto.journal.File;
+import alluxio.proto.journal.Journal.JournalEntry;
+import alluxio.util.CommonUtils;
+import alluxio.util.WaitForOptions;
+import alluxio.util.network.NetworkAddressUtils.ServiceType;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.log4j.Logger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This benchmark measures the throughput and the latency of journaling file creations on a single
+ * node embedded journal, where each operation appends the entries of a file creation and waits
+ * for them to be flushed, as the file system master does. Run it with several threads to
+ * simulate concurrent clients, e.g. {@code -t 16}.
+ * The following parameters can be varied:
+ * mAdaptiveBatching - whether the journal writer waits for concurrent writers before flushing
+ * mMaxBatchWait - the maximum time the journal writer waits for concurrent writers
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JournalGroupCommitBench {
+  private static final AtomicLong NEXT_ID = new AtomicLong();
+
+  @State(Scope.Benchmark)
+  public static class EmbeddedJournal {
+    @Param({"false", "true"})
+    public boolean mAdaptiveBatching;
+
+    @Param({"2ms"})
+    public String mMaxBatchWait;
+
+    Path mFolder;
+    RaftJournalSystem mJournalSystem;
+    Journal mJournal;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+      Logger.getRootLogger().setLevel(org.apache.log4j.Level.ERROR);
+      mFolder = Files.createTempDirectory("journal-group-commit-bench");
+      int port;
+      try (ServerSocket socket = new ServerSocket(0)) {
+        port = socket.getLocalPort();
+      }
+      Configuration.set(PropertyKey.MASTER_JOURNAL_TYPE, JournalType.EMBEDDED);
+      Configuration.set(PropertyKey.MASTER_HOSTNAME, "localhost");
+      Configuration.set(PropertyKey.MASTER_EMBEDDED_JOURNAL_PORT, port);
+      Configuration.set(PropertyKey.MASTER_EMBEDDED_JOURNAL_ADDRESSES, "localhost:" + port);
+      Configuration.set(PropertyKey.MASTER_EMBEDDED_JOURNAL_MIN_ELECTION_TIMEOUT, 550);
+      Configuration.set(PropertyKey.MASTER_EMBEDDED_JOURNAL_MAX_ELECTION_TIMEOUT, 1100);
+      Configuration.set(PropertyKey.MASTER_JOURNAL_FLUSH_ADAPTIVE_BATCHING_ENABLED,
+          mAdaptiveBatching);
+      Configuration.set(PropertyKey.MASTER_JOURNAL_FLUSH_BATCH_MAX_WAIT_TIME, mMaxBatchWait);
+      mJournalSystem = new RaftJournalSystem(mFolder.toUri(), ServiceType.MASTER_RAFT);
+      mJournal = mJournalSystem.createJournal(new NoopMaster());
+      mJournalSystem.start();
+      CommonUtils.waitFor("the journal to become leader", mJournalSystem::isLeader,
+          WaitForOptions.defaults().setTimeoutMs(30 * Constants.SECOND_MS));
+      mJournalSystem.gainPrimacy();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+      mJournalSystem.stop();
+      FileUtils.deleteDirectory(mFolder.toFile());
+      Configuration.reloadProperties();
+    }
+  }
+
+  @Benchmark
+  public void createFile(EmbeddedJournal journal) throws Exception {
+    long id = NEXT_ID.incrementAndGet();
+    try (JournalContext context = journal.mJournal.createJournalContext()) {
+      context.append(JournalEntry.newBuilder()
+          .setInodeFile(File.InodeFileEntry.newBuilder().setId(id).setParentId(0)
+              .setName("file" + id).setBlockSizeBytes(Constants.MB))
+          .build());
+      context.append(JournalEntry.newBuilder()
+          .setUpdateInode(File.UpdateInodeEntry.newBuilder().setId(0)
+              .setLastModificationTimeMs(System.currentTimeMillis()))
+          .build());
+    }
+  }
+
+  public static void main(String []args) throws RunnerException {
+    Options opt = new OptionsBuilder().include(JournalGroupCommitBench.class.getSimpleName())
+        .warmupIterations(2)
+        .forks(1).threads(16).build();
+    new Runner(opt).run();
+  }
+}
@@ -109,6 +109,13 @@ public final class LoadCommand extends AbstractFileSystemCommand {
       .desc("If specified, only the file metadata are loaded")
       .build();
 
+  private static final Option SKIP_IF_CACHED = Option.builder()
+      .longOpt("skip-if-cached")
+      .required(false)
+      .hasArg(false)
+      .desc("If specified, files which are fully cached and unchanged in the UFS are skipped")
+      .build();
+
   /**
    * Constructs a new instance to load a file or directory in Alluxio space.
    *
@@ -134,7 +141,8 @@ public final class LoadCommand extends AbstractFileSystemCommand {
         .addOption(PROGRESS_OPTION)
         .addOption(PROGRESS_FORMAT)
         .addOption(PROGRESS_VERBOSE)
-        .addOption(LOAD_METADATA_ONLY);
+        .addOption(LOAD_METADATA_ONLY)
+        .addOption(SKIP_IF_CACHED);
   }
 
   @Override
@@ -157,7 +165,8 @@ public final class LoadCommand extends AbstractFileSystemCommand {
           bandwidth,
           cl.hasOption(PARTIAL_LISTING_OPTION.getLongOpt()),
           cl.hasOption(VERIFY_OPTION.getLongOpt()),
-          cl.hasOption(LOAD_METADATA_ONLY.getLongOpt()));
+          cl.hasOption(LOAD_METADATA_ONLY.getLongOpt()),
+          cl.hasOption(SKIP_IF_CACHED.getLongOpt()));
     }
 
     if (cl.hasOption(STOP_OPTION.getLongOpt())) {
@@ -178,7 +187,7 @@ public final class LoadCommand extends AbstractFileSystemCommand {
   public String getUsage() {
     return "For distributed load:\n"
         + "\tload <path> --submit "
-        + "[--bandwidth N] [--verify] [--partial-listing] [--metadata-only]\n"
+        + "[--bandwidth N] [--verify] [--partial-listing] [--metadata-only] [--skip-if-cached]\n"
         + "\tload <path> --stop\n"
         + "\tload <path> --progress [--format TEXT|JSON] [--verbose]\n";
   }
@@ -207,10 +216,10 @@ public final class LoadCommand extends AbstractFileSystemCommand {
   }
 
   private int submitLoad(AlluxioURI path, OptionalLong bandwidth,
-      boolean usePartialListing, boolean verify, boolean loadMetadataOnly) {
+      boolean usePartialListing, boolean verify, boolean loadMetadataOnly, boolean skipIfCached) {
     LoadJobPOptions.Builder options = alluxio.grpc.LoadJobPOptions
         .newBuilder().setPartialListing(usePartialListing).setVerify(verify)
-        .setLoadMetadataOnly(loadMetadataOnly);
+        .setLoadMetadataOnly(loadMetadataOnly).setSkipIfCached(skipIfCached);
     if (bandwidth.isPresent()) {
       options.setBandwidth(bandwidth.getAsLong());
     }
@@ -34,6 +34,7 @@ import alluxio.underfs.options.ListOptions;
 import alluxio.underfs.options.MkdirsOptions;
 import alluxio.underfs.options.OpenOptions;
 
+import io.netty.buffer.ByteBuf;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
@@ -42,6 +43,7 @@ import java.io.OutputStream;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 /**
@@ -356,4 +358,15 @@ public class DelegatingUnderFileSystem implements UnderFileSystem {
     mUfs.performListingAsync(path, continuationToken,
         startAfter, descendantType, checkStatus, onComplete, onError);
   }
+
+  @Override
+  public CompletableFuture<Integer> positionReadAsync(String path, long fileLength,
+      long position, int length, ByteBuf buffer) {
+    return mUfs.positionReadAsync(path, fileLength, position, length, buffer);
+  }
+
+  @Override
+  public boolean isPositionReadAsyncNonBlocking() {
+    return mUfs.isPositionReadAsyncNonBlocking();
+  }
 }
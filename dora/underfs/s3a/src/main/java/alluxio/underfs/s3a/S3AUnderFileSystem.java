@@ -66,6 +66,7 @@ import com.amazonaws.util.RuntimeHttpUtils;
 import com.google.common.base.Preconditions;
 import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
+import io.netty.buffer.ByteBuf;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.collections4.IteratorUtils;
 import org.slf4j.Logger;
@@ -74,6 +75,7 @@ import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
 import software.amazon.awssdk.core.client.config.ClientAsyncConfiguration;
 import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
 import software.amazon.awssdk.http.nio.netty.Http2Configuration;
@@ -95,6 +97,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
+import java.nio.ByteBuffer;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Date;
@@ -103,6 +106,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
 import java.util.function.Consumer;
@@ -500,7 +504,8 @@ public class S3AUnderFileSystem extends ObjectUnderFileSystem {
   }
 
   @Override
-  public void close() {
+  public void close() throws IOException {
+    super.close();
     mExecutor.shutdown();
   }
 
@@ -652,6 +657,12 @@ public class S3AUnderFileSystem extends ObjectUnderFileSystem {
       ListObjectsRequest request =
           new ListObjectsRequest().withBucketName(mBucketName).withPrefix(key)
               .withDelimiter(delimiter).withMaxKeys(getListingChunkLength(mUfsConf));
+      if (startAfter != null) {
+        request.setMarker(startAfter);
+      }
+      if (batchSize > 0) {
+        request.setMaxKeys(batchSize);
+      }
       ObjectListing result = getObjectListingChunkV1(request);
       if (result != null) {
         return new S3AObjectListingChunkV1(request, result);
@@ -769,6 +780,42 @@ public class S3AUnderFileSystem extends ObjectUnderFileSystem {
     }
   }
 
+  @Override
+  public CompletableFuture<Integer> positionReadAsync(String path, long fileLength,
+      long position, int length, ByteBuf buffer) {
+    if (position >= fileLength) { // at end of file
+      return CompletableFuture.completedFuture(-1);
+    }
+    int bytesToRead = (int) Math.min(Math.min(length, buffer.writableBytes()),
+        fileLength - position);
+    if (bytesToRead == 0) {
+      return CompletableFuture.completedFuture(0);
+    }
+    software.amazon.awssdk.services.s3.model.GetObjectRequest request =
+        software.amazon.awssdk.services.s3.model.GetObjectRequest.builder()
+            .bucket(mBucketName).key(stripPrefixIfPresent(path))
+            .range(String.format("bytes=%d-%d", position, position + bytesToRead - 1))
+            .build();
+    // the response is completed by the event loop of the async http client,
+    // no thread is blocked while the range is fetched
+    return mAsyncClient.getObject(request, AsyncResponseTransformer.toBytes())
+        .handle((result, err) -> {
+          if (err != null) {
+            throw new CompletionException(parseS3AsyncException(err));
+          }
+          ByteBuffer data = result.asByteBuffer();
+          int bytesRead = Math.min(data.remaining(), bytesToRead);
+          data.limit(data.position() + bytesRead);
+          buffer.writeBytes(data);
+          return bytesRead;
+        });
+  }
+
+  @Override
+  public boolean isPositionReadAsyncNonBlocking() {
+    return true;
+  }
+
   private Throwable parseS3AsyncException(Throwable e) {
     if (e instanceof CompletionException) {
       final Throwable innerErr = e.getCause();